@@ -0,0 +1,180 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.driver.core;
+
+import com.datastax.driver.core.policies.RetryPolicy;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Gives benchmarks access to package-private driver classes, so that hot paths depending on
+ * prepared statements can be exercised without a running cluster.
+ */
+public class DriverCoreBenchmarkHooks {
+
+  /**
+   * Creates a detached {@link PreparedStatement} for the given table.
+   *
+   * @param keyspace the keyspace name.
+   * @param table the table name.
+   * @param variables the bound variables, in bind order.
+   * @param pkIndices the indices of the partition key variables.
+   * @return a new prepared statement that is not attached to any cluster.
+   */
+  public static PreparedStatement newPreparedStatement(
+      String keyspace, String table, LinkedHashMap<String, DataType> variables, int... pkIndices) {
+    ColumnDefinitions.Definition[] definitions = new ColumnDefinitions.Definition[variables.size()];
+    int i = 0;
+    for (Map.Entry<String, DataType> entry : variables.entrySet()) {
+      definitions[i++] =
+          new ColumnDefinitions.Definition(keyspace, table, entry.getKey(), entry.getValue());
+    }
+    ColumnDefinitions cd = new ColumnDefinitions(definitions, CodecRegistry.DEFAULT_INSTANCE);
+    PreparedId id =
+        new PreparedId(
+            new PreparedId.PreparedMetadata(null, cd),
+            new PreparedId.PreparedMetadata(null, null),
+            pkIndices,
+            ProtocolVersion.NEWEST_SUPPORTED);
+    return new DetachedPreparedStatement(id, keyspace);
+  }
+
+  private static class DetachedPreparedStatement implements PreparedStatement {
+
+    private final PreparedId id;
+    private final String keyspace;
+
+    private DetachedPreparedStatement(PreparedId id, String keyspace) {
+      this.id = id;
+      this.keyspace = keyspace;
+    }
+
+    @Override
+    public ColumnDefinitions getVariables() {
+      return id.boundValuesMetadata.variables;
+    }
+
+    @Override
+    public BoundStatement bind(Object... values) {
+      return new BoundStatement(this).bind(values);
+    }
+
+    @Override
+    public BoundStatement bind() {
+      return new BoundStatement(this);
+    }
+
+    @Override
+    public PreparedStatement setRoutingKey(ByteBuffer routingKey) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PreparedStatement setRoutingKey(ByteBuffer... routingKeyComponents) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ByteBuffer getRoutingKey() {
+      return null;
+    }
+
+    @Override
+    public PreparedStatement setConsistencyLevel(ConsistencyLevel consistency) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ConsistencyLevel getConsistencyLevel() {
+      return null;
+    }
+
+    @Override
+    public PreparedStatement setSerialConsistencyLevel(ConsistencyLevel serialConsistency) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ConsistencyLevel getSerialConsistencyLevel() {
+      return null;
+    }
+
+    @Override
+    public String getQueryString() {
+      return null;
+    }
+
+    @Override
+    public String getQueryKeyspace() {
+      return keyspace;
+    }
+
+    @Override
+    public PreparedStatement enableTracing() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PreparedStatement disableTracing() {
+      return this;
+    }
+
+    @Override
+    public boolean isTracing() {
+      return false;
+    }
+
+    @Override
+    public PreparedStatement setRetryPolicy(RetryPolicy policy) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public RetryPolicy getRetryPolicy() {
+      return null;
+    }
+
+    @Override
+    public PreparedId getPreparedId() {
+      return id;
+    }
+
+    @Override
+    public Map<String, ByteBuffer> getIncomingPayload() {
+      return Collections.emptyMap();
+    }
+
+    @Override
+    public Map<String, ByteBuffer> getOutgoingPayload() {
+      return Collections.emptyMap();
+    }
+
+    @Override
+    public PreparedStatement setOutgoingPayload(Map<String, ByteBuffer> payload) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public CodecRegistry getCodecRegistry() {
+      return CodecRegistry.DEFAULT_INSTANCE;
+    }
+
+    @Override
+    public PreparedStatement setIdempotent(Boolean idempotent) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Boolean isIdempotent() {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.benchmarks;
+
+import com.datastax.dsbulk.commons.config.LoaderConfig;
+import com.datastax.dsbulk.commons.internal.config.DefaultLoaderConfig;
+import com.datastax.dsbulk.connectors.csv.CSVConnector;
+import com.typesafe.config.ConfigFactory;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+/**
+ * Measures the throughput of {@link CSVConnector} when reading a single file, from raw bytes to
+ * records.
+ *
+ * <p>Each invocation reads the whole file; the score is therefore expressed in files per second,
+ * and should be multiplied by {@link #rows} to obtain records per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CSVConnectorBenchmark {
+
+  @Param({"10000"})
+  int rows;
+
+  @Param({"5", "20"})
+  int columns;
+
+  @Param({"true", "false"})
+  boolean header;
+
+  private Path file;
+  private CSVConnector connector;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    file = Files.createTempFile("dsbulk-bench", ".csv");
+    writeFile();
+    connector = new CSVConnector();
+    LoaderConfig settings =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    String.format(
+                        "url = \"%s\", header = %s", file.toUri().toURL().toExternalForm(), header))
+                .withFallback(ConfigFactory.defaultReference().getConfig("dsbulk.connector.csv")));
+    connector.configure(settings, true);
+    connector.init();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    connector.close();
+    Files.deleteIfExists(file);
+  }
+
+  @Benchmark
+  public long read() {
+    return Flux.defer(connector.read()).count().block();
+  }
+
+  private void writeFile() throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      if (header) {
+        for (int c = 0; c < columns; c++) {
+          if (c > 0) {
+            writer.write(',');
+          }
+          writer.write("col" + c);
+        }
+        writer.newLine();
+      }
+      for (int r = 0; r < rows; r++) {
+        for (int c = 0; c < columns; c++) {
+          if (c > 0) {
+            writer.write(',');
+          }
+          switch (c % 4) {
+            case 0:
+              writer.write(Integer.toString(r));
+              break;
+            case 1:
+              writer.write("\"text, with a comma " + r + '"');
+              break;
+            case 2:
+              writer.write(Double.toString(r * 1.5d));
+              break;
+            default:
+              writer.write("2018-06-01T12:34:56Z");
+              break;
+          }
+        }
+        writer.newLine();
+      }
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.benchmarks;
+
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.DriverCoreBenchmarkHooks;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.dsbulk.commons.internal.config.DefaultLoaderConfig;
+import com.datastax.dsbulk.connectors.api.Record;
+import com.datastax.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.dsbulk.connectors.api.internal.DefaultRecord;
+import com.datastax.dsbulk.connectors.api.internal.FixedRecordLocator;
+import com.datastax.dsbulk.engine.internal.codecs.ExtendedCodecRegistry;
+import com.datastax.dsbulk.engine.internal.schema.DefaultMapping;
+import com.datastax.dsbulk.engine.internal.schema.DefaultRecordMapper;
+import com.datastax.dsbulk.engine.internal.settings.CodecSettings;
+import com.google.common.collect.ImmutableBiMap;
+import com.google.common.reflect.TypeToken;
+import com.typesafe.config.ConfigFactory;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of {@link DefaultRecordMapper#map(Record)} for a record of textual
+ * fields, such as those emitted by the CSV connector, mapped to a table with {@link #columns}
+ * columns of mixed types.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DefaultRecordMapperBenchmark {
+
+  private static final URI RESOURCE = URI.create("file:///bench.csv");
+
+  private static final RecordMetadata STRING_FIELDS =
+      (field, cqlType) -> TypeToken.of(String.class);
+
+  @Param({"5", "20"})
+  int columns;
+
+  private DefaultRecordMapper mapper;
+  private Record record;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    CodecSettings settings =
+        new CodecSettings(new DefaultLoaderConfig(ConfigFactory.load().getConfig("dsbulk.codec")));
+    settings.init();
+    ExtendedCodecRegistry registry = settings.createCodecRegistry(new CodecRegistry());
+    LinkedHashMap<String, DataType> variables = new LinkedHashMap<>();
+    ImmutableBiMap.Builder<String, String> fieldsToVariables = ImmutableBiMap.builder();
+    String[] fields = new String[columns];
+    Object[] values = new Object[columns];
+    for (int c = 0; c < columns; c++) {
+      String name = "col" + c;
+      fields[c] = name;
+      fieldsToVariables.put(name, name);
+      switch (c % 4) {
+        case 0:
+          variables.put(name, DataType.cint());
+          values[c] = Integer.toString(c * 1000);
+          break;
+        case 1:
+          variables.put(name, DataType.text());
+          values[c] = "some text " + c;
+          break;
+        case 2:
+          variables.put(name, DataType.cdouble());
+          values[c] = Double.toString(c * 1.5d);
+          break;
+        default:
+          variables.put(name, DataType.timestamp());
+          values[c] = "2018-06-01T12:34:56Z";
+          break;
+      }
+    }
+    PreparedStatement insertStatement =
+        DriverCoreBenchmarkHooks.newPreparedStatement("ks", "t1", variables, 0);
+    mapper =
+        new DefaultRecordMapper(
+            insertStatement,
+            new DefaultMapping(fieldsToVariables.build(), registry, null),
+            STRING_FIELDS,
+            true,
+            false,
+            false,
+            false);
+    record = new DefaultRecord(null, new FixedRecordLocator(RESOURCE, RESOURCE), 1, fields, values);
+  }
+
+  @Benchmark
+  public Statement map() {
+    return mapper.map(record);
+  }
+}
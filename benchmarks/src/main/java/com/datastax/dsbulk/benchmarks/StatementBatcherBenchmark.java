@@ -0,0 +1,69 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.benchmarks;
+
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.dsbulk.executor.api.batch.StatementBatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of {@link StatementBatcher#batchByGroupingKey(Iterable)} for one window
+ * of {@link #statements} statements spread over {@link #partitions} distinct partition keys.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatementBatcherBenchmark {
+
+  @Param({"1000"})
+  int statements;
+
+  @Param({"1", "100", "1000"})
+  int partitions;
+
+  private StatementBatcher batcher;
+  private List<Statement> window;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    batcher = new StatementBatcher();
+    window = new ArrayList<>(statements);
+    for (int i = 0; i < statements; i++) {
+      SimpleStatement statement =
+          new SimpleStatement(
+              "INSERT INTO ks.t1 (pk, cc, v) VALUES (?, ?, ?)", i % partitions, i, i);
+      statement.setRoutingKey(TypeCodec.cint().serialize(i % partitions, null));
+      window.add(statement);
+    }
+  }
+
+  @Benchmark
+  public List<Statement> batchByGroupingKey() {
+    return batcher.batchByGroupingKey(window);
+  }
+}
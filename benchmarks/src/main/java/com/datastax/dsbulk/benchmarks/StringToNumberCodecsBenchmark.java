@@ -0,0 +1,105 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.benchmarks;
+
+import static com.datastax.driver.core.DataType.bigint;
+import static com.datastax.driver.core.DataType.cdouble;
+import static com.datastax.driver.core.DataType.cint;
+import static com.datastax.driver.core.DataType.decimal;
+
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.dsbulk.commons.internal.config.DefaultLoaderConfig;
+import com.datastax.dsbulk.engine.internal.codecs.ConvertingCodec;
+import com.datastax.dsbulk.engine.internal.codecs.ExtendedCodecRegistry;
+import com.datastax.dsbulk.engine.internal.settings.CodecSettings;
+import com.google.common.reflect.TypeToken;
+import com.typesafe.config.ConfigFactory;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of the numeric {@code StringTo*Codec} implementations when serializing
+ * plain decimal literals, as found in the vast majority of CSV files.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StringToNumberCodecsBenchmark {
+
+  private static final String[] INTEGERS = {"0", "1", "-42", "123456", "2147483647", "-99999"};
+
+  private static final String[] DECIMALS = {
+    "0.0", "1.5", "-42.25", "123456.789", "3.14159265358979", "-0.001"
+  };
+
+  private ConvertingCodec<String, ?> intCodec;
+  private ConvertingCodec<String, ?> bigintCodec;
+  private ConvertingCodec<String, ?> doubleCodec;
+  private ConvertingCodec<String, ?> decimalCodec;
+
+  private int i;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    CodecSettings settings =
+        new CodecSettings(new DefaultLoaderConfig(ConfigFactory.load().getConfig("dsbulk.codec")));
+    settings.init();
+    ExtendedCodecRegistry registry = settings.createCodecRegistry(new CodecRegistry());
+    intCodec = codecFor(registry, cint());
+    bigintCodec = codecFor(registry, bigint());
+    doubleCodec = codecFor(registry, cdouble());
+    decimalCodec = codecFor(registry, decimal());
+  }
+
+  @Benchmark
+  public ByteBuffer serializeInt() {
+    return intCodec.serialize(next(INTEGERS), ProtocolVersion.NEWEST_SUPPORTED);
+  }
+
+  @Benchmark
+  public ByteBuffer serializeBigint() {
+    return bigintCodec.serialize(next(INTEGERS), ProtocolVersion.NEWEST_SUPPORTED);
+  }
+
+  @Benchmark
+  public ByteBuffer serializeDouble() {
+    return doubleCodec.serialize(next(DECIMALS), ProtocolVersion.NEWEST_SUPPORTED);
+  }
+
+  @Benchmark
+  public ByteBuffer serializeDecimal() {
+    return decimalCodec.serialize(next(DECIMALS), ProtocolVersion.NEWEST_SUPPORTED);
+  }
+
+  private String next(String[] inputs) {
+    i = (i + 1) % inputs.length;
+    return inputs[i];
+  }
+
+  private static ConvertingCodec<String, ?> codecFor(
+      ExtendedCodecRegistry registry, DataType cqlType) {
+    return registry.convertingCodecFor(cqlType, TypeToken.of(String.class));
+  }
+}
@@ -68,6 +68,12 @@ public final class IOUtils {
         new InputStreamReader(newBufferedInputStream(url), charset), BUFFER_SIZE);
   }
 
+  public static LineNumberReader newBufferedReader(Path file, long start, long end, Charset charset)
+      throws IOException {
+    return new LineNumberReader(
+        new InputStreamReader(new MappedFileInputStream(file, start, end), charset), BUFFER_SIZE);
+  }
+
   public static BufferedWriter newBufferedWriter(URL url, Charset charset) throws IOException {
     return new BufferedWriter(
         new OutputStreamWriter(newBufferedOutputStream(url), charset), BUFFER_SIZE);
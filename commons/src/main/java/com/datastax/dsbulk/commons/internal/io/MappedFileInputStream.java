@@ -0,0 +1,124 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.commons.internal.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An {@link InputStream} that reads a byte range of a local file through memory-mapped windows.
+ *
+ * <p>Windows are mapped one at a time, so that ranges larger than 2 GB can be read as well.
+ */
+public class MappedFileInputStream extends InputStream {
+
+  /** The default size of mapped windows. */
+  public static final int DEFAULT_WINDOW_SIZE = 32 * 1024 * 1024;
+
+  private final FileChannel channel;
+  private final long end;
+  private final int windowSize;
+
+  private long windowStart;
+  private MappedByteBuffer window;
+
+  /**
+   * Creates a new stream reading the bytes of the given file between {@code start} (inclusive) and
+   * {@code end} (exclusive).
+   *
+   * @param file the file to read.
+   * @param start the start offset, inclusive.
+   * @param end the end offset, exclusive.
+   * @throws IOException if the file cannot be opened.
+   */
+  public MappedFileInputStream(Path file, long start, long end) throws IOException {
+    this(file, start, end, DEFAULT_WINDOW_SIZE);
+  }
+
+  MappedFileInputStream(Path file, long start, long end, int windowSize) throws IOException {
+    if (start < 0 || end < start) {
+      throw new IllegalArgumentException(String.format("Invalid range: [%d,%d)", start, end));
+    }
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.end = Math.min(end, channel.size());
+    this.windowSize = windowSize;
+    this.windowStart = start;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!ensureWindow()) {
+      return -1;
+    }
+    return window.get() & 0xFF;
+  }
+
+  @Override
+  public int read(@NotNull byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!ensureWindow()) {
+      return -1;
+    }
+    int n = Math.min(len, window.remaining());
+    window.get(b, off, n);
+    return n;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    if (n <= 0) {
+      return 0;
+    }
+    long position = position();
+    long skipped = Math.min(n, end - position);
+    windowStart = position + skipped;
+    window = null;
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return (int) Math.min(Integer.MAX_VALUE, end - position());
+  }
+
+  @Override
+  public void close() throws IOException {
+    window = null;
+    channel.close();
+  }
+
+  /**
+   * Returns the absolute file offset of the next byte to be read.
+   *
+   * @return the absolute file offset of the next byte to be read.
+   */
+  public long position() {
+    return window == null ? windowStart : windowStart + window.position();
+  }
+
+  private boolean ensureWindow() throws IOException {
+    if (window != null && window.hasRemaining()) {
+      return true;
+    }
+    long next = position();
+    if (next >= end) {
+      return false;
+    }
+    windowStart = next;
+    window = channel.map(FileChannel.MapMode.READ_ONLY, next, Math.min(windowSize, end - next));
+    return true;
+  }
+}
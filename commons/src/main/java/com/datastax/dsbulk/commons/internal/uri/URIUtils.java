@@ -41,6 +41,15 @@ public class URIUtils {
             + position);
   }
 
+  public static URI createLocationURI(URI resource, long position) {
+    return URI.create(
+        resource.toString()
+            + (resource.getRawQuery() == null ? '?' : '&')
+            + POSITION
+            + "="
+            + position);
+  }
+
   public static URI addParamsToURI(URI uri, String key, String value, String... rest) {
     if (rest.length % 2 == 1) {
       throw new IllegalArgumentException("params list must have an even number of elements");
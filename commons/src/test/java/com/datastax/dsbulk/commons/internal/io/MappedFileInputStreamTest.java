@@ -0,0 +1,68 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.commons.internal.io;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MappedFileInputStreamTest {
+
+  private Path file;
+
+  @BeforeEach
+  void createFile() throws IOException {
+    file = Files.createTempFile("test", ".txt");
+    Files.write(file, "0123456789abcdef".getBytes(US_ASCII));
+  }
+
+  @AfterEach
+  void deleteFile() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  void should_read_range_across_windows() throws IOException {
+    try (MappedFileInputStream in = new MappedFileInputStream(file, 2, 13, 3)) {
+      assertThat(in.available()).isEqualTo(11);
+      assertThat(in.read()).isEqualTo('2');
+      assertThat(readFully(in)).isEqualTo("3456789abc");
+      assertThat(in.read()).isEqualTo(-1);
+      assertThat(in.position()).isEqualTo(13);
+    }
+  }
+
+  @Test
+  void should_skip_bytes() throws IOException {
+    try (MappedFileInputStream in = new MappedFileInputStream(file, 0, 100, 4)) {
+      assertThat(in.read()).isEqualTo('0');
+      assertThat(in.skip(8)).isEqualTo(8);
+      assertThat(in.position()).isEqualTo(9);
+      assertThat(readFully(in)).isEqualTo("9abcdef");
+      assertThat(in.skip(1)).isEqualTo(0);
+    }
+  }
+
+  private static String readFully(MappedFileInputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[5];
+    int n;
+    while ((n = in.read(buffer, 0, buffer.length)) != -1) {
+      out.write(buffer, 0, n);
+    }
+    return new String(out.toByteArray(), US_ASCII);
+  }
+}
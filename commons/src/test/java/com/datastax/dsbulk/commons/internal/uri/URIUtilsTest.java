@@ -81,4 +81,12 @@ class URIUtilsTest {
         .hasParameter("c2", "\'foo\'")
         .hasParameter("c3", "\'bar\'");
   }
+
+  @Test
+  void should_create_location_for_resource() {
+    assertThat(URIUtils.createLocationURI(URI.create("file:///data.csv"), 42))
+        .isEqualTo(URI.create("file:///data.csv?pos=42"));
+    assertThat(URIUtils.createLocationURI(URI.create("http://host/data?foo=bar%20qix"), 42))
+        .isEqualTo(URI.create("http://host/data?foo=bar%20qix&pos=42"));
+  }
 }
@@ -21,4 +21,23 @@ public enum CommonConnectorFeature implements ConnectorFeature {
    * strings).
    */
   MAPPED_RECORDS,
+
+  /**
+   * Indicates that the connector is able to skip records at given positions when reading (see
+   * {@link Connector#skipPositions(java.util.Map)}).
+   */
+  SKIPPABLE_POSITIONS,
+
+  /**
+   * Indicates that the connector reads and writes field values in their serialized form, as {@link
+   * java.nio.ByteBuffer ByteBuffer}s encoded by the CQL native protocol. Such values are bound and
+   * extracted as they are, without going through any codec.
+   */
+  SERIALIZED_VALUES,
+
+  /**
+   * Indicates that the connector is able to flush the records written so far while still writing
+   * (see {@link Connector#flush()}).
+   */
+  FLUSHABLE_WRITES,
 }
@@ -10,6 +10,10 @@ package com.datastax.dsbulk.connectors.api;
 
 import com.datastax.dsbulk.commons.config.BulkConfigurationException;
 import com.datastax.dsbulk.commons.config.LoaderConfig;
+import com.google.common.collect.RangeSet;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import org.reactivestreams.Publisher;
@@ -174,6 +178,38 @@ public interface Connector extends AutoCloseable {
     return false;
   }
 
+  /**
+   * Instructs the connector to skip records at the given positions when reading, typically because
+   * they were already processed by a previous operation that is now being resumed.
+   *
+   * <p>Keys are {@linkplain Record#getResource() resources}, values are the {@linkplain
+   * Record#getPosition() positions} to skip in each resource. Skipped records must not be emitted,
+   * but must still be counted, so that the positions of subsequent records are not altered.
+   *
+   * <p>This method is only called on connectors that {@linkplain #supports(ConnectorFeature)
+   * support} the {@link CommonConnectorFeature#SKIPPABLE_POSITIONS} feature, after the connector is
+   * {@link #init() initialized}, and before it is {@linkplain #read() read}.
+   *
+   * @param positions the positions to skip, per resource.
+   */
+  default void skipPositions(Map<URI, RangeSet<Long>> positions) {}
+
+  /**
+   * Flushes the records written so far to the datasource, typically because the progress of the
+   * operation is about to be recorded.
+   *
+   * <p>When this method returns, all records that were emitted downstream by the function returned
+   * by {@link #write()} before it was called must be durably written. This method may be called
+   * concurrently with writes.
+   *
+   * <p>This method is only called on connectors that {@linkplain #supports(ConnectorFeature)
+   * support} the {@link CommonConnectorFeature#FLUSHABLE_WRITES} feature, after the connector is
+   * {@link #init() initialized}.
+   *
+   * @throws IOException if the records cannot be flushed.
+   */
+  default void flush() throws IOException {}
+
   /**
    * Returns metadata about the records that this connector can read or write.
    *
@@ -65,6 +65,10 @@ public interface Record {
    * Usually, the record's location URI is derived from its {@linkplain #getResource() resource URI}
    * and its {@linkplain #getPosition() position}, but that is not a hard requirement.
    *
+   * <p>This method is usually only invoked when the record needs to be reported, e.g. because it
+   * could not be processed; implementors are encouraged to compute the location lazily, for example
+   * with a shared {@link RecordLocator}.
+   *
    * @return The record location.
    */
   URI getLocation();
@@ -79,7 +83,9 @@ public interface Record {
   /**
    * Returns a collection containing all the values in this record.
    *
-   * <p>The iteration order of this collection should match that of {@link #fields()}.
+   * <p>The iteration order of this collection should match that of {@link #fields()}. The only
+   * exception is when several fields are aliases of one another, e.g. when a field can be accessed
+   * both by name and by index: in this case, implementors may report the shared value only once.
    *
    * @return a collection containing all the values in this record.
    */
@@ -0,0 +1,42 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.api;
+
+import java.net.URI;
+
+/**
+ * Computes the {@linkplain Record#getResource() resource} and {@linkplain Record#getLocation()
+ * location} URIs of records, on demand.
+ *
+ * <p>Resources and locations are mostly useful to diagnose errors, but can be expensive to compute.
+ * Record implementations should thus only hold their source and position, along with a locator –
+ * usually shared by all records originating from the same resource – and only materialize their
+ * URIs when they are actually requested, typically when a record is written to a bad file or to a
+ * debug file.
+ */
+public interface RecordLocator {
+
+  /**
+   * Returns the resource of the record with the given source and position.
+   *
+   * @param source the record source.
+   * @param position the record position.
+   * @return the record resource.
+   */
+  URI getResource(Object source, long position);
+
+  /**
+   * Returns the location of the record with the given source and position.
+   *
+   * @param source the record source.
+   * @param position the record position.
+   * @return the record location.
+   */
+  URI getLocation(Object source, long position);
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.api.internal;
+
+import com.datastax.dsbulk.connectors.api.Record;
+import com.datastax.dsbulk.connectors.api.RecordLocator;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A compact {@link Record} implementation that stores its values in a flat array, and resolves
+ * field names to array slots through a shared {@link FieldIndex}.
+ *
+ * <p>Unlike {@link DefaultRecord}, this implementation does not allocate one map entry per field;
+ * moreover, fields that are accessible under several names (e.g. by name and by index) share the
+ * same slot, and their value is thus stored – and reported by {@link #values()} – only once.
+ */
+public class ArrayBackedRecord implements Record {
+
+  private static final Object[] EMPTY = new Object[0];
+
+  private final Object source;
+  private final RecordLocator locator;
+  private final long position;
+
+  private final FieldIndex index;
+  private Object[] values;
+
+  /**
+   * Creates a new record.
+   *
+   * <p>The values array is not copied; callers should not modify it afterwards.
+   *
+   * @param source the record source.
+   * @param locator the record locator, usually shared by all records from the same resource; may be
+   *     {@code null}, in which case the record has no resource and no location.
+   * @param position the record position.
+   * @param index the field index to use, usually shared by all records from the same resource.
+   * @param values the record values, in slot order.
+   * @throws IllegalArgumentException if the number of values does not match the index size.
+   */
+  public ArrayBackedRecord(
+      Object source, RecordLocator locator, long position, FieldIndex index, Object... values) {
+    if (index.size() != values.length) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Expecting record to contain %d fields but found %d.", index.size(), values.length));
+    }
+    this.source = source;
+    this.locator = locator;
+    this.position = position;
+    this.index = index;
+    this.values = values;
+  }
+
+  @Override
+  public Object getSource() {
+    return source;
+  }
+
+  @Override
+  public URI getResource() {
+    return locator == null ? null : locator.getResource(source, position);
+  }
+
+  @Override
+  public long getPosition() {
+    return position;
+  }
+
+  @Override
+  public URI getLocation() {
+    return locator == null ? null : locator.getLocation(source, position);
+  }
+
+  @NotNull
+  @Override
+  public Set<String> fields() {
+    return values == EMPTY ? ImmutableSet.of() : index.fields();
+  }
+
+  @NotNull
+  @Override
+  public Collection<Object> values() {
+    return values == EMPTY
+        ? ImmutableList.of()
+        : Collections.unmodifiableList(Arrays.asList(values));
+  }
+
+  @Override
+  public Object getFieldValue(String field) {
+    int slot = index.slotOf(field);
+    return slot == -1 || values == EMPTY ? null : values[slot];
+  }
+
+  /**
+   * Returns the value stored in the given slot.
+   *
+   * @param slot the zero-based slot, as returned by {@link FieldIndex#slotOf(String)}.
+   * @return the value stored in the given slot.
+   * @throws IndexOutOfBoundsException if the slot does not exist.
+   */
+  public Object getFieldValue(int slot) {
+    if (slot < 0 || slot >= values.length) {
+      throw new IndexOutOfBoundsException("Invalid slot: " + slot);
+    }
+    return values[slot];
+  }
+
+  /**
+   * Returns the field index used by this record.
+   *
+   * @return the field index used by this record.
+   */
+  public FieldIndex getFieldIndex() {
+    return index;
+  }
+
+  @Override
+  public void clear() {
+    values = EMPTY;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("source", source)
+        .add("position", position)
+        .add("fields", index.fields())
+        .add("values", Arrays.toString(values))
+        .toString();
+  }
+}
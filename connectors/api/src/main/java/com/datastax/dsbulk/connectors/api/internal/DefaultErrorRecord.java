@@ -9,32 +9,25 @@
 package com.datastax.dsbulk.connectors.api.internal;
 
 import com.datastax.dsbulk.connectors.api.ErrorRecord;
+import com.datastax.dsbulk.connectors.api.RecordLocator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import java.net.URI;
 import java.util.Collection;
 import java.util.Set;
-import java.util.function.Supplier;
 import org.jetbrains.annotations.NotNull;
 
 public class DefaultErrorRecord implements ErrorRecord {
 
   private final Object source;
-  private final Supplier<URI> resource;
+  private final RecordLocator locator;
   private final long position;
-  private final Supplier<URI> location;
   private final Throwable error;
 
-  public DefaultErrorRecord(
-      Object source,
-      Supplier<URI> resource,
-      long position,
-      Supplier<URI> location,
-      Throwable error) {
+  public DefaultErrorRecord(Object source, RecordLocator locator, long position, Throwable error) {
     this.source = source;
-    this.resource = resource;
+    this.locator = locator;
     this.position = position;
-    this.location = location;
     this.error = error;
   }
 
@@ -45,7 +38,7 @@ public class DefaultErrorRecord implements ErrorRecord {
 
   @Override
   public URI getResource() {
-    return resource.get();
+    return locator == null ? null : locator.getResource(source, position);
   }
 
   @Override
@@ -55,7 +48,7 @@ public class DefaultErrorRecord implements ErrorRecord {
 
   @Override
   public URI getLocation() {
-    return location.get();
+    return locator == null ? null : locator.getLocation(source, position);
   }
 
   @NotNull
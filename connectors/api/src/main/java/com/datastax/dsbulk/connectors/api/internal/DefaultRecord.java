@@ -9,6 +9,7 @@
 package com.datastax.dsbulk.connectors.api.internal;
 
 import com.datastax.dsbulk.connectors.api.Record;
+import com.datastax.dsbulk.connectors.api.RecordLocator;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.Streams;
 import java.net.URI;
@@ -17,27 +18,19 @@ import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
-import java.util.function.Supplier;
 import java.util.stream.IntStream;
 import org.jetbrains.annotations.NotNull;
 
 public class DefaultRecord extends LinkedHashMap<String, Object> implements Record {
 
   private final Object source;
-  private final Supplier<URI> resource;
+  private final RecordLocator locator;
   private final long position;
-  private final Supplier<URI> location;
 
-  public DefaultRecord(
-      Object source,
-      Supplier<URI> resource,
-      long position,
-      Supplier<URI> location,
-      Object... values) {
+  public DefaultRecord(Object source, RecordLocator locator, long position, Object... values) {
     this.source = source;
-    this.resource = resource;
+    this.locator = locator;
     this.position = position;
-    this.location = location;
     Streams.forEachPair(
         IntStream.range(0, values.length).boxed().map(Object::toString),
         Arrays.stream(values),
@@ -45,13 +38,8 @@ public class DefaultRecord extends LinkedHashMap<String, Object> implements Reco
   }
 
   public DefaultRecord(
-      Object source,
-      Supplier<URI> resource,
-      long position,
-      Supplier<URI> location,
-      String[] keys,
-      Object... values) {
-    this.resource = resource;
+      Object source, RecordLocator locator, long position, String[] keys, Object... values) {
+    this.locator = locator;
     this.position = position;
     if (keys.length != values.length) {
       throw new IllegalArgumentException(
@@ -59,20 +47,13 @@ public class DefaultRecord extends LinkedHashMap<String, Object> implements Reco
               "Expecting record to contain %d fields but found %d.", keys.length, values.length));
     }
     this.source = source;
-    this.location = location;
     Streams.forEachPair(Arrays.stream(keys), Arrays.stream(values), this::put);
   }
 
-  public DefaultRecord(
-      Object source,
-      Supplier<URI> resource,
-      long position,
-      Supplier<URI> location,
-      Map<String, ?> values) {
-    this.resource = resource;
+  public DefaultRecord(Object source, RecordLocator locator, long position, Map<String, ?> values) {
+    this.locator = locator;
     this.position = position;
     this.source = source;
-    this.location = location;
     putAll(values);
   }
 
@@ -83,7 +64,7 @@ public class DefaultRecord extends LinkedHashMap<String, Object> implements Reco
 
   @Override
   public URI getResource() {
-    return resource.get();
+    return locator == null ? null : locator.getResource(source, position);
   }
 
   @Override
@@ -93,7 +74,7 @@ public class DefaultRecord extends LinkedHashMap<String, Object> implements Reco
 
   @Override
   public URI getLocation() {
-    return location.get();
+    return locator == null ? null : locator.getLocation(source, position);
   }
 
   @NotNull
@@ -127,7 +108,7 @@ public class DefaultRecord extends LinkedHashMap<String, Object> implements Reco
   public String toString() {
     return MoreObjects.toStringHelper(this)
         .add("source", source)
-        .add("location", location)
+        .add("position", position)
         .add("entries", entrySet())
         .toString();
   }
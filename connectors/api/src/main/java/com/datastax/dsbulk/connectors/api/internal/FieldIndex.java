@@ -0,0 +1,116 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.api.internal;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An immutable dictionary mapping field names to value slots in an {@link ArrayBackedRecord}.
+ *
+ * <p>A field index is meant to be computed once per resource (e.g. once per file, from its header)
+ * and then shared by all the records emitted from that resource.
+ *
+ * <p>Several fields may resolve to the same slot: when a resource has named fields, each named
+ * field can also be accessed by its zero-based index, e.g. {@code "0"}, {@code "1"}, etc. Field
+ * names always take precedence over indices: if a resource has a field named {@code "0"}, then
+ * {@code "0"} resolves to that field, and the first field is only accessible by its name.
+ */
+public final class FieldIndex {
+
+  private final ImmutableMap<String, Integer> slots;
+  private final int size;
+
+  private FieldIndex(ImmutableMap<String, Integer> slots, int size) {
+    this.slots = slots;
+    this.size = size;
+  }
+
+  /**
+   * Creates a field index for records whose fields are only accessible by their zero-based index.
+   *
+   * @param size the number of fields.
+   * @return a new field index.
+   */
+  public static FieldIndex indexed(int size) {
+    ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+    for (int i = 0; i < size; i++) {
+      builder.put(Integer.toString(i), i);
+    }
+    return new FieldIndex(builder.build(), size);
+  }
+
+  /**
+   * Creates a field index for records whose fields are accessible both by name and by their
+   * zero-based index.
+   *
+   * <p>Null names are ignored: the corresponding field remains accessible only by index. If the
+   * same name appears more than once, it resolves to the last slot bearing that name.
+   *
+   * @param names the field names, in slot order.
+   * @return a new field index.
+   */
+  public static FieldIndex named(String... names) {
+    ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+    Map<String, Integer> named = new LinkedHashMap<>();
+    for (int i = 0; i < names.length; i++) {
+      if (names[i] != null) {
+        named.put(names[i], i);
+      }
+    }
+    builder.putAll(named);
+    for (int i = 0; i < names.length; i++) {
+      String index = Integer.toString(i);
+      if (!named.containsKey(index)) {
+        builder.put(index, i);
+      }
+    }
+    return new FieldIndex(builder.build(), names.length);
+  }
+
+  /**
+   * Returns the slot of the given field, or -1 if this index does not contain such a field.
+   *
+   * @param field the field name.
+   * @return the field slot, or -1 if the field does not exist.
+   */
+  public int slotOf(String field) {
+    Integer slot = slots.get(field);
+    return slot == null ? -1 : slot;
+  }
+
+  /**
+   * Returns all the fields in this index, named fields first, then indexed fields.
+   *
+   * @return all the fields in this index.
+   */
+  @NotNull
+  public Set<String> fields() {
+    return slots.keySet();
+  }
+
+  /**
+   * Returns the number of slots in this index, that is, the number of distinct values that records
+   * using this index hold.
+   *
+   * @return the number of slots in this index.
+   */
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("slots", slots).toString();
+  }
+}
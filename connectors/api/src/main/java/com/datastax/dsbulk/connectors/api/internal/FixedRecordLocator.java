@@ -0,0 +1,34 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.api.internal;
+
+import com.datastax.dsbulk.connectors.api.RecordLocator;
+import java.net.URI;
+
+/** A {@link RecordLocator} that always returns the same, already computed, URIs. */
+public class FixedRecordLocator implements RecordLocator {
+
+  private final URI resource;
+  private final URI location;
+
+  public FixedRecordLocator(URI resource, URI location) {
+    this.resource = resource;
+    this.location = location;
+  }
+
+  @Override
+  public URI getResource(Object source, long position) {
+    return resource;
+  }
+
+  @Override
+  public URI getLocation(Object source, long position) {
+    return location;
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.api.internal;
+
+import com.datastax.dsbulk.commons.internal.uri.URIUtils;
+import com.datastax.dsbulk.connectors.api.RecordLocator;
+import java.net.URI;
+
+/**
+ * A {@link RecordLocator} for records originating from one single resource, such as a file, where
+ * they are located by their position.
+ *
+ * <p>One instance should be shared by all records from the same resource.
+ */
+public class ResourceRecordLocator implements RecordLocator {
+
+  private final URI resource;
+
+  public ResourceRecordLocator(URI resource) {
+    this.resource = resource;
+  }
+
+  @Override
+  public URI getResource(Object source, long position) {
+    return resource;
+  }
+
+  @Override
+  public URI getLocation(Object source, long position) {
+    return URIUtils.createLocationURI(resource, position);
+  }
+}
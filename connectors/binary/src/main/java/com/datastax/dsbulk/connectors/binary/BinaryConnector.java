@@ -0,0 +1,689 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.binary;
+
+import static com.datastax.dsbulk.commons.url.LoaderURLStreamHandlerFactory.STD;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.utils.Bytes;
+import com.datastax.dsbulk.commons.config.BulkConfigurationException;
+import com.datastax.dsbulk.commons.config.LoaderConfig;
+import com.datastax.dsbulk.commons.internal.config.ConfigUtils;
+import com.datastax.dsbulk.commons.internal.io.IOUtils;
+import com.datastax.dsbulk.commons.internal.uri.URIUtils;
+import com.datastax.dsbulk.connectors.api.CommonConnectorFeature;
+import com.datastax.dsbulk.connectors.api.Connector;
+import com.datastax.dsbulk.connectors.api.ConnectorFeature;
+import com.datastax.dsbulk.connectors.api.Record;
+import com.datastax.dsbulk.connectors.api.RecordLocator;
+import com.datastax.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.dsbulk.connectors.api.internal.ArrayBackedRecord;
+import com.datastax.dsbulk.connectors.api.internal.FieldIndex;
+import com.datastax.dsbulk.connectors.api.internal.ResourceRecordLocator;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.RangeSet;
+import com.google.common.reflect.TypeToken;
+import com.typesafe.config.ConfigException;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLStreamHandler;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Signal;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A connector for binary files, containing values serialized by the CQL native protocol.
+ *
+ * <p>This connector is meant for transfers from one cluster to another, such as backups or
+ * environment cloning: values are written as they are read from the database, and loaded as they
+ * are read from files, without going through any codec (see {@link
+ * CommonConnectorFeature#SERIALIZED_VALUES}). Each file starts with a header containing the names
+ * and CQL types of its columns, see {@link BinaryHeader} for a description of the file format. When
+ * reading, values can only be loaded into columns of the same CQL type as the column they were
+ * unloaded from.
+ *
+ * <p>It is capable of reading from any URL, provided that there is a {@link URLStreamHandler
+ * handler} installed for it. For file URLs, it is also capable of reading several files at once
+ * from a given root directory.
+ *
+ * <p>This connector is highly configurable; see its {@code reference.conf} file, bundled within its
+ * jar archive, for detailed information.
+ */
+public class BinaryConnector implements Connector {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BinaryConnector.class);
+  private static final TypeToken<ByteBuffer> BYTE_BUFFER_TYPE_TOKEN =
+      TypeToken.of(ByteBuffer.class);
+
+  private static final String URL = "url";
+  private static final String FILE_NAME_PATTERN = "fileNamePattern";
+  private static final String SKIP_RECORDS = "skipRecords";
+  private static final String MAX_RECORDS = "maxRecords";
+  private static final String MAX_CONCURRENT_FILES = "maxConcurrentFiles";
+  private static final String RECURSIVE = "recursive";
+  private static final String FILE_NAME_FORMAT = "fileNameFormat";
+
+  private boolean read;
+  private URL url;
+  private Path root;
+  private String pattern;
+  private long skipRecords;
+  private long maxRecords;
+  private int maxConcurrentFiles;
+  private boolean recursive;
+  private String fileNameFormat;
+  private int resourceCount;
+  private AtomicInteger counter;
+  private final ConcurrentMap<String, DataType> fieldTypes = new ConcurrentHashMap<>();
+  private Scheduler scheduler;
+  private List<BinaryRecordWriter> writers;
+  private Map<URI, RangeSet<Long>> skippedPositions = Collections.emptyMap();
+
+  @Override
+  public void configure(LoaderConfig settings, boolean read) {
+    try {
+      if (!settings.hasPath(URL)) {
+        throw new BulkConfigurationException(
+            "url is mandatory when using the binary connector. Please set connector.binary.url "
+                + "and try again. See settings.md or help for more information.");
+      }
+      this.read = read;
+      url = settings.getURL(URL);
+      pattern = settings.getString(FILE_NAME_PATTERN);
+      skipRecords = settings.getLong(SKIP_RECORDS);
+      maxRecords = settings.getLong(MAX_RECORDS);
+      maxConcurrentFiles = settings.getThreads(MAX_CONCURRENT_FILES);
+      recursive = settings.getBoolean(RECURSIVE);
+      fileNameFormat = settings.getString(FILE_NAME_FORMAT);
+    } catch (ConfigException e) {
+      throw ConfigUtils.configExceptionToBulkConfigurationException(e, "connector.binary");
+    }
+  }
+
+  @Override
+  public void init() throws URISyntaxException, IOException {
+    if (read) {
+      tryReadFromDirectory();
+    } else {
+      tryWriteToDirectory();
+      counter = new AtomicInteger(0);
+    }
+  }
+
+  @Override
+  public RecordMetadata getRecordMetadata() {
+    return (field, cqlType) -> {
+      // remember the CQL type of each field: when writing, to write the header of each file;
+      // when reading, to check that the values read can be bound as they are.
+      // When writing, this method is called for every row, so avoid contended writes
+      if (!fieldTypes.containsKey(field)) {
+        fieldTypes.putIfAbsent(field, cqlType);
+      }
+      return BYTE_BUFFER_TYPE_TOKEN;
+    };
+  }
+
+  @Override
+  public boolean supports(ConnectorFeature feature) {
+    if (feature instanceof CommonConnectorFeature) {
+      CommonConnectorFeature commonFeature = (CommonConnectorFeature) feature;
+      switch (commonFeature) {
+        case MAPPED_RECORDS:
+        case INDEXED_RECORDS:
+        case SKIPPABLE_POSITIONS:
+        case SERIALIZED_VALUES:
+        case FLUSHABLE_WRITES:
+          return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void skipPositions(Map<URI, RangeSet<Long>> positions) {
+    skippedPositions = positions;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (writers != null) {
+      for (BinaryRecordWriter writer : writers) {
+        writer.flush();
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    if (scheduler != null) {
+      scheduler.dispose();
+    }
+    if (writers != null) {
+      writers.forEach(BinaryRecordWriter::close);
+    }
+  }
+
+  @Override
+  public int estimatedResourceCount() {
+    return resourceCount;
+  }
+
+  @Override
+  public boolean isWriteToStandardOutput() {
+    return url.getProtocol().equalsIgnoreCase(STD) && !read;
+  }
+
+  @Override
+  public Supplier<? extends Publisher<Record>> read() {
+    assert read;
+    if (root != null) {
+      return () -> scanRootDirectory().flatMap(this::readURL);
+    } else {
+      return () -> readURL(url);
+    }
+  }
+
+  @Override
+  public Supplier<? extends Publisher<Publisher<Record>>> readByResource() {
+    if (root != null) {
+      return () -> scanRootDirectory().map(this::readURL);
+    } else {
+      return () -> Flux.just(readURL(url));
+    }
+  }
+
+  @Override
+  public Function<? super Publisher<Record>, ? extends Publisher<Record>> write() {
+    assert !read;
+    if (root != null && maxConcurrentFiles > 1) {
+      return upstream -> {
+        ThreadFactory threadFactory = new DefaultThreadFactory("binary-connector");
+        scheduler = Schedulers.newParallel(maxConcurrentFiles, threadFactory);
+        writers = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < maxConcurrentFiles; i++) {
+          writers.add(new BinaryRecordWriter());
+        }
+        return Flux.from(upstream)
+            .parallel(maxConcurrentFiles)
+            .runOn(scheduler)
+            .groups()
+            .flatMap(records -> records.transform(writeRecords(writers.get(records.key()))));
+      };
+    } else {
+      return upstream -> {
+        BinaryRecordWriter writer = new BinaryRecordWriter();
+        writers = Collections.singletonList(writer);
+        return Flux.from(upstream).transform(writeRecords(writer)).doOnTerminate(writer::close);
+      };
+    }
+  }
+
+  private void tryReadFromDirectory() throws URISyntaxException, IOException {
+    try {
+      resourceCount = 1;
+      Path root = Paths.get(url.toURI());
+      if (Files.isDirectory(root)) {
+        if (!Files.isReadable(root)) {
+          throw new IllegalArgumentException(String.format("Directory is not readable: %s.", root));
+        }
+        this.root = root;
+        resourceCount = scanRootDirectory().take(100).count().block().intValue();
+        if (resourceCount == 0) {
+          if (IOUtils.countReadableFiles(root, recursive) == 0) {
+            LOGGER.warn("Directory {} has no readable files.", root);
+          } else {
+            LOGGER.warn(
+                "No files in directory {} matched the connector.binary.fileNamePattern of \"{}\".",
+                root,
+                pattern);
+          }
+        }
+      }
+    } catch (FileSystemNotFoundException ignored) {
+      // not a path on a known filesystem, fall back to reading from URL directly
+    }
+  }
+
+  private void tryWriteToDirectory() throws URISyntaxException, IOException {
+    try {
+      resourceCount = -1;
+      Path root = Paths.get(url.toURI());
+      if (!Files.exists(root)) {
+        root = Files.createDirectories(root);
+      }
+      if (Files.isDirectory(root)) {
+        if (!Files.isWritable(root)) {
+          throw new IllegalArgumentException(String.format("Directory is not writable: %s.", root));
+        }
+        if (IOUtils.isDirectoryNonEmpty(root)) {
+          throw new IllegalArgumentException(
+              "connector.binary.url target directory: " + root + " must be empty.");
+        }
+        this.root = root;
+      }
+    } catch (FileSystemNotFoundException ignored) {
+      // not a path on a known filesystem, fall back to writing to URL directly
+    }
+  }
+
+  private Flux<Record> readURL(URL url) {
+    RangeSet<Long> skipped =
+        skippedPositions.getOrDefault(URIUtils.createResourceURI(url), ImmutableRangeSet.of());
+    Flux<Record> records =
+        Flux.generate(
+            () -> new RecordReadingState(url, skipped),
+            (state, sink) -> {
+              try {
+                Record record = state.next();
+                if (record == null) {
+                  LOGGER.debug("Done reading {}", url);
+                  sink.complete();
+                } else {
+                  LOGGER.trace("Emitting record {}", record);
+                  sink.next(record);
+                }
+              } catch (Exception e) {
+                sink.error(
+                    new IOException(
+                        String.format("Error reading from %s: %s", url, e.getMessage()), e));
+              }
+              return state;
+            },
+            RecordReadingState::close);
+    if (skipped.isEmpty()) {
+      if (skipRecords > 0) {
+        records = records.skip(skipRecords);
+      }
+      if (maxRecords != -1) {
+        records = records.take(maxRecords);
+      }
+    } else if (skipRecords > 0 || maxRecords != -1) {
+      // skipped records are not emitted, so skip and take by position instead of by count
+      long first = skipRecords + 1;
+      long last = maxRecords == -1 ? Long.MAX_VALUE : skipRecords + maxRecords;
+      records =
+          records
+              .skipWhile(record -> record.getPosition() < first)
+              .takeWhile(record -> record.getPosition() <= last);
+    }
+    return records;
+  }
+
+  private Flux<URL> scanRootDirectory() {
+    PathMatcher matcher = root.getFileSystem().getPathMatcher("glob:" + pattern);
+    return Flux.defer(
+            () -> {
+              try {
+                // this stream will be closed by the flux, do not add it to a try-with-resources
+                // block
+                @SuppressWarnings("StreamResourceLeak")
+                Stream<Path> files = Files.walk(root, recursive ? Integer.MAX_VALUE : 1);
+                return Flux.fromStream(files);
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            })
+        .filter(Files::isReadable)
+        .filter(Files::isRegularFile)
+        .filter(matcher::matches)
+        .map(
+            file -> {
+              try {
+                return file.toUri().toURL();
+              } catch (MalformedURLException e) {
+                throw new UncheckedIOException(e);
+              }
+            });
+  }
+
+  private Function<Flux<Record>, Flux<Record>> writeRecords(BinaryRecordWriter writer) {
+    return upstream ->
+        upstream
+            .materialize()
+            .map(
+                signal -> {
+                  if (signal.isOnNext()) {
+                    try {
+                      writer.write(signal.get());
+                    } catch (Exception e) {
+                      signal = Signal.error(e);
+                    }
+                  }
+                  return signal;
+                })
+            .dematerialize();
+  }
+
+  /**
+   * The state of a resource being read, which is advanced one record at a time, as requested by
+   * downstream subscribers.
+   */
+  private class RecordReadingState {
+
+    private final URL url;
+    private final RangeSet<Long> skipped;
+    private final RecordLocator locator;
+
+    private DataInputStream in;
+    private String[] names;
+    private FieldIndex fieldIndex;
+    private long recordNumber = 1;
+
+    private RecordReadingState(URL url, RangeSet<Long> skipped) {
+      this.url = url;
+      this.skipped = skipped;
+      locator = new ResourceRecordLocator(URIUtils.createResourceURI(url));
+    }
+
+    @Nullable
+    private Record next() throws IOException {
+      if (in == null) {
+        open();
+      }
+      int size;
+      while ((size = readRecordSize()) != -1) {
+        long finalRecordNumber = recordNumber++;
+        if (!skipped.contains(finalRecordNumber)) {
+          byte[] bytes = new byte[size];
+          in.readFully(bytes);
+          Object[] values = readValues(bytes);
+          return new ArrayBackedRecord(
+              new RowSource(names, values), locator, finalRecordNumber, fieldIndex, values);
+        }
+        // already processed by the operation being resumed: skip the record without reading it
+        skipFully(size);
+      }
+      return null;
+    }
+
+    private void open() throws IOException {
+      LOGGER.debug("Reading {}", url);
+      in = new DataInputStream(IOUtils.newBufferedInputStream(url));
+      BinaryHeader header = BinaryHeader.read(in);
+      names = header.getNames();
+      fieldIndex = FieldIndex.named(names);
+      String[] cqlTypes = header.getCqlTypes();
+      for (Map.Entry<String, DataType> entry : fieldTypes.entrySet()) {
+        int slot = fieldIndex.slotOf(entry.getKey());
+        if (slot != -1) {
+          // serialized values are bound as they are, so the CQL types must match exactly
+          String expected = entry.getValue().asFunctionParameterString();
+          if (!expected.equals(cqlTypes[slot])) {
+            throw new IOException(
+                String.format(
+                    "Field %s has CQL type %s, but is mapped to a column of type %s.",
+                    names[slot], cqlTypes[slot], expected));
+          }
+        }
+      }
+    }
+
+    /** Reads the size of the next record, or returns -1 if the end of the file was reached. */
+    private int readRecordSize() throws IOException {
+      int b = in.read();
+      if (b == -1) {
+        return -1;
+      }
+      int size =
+          b << 24
+              | in.readUnsignedByte() << 16
+              | in.readUnsignedByte() << 8
+              | in.readUnsignedByte();
+      if (size < 0) {
+        throw new IOException(
+            String.format("Invalid size for record #%d: %d.", recordNumber, size));
+      }
+      return size;
+    }
+
+    private Object[] readValues(byte[] bytes) throws IOException {
+      Object[] values = new Object[names.length];
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      try {
+        for (int i = 0; i < values.length; i++) {
+          int length = buffer.getInt();
+          if (length >= 0) {
+            // a view on the record's bytes, to avoid copying each value
+            ByteBuffer value = buffer.slice();
+            value.limit(length);
+            values[i] = value;
+            buffer.position(buffer.position() + length);
+          }
+        }
+      } catch (RuntimeException e) {
+        throw new IOException(String.format("Corrupted record #%d.", recordNumber - 1), e);
+      }
+      if (buffer.hasRemaining()) {
+        throw new IOException(String.format("Corrupted record #%d.", recordNumber - 1));
+      }
+      return values;
+    }
+
+    private void skipFully(int size) throws IOException {
+      int remaining = size;
+      while (remaining > 0) {
+        int skipped = in.skipBytes(remaining);
+        if (skipped == 0) {
+          // skipBytes may skip less bytes than requested, even when not at the end of the stream
+          if (in.read() == -1) {
+            throw new EOFException();
+          }
+          skipped = 1;
+        }
+        remaining -= skipped;
+      }
+    }
+
+    private void close() {
+      try {
+        if (in != null) {
+          in.close();
+        }
+      } catch (IOException e) {
+        LOGGER.warn("Could not close " + url, e);
+      }
+    }
+  }
+
+  private class BinaryRecordWriter {
+
+    private URL url;
+    private DataOutputStream out;
+    private String[] fields;
+    private long currentRecords;
+
+    // synchronized because the writer can be flushed from another thread
+    private synchronized void write(Record record) {
+      try {
+        if (out == null) {
+          open(record);
+        } else if (shouldRoll()) {
+          close();
+          open(record);
+        }
+        LOGGER.trace("Writing record {}", record);
+        ByteBuffer[] values = new ByteBuffer[fields.length];
+        int size = 0;
+        for (int i = 0; i < fields.length; i++) {
+          values[i] = getValue(record, fields[i]);
+          size += 4 + (values[i] == null ? 0 : values[i].remaining());
+        }
+        out.writeInt(size);
+        for (ByteBuffer value : values) {
+          if (value == null) {
+            out.writeInt(-1);
+          } else {
+            out.writeInt(value.remaining());
+            writeValue(value);
+          }
+        }
+        currentRecords++;
+      } catch (ClosedChannelException e) {
+        // OK, happens when the channel was closed due to interruption
+        LOGGER.warn(String.format("Error writing to %s: %s", url, e.getMessage()), e);
+      } catch (IOException e) {
+        throw new UncheckedIOException(
+            String.format("Error writing to %s: %s", url, e.getMessage()), e);
+      }
+    }
+
+    private boolean shouldRoll() {
+      return root != null && currentRecords == maxRecords;
+    }
+
+    private void open(Record record) {
+      url = getOrCreateDestinationURL();
+      try {
+        fields = record.fields().toArray(new String[0]);
+        String[] cqlTypes = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+          DataType cqlType = fieldTypes.get(fields[i]);
+          if (cqlType == null) {
+            throw new IOException(String.format("Unknown CQL type for field %s.", fields[i]));
+          }
+          cqlTypes[i] = cqlType.asFunctionParameterString();
+        }
+        out = new DataOutputStream(IOUtils.newBufferedOutputStream(url));
+        new BinaryHeader(fields, cqlTypes).write(out);
+        currentRecords = 0;
+        LOGGER.debug("Writing " + url);
+      } catch (ClosedChannelException e) {
+        // OK, happens when the channel was closed due to interruption
+        LOGGER.warn(String.format("Could not open %s: %s", url, e.getMessage()), e);
+      } catch (IOException e) {
+        throw new UncheckedIOException(
+            String.format("Error opening %s: %s", url, e.getMessage()), e);
+      } catch (Exception e) {
+        throw new UncheckedIOException(
+            new IOException(String.format("Error opening %s: %s", url, e.getMessage()), e));
+      }
+    }
+
+    @Nullable
+    private ByteBuffer getValue(Record record, String field) {
+      Object value = record.getFieldValue(field);
+      if (value == null || value instanceof ByteBuffer) {
+        return (ByteBuffer) value;
+      }
+      throw new IllegalArgumentException(
+          String.format(
+              "Field %s: expecting a serialized value, got %s.",
+              field, value.getClass().getName()));
+    }
+
+    private void writeValue(ByteBuffer value) throws IOException {
+      if (value.hasArray()) {
+        out.write(value.array(), value.arrayOffset() + value.position(), value.remaining());
+      } else {
+        byte[] bytes = new byte[value.remaining()];
+        value.duplicate().get(bytes);
+        out.write(bytes);
+      }
+    }
+
+    private synchronized void flush() throws IOException {
+      if (out != null) {
+        out.flush();
+      }
+    }
+
+    private synchronized void close() {
+      if (out != null) {
+        try {
+          out.close();
+          LOGGER.debug("Done writing {}", url);
+          out = null;
+        } catch (ClosedChannelException e) {
+          // OK, happens when the channel was closed due to interruption
+          LOGGER.warn(String.format("Could not close %s: %s", url, e.getMessage()), e);
+        } catch (IOException e) {
+          throw new UncheckedIOException(
+              String.format("Error closing %s: %s", url, e.getMessage()), e);
+        }
+      }
+    }
+  }
+
+  /**
+   * The source of records read by this connector: the serialized values of a row, formatted only if
+   * needed, e.g. when the record is written to a bad file.
+   */
+  private static class RowSource {
+
+    private final String[] names;
+    private final Object[] values;
+
+    private RowSource(String[] names, Object[] values) {
+      this.names = names;
+      this.values = values;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("{");
+      for (int i = 0; i < names.length; i++) {
+        if (i > 0) {
+          sb.append(", ");
+        }
+        Object value = values[i];
+        sb.append(names[i])
+            .append('=')
+            .append(value == null ? null : Bytes.toHexString((ByteBuffer) value));
+      }
+      return sb.append('}').toString();
+    }
+  }
+
+  private URL getOrCreateDestinationURL() {
+    if (root != null) {
+      try {
+        String next = String.format(fileNameFormat, counter.incrementAndGet());
+        return root.resolve(next).toUri().toURL();
+      } catch (MalformedURLException e) {
+        throw new UncheckedIOException(
+            String.format(
+                "Could not create file URL with format %s: %s", fileNameFormat, e.getMessage()),
+            e);
+      }
+    }
+    // assume we are writing to a single URL and ignore fileNameFormat
+    return url;
+  }
+}
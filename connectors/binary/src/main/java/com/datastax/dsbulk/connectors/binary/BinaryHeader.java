@@ -0,0 +1,88 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.binary;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The header of a binary file: the names of its columns, and the CQL types of their values.
+ *
+ * <p>A binary file is laid out as follows:
+ *
+ * <ol>
+ *   <li>the magic bytes {@code DSBK}, followed by one byte for the format version;
+ *   <li>the number of columns, as an {@code int};
+ *   <li>for each column, its name and its CQL type, as modified UTF-8 strings (see {@link
+ *       DataOutput#writeUTF(String)});
+ *   <li>the records, until the end of the file; each record starts with its size in bytes, as an
+ *       {@code int}, followed by each of its values, in column order: the length of the value in
+ *       bytes, as an {@code int}, or {@code -1} for nulls, followed by the value itself, as
+ *       serialized by the CQL native protocol.
+ * </ol>
+ *
+ * <p>All numbers are big-endian.
+ */
+final class BinaryHeader {
+
+  private static final byte[] MAGIC = {'D', 'S', 'B', 'K'};
+  private static final byte VERSION = 1;
+
+  private final String[] names;
+  private final String[] cqlTypes;
+
+  BinaryHeader(String[] names, String[] cqlTypes) {
+    this.names = names;
+    this.cqlTypes = cqlTypes;
+  }
+
+  String[] getNames() {
+    return names;
+  }
+
+  String[] getCqlTypes() {
+    return cqlTypes;
+  }
+
+  void write(DataOutput out) throws IOException {
+    out.write(MAGIC);
+    out.writeByte(VERSION);
+    out.writeInt(names.length);
+    for (int i = 0; i < names.length; i++) {
+      out.writeUTF(names[i]);
+      out.writeUTF(cqlTypes[i]);
+    }
+  }
+
+  static BinaryHeader read(DataInput in) throws IOException {
+    byte[] magic = new byte[MAGIC.length];
+    in.readFully(magic);
+    if (!Arrays.equals(magic, MAGIC)) {
+      throw new IOException("Not a binary file: invalid magic bytes.");
+    }
+    byte version = in.readByte();
+    if (version != VERSION) {
+      throw new IOException(
+          String.format("Unsupported binary format version %d, expecting %d.", version, VERSION));
+    }
+    int size = in.readInt();
+    if (size < 0) {
+      throw new IOException(String.format("Invalid number of columns: %d.", size));
+    }
+    String[] names = new String[size];
+    String[] cqlTypes = new String[size];
+    for (int i = 0; i < size; i++) {
+      names[i] = in.readUTF();
+      cqlTypes[i] = in.readUTF();
+    }
+    return new BinaryHeader(names, cqlTypes);
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.binary;
+
+import static com.datastax.driver.core.ProtocolVersion.V4;
+import static com.datastax.dsbulk.commons.tests.utils.FileUtils.deleteDirectory;
+import static com.datastax.dsbulk.commons.tests.utils.StringUtils.escapeUserInput;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.dsbulk.commons.config.LoaderConfig;
+import com.datastax.dsbulk.commons.internal.config.DefaultLoaderConfig;
+import com.datastax.dsbulk.commons.tests.utils.URLUtils;
+import com.datastax.dsbulk.connectors.api.CommonConnectorFeature;
+import com.datastax.dsbulk.connectors.api.Record;
+import com.datastax.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.dsbulk.connectors.api.internal.DefaultRecord;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.TreeRangeSet;
+import com.google.common.reflect.TypeToken;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class BinaryConnectorTest {
+
+  static {
+    URLUtils.setURLFactoryIfNeeded();
+  }
+
+  private static final Config CONNECTOR_DEFAULT_SETTINGS =
+      ConfigFactory.defaultReference().getConfig("dsbulk.connector.binary");
+
+  private static final String[] FIELDS = {"id", "name", "tags"};
+
+  private static final DataType[] CQL_TYPES = {
+    DataType.bigint(), DataType.varchar(), DataType.list(DataType.cint())
+  };
+
+  private Path dir;
+
+  @BeforeEach
+  void createDirectory() throws Exception {
+    dir = Files.createTempDirectory("test");
+  }
+
+  @AfterEach
+  void deleteDir() {
+    deleteDirectory(dir);
+  }
+
+  @Test
+  void should_write_and_read_serialized_values() throws Exception {
+    writeRecords(10, "");
+    Path file = dir.resolve("output-000001.bin");
+    BinaryConnector connector = newReader(file, "");
+    assertThat(connector.supports(CommonConnectorFeature.SERIALIZED_VALUES)).isTrue();
+    RecordMetadata metadata = connector.getRecordMetadata();
+    for (int i = 0; i < FIELDS.length; i++) {
+      assertThat(metadata.getFieldType(FIELDS[i], CQL_TYPES[i]))
+          .isEqualTo(TypeToken.of(ByteBuffer.class));
+    }
+    List<Record> records = Flux.defer(connector.read()).collectList().block();
+    connector.close();
+    assertThat(records).hasSize(10);
+    for (int i = 0; i < 10; i++) {
+      Record actual = records.get(i);
+      Record expected = newRecord(i);
+      assertThat(actual.getPosition()).isEqualTo(i + 1);
+      assertThat(actual.getResource()).isEqualTo(file.toUri().normalize());
+      for (String field : FIELDS) {
+        assertThat(actual.getFieldValue(field)).isEqualTo(expected.getFieldValue(field));
+      }
+      // fields are also accessible by index
+      assertThat(actual.getFieldValue("0")).isEqualTo(expected.getFieldValue("id"));
+    }
+    assertThat(records.get(1).getSource().toString())
+        .isEqualTo("{id=0x0000000000000001, name=0x6e616d652031, tags=null}");
+  }
+
+  @Test
+  void should_read_from_multiple_files() throws Exception {
+    writeRecords(1000, ", maxConcurrentFiles = 4, maxRecords = 100");
+    BinaryConnector connector = newReader(dir, "");
+    assertThat(connector.estimatedResourceCount()).isGreaterThanOrEqualTo(10);
+    List<Record> records = Flux.defer(connector.read()).collectList().block();
+    connector.close();
+    assertThat(records)
+        .hasSize(1000)
+        .extracting(record -> bigint(record.getFieldValue("id")))
+        .doesNotHaveDuplicates();
+  }
+
+  @Test
+  void should_honor_max_records_and_skip_records() throws Exception {
+    writeRecords(10, "");
+    BinaryConnector connector = newReader(dir, ", skipRecords = 2, maxRecords = 5");
+    List<Record> records = Flux.defer(connector.read()).collectList().block();
+    connector.close();
+    assertThat(records).extracting(Record::getPosition).containsExactly(3L, 4L, 5L, 6L, 7L);
+  }
+
+  @Test
+  void should_skip_positions() throws Exception {
+    writeRecords(10, "");
+    Path file = dir.resolve("output-000001.bin");
+    BinaryConnector connector = newReader(file, "");
+    RangeSet<Long> skipped = TreeRangeSet.create();
+    skipped.add(Range.closed(1L, 4L));
+    skipped.add(Range.closed(6L, 9L));
+    connector.skipPositions(ImmutableMap.of(file.toUri().normalize(), skipped));
+    List<Record> records = Flux.defer(connector.read()).collectList().block();
+    connector.close();
+    assertThat(records).extracting(Record::getPosition).containsExactly(5L, 10L);
+    assertThat(records)
+        .extracting(record -> bigint(record.getFieldValue("id")))
+        .containsExactly(4L, 9L);
+  }
+
+  @Test
+  void should_error_when_cql_types_do_not_match() throws Exception {
+    writeRecords(1, "");
+    BinaryConnector connector = newReader(dir, "");
+    connector.getRecordMetadata().getFieldType("id", DataType.cint());
+    assertThatThrownBy(() -> Flux.defer(connector.read()).blockLast())
+        .hasRootCauseInstanceOf(IOException.class)
+        .hasMessageContaining(
+            "Field id has CQL type bigint, but is mapped to a column of type int.");
+    connector.close();
+  }
+
+  @Test
+  void should_error_when_file_is_not_binary() throws Exception {
+    Path file = dir.resolve("output-000001.bin");
+    Files.write(file, Collections.singletonList("not binary"), UTF_8);
+    BinaryConnector connector = newReader(file, "");
+    assertThatThrownBy(() -> Flux.defer(connector.read()).blockLast())
+        .hasMessageContaining("Not a binary file: invalid magic bytes.");
+    connector.close();
+  }
+
+  @Test
+  void should_error_when_value_is_not_serialized() throws Exception {
+    BinaryConnector connector = newWriter("");
+    connector.getRecordMetadata().getFieldType("0", DataType.bigint());
+    Record record = new DefaultRecord("source", null, 1, 42L);
+    assertThatThrownBy(() -> Flux.just(record).transform(connector.write()).blockLast())
+        .hasMessageContaining("Field 0: expecting a serialized value, got java.lang.Long.");
+    connector.close();
+  }
+
+  private void writeRecords(int count, String extraSettings) throws Exception {
+    BinaryConnector connector = newWriter(extraSettings);
+    RecordMetadata metadata = connector.getRecordMetadata();
+    for (int i = 0; i < FIELDS.length; i++) {
+      metadata.getFieldType(FIELDS[i], CQL_TYPES[i]);
+    }
+    Flux.range(0, count).map(this::newRecord).transform(connector.write()).blockLast();
+    connector.close();
+  }
+
+  private BinaryConnector newWriter(String extraSettings) throws Exception {
+    return newConnector(dir, extraSettings, false);
+  }
+
+  private BinaryConnector newReader(Path path, String extraSettings) throws Exception {
+    return newConnector(path, extraSettings, true);
+  }
+
+  private static BinaryConnector newConnector(Path path, String extraSettings, boolean read)
+      throws Exception {
+    BinaryConnector connector = new BinaryConnector();
+    LoaderConfig settings =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    String.format("url = \"%s\"%s", escapeUserInput(path), extraSettings))
+                .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+    connector.configure(settings, read);
+    connector.init();
+    return connector;
+  }
+
+  private Record newRecord(int i) {
+    return new DefaultRecord(
+        "source" + i,
+        null,
+        i,
+        FIELDS,
+        TypeCodec.bigint().serialize((long) i, V4),
+        TypeCodec.varchar().serialize("name " + i, V4),
+        // nulls are written with a negative length
+        i % 2 == 0
+            ? TypeCodec.list(TypeCodec.cint()).serialize(Collections.singletonList(i), V4)
+            : null);
+  }
+
+  private static long bigint(Object value) {
+    return TypeCodec.bigint().deserialize((ByteBuffer) value, V4);
+  }
+}
@@ -15,17 +15,21 @@ import com.datastax.dsbulk.commons.config.BulkConfigurationException;
 import com.datastax.dsbulk.commons.config.LoaderConfig;
 import com.datastax.dsbulk.commons.internal.config.ConfigUtils;
 import com.datastax.dsbulk.commons.internal.io.IOUtils;
-import com.datastax.dsbulk.commons.internal.reactive.SimpleBackpressureController;
 import com.datastax.dsbulk.commons.internal.uri.URIUtils;
 import com.datastax.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.dsbulk.connectors.api.Connector;
 import com.datastax.dsbulk.connectors.api.ConnectorFeature;
 import com.datastax.dsbulk.connectors.api.Record;
+import com.datastax.dsbulk.connectors.api.RecordLocator;
 import com.datastax.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.dsbulk.connectors.api.internal.ArrayBackedRecord;
 import com.datastax.dsbulk.connectors.api.internal.DefaultErrorRecord;
-import com.datastax.dsbulk.connectors.api.internal.DefaultRecord;
-import com.google.common.base.Suppliers;
-import com.google.common.collect.Streams;
+import com.datastax.dsbulk.connectors.api.internal.FieldIndex;
+import com.datastax.dsbulk.connectors.api.internal.ResourceRecordLocator;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.math.LongMath;
 import com.google.common.reflect.TypeToken;
 import com.typesafe.config.ConfigException;
 import com.univocity.parsers.common.ParsingContext;
@@ -38,6 +42,7 @@ import io.netty.util.concurrent.DefaultThreadFactory;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.UncheckedIOException;
+import java.math.RoundingMode;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -50,20 +55,21 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import org.jetbrains.annotations.Nullable;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Signal;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
@@ -97,6 +103,7 @@ public class CSVConnector implements Connector {
   private static final String HEADER = "header";
   private static final String FILE_NAME_FORMAT = "fileNameFormat";
   private static final String MAX_CHARS_PER_COLUMN = "maxCharsPerColumn";
+  private static final String CHUNK_SIZE = "chunkSize";
 
   private boolean read;
   private URL url;
@@ -114,12 +121,15 @@ public class CSVConnector implements Connector {
   private boolean header;
   private String fileNameFormat;
   private int maxCharsPerColumn;
+  private long chunkSize;
   private int resourceCount;
   private CsvParserSettings parserSettings;
+  private CsvParserSettings chunkParserSettings;
   private CsvWriterSettings writerSettings;
   private AtomicInteger counter;
   private Scheduler scheduler;
   private List<CSVWriter> writers;
+  private Map<URI, RangeSet<Long>> skippedPositions = Collections.emptyMap();
 
   @Override
   public void configure(LoaderConfig settings, boolean read) {
@@ -144,6 +154,7 @@ public class CSVConnector implements Connector {
       header = settings.getBoolean(HEADER);
       fileNameFormat = settings.getString(FILE_NAME_FORMAT);
       maxCharsPerColumn = settings.getInt(MAX_CHARS_PER_COLUMN);
+      chunkSize = settings.getBytes(CHUNK_SIZE);
     } catch (ConfigException e) {
       throw ConfigUtils.configExceptionToBulkConfigurationException(e, "connector.csv");
     }
@@ -175,6 +186,9 @@ public class CSVConnector implements Connector {
       parserSettings.setHeaderExtractionEnabled(header);
       parserSettings.setLineSeparatorDetectionEnabled(true);
       parserSettings.setMaxCharsPerColumn(maxCharsPerColumn);
+      // chunks never contain the header, it is parsed separately
+      chunkParserSettings = parserSettings.clone();
+      chunkParserSettings.setHeaderExtractionEnabled(false);
     } else {
       writerSettings = new CsvWriterSettings();
       writerSettings.setFormat(format);
@@ -199,11 +213,31 @@ public class CSVConnector implements Connector {
         case INDEXED_RECORDS:
           // always support indexed records, regardless of the presence of a header
           return true;
+        case SKIPPABLE_POSITIONS:
+        case FLUSHABLE_WRITES:
+          return true;
+        case SERIALIZED_VALUES:
+          // values are read and written in their textual form
+          return false;
       }
     }
     return false;
   }
 
+  @Override
+  public void skipPositions(Map<URI, RangeSet<Long>> positions) {
+    skippedPositions = positions;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (writers != null) {
+      for (CSVWriter writer : writers) {
+        writer.flush();
+      }
+    }
+  }
+
   @Override
   public void close() {
     if (scheduler != null) {
@@ -228,18 +262,18 @@ public class CSVConnector implements Connector {
   public Supplier<? extends Publisher<Record>> read() {
     assert read;
     if (root != null) {
-      return () -> scanRootDirectory().flatMap(this::readURL);
+      return () -> scanRootDirectory().flatMap(url -> Flux.concat(readResources(url)));
     } else {
-      return () -> readURL(url);
+      return () -> Flux.concat(readResources(url));
     }
   }
 
   @Override
   public Supplier<? extends Publisher<Publisher<Record>>> readByResource() {
     if (root != null) {
-      return () -> scanRootDirectory().map(this::readURL);
+      return () -> scanRootDirectory().concatMap(this::readResources);
     } else {
-      return () -> Flux.just(readURL(url));
+      return () -> readResources(url);
     }
   }
 
@@ -263,6 +297,7 @@ public class CSVConnector implements Connector {
     } else {
       return upstream -> {
         CSVWriter writer = new CSVWriter();
+        writers = Collections.singletonList(writer);
         return Flux.from(upstream).transform(writeRecords(writer)).doOnTerminate(writer::close);
       };
     }
@@ -272,12 +307,19 @@ public class CSVConnector implements Connector {
     try {
       resourceCount = 1;
       Path root = Paths.get(url.toURI());
-      if (Files.isDirectory(root)) {
+      if (isSplittable(root)) {
+        resourceCount = estimatedChunkCount(root);
+      } else if (Files.isDirectory(root)) {
         if (!Files.isReadable(root)) {
           throw new IllegalArgumentException(String.format("Directory is not readable: %s.", root));
         }
         this.root = root;
-        resourceCount = scanRootDirectory().take(100).count().block().intValue();
+        // large files are read in chunks, each chunk being a distinct resource
+        long count = 0;
+        for (URL file : scanRootDirectory().take(100).toIterable()) {
+          count += estimatedChunkCount(Paths.get(file.toURI()));
+        }
+        resourceCount = (int) Math.min(Integer.MAX_VALUE, count);
         if (resourceCount == 0) {
           if (countReadableFiles(root, recursive) == 0) {
             LOGGER.warn("Directory {} has no readable files.", root);
@@ -316,82 +358,175 @@ public class CSVConnector implements Connector {
     }
   }
 
+  private Flux<Publisher<Record>> readResources(URL url) {
+    if (url.getProtocol().equals("file")) {
+      try {
+        Path file = Paths.get(url.toURI());
+        if (isSplittable(file)) {
+          return readChunks(url, file);
+        }
+      } catch (URISyntaxException | IOException | FileSystemNotFoundException ignored) {
+        // not a splittable file, read it in one go
+      }
+    }
+    return Flux.just(readURL(url));
+  }
+
+  private int estimatedChunkCount(Path file) throws IOException {
+    if (isSplittable(file)) {
+      return (int)
+          Math.min(
+              Integer.MAX_VALUE,
+              LongMath.divide(Files.size(file), chunkSize, RoundingMode.CEILING));
+    }
+    return 1;
+  }
+
+  private boolean isSplittable(Path file) throws IOException {
+    return chunkSize > 0
+        && Files.isRegularFile(file)
+        && Files.size(file) > chunkSize
+        && CSVFileSplitter.isSplittable(encoding, delimiter, quote, escape, comment);
+  }
+
   private Flux<Record> readURL(URL url) {
+    RangeSet<Long> skipped = getSkippedPositions(url);
     Flux<Record> records =
-        Flux.create(
-            sink -> {
-              CsvParser parser = new CsvParser(parserSettings);
-              SimpleBackpressureController controller = new SimpleBackpressureController();
-              // DAT-177: Do not call sink.onDispose nor sink.onCancel,
-              // as doing so seems to prevent the flow from completing in rare occasions.
-              sink.onRequest(controller::signalRequested);
-              LOGGER.debug("Reading {}", url);
-              try (Reader r = IOUtils.newBufferedReader(url, encoding)) {
-                parser.beginParsing(r);
-                URI resource = URIUtils.createResourceURI(url);
-                long recordNumber = 1;
-                while (!sink.isCancelled()) {
-                  com.univocity.parsers.common.record.Record row = parser.parseNextRecord();
-                  ParsingContext context = parser.getContext();
-                  String source = context.currentParsedContent();
-                  if (row == null) {
-                    break;
-                  }
-                  Record record;
-                  long finalRecordNumber = recordNumber++;
-                  Supplier<URI> location =
-                      Suppliers.memoize(() -> URIUtils.createLocationURI(url, finalRecordNumber));
-                  try {
-                    if (header) {
-                      record =
-                          new DefaultRecord(
-                              source,
-                              () -> resource,
-                              finalRecordNumber,
-                              location,
-                              context.parsedHeaders(),
-                              (Object[]) row.getValues());
-                      // also emit indexed fields
-                      Streams.forEachPair(
-                          IntStream.range(0, row.getValues().length).mapToObj(Integer::toString),
-                          Arrays.stream(row.getValues()),
-                          ((DefaultRecord) record)::setFieldValue);
-                    } else {
-                      record =
-                          new DefaultRecord(
-                              source,
-                              () -> resource,
-                              finalRecordNumber,
-                              location,
-                              (Object[]) row.getValues());
-                    }
-                  } catch (Exception e) {
-                    record =
-                        new DefaultErrorRecord(
-                            source, () -> resource, finalRecordNumber, location, e);
-                  }
-                  LOGGER.trace("Emitting record {}", record);
-                  controller.awaitRequested(1);
-                  sink.next(record);
-                }
-                LOGGER.debug("Done reading {}", url);
-                sink.complete();
-              } catch (Exception e) {
-                sink.error(
-                    new IOException(
-                        String.format("Error reading from %s: %s", url, e.getMessage()), e));
-              }
-            },
-            FluxSink.OverflowStrategy.ERROR);
-    if (skipRecords > 0) {
-      records = records.skip(skipRecords);
-    }
-    if (maxRecords != -1) {
-      records = records.take(maxRecords);
+        readRecords(
+            url,
+            () -> IOUtils.newBufferedReader(url, encoding),
+            parserSettings,
+            1,
+            null,
+            -1,
+            skipped);
+    if (skipped.isEmpty()) {
+      if (skipRecords > 0) {
+        records = records.skip(skipRecords);
+      }
+      if (maxRecords != -1) {
+        records = records.take(maxRecords);
+      }
+    } else if (skipRecords > 0 || maxRecords != -1) {
+      // skipped records are not emitted, so skip and take by position instead of by count
+      long first = skipRecords + 1;
+      long last = maxRecords == -1 ? Long.MAX_VALUE : skipRecords + maxRecords;
+      records =
+          records
+              .skipWhile(record -> record.getPosition() < first)
+              .takeWhile(record -> record.getPosition() <= last);
     }
     return records;
   }
 
+  private Flux<Publisher<Record>> readChunks(URL url, Path file) {
+    long first = skipRecords + 1;
+    long last = maxRecords == -1 ? Long.MAX_VALUE : skipRecords + maxRecords;
+    RangeSet<Long> skipped = getSkippedPositions(url);
+    return Flux.generate(
+        () -> new ChunkReadingState(file),
+        (state, sink) -> {
+          try {
+            CSVFileSplitter.Chunk chunk = state.splitter.nextChunk();
+            // skip chunks entirely made of records to skip, or entirely processed
+            // by the operation being resumed, without reading them
+            while (chunk != null
+                && (chunk.firstRecord + chunk.records <= first || isSkipped(chunk, skipped))) {
+              chunk = state.splitter.nextChunk();
+            }
+            if (chunk == null || chunk.firstRecord > last) {
+              sink.complete();
+            } else {
+              LOGGER.debug("Reading {} in chunks: {}", url, chunk);
+              CSVFileSplitter.Chunk finalChunk = chunk;
+              Flux<Record> records =
+                  readRecords(
+                      url,
+                      () ->
+                          IOUtils.newBufferedReader(
+                              file, finalChunk.start, finalChunk.end, encoding),
+                      state.settings,
+                      chunk.firstRecord,
+                      state.headerIndex,
+                      chunk.records,
+                      skipped);
+              if (skipRecords > 0 || maxRecords != -1) {
+                records =
+                    records
+                        .skipWhile(record -> record.getPosition() < first)
+                        .takeWhile(record -> record.getPosition() <= last);
+              }
+              sink.next(records);
+            }
+          } catch (IOException e) {
+            sink.error(
+                new IOException(
+                    String.format("Error reading from %s: %s", url, e.getMessage()), e));
+          }
+          return state;
+        },
+        ChunkReadingState::close);
+  }
+
+  private Flux<Record> readRecords(
+      URL url,
+      Callable<Reader> readerFactory,
+      CsvParserSettings settings,
+      long firstRecordNumber,
+      @Nullable FieldIndex headerIndex,
+      long expectedRecords,
+      RangeSet<Long> skipped) {
+    return Flux.generate(
+        () ->
+            new RecordReadingState(
+                url,
+                readerFactory,
+                settings,
+                firstRecordNumber,
+                headerIndex,
+                expectedRecords,
+                skipped),
+        (state, sink) -> {
+          try {
+            Record record = state.next();
+            if (record == null) {
+              LOGGER.debug("Done reading {}", url);
+              sink.complete();
+            } else {
+              LOGGER.trace("Emitting record {}", record);
+              sink.next(record);
+            }
+          } catch (Exception e) {
+            sink.error(
+                new IOException(
+                    String.format("Error reading from %s: %s", url, e.getMessage()), e));
+          }
+          return state;
+        },
+        RecordReadingState::close);
+  }
+
+  private RangeSet<Long> getSkippedPositions(URL url) {
+    return skippedPositions.getOrDefault(URIUtils.createResourceURI(url), ImmutableRangeSet.of());
+  }
+
+  private static boolean isSkipped(CSVFileSplitter.Chunk chunk, RangeSet<Long> skipped) {
+    return chunk.records > 0
+        && skipped.encloses(Range.closed(chunk.firstRecord, chunk.firstRecord + chunk.records - 1));
+  }
+
+  @Nullable
+  private FieldIndex readHeader(Path file, long headerEnd, CsvParserSettings settings)
+      throws IOException {
+    CsvParser parser = new CsvParser(settings);
+    try (Reader r = IOUtils.newBufferedReader(file, 0, headerEnd, encoding)) {
+      parser.beginParsing(r);
+      String[] headers = parser.parseNext();
+      parser.stopParsing();
+      return headers == null ? null : FieldIndex.named(headers);
+    }
+  }
+
   private Flux<URL> scanRootDirectory() {
     PathMatcher matcher = root.getFileSystem().getPathMatcher("glob:" + pattern);
     return Flux.defer(
@@ -437,12 +572,137 @@ public class CSVConnector implements Connector {
             .dematerialize();
   }
 
+  /**
+   * The state of a resource being read, which is advanced one record at a time, as requested by
+   * downstream subscribers.
+   */
+  private class RecordReadingState {
+
+    private final URL url;
+    private final Callable<Reader> readerFactory;
+    private final CsvParserSettings settings;
+    private final long firstRecordNumber;
+    private final long expectedRecords;
+    private final RangeSet<Long> skipped;
+    private final RecordLocator locator;
+
+    private Reader reader;
+    private CsvParser parser;
+    private long recordNumber;
+    // all records in this resource share the same field index, unless the resource
+    // has no header and its records have different lengths
+    private FieldIndex fieldIndex;
+
+    private RecordReadingState(
+        URL url,
+        Callable<Reader> readerFactory,
+        CsvParserSettings settings,
+        long firstRecordNumber,
+        @Nullable FieldIndex headerIndex,
+        long expectedRecords,
+        RangeSet<Long> skipped) {
+      this.url = url;
+      this.readerFactory = readerFactory;
+      this.settings = settings;
+      this.firstRecordNumber = firstRecordNumber;
+      this.expectedRecords = expectedRecords;
+      this.skipped = skipped;
+      locator = new ResourceRecordLocator(URIUtils.createResourceURI(url));
+      recordNumber = firstRecordNumber;
+      fieldIndex = headerIndex;
+    }
+
+    @Nullable
+    private Record next() throws Exception {
+      if (parser == null) {
+        LOGGER.debug("Reading {}", url);
+        reader = readerFactory.call();
+        parser = new CsvParser(settings);
+        parser.beginParsing(reader);
+      }
+      while (true) {
+        com.univocity.parsers.common.record.Record row = parser.parseNextRecord();
+        ParsingContext context = parser.getContext();
+        String source = context.currentParsedContent();
+        if (row == null) {
+          if (expectedRecords != -1 && recordNumber - firstRecordNumber != expectedRecords) {
+            // record positions would not be accurate
+            throw new IOException(
+                String.format(
+                    "Expected %d records starting at record %d, but found %d; "
+                        + "please disable file splitting by setting connector.csv.chunkSize to -1",
+                    expectedRecords, firstRecordNumber, recordNumber - firstRecordNumber));
+          }
+          return null;
+        }
+        long finalRecordNumber = recordNumber++;
+        if (skipped.contains(finalRecordNumber)) {
+          continue;
+        }
+        try {
+          String[] values = row.getValues();
+          if (header) {
+            if (fieldIndex == null) {
+              fieldIndex = FieldIndex.named(context.parsedHeaders());
+            }
+          } else if (fieldIndex == null || fieldIndex.size() != values.length) {
+            fieldIndex = FieldIndex.indexed(values.length);
+          }
+          return new ArrayBackedRecord(
+              source, locator, finalRecordNumber, fieldIndex, (Object[]) values);
+        } catch (Exception e) {
+          return new DefaultErrorRecord(source, locator, finalRecordNumber, e);
+        }
+      }
+    }
+
+    private void close() {
+      if (reader != null) {
+        try {
+          reader.close();
+        } catch (IOException e) {
+          LOGGER.warn("Could not close " + url, e);
+        }
+      }
+    }
+  }
+
+  private class ChunkReadingState {
+
+    private final CSVFileSplitter splitter;
+    private final CsvParserSettings settings;
+    private final FieldIndex headerIndex;
+
+    private ChunkReadingState(Path file) {
+      try {
+        splitter = new CSVFileSplitter(file, chunkSize, delimiter, quote, escape, comment);
+        // chunks must not detect the line separator by themselves,
+        // otherwise they could disagree with the splitter
+        settings = chunkParserSettings.clone();
+        settings.setLineSeparatorDetectionEnabled(false);
+        settings.getFormat().setLineSeparator(splitter.getLineSeparator());
+        headerIndex = header ? readHeader(file, splitter.skipHeader(), settings) : null;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    private void close() {
+      try {
+        splitter.close();
+      } catch (IOException e) {
+        LOGGER.warn("Could not close " + splitter, e);
+      }
+    }
+  }
+
   private class CSVWriter {
 
     private URL url;
     private CsvWriter writer;
 
-    private void write(Record record) {
+    // synchronized because the writer can be flushed from another thread
+    private synchronized void write(Record record) {
       try {
         if (writer == null) {
           open();
@@ -488,7 +748,17 @@ public class CSVConnector implements Connector {
       LOGGER.debug("Writing {}", url);
     }
 
-    private void close() {
+    private synchronized void flush() throws IOException {
+      if (writer != null) {
+        try {
+          writer.flush();
+        } catch (RuntimeException e) {
+          throw new IOException(String.format("Error flushing %s: %s", url, e.getMessage()), e);
+        }
+      }
+    }
+
+    private synchronized void close() {
       if (writer != null) {
         try {
           writer.close();
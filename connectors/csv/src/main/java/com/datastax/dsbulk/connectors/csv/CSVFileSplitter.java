@@ -0,0 +1,314 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.csv;
+
+import com.google.common.base.MoreObjects;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Splits a local CSV file into chunks of contiguous records, so that chunks can be parsed
+ * concurrently.
+ *
+ * <p>Chunk boundaries are always aligned on record boundaries: line terminators inside quoted
+ * fields are not considered as record boundaries. Records are counted while scanning, so that each
+ * chunk knows the position of its first record in the file.
+ *
+ * <p>The file is scanned sequentially, one chunk at a time, through memory-mapped windows. The scan
+ * operates on raw bytes, and is thus only possible with {@linkplain #isSplittable(Charset, char...)
+ * ASCII-compatible encodings}. It understands the same dialect as the parser: quotes only open a
+ * quoted field when found at the beginning of a field; inside a quoted field, a doubled quote or an
+ * escaped quote are literals; lines containing only whitespace are skipped, and so are lines
+ * starting with the comment character.
+ */
+class CSVFileSplitter implements Closeable {
+
+  private static final int WINDOW_SIZE = 32 * 1024 * 1024;
+
+  private final FileChannel channel;
+  private final long size;
+  private final long chunkSize;
+  private final byte delimiter;
+  private final byte quote;
+  private final byte escape;
+  private final byte comment;
+  private final boolean commentEnabled;
+  private final String detectedLineSeparator;
+  private final boolean crlf;
+  private final byte lineSeparator;
+
+  private long offset;
+  private long nextRecord = 1;
+
+  CSVFileSplitter(Path file, long chunkSize, char delimiter, char quote, char escape, char comment)
+      throws IOException {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be strictly positive");
+    }
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    size = channel.size();
+    this.chunkSize = chunkSize;
+    this.delimiter = (byte) delimiter;
+    this.quote = (byte) quote;
+    this.escape = (byte) escape;
+    this.comment = (byte) comment;
+    commentEnabled = comment != '\0';
+    detectedLineSeparator = detectLineSeparator();
+    crlf = detectedLineSeparator.equals("\r\n");
+    lineSeparator = (byte) detectedLineSeparator.charAt(0);
+  }
+
+  /**
+   * Returns whether files in the given encoding, and using the given special characters, can be
+   * split.
+   *
+   * <p>The scan operates on raw bytes, so it requires that all special characters be encoded on one
+   * single byte, and that this byte never appear as part of a multi-byte sequence.
+   *
+   * @param encoding the file encoding.
+   * @param specialChars the special characters (delimiter, quote, etc.)
+   * @return {@code true} if files can be split, {@code false} otherwise.
+   */
+  static boolean isSplittable(Charset encoding, char... specialChars) {
+    String name = encoding.name();
+    boolean asciiCompatible =
+        encoding.equals(StandardCharsets.UTF_8)
+            || encoding.equals(StandardCharsets.US_ASCII)
+            || name.startsWith("ISO-8859-")
+            || name.startsWith("windows-125");
+    if (!asciiCompatible) {
+      return false;
+    }
+    for (char c : specialChars) {
+      if (c >= 0x80) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the line separator used in the file; records can only be terminated by this separator.
+   *
+   * @return the line separator used in the file.
+   */
+  String getLineSeparator() {
+    return detectedLineSeparator;
+  }
+
+  /**
+   * Skips the first record of the file, which is assumed to be its header.
+   *
+   * <p>Must be called before the first call to {@link #nextChunk()}.
+   *
+   * @return the offset of the byte following the header; the header thus spans bytes 0 to the
+   *     returned offset.
+   * @throws IOException if the file cannot be read.
+   */
+  long skipHeader() throws IOException {
+    assert offset == 0;
+    offset = scan(0, Long.MAX_VALUE, 1).end;
+    return offset;
+  }
+
+  /**
+   * Returns the next chunk, or {@code null} if the end of the file has been reached.
+   *
+   * @return the next chunk, or {@code null} if the end of the file has been reached.
+   * @throws IOException if the file cannot be read.
+   */
+  Chunk nextChunk() throws IOException {
+    if (offset >= size) {
+      return null;
+    }
+    Chunk chunk = scan(offset, offset + chunkSize, Long.MAX_VALUE);
+    offset = chunk.end;
+    nextRecord += chunk.records;
+    return chunk;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Scans the file from {@code start}, which must be a record boundary, until the first record
+   * boundary at or past {@code target}, or until {@code maxRecords} records have been counted,
+   * whichever happens first.
+   */
+  private Chunk scan(long start, long target, long maxRecords) throws IOException {
+    boolean lineStart = true;
+    boolean lineHasContent = false;
+    boolean inComment = false;
+    boolean fieldStart = true;
+    boolean inQuotes = false;
+    boolean quotePending = false;
+    boolean skipNext = false;
+    boolean crPending = false;
+    long records = 0;
+    long windowStart = start;
+    while (windowStart < size) {
+      int length = (int) Math.min(WINDOW_SIZE, size - windowStart);
+      MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+      for (int i = 0; i < length; i++) {
+        byte b = window.get(i);
+        boolean endOfLine = false;
+        if (crPending) {
+          crPending = false;
+          if (b == '\n') {
+            endOfLine = true;
+          } else {
+            // lone CR in a CRLF file: the parser treats it as whitespace
+            lineStart = false;
+          }
+        } else if (lineStart && (windowStart + i >= target || records == maxRecords)) {
+          return new Chunk(start, windowStart + i, nextRecord, records);
+        }
+        if (!endOfLine) {
+          if (skipNext) {
+            skipNext = false;
+            continue;
+          }
+          if (quotePending) {
+            quotePending = false;
+            if (b == quote) {
+              // doubled quote inside a quoted field
+              continue;
+            }
+            inQuotes = false;
+          }
+          if (inQuotes) {
+            if (b == quote) {
+              if (escape == quote) {
+                // could be a doubled quote, wait for the next byte
+                quotePending = true;
+              } else {
+                // closing quote; the parser considers subsequent quotes in the same field as
+                // literals
+                inQuotes = false;
+              }
+            } else if (b == escape) {
+              skipNext = true;
+            }
+            continue;
+          }
+          if (crlf && b == '\r') {
+            crPending = true;
+            continue;
+          }
+          endOfLine = !crlf && b == lineSeparator;
+        }
+        if (endOfLine) {
+          if (lineHasContent && !inComment) {
+            records++;
+          }
+          lineStart = true;
+          lineHasContent = false;
+          inComment = false;
+          fieldStart = true;
+          continue;
+        }
+        if (inComment) {
+          continue;
+        }
+        if (lineStart) {
+          lineStart = false;
+          if (commentEnabled && b == comment) {
+            inComment = true;
+            continue;
+          }
+        }
+        if (b == delimiter) {
+          lineHasContent = true;
+          fieldStart = true;
+        } else if ((b & 0xFF) > ' ') {
+          lineHasContent = true;
+          if (fieldStart) {
+            fieldStart = false;
+            if (b == quote) {
+              inQuotes = true;
+            }
+          }
+        }
+      }
+      windowStart += length;
+    }
+    // last record, not followed by a line separator
+    if ((lineHasContent || inQuotes) && !inComment) {
+      records++;
+    }
+    return new Chunk(start, size, nextRecord, records);
+  }
+
+  /**
+   * Detects the line separator in use, the same way the parser does: the first CR or LF character
+   * found in the file determines the line separator for the whole file.
+   */
+  private String detectLineSeparator() throws IOException {
+    long windowStart = 0;
+    boolean crFound = false;
+    while (windowStart < size) {
+      int length = (int) Math.min(WINDOW_SIZE, size - windowStart);
+      MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+      for (int i = 0; i < length; i++) {
+        byte b = window.get(i);
+        if (crFound) {
+          return b == '\n' ? "\r\n" : "\r";
+        }
+        if (b == '\r') {
+          crFound = true;
+        } else if (b == '\n') {
+          return "\n";
+        }
+      }
+      windowStart += length;
+    }
+    return crFound ? "\r" : "\n";
+  }
+
+  /** A chunk of contiguous records in a file. */
+  static class Chunk {
+
+    /** The offset of the first byte in the chunk, inclusive. */
+    final long start;
+
+    /** The offset of the last byte in the chunk, exclusive. */
+    final long end;
+
+    /** The position of the first record in the chunk, 1-based. */
+    final long firstRecord;
+
+    /** The number of records in the chunk. */
+    final long records;
+
+    Chunk(long start, long end, long firstRecord, long records) {
+      this.start = start;
+      this.end = end;
+      this.firstRecord = firstRecord;
+      this.records = records;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("start", start)
+          .add("end", end)
+          .add("firstRecord", firstRecord)
+          .add("records", records)
+          .toString();
+    }
+  }
+}
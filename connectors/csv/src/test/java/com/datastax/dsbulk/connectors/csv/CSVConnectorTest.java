@@ -26,27 +26,37 @@ import com.datastax.dsbulk.commons.tests.logging.LogInterceptingExtension;
 import com.datastax.dsbulk.commons.tests.logging.LogInterceptor;
 import com.datastax.dsbulk.commons.tests.utils.FileUtils;
 import com.datastax.dsbulk.commons.tests.utils.URLUtils;
+import com.datastax.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.dsbulk.connectors.api.ErrorRecord;
 import com.datastax.dsbulk.connectors.api.Record;
 import com.datastax.dsbulk.connectors.api.internal.DefaultRecord;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Range;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import io.undertow.util.Headers;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.io.UncheckedIOException;
+import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.reactivestreams.Publisher;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 
@@ -76,6 +86,25 @@ class CSVConnectorTest {
     connector.close();
   }
 
+  @Test
+  void should_read_single_file_on_demand() throws Exception {
+    CSVConnector connector = new CSVConnector();
+    LoaderConfig settings =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    String.format(
+                        "url = \"%s\", escape = \"\\\"\", comment = \"#\"", url("/sample.csv")))
+                .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+    connector.configure(settings, true);
+    connector.init();
+    // records are pulled from the file one at a time
+    List<Record> actual = Flux.defer(connector.read()).limitRate(1).collectList().block();
+    assertRecords(actual);
+    // cancelling the subscription stops reading
+    assertThat(Flux.defer(connector.read()).take(2).count().block()).isEqualTo(2);
+    connector.close();
+  }
+
   @Test
   void should_read_single_file_by_resource() throws Exception {
     CSVConnector connector = new CSVConnector();
@@ -92,68 +121,242 @@ class CSVConnectorTest {
     connector.close();
   }
 
+  @Test
+  void should_read_single_file_in_chunks() throws Exception {
+    CSVConnector connector = new CSVConnector();
+    LoaderConfig settings =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    String.format(
+                        "url = \"%s\", escape = \"\\\"\", comment = \"#\", chunkSize = 10",
+                        url("/sample.csv")))
+                .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+    connector.configure(settings, true);
+    connector.init();
+    assertThat(connector.estimatedResourceCount()).isGreaterThan(1);
+    List<Publisher<Record>> chunks =
+        Flux.from(connector.readByResource().get()).collectList().block();
+    // some chunks contain only blank or comment lines
+    assertThat(chunks).hasSize(7);
+    List<Record> actual =
+        Flux.merge(chunks)
+            .sort(Comparator.comparingLong(Record::getPosition))
+            .collectList()
+            .block();
+    assertRecords(actual);
+    assertThat(actual).extracting(Record::getPosition).containsExactly(1L, 2L, 3L, 4L, 5L);
+    assertThat(actual.get(2).getLocation().toString()).endsWith("sample.csv?pos=3");
+    // read() should emit the same records, in order
+    assertRecords(Flux.from(connector.read().get()).collectList().block());
+    connector.close();
+  }
+
+  @Test
+  void should_read_single_file_in_chunks_with_skip_and_max_records() throws Exception {
+    CSVConnector connector = new CSVConnector();
+    LoaderConfig settings =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    String.format(
+                        "url = \"%s\", escape = \"\\\"\", comment = \"#\", chunkSize = 10, "
+                            + "skipRecords = 1, maxRecords = 3",
+                        url("/sample.csv")))
+                .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+    connector.configure(settings, true);
+    connector.init();
+    List<Record> actual = Flux.from(connector.read().get()).collectList().block();
+    assertThat(actual).extracting(Record::getPosition).containsExactly(2L, 3L, 4L);
+    connector.close();
+  }
+
+  @Test
+  void should_skip_positions() throws Exception {
+    CSVConnector connector = new CSVConnector();
+    LoaderConfig settings =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    String.format(
+                        "url = \"%s\", escape = \"\\\"\", comment = \"#\", "
+                            + "skipRecords = 1, maxRecords = 3",
+                        url("/sample.csv")))
+                .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+    connector.configure(settings, true);
+    connector.init();
+    assertThat(connector.supports(CommonConnectorFeature.SKIPPABLE_POSITIONS)).isTrue();
+    assertThat(connector.supports(CommonConnectorFeature.SERIALIZED_VALUES)).isFalse();
+    connector.skipPositions(
+        ImmutableMap.of(URI.create(url("/sample.csv")), ImmutableRangeSet.of(Range.singleton(3L))));
+    List<Record> actual = Flux.from(connector.read().get()).collectList().block();
+    assertThat(actual).extracting(Record::getPosition).containsExactly(2L, 4L);
+    connector.close();
+  }
+
+  @Test
+  void should_skip_positions_in_chunks() throws Exception {
+    CSVConnector connector = new CSVConnector();
+    LoaderConfig settings =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    String.format(
+                        "url = \"%s\", escape = \"\\\"\", comment = \"#\", chunkSize = 10",
+                        url("/sample.csv")))
+                .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+    connector.configure(settings, true);
+    connector.init();
+    connector.skipPositions(
+        ImmutableMap.of(
+            URI.create(url("/sample.csv")), ImmutableRangeSet.of(Range.closed(1L, 3L))));
+    List<Publisher<Record>> chunks =
+        Flux.from(connector.readByResource().get()).collectList().block();
+    // chunks entirely made of skipped records are not read at all
+    assertThat(chunks.size()).isLessThan(7);
+    List<Record> actual = Flux.concat(chunks).collectList().block();
+    assertThat(actual).extracting(Record::getPosition).containsExactly(4L, 5L);
+    connector.close();
+  }
+
+  @Test
+  void should_read_same_records_with_and_without_chunks() throws Exception {
+    Path file = Files.createTempFile("test", ".csv");
+    try {
+      Files.write(
+          file,
+          ("a,b\r\n"
+                  + "\"1\r\n2\",x\r\n"
+                  + "c,d\ne\r\n"
+                  + "\r\n"
+                  + "#comment,\"\r\n"
+                  + "  \r\n"
+                  + "\"q\"\" x\",y\r\n"
+                  + "3,\"esc\\\"\r\n\"\r\n"
+                  + "5'10\",z\r\n"
+                  + "4,5")
+              .getBytes(StandardCharsets.UTF_8));
+      String config =
+          String.format("url = \"%s\", comment = \"#\"", escapeUserInput(file.toString()));
+      List<Record> expected = readAll(config);
+      List<Record> actual = readAll(config + ", chunkSize = 1");
+      assertThat(actual).hasSize(6);
+      assertThat(actual).extracting(Record::getPosition).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+      assertThat(actual)
+          .extracting(Record::values)
+          .containsExactlyElementsOf(
+              expected.stream().map(Record::values).collect(Collectors.toList()));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  void should_count_chunks_of_each_file_in_directory() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      // 100 bytes, read in 10 chunks
+      Files.write(
+          dir.resolve("large.csv"),
+          Strings.repeat("1234,6789\n", 10).getBytes(StandardCharsets.UTF_8));
+      // 5 bytes, read in one go
+      Files.write(dir.resolve("small.csv"), "1,2,3".getBytes(StandardCharsets.UTF_8));
+      CSVConnector connector = new CSVConnector();
+      LoaderConfig settings =
+          new DefaultLoaderConfig(
+              ConfigFactory.parseString(
+                      String.format(
+                          "url = \"%s\", header = false, chunkSize = 10",
+                          escapeUserInput(dir.toString())))
+                  .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+      connector.configure(settings, true);
+      connector.init();
+      assertThat(connector.estimatedResourceCount()).isEqualTo(11);
+      assertThat(Flux.defer(connector.read()).count().block()).isEqualTo(11);
+      connector.close();
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_fail_when_chunk_does_not_contain_expected_records() throws Exception {
+    Path file = Files.createTempFile("test", ".csv");
+    try {
+      // the parser considers a line feed following a delimiter as a record terminator,
+      // even if the detected line separator is CRLF
+      Files.write(file, "a,b\r\nc,\nd\r\n1,2".getBytes(StandardCharsets.UTF_8));
+      String config =
+          String.format("url = \"%s\", chunkSize = 1", escapeUserInput(file.toString()));
+      assertThatThrownBy(() -> readAll(config))
+          .hasRootCauseInstanceOf(IOException.class)
+          .hasMessageContaining(
+              "Expected 1 records starting at record 1, but found 2; "
+                  + "please disable file splitting by setting connector.csv.chunkSize to -1");
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  void should_resolve_numeric_header_names_before_indices() throws Exception {
+    Path file = Files.createTempFile("test", ".csv");
+    try {
+      Files.write(file, "1,0,c\na,b,c".getBytes(StandardCharsets.UTF_8));
+      List<Record> actual =
+          readAll(String.format("url = \"%s\"", escapeUserInput(file.toString())));
+      assertThat(actual).hasSize(1);
+      Record record = actual.get(0);
+      // header names shadow indices; indices not used as header names remain accessible
+      assertThat(record.fields()).containsExactly("1", "0", "c", "2");
+      assertThat(record.getFieldValue("1")).isEqualTo("a");
+      assertThat(record.getFieldValue("0")).isEqualTo("b");
+      assertThat(record.getFieldValue("c")).isEqualTo("c");
+      assertThat(record.getFieldValue("2")).isSameAs(record.getFieldValue("c"));
+      assertThat(record.values()).containsExactly("a", "b", "c");
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private static List<Record> readAll(String config) throws Exception {
+    CSVConnector connector = new CSVConnector();
+    LoaderConfig settings =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(config).withFallback(CONNECTOR_DEFAULT_SETTINGS));
+    connector.configure(settings, true);
+    connector.init();
+    try {
+      return Flux.merge(connector.readByResource().get())
+          .sort(Comparator.comparingLong(Record::getPosition))
+          .collectList()
+          .block();
+    } finally {
+      connector.close();
+    }
+  }
+
   private static void assertRecords(List<Record> actual) {
     assertThat(actual).hasSize(5);
     assertThat(actual.get(0).values())
-        .containsExactly(
-            "1997",
-            "Ford",
-            "E350",
-            "ac, abs, moon",
-            "3000.00", // mapped
-            "1997",
-            "Ford",
-            "E350",
-            "ac, abs, moon",
-            "3000.00"); // indexed
+        .containsExactly("1997", "Ford", "E350", "ac, abs, moon", "3000.00");
     assertThat(actual.get(1).values())
-        .containsExactly(
-            "1999",
-            "Chevy",
-            "Venture \"Extended Edition\"",
-            "",
-            "4900.00",
-            "1999",
-            "Chevy",
-            "Venture \"Extended Edition\"",
-            "",
-            "4900.00");
+        .containsExactly("1999", "Chevy", "Venture \"Extended Edition\"", "", "4900.00");
     assertThat(actual.get(2).values())
         .containsExactly(
-            "1996",
-            "Jeep",
-            "Grand Cherokee",
-            "MUST SELL!\nair, moon roof, loaded",
-            "4799.00",
-            "1996",
-            "Jeep",
-            "Grand Cherokee",
-            "MUST SELL!\nair, moon roof, loaded",
-            "4799.00");
+            "1996", "Jeep", "Grand Cherokee", "MUST SELL!\nair, moon roof, loaded", "4799.00");
     assertThat(actual.get(3).values())
         .containsExactly(
-            "1999",
-            "Chevy",
-            "Venture \"Extended Edition, Very Large\"",
-            "",
-            "5000.00",
-            "1999",
-            "Chevy",
-            "Venture \"Extended Edition, Very Large\"",
-            "",
-            "5000.00");
+            "1999", "Chevy", "Venture \"Extended Edition, Very Large\"", "", "5000.00");
     assertThat(actual.get(4).values())
-        .containsExactly(
-            "",
-            "",
-            "Venture \"Extended Edition\"",
-            "",
-            "4900.00",
-            "",
-            "",
-            "Venture \"Extended Edition\"",
-            "",
-            "4900.00");
+        .containsExactly("", "", "Venture \"Extended Edition\"", "", "4900.00");
+    // mapped and indexed fields resolve to the same values
+    for (Record record : actual) {
+      assertThat(record.fields())
+          .containsExactly(
+              "Year", "Make", "Model", "Description", "Price", "0", "1", "2", "3", "4");
+      assertThat(record.getFieldValue("Year")).isSameAs(record.getFieldValue("0"));
+      assertThat(record.getFieldValue("Make")).isSameAs(record.getFieldValue("1"));
+      assertThat(record.getFieldValue("Model")).isSameAs(record.getFieldValue("2"));
+      assertThat(record.getFieldValue("Description")).isSameAs(record.getFieldValue("3"));
+      assertThat(record.getFieldValue("Price")).isSameAs(record.getFieldValue("4"));
+    }
   }
 
   @Test
@@ -199,7 +402,7 @@ class CSVConnectorTest {
       connector.configure(settings, false);
       connector.init();
       assertThat(connector.isWriteToStandardOutput()).isTrue();
-      Flux.<Record>just(new DefaultRecord(null, null, -1, null, "fóô", "bàr", "qïx"))
+      Flux.<Record>just(new DefaultRecord(null, null, -1, "fóô", "bàr", "qïx"))
           .transform(connector.write())
           .blockLast();
       assertThat(new String(baos.toByteArray(), "ISO-8859-1"))
@@ -380,6 +583,39 @@ class CSVConnectorTest {
     }
   }
 
+  @Test
+  void should_flush_records_written_so_far() throws Exception {
+    CSVConnector connector = new CSVConnector();
+    Path out = Files.createTempDirectory("test");
+    try {
+      LoaderConfig settings =
+          new DefaultLoaderConfig(
+              ConfigFactory.parseString(
+                      String.format(
+                          "url = \"%s\", escape = \"\\\"\", maxConcurrentFiles = 1",
+                          escapeUserInput(out)))
+                  .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+      connector.configure(settings, false);
+      connector.init();
+      assertThat(connector.supports(CommonConnectorFeature.FLUSHABLE_WRITES)).isTrue();
+      // the upstream flow never completes, so the file is not closed;
+      // wait for the first record to be emitted downstream, i.e. to be written
+      Flux.fromIterable(createRecords())
+          .take(2)
+          .concatWith(Flux.never())
+          .transform(connector.write())
+          .take(1)
+          .blockLast();
+      connector.flush();
+      assertThat(Files.readAllLines(out.resolve("output-000001.csv")))
+          .startsWith(
+              "Year,Make,Model,Description,Price", "1997,Ford,E350,\"ac, abs, moon\",3000.00");
+      connector.close();
+    } finally {
+      deleteDirectory(out);
+    }
+  }
+
   @Test
   void should_write_multiple_files() throws Exception {
     CSVConnector connector = new CSVConnector();
@@ -698,13 +934,12 @@ class CSVConnectorTest {
     String[] fields = new String[] {"Year", "Make", "Model", "Description", "Price"};
     records.add(
         new DefaultRecord(
-            null, null, -1, null, fields, "1997", "Ford", "E350", "ac, abs, moon", "3000.00"));
+            null, null, -1, fields, "1997", "Ford", "E350", "ac, abs, moon", "3000.00"));
     records.add(
         new DefaultRecord(
             null,
             null,
             -1,
-            null,
             fields,
             "1999",
             "Chevy",
@@ -716,7 +951,6 @@ class CSVConnectorTest {
             null,
             null,
             -1,
-            null,
             fields,
             "1996",
             "Jeep",
@@ -728,7 +962,6 @@ class CSVConnectorTest {
             null,
             null,
             -1,
-            null,
             fields,
             "1999",
             "Chevy",
@@ -737,16 +970,7 @@ class CSVConnectorTest {
             "5000.00"));
     records.add(
         new DefaultRecord(
-            null,
-            null,
-            -1,
-            null,
-            fields,
-            null,
-            null,
-            "Venture \"Extended Edition\"",
-            null,
-            "4900.00"));
+            null, null, -1, fields, null, null, "Venture \"Extended Edition\"", null, "4900.00"));
     return records;
   }
 
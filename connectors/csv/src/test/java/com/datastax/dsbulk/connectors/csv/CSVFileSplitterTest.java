@@ -0,0 +1,148 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.csv;
+
+import static java.nio.charset.StandardCharsets.UTF_16;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.dsbulk.connectors.csv.CSVFileSplitter.Chunk;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CSVFileSplitterTest {
+
+  private static final String CONTENTS =
+      "a,b\n"
+          + "\"1\n2\",x\n"
+          + "\n"
+          + "#comment,\"\n"
+          + "  \n"
+          + "\"q\"\" x\",y\n"
+          + "3,\"esc\\\"\n\"\n"
+          + "5'10\",z\n"
+          + "4,5";
+
+  private Path file;
+
+  @BeforeEach
+  void createFile() throws IOException {
+    file = Files.createTempFile("test", ".csv");
+    Files.write(file, CONTENTS.getBytes(UTF_8));
+  }
+
+  @AfterEach
+  void deleteFile() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  void should_split_file_on_record_boundaries() throws IOException {
+    List<Chunk> chunks = split(1, true);
+    assertThat(chunks)
+        .extracting(chunk -> CONTENTS.substring((int) chunk.start, (int) chunk.end))
+        .containsExactly(
+            "\"1\n2\",x\n",
+            "\n",
+            "#comment,\"\n",
+            "  \n",
+            "\"q\"\" x\",y\n",
+            "3,\"esc\\\"\n\"\n",
+            "5'10\",z\n",
+            "4,5");
+    assertThat(chunks)
+        .extracting(chunk -> chunk.records)
+        .containsExactly(1L, 0L, 0L, 0L, 1L, 1L, 1L, 1L);
+    assertThat(chunks)
+        .extracting(chunk -> chunk.firstRecord)
+        .containsExactly(1L, 2L, 2L, 2L, 2L, 3L, 4L, 5L);
+  }
+
+  @Test
+  void should_split_file_in_chunks_of_approximate_size() throws IOException {
+    List<Chunk> chunks = split(20, false);
+    assertThat(chunks.get(0).start).isEqualTo(0);
+    assertThat(chunks.get(chunks.size() - 1).end).isEqualTo(CONTENTS.length());
+    long records = 0;
+    for (int i = 0; i < chunks.size(); i++) {
+      Chunk chunk = chunks.get(i);
+      if (i > 0) {
+        assertThat(chunk.start).isEqualTo(chunks.get(i - 1).end);
+      }
+      assertThat(chunk.firstRecord).isEqualTo(records + 1);
+      records += chunk.records;
+    }
+    // header included
+    assertThat(records).isEqualTo(6);
+  }
+
+  @Test
+  void should_split_file_with_doubled_quotes() throws IOException {
+    String contents = "\"q\"\"\n\",y\n1,2";
+    Files.write(file, contents.getBytes(UTF_8));
+    List<Chunk> chunks = new ArrayList<>();
+    try (CSVFileSplitter splitter = new CSVFileSplitter(file, 1, ',', '"', '"', '\0')) {
+      Chunk chunk;
+      while ((chunk = splitter.nextChunk()) != null) {
+        chunks.add(chunk);
+      }
+    }
+    assertThat(chunks)
+        .extracting(chunk -> contents.substring((int) chunk.start, (int) chunk.end))
+        .containsExactly("\"q\"\"\n\",y\n", "1,2");
+  }
+
+  @Test
+  void should_split_file_on_detected_line_separator() throws IOException {
+    String contents = "a,b\r\n1,2\n3,4\r\n5,6\r7,8";
+    Files.write(file, contents.getBytes(UTF_8));
+    List<Chunk> chunks = new ArrayList<>();
+    try (CSVFileSplitter splitter = new CSVFileSplitter(file, 1, ',', '"', '\\', '\0')) {
+      assertThat(splitter.getLineSeparator()).isEqualTo("\r\n");
+      Chunk chunk;
+      while ((chunk = splitter.nextChunk()) != null) {
+        chunks.add(chunk);
+      }
+    }
+    assertThat(chunks)
+        .extracting(chunk -> contents.substring((int) chunk.start, (int) chunk.end))
+        .containsExactly("a,b\r\n", "1,2\n3,4\r\n", "5,6\r7,8");
+    assertThat(chunks).extracting(chunk -> chunk.records).containsExactly(1L, 1L, 1L);
+  }
+
+  @Test
+  void should_detect_splittable_encodings() {
+    assertThat(CSVFileSplitter.isSplittable(UTF_8, ',', '"', '\\', '#')).isTrue();
+    assertThat(CSVFileSplitter.isSplittable(Charset.forName("ISO-8859-1"), ',', '"')).isTrue();
+    assertThat(CSVFileSplitter.isSplittable(UTF_16, ',', '"')).isFalse();
+    assertThat(CSVFileSplitter.isSplittable(Charset.forName("Shift_JIS"), ',', '"')).isFalse();
+    assertThat(CSVFileSplitter.isSplittable(UTF_8, '§', '"')).isFalse();
+  }
+
+  private List<Chunk> split(long chunkSize, boolean skipHeader) throws IOException {
+    List<Chunk> chunks = new ArrayList<>();
+    try (CSVFileSplitter splitter = new CSVFileSplitter(file, chunkSize, ',', '"', '\\', '#')) {
+      if (skipHeader) {
+        assertThat(splitter.skipHeader()).isEqualTo(4);
+      }
+      Chunk chunk;
+      while ((chunk = splitter.nextChunk()) != null) {
+        chunks.add(chunk);
+      }
+    }
+    return chunks;
+  }
+}
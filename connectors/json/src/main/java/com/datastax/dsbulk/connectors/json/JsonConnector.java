@@ -14,14 +14,15 @@ import com.datastax.dsbulk.commons.config.BulkConfigurationException;
 import com.datastax.dsbulk.commons.config.LoaderConfig;
 import com.datastax.dsbulk.commons.internal.config.ConfigUtils;
 import com.datastax.dsbulk.commons.internal.io.IOUtils;
-import com.datastax.dsbulk.commons.internal.reactive.SimpleBackpressureController;
 import com.datastax.dsbulk.commons.internal.uri.URIUtils;
 import com.datastax.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.dsbulk.connectors.api.Connector;
 import com.datastax.dsbulk.connectors.api.ConnectorFeature;
 import com.datastax.dsbulk.connectors.api.Record;
+import com.datastax.dsbulk.connectors.api.RecordLocator;
 import com.datastax.dsbulk.connectors.api.RecordMetadata;
 import com.datastax.dsbulk.connectors.api.internal.DefaultRecord;
+import com.datastax.dsbulk.connectors.api.internal.ResourceRecordLocator;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
@@ -29,22 +30,25 @@ import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.io.SerializedString;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
-import com.google.common.base.Suppliers;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.math.LongMath;
 import com.google.common.reflect.TypeToken;
 import com.typesafe.config.ConfigException;
 import io.netty.util.concurrent.DefaultThreadFactory;
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.UncheckedIOException;
+import java.math.RoundingMode;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -57,20 +61,22 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
+import org.jetbrains.annotations.Nullable;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Signal;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
@@ -110,9 +116,7 @@ public class JsonConnector implements Connector {
   private static final String DESERIALIZATION_FEATURES = "deserializationFeatures";
   private static final String SERIALIZATION_STRATEGY = "serializationStrategy";
   private static final String PRETTY_PRINT = "prettyPrint";
-
-  private static final TypeReference<Map<String, JsonNode>> JSON_NODE_MAP_TYPE_REFERENCE =
-      new TypeReference<Map<String, JsonNode>>() {};
+  private static final String CHUNK_SIZE = "chunkSize";
 
   private boolean read;
   private URL url;
@@ -128,15 +132,17 @@ public class JsonConnector implements Connector {
   private int resourceCount;
   private AtomicInteger counter;
   private ObjectMapper objectMapper;
-  private JavaType jsonNodeMapType;
+  private ObjectReader fieldReader;
   private Map<JsonParser.Feature, Boolean> parserFeatures;
   private Map<JsonGenerator.Feature, Boolean> generatorFeatures;
   private Map<SerializationFeature, Boolean> serializationFeatures;
   private Map<DeserializationFeature, Boolean> deserializationFeatures;
   private JsonInclude.Include serializationStrategy;
   private boolean prettyPrint;
+  private long chunkSize;
   private Scheduler scheduler;
   private List<JsonWriter> writers;
+  private Map<URI, RangeSet<Long>> skippedPositions = Collections.emptyMap();
 
   @Override
   public void configure(LoaderConfig settings, boolean read) {
@@ -165,6 +171,7 @@ public class JsonConnector implements Connector {
           getFeatureMap(settings.getConfig(DESERIALIZATION_FEATURES), DeserializationFeature.class);
       serializationStrategy = settings.getEnum(JsonInclude.Include.class, SERIALIZATION_STRATEGY);
       prettyPrint = settings.getBoolean(PRETTY_PRINT);
+      chunkSize = settings.getBytes(CHUNK_SIZE);
     } catch (ConfigException e) {
       throw ConfigUtils.configExceptionToBulkConfigurationException(e, "connector.json");
     }
@@ -179,7 +186,6 @@ public class JsonConnector implements Connector {
     }
     objectMapper = new ObjectMapper();
     objectMapper.setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
-    jsonNodeMapType = objectMapper.constructType(JSON_NODE_MAP_TYPE_REFERENCE.getType());
     if (read) {
       for (JsonParser.Feature parserFeature : parserFeatures.keySet()) {
         objectMapper.configure(parserFeature, parserFeatures.get(parserFeature));
@@ -188,6 +194,11 @@ public class JsonConnector implements Connector {
         objectMapper.configure(
             deserializationFeature, deserializationFeatures.get(deserializationFeature));
       }
+      // field values are read in the middle of a document, so there are always trailing tokens
+      fieldReader =
+          objectMapper
+              .readerFor(JsonNode.class)
+              .without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
     } else {
       for (JsonGenerator.Feature generatorFeature : generatorFeatures.keySet()) {
         objectMapper.configure(generatorFeature, generatorFeatures.get(generatorFeature));
@@ -218,11 +229,31 @@ public class JsonConnector implements Connector {
           return true;
         case INDEXED_RECORDS:
           return false;
+        case SKIPPABLE_POSITIONS:
+        case FLUSHABLE_WRITES:
+          return true;
+        case SERIALIZED_VALUES:
+          // values are read and written in their textual form
+          return false;
       }
     }
     return false;
   }
 
+  @Override
+  public void skipPositions(Map<URI, RangeSet<Long>> positions) {
+    skippedPositions = positions;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (writers != null) {
+      for (JsonWriter writer : writers) {
+        writer.flush();
+      }
+    }
+  }
+
   @Override
   public void close() {
     if (scheduler != null) {
@@ -247,18 +278,18 @@ public class JsonConnector implements Connector {
   public Supplier<? extends Publisher<Record>> read() {
     assert read;
     if (root != null) {
-      return () -> scanRootDirectory().flatMap(this::readURL);
+      return () -> scanRootDirectory().flatMap(url -> Flux.concat(readResources(url)));
     } else {
-      return () -> readURL(url);
+      return () -> Flux.concat(readResources(url));
     }
   }
 
   @Override
   public Supplier<? extends Publisher<Publisher<Record>>> readByResource() {
     if (root != null) {
-      return () -> scanRootDirectory().map(this::readURL);
+      return () -> scanRootDirectory().concatMap(this::readResources);
     } else {
-      return () -> Flux.just(readURL(url));
+      return () -> readResources(url);
     }
   }
 
@@ -282,6 +313,7 @@ public class JsonConnector implements Connector {
     } else {
       return upstream -> {
         JsonWriter writer = new JsonWriter();
+        writers = Collections.singletonList(writer);
         return Flux.from(upstream).transform(writeRecords(writer)).doOnTerminate(writer::close);
       };
     }
@@ -291,12 +323,19 @@ public class JsonConnector implements Connector {
     try {
       resourceCount = 1;
       Path root = Paths.get(url.toURI());
-      if (Files.isDirectory(root)) {
+      if (isSplittable(root)) {
+        resourceCount = estimatedChunkCount(root);
+      } else if (Files.isDirectory(root)) {
         if (!Files.isReadable(root)) {
           throw new IllegalArgumentException(String.format("Directory is not readable: %s.", root));
         }
         this.root = root;
-        resourceCount = scanRootDirectory().take(100).count().block().intValue();
+        // large files are read in chunks, each chunk being a distinct resource
+        long count = 0;
+        for (URL file : scanRootDirectory().take(100).toIterable()) {
+          count += estimatedChunkCount(Paths.get(file.toURI()));
+        }
+        resourceCount = (int) Math.min(Integer.MAX_VALUE, count);
         if (resourceCount == 0) {
           if (IOUtils.countReadableFiles(root, recursive) == 0) {
             LOGGER.warn("Directory {} has no readable files.", root);
@@ -335,66 +374,167 @@ public class JsonConnector implements Connector {
     }
   }
 
+  private Flux<Publisher<Record>> readResources(URL url) {
+    if (url.getProtocol().equals("file")) {
+      try {
+        Path file = Paths.get(url.toURI());
+        if (isSplittable(file)) {
+          return readChunks(url, file);
+        }
+      } catch (URISyntaxException | IOException | FileSystemNotFoundException ignored) {
+        // not a splittable file, read it in one go
+      }
+    }
+    return Flux.just(readURL(url));
+  }
+
+  private int estimatedChunkCount(Path file) throws IOException {
+    if (isSplittable(file)) {
+      return (int)
+          Math.min(
+              Integer.MAX_VALUE,
+              LongMath.divide(Files.size(file), chunkSize, RoundingMode.CEILING));
+    }
+    return 1;
+  }
+
+  private boolean isSplittable(Path file) throws IOException {
+    return chunkSize > 0
+        && mode == DocumentMode.MULTI_DOCUMENT
+        && Files.isRegularFile(file)
+        && Files.size(file) > chunkSize
+        && JsonFileSplitter.isSplittable(encoding)
+        && !isParserFeatureEnabled(JsonParser.Feature.ALLOW_COMMENTS)
+        && !isParserFeatureEnabled(JsonParser.Feature.ALLOW_YAML_COMMENTS)
+        && !isParserFeatureEnabled(JsonParser.Feature.ALLOW_SINGLE_QUOTES);
+  }
+
+  private boolean isParserFeatureEnabled(JsonParser.Feature feature) {
+    return parserFeatures.getOrDefault(feature, feature.enabledByDefault());
+  }
+
   private Flux<Record> readURL(URL url) {
+    RangeSet<Long> skipped = getSkippedPositions(url);
     Flux<Record> records =
-        Flux.create(
-            sink -> {
-              LOGGER.debug("Reading {}", url);
-              URI resource = URIUtils.createResourceURI(url);
-              SimpleBackpressureController controller = new SimpleBackpressureController();
-              sink.onRequest(controller::signalRequested);
-              // DAT-177: Do not call sink.onDispose nor sink.onCancel,
-              // as doing so seems to prevent the flow from completing in rare occasions.
-              JsonFactory factory = objectMapper.getFactory();
-              try (BufferedReader r = IOUtils.newBufferedReader(url, encoding);
-                  JsonParser parser = factory.createParser(r)) {
-                if (mode == DocumentMode.SINGLE_DOCUMENT) {
-                  do {
-                    parser.nextToken();
-                  } while (parser.currentToken() != JsonToken.START_ARRAY
-                      && parser.currentToken() != null);
-                  parser.nextToken();
-                }
-                MappingIterator<JsonNode> it = objectMapper.readValues(parser, JsonNode.class);
-                long recordNumber = 1;
-                while (!sink.isCancelled() && it.hasNext()) {
-                  if (parser.currentToken() != JsonToken.START_OBJECT) {
-                    throw new JsonParseException(
-                        parser,
-                        String.format(
-                            "Expecting START_OBJECT, got %s. Did you forget to set connector.json.mode to SINGLE_DOCUMENT?",
-                            parser.currentToken()));
-                  }
-                  long finalRecordNumber = recordNumber++;
-                  Supplier<URI> location =
-                      Suppliers.memoize(() -> URIUtils.createLocationURI(url, finalRecordNumber));
-                  Record record;
-                  JsonNode node = it.next();
-                  Map<String, JsonNode> values = objectMapper.convertValue(node, jsonNodeMapType);
-                  record =
-                      new DefaultRecord(node, () -> resource, finalRecordNumber, location, values);
-                  LOGGER.trace("Emitting record {}", record);
-                  controller.awaitRequested(1);
-                  sink.next(record);
-                }
-                LOGGER.debug("Done reading {}", url);
-                sink.complete();
-              } catch (Exception e) {
-                sink.error(
-                    new IOException(
-                        String.format("Error reading from %s: %s", url, e.getMessage()), e));
-              }
-            },
-            FluxSink.OverflowStrategy.ERROR);
-    if (skipRecords > 0) {
-      records = records.skip(skipRecords);
-    }
-    if (maxRecords != -1) {
-      records = records.take(maxRecords);
+        readRecords(url, () -> IOUtils.newBufferedReader(url, encoding), 1, -1, skipped);
+    if (skipped.isEmpty()) {
+      if (skipRecords > 0) {
+        records = records.skip(skipRecords);
+      }
+      if (maxRecords != -1) {
+        records = records.take(maxRecords);
+      }
+    } else if (skipRecords > 0 || maxRecords != -1) {
+      // skipped records are not emitted, so skip and take by position instead of by count
+      long first = skipRecords + 1;
+      long last = maxRecords == -1 ? Long.MAX_VALUE : skipRecords + maxRecords;
+      records =
+          records
+              .skipWhile(record -> record.getPosition() < first)
+              .takeWhile(record -> record.getPosition() <= last);
     }
     return records;
   }
 
+  private Flux<Publisher<Record>> readChunks(URL url, Path file) {
+    long first = skipRecords + 1;
+    long last = maxRecords == -1 ? Long.MAX_VALUE : skipRecords + maxRecords;
+    RangeSet<Long> skipped = getSkippedPositions(url);
+    return Flux.generate(
+        () -> newSplitter(file),
+        (splitter, sink) -> {
+          try {
+            JsonFileSplitter.Chunk chunk = splitter.nextChunk();
+            // skip chunks entirely made of records to skip, or entirely processed
+            // by the operation being resumed, without reading them
+            while (chunk != null
+                && (chunk.firstRecord + chunk.records <= first || isSkipped(chunk, skipped))) {
+              chunk = splitter.nextChunk();
+            }
+            if (chunk == null || chunk.firstRecord > last) {
+              sink.complete();
+            } else {
+              LOGGER.debug("Reading {} in chunks: {}", url, chunk);
+              JsonFileSplitter.Chunk finalChunk = chunk;
+              Flux<Record> records =
+                  readRecords(
+                      url,
+                      () ->
+                          IOUtils.newBufferedReader(
+                              file, finalChunk.start, finalChunk.end, encoding),
+                      chunk.firstRecord,
+                      chunk.records,
+                      skipped);
+              if (skipRecords > 0 || maxRecords != -1) {
+                records =
+                    records
+                        .skipWhile(record -> record.getPosition() < first)
+                        .takeWhile(record -> record.getPosition() <= last);
+              }
+              sink.next(records);
+            }
+          } catch (IOException e) {
+            sink.error(
+                new IOException(
+                    String.format("Error reading from %s: %s", url, e.getMessage()), e));
+          }
+          return splitter;
+        },
+        splitter -> {
+          try {
+            splitter.close();
+          } catch (IOException e) {
+            LOGGER.warn("Could not close " + file, e);
+          }
+        });
+  }
+
+  private JsonFileSplitter newSplitter(Path file) {
+    try {
+      return new JsonFileSplitter(file, chunkSize);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private Flux<Record> readRecords(
+      URL url,
+      Callable<Reader> readerFactory,
+      long firstRecordNumber,
+      long expectedRecords,
+      RangeSet<Long> skipped) {
+    return Flux.generate(
+        () ->
+            new RecordReadingState(url, readerFactory, firstRecordNumber, expectedRecords, skipped),
+        (state, sink) -> {
+          try {
+            Record record = state.next();
+            if (record == null) {
+              LOGGER.debug("Done reading {}", url);
+              sink.complete();
+            } else {
+              LOGGER.trace("Emitting record {}", record);
+              sink.next(record);
+            }
+          } catch (Exception e) {
+            sink.error(
+                new IOException(
+                    String.format("Error reading from %s: %s", url, e.getMessage()), e));
+          }
+          return state;
+        },
+        RecordReadingState::close);
+  }
+
+  private RangeSet<Long> getSkippedPositions(URL url) {
+    return skippedPositions.getOrDefault(URIUtils.createResourceURI(url), ImmutableRangeSet.of());
+  }
+
+  private static boolean isSkipped(JsonFileSplitter.Chunk chunk, RangeSet<Long> skipped) {
+    return chunk.records > 0
+        && skipped.encloses(Range.closed(chunk.firstRecord, chunk.firstRecord + chunk.records - 1));
+  }
+
   private Flux<URL> scanRootDirectory() {
     PathMatcher matcher = root.getFileSystem().getPathMatcher("glob:" + pattern);
     return Flux.defer(
@@ -440,13 +580,127 @@ public class JsonConnector implements Connector {
             .dematerialize();
   }
 
+  /**
+   * The state of a resource being read, which is advanced one record at a time, as requested by
+   * downstream subscribers.
+   */
+  private class RecordReadingState {
+
+    private final URL url;
+    private final Callable<Reader> readerFactory;
+    private final long firstRecordNumber;
+    private final long expectedRecords;
+    private final RangeSet<Long> skipped;
+    private final RecordLocator locator;
+
+    private Reader reader;
+    private JsonParser parser;
+    private long recordNumber;
+
+    private RecordReadingState(
+        URL url,
+        Callable<Reader> readerFactory,
+        long firstRecordNumber,
+        long expectedRecords,
+        RangeSet<Long> skipped) {
+      this.url = url;
+      this.readerFactory = readerFactory;
+      this.firstRecordNumber = firstRecordNumber;
+      this.expectedRecords = expectedRecords;
+      this.skipped = skipped;
+      locator = new ResourceRecordLocator(URIUtils.createResourceURI(url));
+      recordNumber = firstRecordNumber;
+    }
+
+    @Nullable
+    private Record next() throws Exception {
+      if (parser == null) {
+        open();
+      } else {
+        parser.nextToken();
+      }
+      JsonToken token = parser.currentToken();
+      while (token != null && token != JsonToken.END_ARRAY) {
+        if (token != JsonToken.START_OBJECT) {
+          throw new JsonParseException(
+              parser,
+              String.format(
+                  "Expecting START_OBJECT, got %s. Did you forget to set connector.json.mode to SINGLE_DOCUMENT?",
+                  token));
+        }
+        long finalRecordNumber = recordNumber++;
+        if (!skipped.contains(finalRecordNumber)) {
+          return readRecord(finalRecordNumber);
+        }
+        // already processed by the operation being resumed:
+        // skip the object's tokens without building a tree
+        parser.skipChildren();
+        token = parser.nextToken();
+      }
+      if (expectedRecords != -1 && recordNumber - firstRecordNumber != expectedRecords) {
+        // record positions would not be accurate
+        throw new IOException(
+            String.format(
+                "Expected %d records starting at record %d, but found %d; "
+                    + "please disable file splitting by setting connector.json.chunkSize to -1",
+                expectedRecords, firstRecordNumber, recordNumber - firstRecordNumber));
+      }
+      return null;
+    }
+
+    /**
+     * Reads the object the parser is positioned on, field by field, straight into a new record.
+     *
+     * <p>Only the field values are read as trees; the source object is assembled from them, instead
+     * of reading the whole object as a tree and then converting it into a map of fields.
+     */
+    private Record readRecord(long recordNumber) throws IOException {
+      ObjectNode node = objectMapper.getNodeFactory().objectNode();
+      DefaultRecord record = new DefaultRecord(node, locator, recordNumber);
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        parser.nextToken();
+        JsonNode value = fieldReader.readValue(parser);
+        node.set(field, value);
+        record.setFieldValue(field, value);
+      }
+      return record;
+    }
+
+    private void open() throws Exception {
+      LOGGER.debug("Reading {}", url);
+      reader = readerFactory.call();
+      parser = objectMapper.getFactory().createParser(reader);
+      if (mode == DocumentMode.SINGLE_DOCUMENT) {
+        do {
+          parser.nextToken();
+        } while (parser.currentToken() != JsonToken.START_ARRAY && parser.currentToken() != null);
+      }
+      parser.nextToken();
+    }
+
+    private void close() {
+      try {
+        if (parser != null) {
+          parser.close();
+        }
+        if (reader != null) {
+          reader.close();
+        }
+      } catch (IOException e) {
+        LOGGER.warn("Could not close " + url, e);
+      }
+    }
+  }
+
   private class JsonWriter {
 
     private URL url;
     private JsonGenerator writer;
     private long currentLine;
 
-    private void write(Record record) {
+    // synchronized because the writer can be flushed from another thread
+    private synchronized void write(Record record) {
       try {
         if (writer == null) {
           open();
@@ -498,7 +752,13 @@ public class JsonConnector implements Connector {
       }
     }
 
-    private void close() {
+    private synchronized void flush() throws IOException {
+      if (writer != null) {
+        writer.flush();
+      }
+    }
+
+    private synchronized void close() {
       if (writer != null) {
         try {
           // add one last EOL before closing; the writer doesn't do it by default
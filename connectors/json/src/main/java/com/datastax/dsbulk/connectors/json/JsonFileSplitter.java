@@ -0,0 +1,176 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.json;
+
+import com.google.common.base.MoreObjects;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Splits a local file of successive JSON documents into chunks of contiguous documents, so that
+ * chunks can be parsed concurrently.
+ *
+ * <p>Chunk boundaries are always aligned on document boundaries: the scan keeps track of strings
+ * and of the nesting of objects and arrays, so that documents spanning several lines, or several
+ * documents on the same line, are handled correctly. Documents are counted while scanning, so that
+ * each chunk knows the position of its first document in the file.
+ *
+ * <p>The file is scanned sequentially, one chunk at a time, through memory-mapped windows. The scan
+ * operates on raw bytes, and is thus only possible with {@linkplain #isSplittable(Charset)
+ * ASCII-compatible encodings}. It only understands standard JSON: files relying on parser features
+ * such as comments or single-quoted strings cannot be split.
+ */
+class JsonFileSplitter implements Closeable {
+
+  private static final int WINDOW_SIZE = 32 * 1024 * 1024;
+
+  private final FileChannel channel;
+  private final long size;
+  private final long chunkSize;
+
+  private long offset;
+  private long nextRecord = 1;
+
+  JsonFileSplitter(Path file, long chunkSize) throws IOException {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be strictly positive");
+    }
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    size = channel.size();
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Returns whether files in the given encoding can be split.
+   *
+   * <p>The scan operates on raw bytes, so it requires that structural characters be encoded on one
+   * single byte, and that this byte never appear as part of a multi-byte sequence.
+   *
+   * @param encoding the file encoding.
+   * @return {@code true} if files can be split, {@code false} otherwise.
+   */
+  static boolean isSplittable(Charset encoding) {
+    String name = encoding.name();
+    return encoding.equals(StandardCharsets.UTF_8)
+        || encoding.equals(StandardCharsets.US_ASCII)
+        || name.startsWith("ISO-8859-")
+        || name.startsWith("windows-125");
+  }
+
+  /**
+   * Returns the next chunk, or {@code null} if the end of the file has been reached.
+   *
+   * @return the next chunk, or {@code null} if the end of the file has been reached.
+   * @throws IOException if the file cannot be read.
+   */
+  Chunk nextChunk() throws IOException {
+    if (offset >= size) {
+      return null;
+    }
+    Chunk chunk = scan(offset, offset + chunkSize);
+    offset = chunk.end;
+    nextRecord += chunk.records;
+    return chunk;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Scans the file from {@code start}, which must be a document boundary, until the first document
+   * boundary at or past {@code target}.
+   */
+  private Chunk scan(long start, long target) throws IOException {
+    int depth = 0;
+    boolean inString = false;
+    boolean skipNext = false;
+    long records = 0;
+    long windowStart = start;
+    while (windowStart < size) {
+      int length = (int) Math.min(WINDOW_SIZE, size - windowStart);
+      MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+      for (int i = 0; i < length; i++) {
+        byte b = window.get(i);
+        if (inString) {
+          if (skipNext) {
+            skipNext = false;
+          } else if (b == '\\') {
+            skipNext = true;
+          } else if (b == '"') {
+            inString = false;
+          }
+          continue;
+        }
+        // only end chunks after a document, so that whitespace never makes up a chunk by itself
+        if (depth == 0 && records > 0 && windowStart + i >= target) {
+          return new Chunk(start, windowStart + i, nextRecord, records);
+        }
+        switch (b) {
+          case '"':
+            inString = true;
+            break;
+          case '{':
+          case '[':
+            if (depth++ == 0) {
+              records++;
+            }
+            break;
+          case '}':
+          case ']':
+            depth--;
+            break;
+          default:
+        }
+      }
+      windowStart += length;
+    }
+    return new Chunk(start, size, nextRecord, records);
+  }
+
+  /** A chunk of contiguous documents in a file. */
+  static class Chunk {
+
+    /** The offset of the first byte in the chunk, inclusive. */
+    final long start;
+
+    /** The offset of the last byte in the chunk, exclusive. */
+    final long end;
+
+    /** The position of the first document in the chunk, 1-based. */
+    final long firstRecord;
+
+    /** The number of documents in the chunk. */
+    final long records;
+
+    Chunk(long start, long end, long firstRecord, long records) {
+      this.start = start;
+      this.end = end;
+      this.firstRecord = firstRecord;
+      this.records = records;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("start", start)
+          .add("end", end)
+          .add("firstRecord", firstRecord)
+          .add("records", records)
+          .toString();
+    }
+  }
+}
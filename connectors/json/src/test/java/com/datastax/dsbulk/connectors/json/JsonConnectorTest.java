@@ -11,6 +11,7 @@ package com.datastax.dsbulk.connectors.json;
 import static com.datastax.dsbulk.commons.tests.utils.FileUtils.deleteDirectory;
 import static com.datastax.dsbulk.commons.tests.utils.FileUtils.readFile;
 import static com.datastax.dsbulk.commons.tests.utils.StringUtils.escapeUserInput;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -26,11 +27,17 @@ import com.datastax.dsbulk.commons.tests.logging.LogInterceptingExtension;
 import com.datastax.dsbulk.commons.tests.logging.LogInterceptor;
 import com.datastax.dsbulk.commons.tests.utils.FileUtils;
 import com.datastax.dsbulk.commons.tests.utils.URLUtils;
+import com.datastax.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.dsbulk.connectors.api.Record;
 import com.datastax.dsbulk.connectors.api.internal.DefaultRecord;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.TreeRangeSet;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import io.undertow.util.Headers;
@@ -39,16 +46,20 @@ import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.io.UncheckedIOException;
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.reactivestreams.Publisher;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 
@@ -84,6 +95,27 @@ class JsonConnectorTest {
     connector.close();
   }
 
+  @Test
+  void should_read_single_file_multi_doc_on_demand() throws Exception {
+    JsonConnector connector = new JsonConnector();
+    LoaderConfig settings =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    String.format(
+                        "url = \"%s\", parserFeatures = {ALLOW_COMMENTS:true}, "
+                            + "deserializationFeatures = {USE_BIG_DECIMAL_FOR_FLOATS : false}",
+                        url("/multi_doc.json")))
+                .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+    connector.configure(settings, true);
+    connector.init();
+    // records are pulled from the file one at a time
+    List<Record> actual = Flux.defer(connector.read()).limitRate(1).collectList().block();
+    verifyRecords(actual);
+    // cancelling the subscription stops reading
+    assertThat(Flux.defer(connector.read()).take(2).count().block()).isEqualTo(2);
+    connector.close();
+  }
+
   @Test
   void should_read_single_file_single_doc() throws Exception {
     JsonConnector connector = new JsonConnector();
@@ -183,6 +215,37 @@ class JsonConnectorTest {
     }
   }
 
+  @Test
+  void should_read_nested_fields_as_trees() throws Exception {
+    InputStream stdin = System.in;
+    try {
+      String doc1 = "{ \"a\" : [1, {\"b\" : \"x\"}], \"c\" : {\"d\" : [], \"e\" : null} }\n";
+      String doc2 = "{ \"f\" : \"g\" }\n";
+      InputStream is = new ByteArrayInputStream((doc1 + doc2).getBytes("UTF-8"));
+      System.setIn(is);
+      JsonConnector connector = new JsonConnector();
+      LoaderConfig settings =
+          new DefaultLoaderConfig(
+              ConfigFactory.parseString("deserializationFeatures.FAIL_ON_TRAILING_TOKENS = true")
+                  .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+      connector.configure(settings, true);
+      connector.init();
+      List<Record> actual = Flux.defer(connector.read()).collectList().block();
+      assertThat(actual).hasSize(2);
+      assertThat(actual.get(0).getSource()).isEqualTo(objectMapper.readTree(doc1));
+      assertThat(actual.get(0).fields()).containsExactly("a", "c");
+      assertThat(actual.get(0).getFieldValue("a"))
+          .isEqualTo(objectMapper.readTree("[1, {\"b\" : \"x\"}]"));
+      assertThat(actual.get(0).getFieldValue("c"))
+          .isEqualTo(objectMapper.readTree("{\"d\" : [], \"e\" : null}"));
+      assertThat(actual.get(1).getSource()).isEqualTo(objectMapper.readTree(doc2));
+      assertThat(actual.get(1).getFieldValue("f")).isEqualTo(factory.textNode("g"));
+      connector.close();
+    } finally {
+      System.setIn(stdin);
+    }
+  }
+
   @Test
   void should_write_to_stdout_with_special_encoding() throws Exception {
     PrintStream stdout = System.out;
@@ -206,7 +269,6 @@ class JsonConnectorTest {
                   null,
                   null,
                   -1,
-                  null,
                   factory.textNode("fóô"),
                   factory.textNode("bàr"),
                   factory.textNode("qïx")))
@@ -621,6 +683,124 @@ class JsonConnectorTest {
     connector.close();
   }
 
+  @Test
+  void should_skip_positions() throws Exception {
+    JsonConnector connector = new JsonConnector();
+    LoaderConfig settings =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    String.format(
+                        "url = \"%s\", skipRecords = 2, maxRecords = 8",
+                        url("/root/ip-by-country-sample1.json")))
+                .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+    connector.configure(settings, true);
+    connector.init();
+    assertThat(connector.supports(CommonConnectorFeature.SKIPPABLE_POSITIONS)).isTrue();
+    assertThat(connector.supports(CommonConnectorFeature.SERIALIZED_VALUES)).isFalse();
+    RangeSet<Long> skipped = TreeRangeSet.create();
+    skipped.add(Range.closed(1L, 5L));
+    skipped.add(Range.closed(8L, 10L));
+    connector.skipPositions(
+        ImmutableMap.of(URI.create(url("/root/ip-by-country-sample1.json")), skipped));
+    List<Record> records = Flux.defer(connector.read()).collectList().block();
+    assertThat(records).extracting(Record::getPosition).containsExactly(6L, 7L);
+    connector.close();
+  }
+
+  @Test
+  void should_read_single_file_in_chunks() throws Exception {
+    JsonConnector connector = new JsonConnector();
+    LoaderConfig settings =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    String.format(
+                        "url = \"%s\", chunkSize = 2KiB", url("/root/ip-by-country-sample1.json")))
+                .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+    connector.configure(settings, true);
+    connector.init();
+    assertThat(connector.estimatedResourceCount()).isGreaterThan(1);
+    List<Publisher<Record>> chunks =
+        Flux.from(connector.readByResource().get()).collectList().block();
+    assertThat(chunks.size()).isGreaterThan(1);
+    List<Record> actual =
+        Flux.merge(chunks)
+            .sort(Comparator.comparingLong(Record::getPosition))
+            .collectList()
+            .block();
+    assertThat(actual)
+        .extracting(Record::getPosition)
+        .containsExactlyElementsOf(LongStream.rangeClosed(1, 100).boxed().collect(toList()));
+    // read() should emit the same records, in order
+    List<Record> expected = Flux.from(connector.read().get()).collectList().block();
+    assertThat(actual).extracting(Record::getSource).isEqualTo(sources(expected));
+    connector.close();
+  }
+
+  @Test
+  void should_read_single_file_in_chunks_with_skip_and_max_records() throws Exception {
+    JsonConnector connector = new JsonConnector();
+    LoaderConfig settings =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    String.format(
+                        "url = \"%s\", chunkSize = 2KiB, skipRecords = 10, maxRecords = 30",
+                        url("/root/ip-by-country-sample1.json")))
+                .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+    connector.configure(settings, true);
+    connector.init();
+    List<Record> actual = Flux.from(connector.read().get()).collectList().block();
+    assertThat(actual)
+        .extracting(Record::getPosition)
+        .containsExactlyElementsOf(LongStream.rangeClosed(11, 40).boxed().collect(toList()));
+    connector.close();
+  }
+
+  @Test
+  void should_skip_positions_in_chunks() throws Exception {
+    JsonConnector connector = new JsonConnector();
+    LoaderConfig settings =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    String.format(
+                        "url = \"%s\", chunkSize = 2KiB", url("/root/ip-by-country-sample1.json")))
+                .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+    connector.configure(settings, true);
+    connector.init();
+    int allChunks = Flux.from(connector.readByResource().get()).count().block().intValue();
+    connector.skipPositions(
+        ImmutableMap.of(
+            URI.create(url("/root/ip-by-country-sample1.json")),
+            ImmutableRangeSet.of(Range.closed(1L, 50L))));
+    List<Publisher<Record>> chunks =
+        Flux.from(connector.readByResource().get()).collectList().block();
+    // chunks entirely made of skipped records are not read at all
+    assertThat(chunks.size()).isLessThan(allChunks);
+    List<Record> actual = Flux.concat(chunks).collectList().block();
+    assertThat(actual)
+        .extracting(Record::getPosition)
+        .containsExactlyElementsOf(LongStream.rangeClosed(51, 100).boxed().collect(toList()));
+    connector.close();
+  }
+
+  @Test
+  void should_not_split_file_when_comments_are_allowed() throws Exception {
+    JsonConnector connector = new JsonConnector();
+    LoaderConfig settings =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    String.format(
+                        "url = \"%s\", chunkSize = 10, parserFeatures = {ALLOW_COMMENTS:true}, "
+                            + "deserializationFeatures = {USE_BIG_DECIMAL_FOR_FLOATS : false}",
+                        url("/multi_doc.json")))
+                .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+    connector.configure(settings, true);
+    connector.init();
+    assertThat(connector.estimatedResourceCount()).isEqualTo(1);
+    assertThat(Flux.from(connector.readByResource().get()).count().block()).isEqualTo(1);
+    verifyRecords(Flux.from(connector.read().get()).collectList().block());
+    connector.close();
+  }
+
   @Test
   void should_error_when_directory_is_not_empty() throws Exception {
     JsonConnector connector = new JsonConnector();
@@ -808,7 +988,6 @@ class JsonConnectorTest {
             null,
             null,
             -1,
-            null,
             values,
             factory.numberNode(1997),
             factory.textNode("Ford"),
@@ -820,7 +999,6 @@ class JsonConnectorTest {
             null,
             null,
             -1,
-            null,
             values,
             factory.numberNode(1999),
             factory.textNode("Chevy"),
@@ -832,7 +1010,6 @@ class JsonConnectorTest {
             null,
             null,
             -1,
-            null,
             values,
             factory.numberNode(1996),
             factory.textNode("Jeep"),
@@ -844,7 +1021,6 @@ class JsonConnectorTest {
             null,
             null,
             -1,
-            null,
             values,
             factory.numberNode(1999),
             factory.textNode("Chevy"),
@@ -856,7 +1032,6 @@ class JsonConnectorTest {
             null,
             null,
             -1,
-            null,
             values,
             null,
             null,
@@ -866,6 +1041,10 @@ class JsonConnectorTest {
     return records;
   }
 
+  private static List<Object> sources(List<Record> records) {
+    return records.stream().map(Record::getSource).collect(toList());
+  }
+
   private static String url(String resource) {
     return JsonConnectorTest.class.getResource(resource).toExternalForm();
   }
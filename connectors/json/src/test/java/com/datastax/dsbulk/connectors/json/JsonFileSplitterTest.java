@@ -0,0 +1,101 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.json;
+
+import static java.nio.charset.StandardCharsets.UTF_16;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.dsbulk.connectors.json.JsonFileSplitter.Chunk;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class JsonFileSplitterTest {
+
+  private static final String CONTENTS =
+      "{\"a\":1}\n"
+          + "{\"b\":\"}\\\"{\"}\n"
+          + "\n"
+          + "{\"c\":[{\"d\":\n"
+          + "[]}]}{\"e\":null}\n"
+          + "  \n"
+          + "{\"f\":\"\\\\\"}";
+
+  private Path file;
+
+  @BeforeEach
+  void createFile() throws IOException {
+    file = Files.createTempFile("test", ".json");
+    Files.write(file, CONTENTS.getBytes(UTF_8));
+  }
+
+  @AfterEach
+  void deleteFile() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  void should_split_file_on_document_boundaries() throws IOException {
+    List<Chunk> chunks = split(1);
+    assertThat(chunks)
+        .extracting(chunk -> CONTENTS.substring((int) chunk.start, (int) chunk.end))
+        .containsExactly(
+            "{\"a\":1}",
+            "\n{\"b\":\"}\\\"{\"}",
+            "\n\n{\"c\":[{\"d\":\n[]}]}",
+            "{\"e\":null}",
+            "\n  \n{\"f\":\"\\\\\"}");
+    assertThat(chunks).extracting(chunk -> chunk.records).containsExactly(1L, 1L, 1L, 1L, 1L);
+    assertThat(chunks).extracting(chunk -> chunk.firstRecord).containsExactly(1L, 2L, 3L, 4L, 5L);
+  }
+
+  @Test
+  void should_split_file_in_chunks_of_approximate_size() throws IOException {
+    List<Chunk> chunks = split(20);
+    assertThat(chunks.size()).isGreaterThan(1).isLessThan(5);
+    assertThat(chunks.get(0).start).isEqualTo(0);
+    assertThat(chunks.get(chunks.size() - 1).end).isEqualTo(CONTENTS.length());
+    long records = 0;
+    for (int i = 0; i < chunks.size(); i++) {
+      Chunk chunk = chunks.get(i);
+      if (i > 0) {
+        assertThat(chunk.start).isEqualTo(chunks.get(i - 1).end);
+      }
+      assertThat(chunk.firstRecord).isEqualTo(records + 1);
+      records += chunk.records;
+    }
+    assertThat(records).isEqualTo(5);
+  }
+
+  @Test
+  void should_detect_splittable_encodings() {
+    assertThat(JsonFileSplitter.isSplittable(UTF_8)).isTrue();
+    assertThat(JsonFileSplitter.isSplittable(Charset.forName("ISO-8859-1"))).isTrue();
+    assertThat(JsonFileSplitter.isSplittable(UTF_16)).isFalse();
+    assertThat(JsonFileSplitter.isSplittable(Charset.forName("Shift_JIS"))).isFalse();
+  }
+
+  private List<Chunk> split(long chunkSize) throws IOException {
+    List<Chunk> chunks = new ArrayList<>();
+    try (JsonFileSplitter splitter = new JsonFileSplitter(file, chunkSize)) {
+      Chunk chunk;
+      while ((chunk = splitter.nextChunk()) != null) {
+        chunks.add(chunk);
+      }
+    }
+    return chunks;
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.parquet;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+/**
+ * An {@link InputFile} that reads a file from any {@link java.nio.file.FileSystem}, without going
+ * through Hadoop's file system abstraction.
+ */
+class LocalInputFile implements InputFile {
+
+  private final Path file;
+
+  LocalInputFile(Path file) {
+    this.file = file;
+  }
+
+  @Override
+  public long getLength() throws IOException {
+    return Files.size(file);
+  }
+
+  @Override
+  public SeekableInputStream newStream() throws IOException {
+    SeekableByteChannel channel = Files.newByteChannel(file);
+    return new DelegatingSeekableInputStream(Channels.newInputStream(channel)) {
+
+      @Override
+      public long getPos() throws IOException {
+        return channel.position();
+      }
+
+      @Override
+      public void seek(long newPos) throws IOException {
+        channel.position(newPos);
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    return file.toString();
+  }
+}
@@ -0,0 +1,832 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.parquet;
+
+import static com.datastax.dsbulk.commons.url.LoaderURLStreamHandlerFactory.STD;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.dsbulk.commons.config.BulkConfigurationException;
+import com.datastax.dsbulk.commons.config.LoaderConfig;
+import com.datastax.dsbulk.commons.internal.config.ConfigUtils;
+import com.datastax.dsbulk.commons.internal.io.IOUtils;
+import com.datastax.dsbulk.commons.internal.uri.URIUtils;
+import com.datastax.dsbulk.connectors.api.CommonConnectorFeature;
+import com.datastax.dsbulk.connectors.api.Connector;
+import com.datastax.dsbulk.connectors.api.ConnectorFeature;
+import com.datastax.dsbulk.connectors.api.Record;
+import com.datastax.dsbulk.connectors.api.RecordLocator;
+import com.datastax.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.dsbulk.connectors.api.internal.ArrayBackedRecord;
+import com.datastax.dsbulk.connectors.api.internal.FieldIndex;
+import com.datastax.dsbulk.connectors.api.internal.ResourceRecordLocator;
+import com.datastax.dsbulk.connectors.parquet.ParquetTypes.ValueReader;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.RangeSet;
+import com.google.common.reflect.TypeToken;
+import com.typesafe.config.ConfigException;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.MessageType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Signal;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A connector for Parquet files.
+ *
+ * <p>When reading, row groups are decoded column by column, in batches of rows, and values are
+ * emitted with their native Java types (for example, {@code INT64} columns as {@link Long}s, or
+ * {@code TIMESTAMP_MILLIS} columns as {@link java.time.Instant Instant}s), so that the loader
+ * engine can bind them without going through their textual representation. Parquet files can only
+ * be read from a file system, since their metadata is located at the end of the file; several files
+ * can be read at once from a given root directory. Only flat schemas are supported.
+ *
+ * <p>When writing, the Parquet schema is derived from the CQL types of the fields being written,
+ * and row groups are written with a configurable size and compression codec. Parquet files can be
+ * written to any URL, provided that there is a {@link java.net.URLStreamHandler handler} installed
+ * for it that supports output.
+ *
+ * <p>This connector is highly configurable; see its {@code reference.conf} file, bundled within its
+ * jar archive, for detailed information.
+ */
+public class ParquetConnector implements Connector {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParquetConnector.class);
+
+  private static final String URL = "url";
+  private static final String FILE_NAME_PATTERN = "fileNamePattern";
+  private static final String SKIP_RECORDS = "skipRecords";
+  private static final String MAX_RECORDS = "maxRecords";
+  private static final String MAX_CONCURRENT_FILES = "maxConcurrentFiles";
+  private static final String RECURSIVE = "recursive";
+  private static final String FILE_NAME_FORMAT = "fileNameFormat";
+  private static final String COMPRESSION = "compression";
+  private static final String ROW_GROUP_SIZE = "rowGroupSize";
+  private static final String PAGE_SIZE = "pageSize";
+
+  /** The compression codecs that do not require additional libraries. */
+  private static final Set<CompressionCodecName> SUPPORTED_CODECS =
+      Collections.unmodifiableSet(
+          EnumSet.of(
+              CompressionCodecName.UNCOMPRESSED,
+              CompressionCodecName.SNAPPY,
+              CompressionCodecName.GZIP));
+
+  /** How many rows are decoded at once, column by column. */
+  private static final int BATCH_SIZE = 1024;
+
+  /**
+   * A converter that does nothing: values are decoded directly from column readers, but column
+   * readers require a converter nevertheless.
+   */
+  private static final GroupConverter NO_OP_CONVERTER =
+      new GroupConverter() {
+
+        private final PrimitiveConverter converter = new PrimitiveConverter() {};
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+          return converter;
+        }
+
+        @Override
+        public void start() {}
+
+        @Override
+        public void end() {}
+      };
+
+  private boolean read;
+  private URL url;
+  private Path root;
+  private String pattern;
+  private long skipRecords;
+  private long maxRecords;
+  private int maxConcurrentFiles;
+  private boolean recursive;
+  private String fileNameFormat;
+  private CompressionCodecName compression;
+  private int rowGroupSize;
+  private int pageSize;
+  private int resourceCount;
+  private AtomicInteger counter;
+  private FieldIndex readFieldIndex;
+  private TypeToken<?>[] readFieldTypes;
+  private Path schemaFile;
+  private MessageType schema;
+  private final ConcurrentMap<String, DataType> writeFieldTypes = new ConcurrentHashMap<>();
+  private Scheduler scheduler;
+  private List<ParquetRecordWriter> writers;
+  private Map<URI, RangeSet<Long>> skippedPositions = Collections.emptyMap();
+
+  @Override
+  public void configure(LoaderConfig settings, boolean read) {
+    try {
+      if (!settings.hasPath(URL)) {
+        throw new BulkConfigurationException(
+            "url is mandatory when using the parquet connector. Please set connector.parquet.url "
+                + "and try again. See settings.md or help for more information.");
+      }
+      this.read = read;
+      url = settings.getURL(URL);
+      pattern = settings.getString(FILE_NAME_PATTERN);
+      skipRecords = settings.getLong(SKIP_RECORDS);
+      maxRecords = settings.getLong(MAX_RECORDS);
+      maxConcurrentFiles = settings.getThreads(MAX_CONCURRENT_FILES);
+      recursive = settings.getBoolean(RECURSIVE);
+      fileNameFormat = settings.getString(FILE_NAME_FORMAT);
+      compression = settings.getEnum(CompressionCodecName.class, COMPRESSION);
+      if (!SUPPORTED_CODECS.contains(compression)) {
+        throw new BulkConfigurationException(
+            String.format(
+                "connector.parquet.compression: unsupported compression codec %s; expecting one of %s.",
+                compression, SUPPORTED_CODECS));
+      }
+      rowGroupSize = getSize(settings, ROW_GROUP_SIZE);
+      pageSize = getSize(settings, PAGE_SIZE);
+    } catch (ConfigException e) {
+      throw ConfigUtils.configExceptionToBulkConfigurationException(e, "connector.parquet");
+    }
+  }
+
+  @Override
+  public void init() throws URISyntaxException, IOException {
+    if (read) {
+      readFromFileSystem();
+    } else {
+      tryWriteToDirectory();
+      counter = new AtomicInteger(0);
+    }
+  }
+
+  @Override
+  public RecordMetadata getRecordMetadata() {
+    if (read) {
+      return (field, cqlType) -> {
+        int slot = readFieldIndex == null ? -1 : readFieldIndex.slotOf(field);
+        return slot == -1 ? null : readFieldTypes[slot];
+      };
+    } else {
+      return (field, cqlType) -> {
+        // remember the CQL type of each field, to derive the schema of the files to write;
+        // this method is called for every row, so avoid contended writes
+        if (!writeFieldTypes.containsKey(field)) {
+          writeFieldTypes.putIfAbsent(field, cqlType);
+        }
+        return ParquetTypes.javaType(cqlType);
+      };
+    }
+  }
+
+  @Override
+  public boolean supports(ConnectorFeature feature) {
+    if (feature instanceof CommonConnectorFeature) {
+      CommonConnectorFeature commonFeature = (CommonConnectorFeature) feature;
+      switch (commonFeature) {
+        case MAPPED_RECORDS:
+        case INDEXED_RECORDS:
+        case SKIPPABLE_POSITIONS:
+          return true;
+        case FLUSHABLE_WRITES:
+          // rows are buffered in memory until their row group is complete
+          return false;
+        case SERIALIZED_VALUES:
+          return false;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void skipPositions(Map<URI, RangeSet<Long>> positions) {
+    skippedPositions = positions;
+  }
+
+  @Override
+  public void close() {
+    if (scheduler != null) {
+      scheduler.dispose();
+    }
+    if (writers != null) {
+      writers.forEach(ParquetRecordWriter::close);
+    }
+  }
+
+  @Override
+  public int estimatedResourceCount() {
+    return resourceCount;
+  }
+
+  @Override
+  public boolean isWriteToStandardOutput() {
+    return url.getProtocol().equalsIgnoreCase(STD) && !read;
+  }
+
+  @Override
+  public Supplier<? extends Publisher<Record>> read() {
+    assert read;
+    if (root != null) {
+      return () -> scanRootDirectory().flatMap(this::readFile);
+    } else {
+      return () -> readFile(Paths.get(toURI(url)));
+    }
+  }
+
+  @Override
+  public Supplier<? extends Publisher<Publisher<Record>>> readByResource() {
+    if (root != null) {
+      return () -> scanRootDirectory().map(this::readFile);
+    } else {
+      return () -> Flux.just(readFile(Paths.get(toURI(url))));
+    }
+  }
+
+  @Override
+  public Function<? super Publisher<Record>, ? extends Publisher<Record>> write() {
+    assert !read;
+    if (root != null && maxConcurrentFiles > 1) {
+      return upstream -> {
+        ThreadFactory threadFactory = new DefaultThreadFactory("parquet-connector");
+        scheduler = Schedulers.newParallel(maxConcurrentFiles, threadFactory);
+        writers = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < maxConcurrentFiles; i++) {
+          writers.add(newWriter());
+        }
+        return Flux.from(upstream)
+            .parallel(maxConcurrentFiles)
+            .runOn(scheduler)
+            .groups()
+            .flatMap(records -> records.transform(writeRecords(writers.get(records.key()))));
+      };
+    } else {
+      return upstream -> {
+        ParquetRecordWriter writer = newWriter();
+        return Flux.from(upstream).transform(writeRecords(writer)).doOnTerminate(writer::close);
+      };
+    }
+  }
+
+  private ParquetRecordWriter newWriter() {
+    return new ParquetRecordWriter(
+        this::getOrCreateDestinationURL,
+        // files are only rolled when writing to a directory
+        root == null ? -1 : maxRecords,
+        writeFieldTypes,
+        compression,
+        rowGroupSize,
+        pageSize);
+  }
+
+  private void readFromFileSystem() throws URISyntaxException, IOException {
+    Path path;
+    try {
+      path = Paths.get(url.toURI());
+    } catch (FileSystemNotFoundException e) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Parquet files can only be read from a file system, but connector.parquet.url is %s.",
+              url));
+    }
+    resourceCount = 1;
+    Path first = path;
+    if (Files.isDirectory(path)) {
+      if (!Files.isReadable(path)) {
+        throw new IllegalArgumentException(String.format("Directory is not readable: %s.", path));
+      }
+      root = path;
+      resourceCount = scanRootDirectory().take(100).count().block().intValue();
+      first = scanRootDirectory().blockFirst();
+      if (resourceCount == 0) {
+        if (IOUtils.countReadableFiles(root, recursive) == 0) {
+          LOGGER.warn("Directory {} has no readable files.", root);
+        } else {
+          LOGGER.warn(
+              "No files in directory {} matched the connector.parquet.fileNamePattern of \"{}\".",
+              root,
+              pattern);
+        }
+      }
+    }
+    if (first != null) {
+      // all files must share the same schema, which is checked when each file is opened
+      readSchema(first);
+    }
+  }
+
+  private void readSchema(Path file) throws IOException {
+    try (ParquetFileReader reader = openFile(file)) {
+      schemaFile = file;
+      schema = reader.getFooter().getFileMetaData().getSchema();
+      List<ColumnDescriptor> columns = getColumns(file, reader);
+      String[] names = new String[columns.size()];
+      readFieldTypes = new TypeToken<?>[columns.size()];
+      for (int i = 0; i < columns.size(); i++) {
+        names[i] = columns.get(i).getPath()[0];
+        readFieldTypes[i] = ParquetTypes.javaType(columns.get(i));
+      }
+      readFieldIndex = FieldIndex.named(names);
+    }
+  }
+
+  private void tryWriteToDirectory() throws URISyntaxException, IOException {
+    try {
+      resourceCount = -1;
+      Path root = Paths.get(url.toURI());
+      if (!Files.exists(root)) {
+        root = Files.createDirectories(root);
+      }
+      if (Files.isDirectory(root)) {
+        if (!Files.isWritable(root)) {
+          throw new IllegalArgumentException(String.format("Directory is not writable: %s.", root));
+        }
+        if (IOUtils.isDirectoryNonEmpty(root)) {
+          throw new IllegalArgumentException(
+              "connector.parquet.url target directory: " + root + " must be empty.");
+        }
+        this.root = root;
+      }
+    } catch (FileSystemNotFoundException ignored) {
+      // not a path on a known filesystem, fall back to writing to URL directly
+    }
+  }
+
+  private Flux<Record> readFile(Path file) {
+    URL url = toURL(file);
+    RangeSet<Long> skipped =
+        skippedPositions.getOrDefault(URIUtils.createResourceURI(url), ImmutableRangeSet.of());
+    Flux<Record> records =
+        Flux.generate(
+            () -> new RecordReadingState(file, url, skipped),
+            (state, sink) -> {
+              try {
+                Record record = state.next();
+                if (record == null) {
+                  LOGGER.debug("Done reading {}", url);
+                  sink.complete();
+                } else {
+                  LOGGER.trace("Emitting record {}", record);
+                  sink.next(record);
+                }
+              } catch (Exception e) {
+                sink.error(
+                    new IOException(
+                        String.format("Error reading from %s: %s", url, e.getMessage()), e));
+              }
+              return state;
+            },
+            RecordReadingState::close);
+    if (skipped.isEmpty()) {
+      if (skipRecords > 0) {
+        records = records.skip(skipRecords);
+      }
+      if (maxRecords != -1) {
+        records = records.take(maxRecords);
+      }
+    } else if (skipRecords > 0 || maxRecords != -1) {
+      // skipped records are not emitted, so skip and take by position instead of by count
+      long first = skipRecords + 1;
+      long last = maxRecords == -1 ? Long.MAX_VALUE : skipRecords + maxRecords;
+      records =
+          records
+              .skipWhile(record -> record.getPosition() < first)
+              .takeWhile(record -> record.getPosition() <= last);
+    }
+    return records;
+  }
+
+  private Flux<Path> scanRootDirectory() {
+    PathMatcher matcher = root.getFileSystem().getPathMatcher("glob:" + pattern);
+    return Flux.defer(
+            () -> {
+              try {
+                // this stream will be closed by the flux, do not add it to a try-with-resources
+                // block
+                @SuppressWarnings("StreamResourceLeak")
+                Stream<Path> files = Files.walk(root, recursive ? Integer.MAX_VALUE : 1);
+                return Flux.fromStream(files);
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            })
+        .filter(Files::isReadable)
+        .filter(Files::isRegularFile)
+        .filter(matcher::matches);
+  }
+
+  private Function<Flux<Record>, Flux<Record>> writeRecords(ParquetRecordWriter writer) {
+    return upstream ->
+        upstream
+            .materialize()
+            .map(
+                signal -> {
+                  if (signal.isOnNext()) {
+                    try {
+                      writer.write(signal.get());
+                    } catch (Exception e) {
+                      signal = Signal.error(e);
+                    }
+                  }
+                  return signal;
+                })
+            .dematerialize();
+  }
+
+  /**
+   * The state of a file being read, which is advanced one record at a time, as requested by
+   * downstream subscribers.
+   *
+   * <p>Rows are decoded in batches: for each batch, the values of the first column are decoded for
+   * all the rows in the batch, then the values of the second column, and so on. This keeps each
+   * column reader, and its decoding loop, hot while a batch is being filled.
+   */
+  private class RecordReadingState {
+
+    private final Path file;
+    private final URL url;
+    private final RangeSet<Long> skipped;
+    private final RecordLocator locator;
+
+    private ParquetFileReader reader;
+    private MessageType schema;
+    private String createdBy;
+    private String[] names;
+    private ColumnDescriptor[] columns;
+    private ValueReader[] valueReaders;
+    private ColumnReader[] columnReaders;
+    private FieldIndex fieldIndex;
+
+    private long rowsLeftInGroup;
+    private Object[][] batch;
+    private int batchSize;
+    private int batchPosition;
+    private long recordNumber = 1;
+
+    private RecordReadingState(Path file, URL url, RangeSet<Long> skipped) {
+      this.file = file;
+      this.url = url;
+      this.skipped = skipped;
+      locator = new ResourceRecordLocator(URIUtils.createResourceURI(url));
+    }
+
+    @Nullable
+    private Record next() throws IOException {
+      if (reader == null) {
+        open();
+      }
+      while (true) {
+        while (batchPosition < batchSize) {
+          Object[] values = batch[batchPosition];
+          batch[batchPosition++] = null;
+          long finalRecordNumber = recordNumber++;
+          if (values != null) {
+            RowSource source = new RowSource(names, values);
+            return new ArrayBackedRecord(source, locator, finalRecordNumber, fieldIndex, values);
+          }
+        }
+        if (!readBatch()) {
+          return null;
+        }
+      }
+    }
+
+    private void open() throws IOException {
+      LOGGER.debug("Reading {}", url);
+      reader = openFile(file);
+      schema = reader.getFooter().getFileMetaData().getSchema();
+      // field types were taken from the first file, and would not match values of other types
+      if (!schema.equals(ParquetConnector.this.schema)) {
+        throw new IOException(
+            String.format(
+                "Schema does not match the schema of %s: all files read must share the same schema.",
+                schemaFile));
+      }
+      createdBy = reader.getFooter().getFileMetaData().getCreatedBy();
+      List<ColumnDescriptor> columns = getColumns(file, reader);
+      this.columns = columns.toArray(new ColumnDescriptor[0]);
+      names = new String[this.columns.length];
+      valueReaders = new ValueReader[this.columns.length];
+      columnReaders = new ColumnReader[this.columns.length];
+      for (int i = 0; i < this.columns.length; i++) {
+        names[i] = this.columns[i].getPath()[0];
+        valueReaders[i] = ParquetTypes.valueReader(this.columns[i]);
+      }
+      fieldIndex = FieldIndex.named(names);
+    }
+
+    private boolean readBatch() throws IOException {
+      if (rowsLeftInGroup == 0) {
+        PageReadStore rowGroup = reader.readNextRowGroup();
+        if (rowGroup == null) {
+          return false;
+        }
+        rowsLeftInGroup = rowGroup.getRowCount();
+        ColumnReadStoreImpl store =
+            new ColumnReadStoreImpl(rowGroup, NO_OP_CONVERTER, schema, createdBy);
+        for (int i = 0; i < columns.length; i++) {
+          columnReaders[i] = store.getColumnReader(columns[i]);
+        }
+      }
+      batchSize = (int) Math.min(BATCH_SIZE, rowsLeftInGroup);
+      batchPosition = 0;
+      batch = new Object[batchSize][];
+      for (int row = 0; row < batchSize; row++) {
+        // rows already processed by the operation being resumed are left null, and not decoded
+        if (!skipped.contains(recordNumber + row)) {
+          batch[row] = new Object[columns.length];
+        }
+      }
+      for (int i = 0; i < columns.length; i++) {
+        ColumnReader columnReader = columnReaders[i];
+        ValueReader valueReader = valueReaders[i];
+        int maxDefinitionLevel = columns[i].getMaxDefinitionLevel();
+        for (int row = 0; row < batchSize; row++) {
+          // null values have no data to decode
+          if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+            Object[] values = batch[row];
+            if (values == null) {
+              columnReader.skip();
+            } else {
+              values[i] = valueReader.read(columnReader);
+            }
+          }
+          columnReader.consume();
+        }
+      }
+      rowsLeftInGroup -= batchSize;
+      return true;
+    }
+
+    private void close() {
+      try {
+        if (reader != null) {
+          reader.close();
+        }
+      } catch (IOException e) {
+        LOGGER.warn("Could not close " + url, e);
+      }
+    }
+  }
+
+  private static class ParquetRecordWriter {
+
+    private final Supplier<URL> destinations;
+    private final long maxRecords;
+    private final Map<String, DataType> fieldTypes;
+    private final CompressionCodecName compression;
+    private final int rowGroupSize;
+    private final int pageSize;
+
+    private URL url;
+    private ParquetWriter<Record> writer;
+    private long currentRecords;
+
+    private ParquetRecordWriter(
+        Supplier<URL> destinations,
+        long maxRecords,
+        Map<String, DataType> fieldTypes,
+        CompressionCodecName compression,
+        int rowGroupSize,
+        int pageSize) {
+      this.destinations = destinations;
+      this.maxRecords = maxRecords;
+      this.fieldTypes = fieldTypes;
+      this.compression = compression;
+      this.rowGroupSize = rowGroupSize;
+      this.pageSize = pageSize;
+    }
+
+    private void write(Record record) {
+      try {
+        if (writer == null) {
+          open(record);
+        } else if (shouldRoll()) {
+          close();
+          open(record);
+        }
+        LOGGER.trace("Writing record {}", record);
+        writer.write(record);
+        currentRecords++;
+      } catch (ClosedChannelException e) {
+        // OK, happens when the channel was closed due to interruption
+        LOGGER.warn(String.format("Error writing to %s: %s", url, e.getMessage()), e);
+      } catch (IOException e) {
+        throw new UncheckedIOException(
+            String.format("Error writing to %s: %s", url, e.getMessage()), e);
+      }
+    }
+
+    private boolean shouldRoll() {
+      return currentRecords == maxRecords;
+    }
+
+    private void open(Record record) {
+      url = destinations.get();
+      try {
+        List<String> fields = new ArrayList<>(record.fields());
+        List<DataType> cqlTypes = new ArrayList<>(fields.size());
+        for (String field : fields) {
+          // fields whose type is unknown are written as strings
+          cqlTypes.add(fieldTypes.getOrDefault(field, DataType.varchar()));
+        }
+        writer =
+            new RecordWriterBuilder(
+                    new URLOutputFile(url), new RecordWriteSupport(fields, cqlTypes))
+                .withCompressionCodec(compression)
+                .withRowGroupSize(rowGroupSize)
+                .withPageSize(pageSize)
+                .build();
+        currentRecords = 0;
+        LOGGER.debug("Writing " + url);
+      } catch (ClosedChannelException e) {
+        // OK, happens when the channel was closed due to interruption
+        LOGGER.warn(String.format("Could not open %s: %s", url, e.getMessage()), e);
+      } catch (IOException e) {
+        throw new UncheckedIOException(
+            String.format("Error opening %s: %s", url, e.getMessage()), e);
+      } catch (Exception e) {
+        throw new UncheckedIOException(
+            new IOException(String.format("Error opening %s: %s", url, e.getMessage()), e));
+      }
+    }
+
+    private void close() {
+      if (writer != null) {
+        try {
+          // flushes the last row group and writes the footer
+          writer.close();
+          LOGGER.debug("Done writing {}", url);
+          writer = null;
+        } catch (ClosedChannelException e) {
+          // OK, happens when the channel was closed due to interruption
+          LOGGER.warn(String.format("Could not close %s: %s", url, e.getMessage()), e);
+        } catch (IOException e) {
+          throw new UncheckedIOException(
+              String.format("Error closing %s: %s", url, e.getMessage()), e);
+        }
+      }
+    }
+  }
+
+  private static class RecordWriterBuilder
+      extends ParquetWriter.Builder<Record, RecordWriterBuilder> {
+
+    private final WriteSupport<Record> writeSupport;
+
+    private RecordWriterBuilder(OutputFile file, WriteSupport<Record> writeSupport) {
+      super(file);
+      this.writeSupport = writeSupport;
+    }
+
+    @Override
+    protected RecordWriterBuilder self() {
+      return this;
+    }
+
+    @Override
+    protected WriteSupport<Record> getWriteSupport(Configuration conf) {
+      return writeSupport;
+    }
+  }
+
+  /**
+   * The source of records read by this connector: the decoded values of a row, formatted only if
+   * needed, for example when the record cannot be loaded and must be logged.
+   */
+  private static class RowSource {
+
+    private final String[] names;
+    private final Object[] values;
+
+    private RowSource(String[] names, Object[] values) {
+      this.names = names;
+      this.values = values;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("{");
+      for (int i = 0; i < names.length; i++) {
+        if (i > 0) {
+          sb.append(", ");
+        }
+        sb.append(names[i]).append('=').append(values[i]);
+      }
+      return sb.append('}').toString();
+    }
+  }
+
+  private URL getOrCreateDestinationURL() {
+    if (root != null) {
+      try {
+        String next = String.format(fileNameFormat, counter.incrementAndGet());
+        return root.resolve(next).toUri().toURL();
+      } catch (MalformedURLException e) {
+        throw new UncheckedIOException(
+            String.format(
+                "Could not create file URL with format %s: %s", fileNameFormat, e.getMessage()),
+            e);
+      }
+    }
+    // assume we are writing to a single URL and ignore fileNameFormat
+    return url;
+  }
+
+  @NotNull
+  private static ParquetFileReader openFile(Path file) throws IOException {
+    return ParquetFileReader.open(new LocalInputFile(file), ParquetReadOptions.builder().build());
+  }
+
+  @NotNull
+  private static List<ColumnDescriptor> getColumns(Path file, ParquetFileReader reader)
+      throws IOException {
+    List<ColumnDescriptor> columns = reader.getFooter().getFileMetaData().getSchema().getColumns();
+    for (ColumnDescriptor column : columns) {
+      if (column.getPath().length > 1 || column.getMaxRepetitionLevel() > 0) {
+        throw new IOException(
+            String.format(
+                "Unsupported nested or repeated column %s in %s: only flat schemas are supported.",
+                String.join(".", column.getPath()), file));
+      }
+    }
+    return columns;
+  }
+
+  private static int getSize(LoaderConfig settings, String path) {
+    long size = settings.getBytes(path);
+    if (size <= 0 || size > Integer.MAX_VALUE) {
+      throw new BulkConfigurationException(
+          String.format(
+              "connector.parquet.%s: expecting a size between 1 byte and 2 GB, got %s.",
+              path, settings.getString(path)));
+    }
+    return (int) size;
+  }
+
+  private static URI toURI(URL url) {
+    try {
+      return url.toURI();
+    } catch (URISyntaxException e) {
+      // should not happen, URLs have been validated already
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  private static URL toURL(Path file) {
+    try {
+      return file.toUri().toURL();
+    } catch (MalformedURLException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.parquet;
+
+import static org.apache.parquet.schema.OriginalType.DATE;
+import static org.apache.parquet.schema.OriginalType.INT_16;
+import static org.apache.parquet.schema.OriginalType.INT_8;
+import static org.apache.parquet.schema.OriginalType.TIMESTAMP_MILLIS;
+import static org.apache.parquet.schema.OriginalType.UTF8;
+import static org.apache.parquet.schema.Type.Repetition.OPTIONAL;
+
+import com.datastax.driver.core.DataType;
+import com.google.common.reflect.TypeToken;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Mappings between Parquet types and the Java types exchanged with the loader engine.
+ *
+ * <p>When reading, each column is decoded into the Java type that best matches its physical type
+ * and its annotation: for example, an {@code INT64} column annotated with {@code TIMESTAMP_MILLIS}
+ * is decoded as an {@link Instant}. When writing, each CQL type is mapped to the Parquet type that
+ * best matches its native Java type, or to an UTF-8 string if Parquet has no equivalent type.
+ *
+ * <p>CQL times are written as plain {@code INT64} nanoseconds of the day, as in the driver's own
+ * codec, since Parquet time annotations have at most a microsecond precision; such columns are read
+ * back as {@link Long}s.
+ */
+final class ParquetTypes {
+
+  private static final long JULIAN_DAY_OF_EPOCH = 2440588;
+
+  /** Decodes the current value of a {@link ColumnReader}. */
+  @FunctionalInterface
+  interface ValueReader {
+
+    Object read(ColumnReader reader);
+  }
+
+  /** Encodes a non-null value into a {@link RecordConsumer}. */
+  @FunctionalInterface
+  interface ValueWriter {
+
+    void write(RecordConsumer consumer, Object value);
+  }
+
+  private ParquetTypes() {}
+
+  /**
+   * Returns the Java type that values of the given column are decoded into.
+   *
+   * @param column the column.
+   * @return the Java type of the column values.
+   */
+  @NotNull
+  static TypeToken<?> javaType(@NotNull ColumnDescriptor column) {
+    PrimitiveType type = column.getPrimitiveType();
+    OriginalType originalType = type.getOriginalType();
+    switch (type.getPrimitiveTypeName()) {
+      case BOOLEAN:
+        return TypeToken.of(Boolean.class);
+      case INT32:
+        if (originalType == null) {
+          return TypeToken.of(Integer.class);
+        }
+        switch (originalType) {
+          case DATE:
+            return TypeToken.of(LocalDate.class);
+          case TIME_MILLIS:
+            return TypeToken.of(LocalTime.class);
+          case DECIMAL:
+            return TypeToken.of(BigDecimal.class);
+          case INT_8:
+            return TypeToken.of(Byte.class);
+          case INT_16:
+            return TypeToken.of(Short.class);
+          case UINT_32:
+            return TypeToken.of(Long.class);
+          default:
+            return TypeToken.of(Integer.class);
+        }
+      case INT64:
+        if (originalType == null) {
+          return TypeToken.of(Long.class);
+        }
+        switch (originalType) {
+          case TIMESTAMP_MILLIS:
+          case TIMESTAMP_MICROS:
+            return TypeToken.of(Instant.class);
+          case TIME_MICROS:
+            return TypeToken.of(LocalTime.class);
+          case DECIMAL:
+            return TypeToken.of(BigDecimal.class);
+          case UINT_64:
+            return TypeToken.of(BigInteger.class);
+          default:
+            return TypeToken.of(Long.class);
+        }
+      case INT96:
+        return TypeToken.of(Instant.class);
+      case FLOAT:
+        return TypeToken.of(Float.class);
+      case DOUBLE:
+        return TypeToken.of(Double.class);
+      case BINARY:
+      case FIXED_LEN_BYTE_ARRAY:
+      default:
+        if (originalType == OriginalType.DECIMAL) {
+          return TypeToken.of(BigDecimal.class);
+        }
+        if (isText(originalType)) {
+          return TypeToken.of(String.class);
+        }
+        return TypeToken.of(ByteBuffer.class);
+    }
+  }
+
+  /**
+   * Returns a {@link ValueReader} that decodes values of the given column into the type returned by
+   * {@link #javaType(ColumnDescriptor)}.
+   *
+   * @param column the column.
+   * @return a reader for the column values.
+   */
+  @NotNull
+  static ValueReader valueReader(@NotNull ColumnDescriptor column) {
+    PrimitiveType type = column.getPrimitiveType();
+    OriginalType originalType = type.getOriginalType();
+    int scale = originalType == OriginalType.DECIMAL ? type.getDecimalMetadata().getScale() : 0;
+    switch (type.getPrimitiveTypeName()) {
+      case BOOLEAN:
+        return ColumnReader::getBoolean;
+      case INT32:
+        if (originalType == null) {
+          return ColumnReader::getInteger;
+        }
+        switch (originalType) {
+          case DATE:
+            return reader -> LocalDate.ofEpochDay(reader.getInteger());
+          case TIME_MILLIS:
+            return reader ->
+                LocalTime.ofNanoOfDay(TimeUnit.MILLISECONDS.toNanos(reader.getInteger()));
+          case DECIMAL:
+            return reader -> BigDecimal.valueOf(reader.getInteger(), scale);
+          case INT_8:
+            return reader -> (byte) reader.getInteger();
+          case INT_16:
+            return reader -> (short) reader.getInteger();
+          case UINT_32:
+            return reader -> Integer.toUnsignedLong(reader.getInteger());
+          default:
+            return ColumnReader::getInteger;
+        }
+      case INT64:
+        if (originalType == null) {
+          return ColumnReader::getLong;
+        }
+        switch (originalType) {
+          case TIMESTAMP_MILLIS:
+            return reader -> Instant.ofEpochMilli(reader.getLong());
+          case TIMESTAMP_MICROS:
+            return reader -> {
+              long micros = reader.getLong();
+              return Instant.ofEpochSecond(
+                  Math.floorDiv(micros, 1_000_000), Math.floorMod(micros, 1_000_000) * 1_000);
+            };
+          case TIME_MICROS:
+            return reader -> LocalTime.ofNanoOfDay(TimeUnit.MICROSECONDS.toNanos(reader.getLong()));
+          case DECIMAL:
+            return reader -> BigDecimal.valueOf(reader.getLong(), scale);
+          case UINT_64:
+            return reader -> new BigInteger(Long.toUnsignedString(reader.getLong()));
+          default:
+            return ColumnReader::getLong;
+        }
+      case INT96:
+        return reader -> int96ToInstant(reader.getBinary());
+      case FLOAT:
+        return ColumnReader::getFloat;
+      case DOUBLE:
+        return ColumnReader::getDouble;
+      case BINARY:
+      case FIXED_LEN_BYTE_ARRAY:
+      default:
+        if (originalType == OriginalType.DECIMAL) {
+          return reader -> new BigDecimal(new BigInteger(reader.getBinary().getBytes()), scale);
+        }
+        if (isText(originalType)) {
+          return reader -> reader.getBinary().toStringUsingUTF8();
+        }
+        return reader -> ByteBuffer.wrap(reader.getBinary().getBytes());
+    }
+  }
+
+  /**
+   * Returns the Java type that the loader engine should produce for values of the given CQL type.
+   *
+   * @param cqlType the CQL type.
+   * @return the Java type to produce.
+   */
+  @NotNull
+  static TypeToken<?> javaType(@NotNull DataType cqlType) {
+    switch (cqlType.getName()) {
+      case BIGINT:
+      case COUNTER:
+        return TypeToken.of(Long.class);
+      case INT:
+        return TypeToken.of(Integer.class);
+      case SMALLINT:
+        return TypeToken.of(Short.class);
+      case TINYINT:
+        return TypeToken.of(Byte.class);
+      case BOOLEAN:
+        return TypeToken.of(Boolean.class);
+      case FLOAT:
+        return TypeToken.of(Float.class);
+      case DOUBLE:
+        return TypeToken.of(Double.class);
+      case TIMESTAMP:
+        return TypeToken.of(Instant.class);
+      case DATE:
+        return TypeToken.of(LocalDate.class);
+      case TIME:
+        // nanoseconds of the day
+        return TypeToken.of(Long.class);
+      case BLOB:
+        return TypeToken.of(ByteBuffer.class);
+      default:
+        return TypeToken.of(String.class);
+    }
+  }
+
+  /**
+   * Returns the Parquet type of a field holding values of the given CQL type.
+   *
+   * <p>All fields are optional, since any CQL column can contain nulls.
+   *
+   * @param name the field name.
+   * @param cqlType the CQL type.
+   * @return the Parquet type of the field.
+   */
+  @NotNull
+  static Type parquetType(@NotNull String name, @NotNull DataType cqlType) {
+    switch (cqlType.getName()) {
+      case BIGINT:
+      case COUNTER:
+      case TIME:
+        return Types.primitive(PrimitiveTypeName.INT64, OPTIONAL).named(name);
+      case INT:
+        return Types.primitive(PrimitiveTypeName.INT32, OPTIONAL).named(name);
+      case SMALLINT:
+        return Types.primitive(PrimitiveTypeName.INT32, OPTIONAL).as(INT_16).named(name);
+      case TINYINT:
+        return Types.primitive(PrimitiveTypeName.INT32, OPTIONAL).as(INT_8).named(name);
+      case BOOLEAN:
+        return Types.primitive(PrimitiveTypeName.BOOLEAN, OPTIONAL).named(name);
+      case FLOAT:
+        return Types.primitive(PrimitiveTypeName.FLOAT, OPTIONAL).named(name);
+      case DOUBLE:
+        return Types.primitive(PrimitiveTypeName.DOUBLE, OPTIONAL).named(name);
+      case TIMESTAMP:
+        return Types.primitive(PrimitiveTypeName.INT64, OPTIONAL).as(TIMESTAMP_MILLIS).named(name);
+      case DATE:
+        return Types.primitive(PrimitiveTypeName.INT32, OPTIONAL).as(DATE).named(name);
+      case BLOB:
+        return Types.primitive(PrimitiveTypeName.BINARY, OPTIONAL).named(name);
+      default:
+        return Types.primitive(PrimitiveTypeName.BINARY, OPTIONAL).as(UTF8).named(name);
+    }
+  }
+
+  /**
+   * Returns a {@link ValueWriter} that encodes values of the type returned by {@link
+   * #javaType(DataType)} into the type returned by {@link #parquetType(String, DataType)}.
+   *
+   * @param cqlType the CQL type.
+   * @return a writer for the field values.
+   */
+  @NotNull
+  static ValueWriter valueWriter(@NotNull DataType cqlType) {
+    switch (cqlType.getName()) {
+      case BIGINT:
+      case COUNTER:
+      case TIME:
+        return (consumer, value) -> consumer.addLong((Long) value);
+      case INT:
+      case SMALLINT:
+      case TINYINT:
+        return (consumer, value) -> consumer.addInteger(((Number) value).intValue());
+      case BOOLEAN:
+        return (consumer, value) -> consumer.addBoolean((Boolean) value);
+      case FLOAT:
+        return (consumer, value) -> consumer.addFloat((Float) value);
+      case DOUBLE:
+        return (consumer, value) -> consumer.addDouble((Double) value);
+      case TIMESTAMP:
+        return (consumer, value) -> consumer.addLong(((Instant) value).toEpochMilli());
+      case DATE:
+        return (consumer, value) -> consumer.addInteger((int) ((LocalDate) value).toEpochDay());
+      case BLOB:
+        return (consumer, value) ->
+            consumer.addBinary(Binary.fromConstantByteBuffer(((ByteBuffer) value).duplicate()));
+      default:
+        return (consumer, value) -> consumer.addBinary(Binary.fromString(value.toString()));
+    }
+  }
+
+  private static boolean isText(OriginalType originalType) {
+    return originalType == UTF8
+        || originalType == OriginalType.ENUM
+        || originalType == OriginalType.JSON;
+  }
+
+  /**
+   * Decodes a legacy INT96 timestamp, as written by Impala and Hive: 8 bytes for the nanoseconds of
+   * the day, followed by 4 bytes for the Julian day, both little-endian.
+   */
+  private static Instant int96ToInstant(Binary binary) {
+    ByteBuffer bytes = binary.toByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    long nanosOfDay = bytes.getLong();
+    long julianDay = bytes.getInt();
+    return Instant.ofEpochSecond(
+        TimeUnit.DAYS.toSeconds(julianDay - JULIAN_DAY_OF_EPOCH), nanosOfDay);
+  }
+}
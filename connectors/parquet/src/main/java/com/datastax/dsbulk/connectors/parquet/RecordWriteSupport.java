@@ -0,0 +1,77 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.parquet;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.dsbulk.connectors.api.Record;
+import com.datastax.dsbulk.connectors.parquet.ParquetTypes.ValueWriter;
+import java.util.Collections;
+import java.util.List;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+
+/**
+ * A {@link WriteSupport} that writes {@link Record}s as flat Parquet messages, one optional field
+ * per record field.
+ */
+class RecordWriteSupport extends WriteSupport<Record> {
+
+  private final String[] fields;
+  private final ValueWriter[] writers;
+  private final MessageType schema;
+
+  private RecordConsumer consumer;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param fields the fields to write, in order.
+   * @param cqlTypes the CQL types of the fields to write.
+   */
+  RecordWriteSupport(List<String> fields, List<DataType> cqlTypes) {
+    this.fields = fields.toArray(new String[0]);
+    writers = new ValueWriter[this.fields.length];
+    Types.MessageTypeBuilder builder = Types.buildMessage();
+    for (int i = 0; i < this.fields.length; i++) {
+      Type type = ParquetTypes.parquetType(this.fields[i], cqlTypes.get(i));
+      builder.addField(type);
+      writers[i] = ParquetTypes.valueWriter(cqlTypes.get(i));
+    }
+    schema = builder.named("record");
+  }
+
+  @Override
+  public WriteContext init(Configuration configuration) {
+    return new WriteContext(schema, Collections.emptyMap());
+  }
+
+  @Override
+  public void prepareForWrite(RecordConsumer recordConsumer) {
+    consumer = recordConsumer;
+  }
+
+  @Override
+  public void write(Record record) {
+    consumer.startMessage();
+    for (int i = 0; i < fields.length; i++) {
+      Object value = record.getFieldValue(fields[i]);
+      // null values are written by omitting the field
+      if (value != null) {
+        consumer.startField(fields[i], i);
+        writers[i].write(consumer, value);
+        consumer.endField(fields[i], i);
+      }
+    }
+    consumer.endMessage();
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.parquet;
+
+import com.datastax.dsbulk.commons.internal.io.IOUtils;
+import java.io.IOException;
+import java.net.URL;
+import org.apache.parquet.io.DelegatingPositionOutputStream;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+
+/**
+ * An {@link OutputFile} that writes to any URL that supports output, without going through Hadoop's
+ * file system abstraction.
+ *
+ * <p>Parquet files are written sequentially, so the output does not need to be seekable; the
+ * current position is simply the number of bytes written so far.
+ */
+class URLOutputFile implements OutputFile {
+
+  private final URL url;
+
+  URLOutputFile(URL url) {
+    this.url = url;
+  }
+
+  @Override
+  public PositionOutputStream create(long blockSizeHint) throws IOException {
+    return new DelegatingPositionOutputStream(IOUtils.newBufferedOutputStream(url)) {
+
+      private long position;
+
+      @Override
+      public long getPos() {
+        return position;
+      }
+
+      @Override
+      public void write(int b) throws IOException {
+        super.write(b);
+        position++;
+      }
+
+      @Override
+      public void write(byte[] b) throws IOException {
+        super.write(b);
+        position += b.length;
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        super.write(b, off, len);
+        position += len;
+      }
+    };
+  }
+
+  @Override
+  public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
+    return create(blockSizeHint);
+  }
+
+  @Override
+  public boolean supportsBlockSize() {
+    return false;
+  }
+
+  @Override
+  public long defaultBlockSize() {
+    return 0;
+  }
+
+  @Override
+  public String toString() {
+    return url.toString();
+  }
+}
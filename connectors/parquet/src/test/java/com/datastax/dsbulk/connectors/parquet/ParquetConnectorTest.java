@@ -0,0 +1,295 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.connectors.parquet;
+
+import static com.datastax.dsbulk.commons.tests.utils.FileUtils.deleteDirectory;
+import static com.datastax.dsbulk.commons.tests.utils.StringUtils.escapeUserInput;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.dsbulk.commons.config.BulkConfigurationException;
+import com.datastax.dsbulk.commons.config.LoaderConfig;
+import com.datastax.dsbulk.commons.internal.config.DefaultLoaderConfig;
+import com.datastax.dsbulk.commons.tests.utils.URLUtils;
+import com.datastax.dsbulk.connectors.api.CommonConnectorFeature;
+import com.datastax.dsbulk.connectors.api.Record;
+import com.datastax.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.dsbulk.connectors.api.internal.DefaultRecord;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.TreeRangeSet;
+import com.google.common.reflect.TypeToken;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class ParquetConnectorTest {
+
+  static {
+    URLUtils.setURLFactoryIfNeeded();
+  }
+
+  private static final Config CONNECTOR_DEFAULT_SETTINGS =
+      ConfigFactory.defaultReference().getConfig("dsbulk.connector.parquet");
+
+  private static final String[] FIELDS = {
+    "id", "name", "created", "birthday", "alarm", "photo", "score", "active", "rank"
+  };
+
+  private static final DataType[] CQL_TYPES = {
+    DataType.bigint(),
+    DataType.varchar(),
+    DataType.timestamp(),
+    DataType.date(),
+    DataType.time(),
+    DataType.blob(),
+    DataType.cdouble(),
+    DataType.cboolean(),
+    DataType.smallint()
+  };
+
+  private Path dir;
+
+  @BeforeEach
+  void createDirectory() throws Exception {
+    dir = Files.createTempDirectory("test");
+  }
+
+  @AfterEach
+  void deleteDir() {
+    deleteDirectory(dir);
+  }
+
+  @Test
+  void should_write_and_read_native_types() throws Exception {
+    writeRecords(10, "");
+    ParquetConnector connector = newReader(dir.resolve("output-000001.parquet"), "");
+    RecordMetadata metadata = connector.getRecordMetadata();
+    assertThat(metadata.getFieldType("id", DataType.bigint())).isEqualTo(TypeToken.of(Long.class));
+    assertThat(metadata.getFieldType("name", DataType.varchar()))
+        .isEqualTo(TypeToken.of(String.class));
+    assertThat(metadata.getFieldType("created", DataType.timestamp()))
+        .isEqualTo(TypeToken.of(Instant.class));
+    assertThat(metadata.getFieldType("birthday", DataType.date()))
+        .isEqualTo(TypeToken.of(LocalDate.class));
+    // times are stored as nanoseconds of the day
+    assertThat(metadata.getFieldType("alarm", DataType.time())).isEqualTo(TypeToken.of(Long.class));
+    assertThat(metadata.getFieldType("photo", DataType.blob()))
+        .isEqualTo(TypeToken.of(ByteBuffer.class));
+    assertThat(metadata.getFieldType("score", DataType.cdouble()))
+        .isEqualTo(TypeToken.of(Double.class));
+    assertThat(metadata.getFieldType("active", DataType.cboolean()))
+        .isEqualTo(TypeToken.of(Boolean.class));
+    assertThat(metadata.getFieldType("rank", DataType.smallint()))
+        .isEqualTo(TypeToken.of(Short.class));
+    // fields are also accessible by index
+    assertThat(metadata.getFieldType("0", DataType.bigint())).isEqualTo(TypeToken.of(Long.class));
+    assertThat(metadata.getFieldType("nonexistent", DataType.bigint())).isNull();
+    List<Record> records = Flux.defer(connector.read()).collectList().block();
+    connector.close();
+    assertThat(records).hasSize(10);
+    for (int i = 0; i < 10; i++) {
+      Record actual = records.get(i);
+      Record expected = newRecord(i);
+      assertThat(actual.getPosition()).isEqualTo(i + 1);
+      assertThat(actual.getResource())
+          .isEqualTo(dir.resolve("output-000001.parquet").toUri().normalize());
+      for (String field : FIELDS) {
+        assertThat(actual.getFieldValue(field)).isEqualTo(expected.getFieldValue(field));
+      }
+    }
+  }
+
+  @Test
+  void should_read_multiple_row_groups_and_batches() throws Exception {
+    // tiny row groups and pages, and more records than a batch
+    writeRecords(3000, ", rowGroupSize = 4 KiB, pageSize = 1 KiB");
+    ParquetConnector connector = newReader(dir, "");
+    List<Record> records = Flux.defer(connector.read()).limitRate(1).collectList().block();
+    connector.close();
+    assertThat(records)
+        .extracting(Record::getPosition)
+        .containsExactlyElementsOf(positions(1, 3000));
+    assertThat(records).extracting(record -> record.getFieldValue("id")).doesNotContainNull();
+    assertThat(records.get(2999).getFieldValue("name")).isEqualTo("name 2999");
+  }
+
+  @Test
+  void should_roll_file_when_max_records_reached() throws Exception {
+    writeRecords(5, ", maxConcurrentFiles = 1, maxRecords = 3");
+    assertThat(dir.resolve("output-000001.parquet")).exists();
+    assertThat(dir.resolve("output-000002.parquet")).exists();
+    ParquetConnector connector = newReader(dir, "");
+    assertThat(connector.estimatedResourceCount()).isEqualTo(2);
+    List<Record> records = Flux.defer(connector.read()).collectList().block();
+    connector.close();
+    assertThat(records).hasSize(5);
+  }
+
+  @Test
+  void should_write_multiple_files() throws Exception {
+    writeRecords(1000, ", maxConcurrentFiles = 4");
+    ParquetConnector connector = newReader(dir, "");
+    List<Record> records = Flux.defer(connector.read()).collectList().block();
+    connector.close();
+    assertThat(records)
+        .extracting(record -> record.getFieldValue("id"))
+        .containsOnlyElementsOf(LongStream.range(0, 1000).boxed().collect(Collectors.toList()))
+        .hasSize(1000);
+  }
+
+  @Test
+  void should_honor_max_records_and_skip_records() throws Exception {
+    writeRecords(10, "");
+    ParquetConnector connector = newReader(dir, ", skipRecords = 2, maxRecords = 5");
+    List<Record> records = Flux.defer(connector.read()).collectList().block();
+    connector.close();
+    assertThat(records).extracting(Record::getPosition).containsExactlyElementsOf(positions(3, 7));
+  }
+
+  @Test
+  void should_skip_positions() throws Exception {
+    writeRecords(3000, "");
+    Path file = dir.resolve("output-000001.parquet");
+    ParquetConnector connector = newReader(file, "");
+    assertThat(connector.supports(CommonConnectorFeature.SKIPPABLE_POSITIONS)).isTrue();
+    RangeSet<Long> skipped = TreeRangeSet.create();
+    skipped.add(Range.closed(1L, 1500L));
+    skipped.add(Range.closed(1502L, 2999L));
+    connector.skipPositions(ImmutableMap.of(file.toUri().normalize(), skipped));
+    List<Record> records = Flux.defer(connector.read()).collectList().block();
+    connector.close();
+    assertThat(records).extracting(Record::getPosition).containsExactly(1501L, 3000L);
+    assertThat(records)
+        .extracting(record -> record.getFieldValue("id"))
+        .containsExactly(1500L, 2999L);
+  }
+
+  @Test
+  void should_error_when_files_have_different_schemas() throws Exception {
+    writeRecords(10, "");
+    Path other = Files.createTempDirectory("test");
+    try {
+      ParquetConnector connector = new ParquetConnector();
+      connector.configure(
+          new DefaultLoaderConfig(
+              ConfigFactory.parseString(String.format("url = \"%s\"", escapeUserInput(other)))
+                  .withFallback(CONNECTOR_DEFAULT_SETTINGS)),
+          false);
+      connector.init();
+      connector.getRecordMetadata().getFieldType("id", DataType.varchar());
+      Flux.just((Record) new DefaultRecord("source", null, 1, new String[] {"id"}, "not a number"))
+          .transform(connector.write())
+          .blockLast();
+      connector.close();
+      Files.move(other.resolve("output-000001.parquet"), dir.resolve("output-000002.parquet"));
+    } finally {
+      deleteDirectory(other);
+    }
+    ParquetConnector connector = newReader(dir, "");
+    assertThatThrownBy(() -> Flux.defer(connector.read()).blockLast())
+        .hasCauseInstanceOf(IOException.class)
+        .hasMessageContaining("all files read must share the same schema");
+    connector.close();
+  }
+
+  @Test
+  void should_error_when_reading_from_stdin() {
+    ParquetConnector connector = new ParquetConnector();
+    connector.configure(
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString("url = -").withFallback(CONNECTOR_DEFAULT_SETTINGS)),
+        true);
+    assertThatThrownBy(connector::init)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Parquet files can only be read from a file system");
+  }
+
+  @Test
+  void should_error_when_compression_not_supported() {
+    ParquetConnector connector = new ParquetConnector();
+    assertThatThrownBy(
+            () ->
+                connector.configure(
+                    new DefaultLoaderConfig(
+                        ConfigFactory.parseString("compression = LZO")
+                            .withFallback(CONNECTOR_DEFAULT_SETTINGS)),
+                    false))
+        .isInstanceOf(BulkConfigurationException.class)
+        .hasMessage(
+            "connector.parquet.compression: unsupported compression codec LZO; expecting one of [UNCOMPRESSED, SNAPPY, GZIP].");
+  }
+
+  private void writeRecords(int count, String extraSettings) throws Exception {
+    ParquetConnector connector = new ParquetConnector();
+    LoaderConfig settings =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    String.format("url = \"%s\"%s", escapeUserInput(dir), extraSettings))
+                .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+    connector.configure(settings, false);
+    connector.init();
+    RecordMetadata metadata = connector.getRecordMetadata();
+    for (int i = 0; i < FIELDS.length; i++) {
+      metadata.getFieldType(FIELDS[i], CQL_TYPES[i]);
+    }
+    Flux.range(0, count).map(this::newRecord).transform(connector.write()).blockLast();
+    connector.close();
+  }
+
+  private ParquetConnector newReader(Path path, String extraSettings) throws Exception {
+    ParquetConnector connector = new ParquetConnector();
+    LoaderConfig settings =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    String.format("url = \"%s\"%s", escapeUserInput(path), extraSettings))
+                .withFallback(CONNECTOR_DEFAULT_SETTINGS));
+    connector.configure(settings, true);
+    connector.init();
+    return connector;
+  }
+
+  private Record newRecord(int i) {
+    return new DefaultRecord(
+        "source" + i,
+        null,
+        i,
+        FIELDS,
+        (long) i,
+        "name " + i,
+        Instant.ofEpochMilli(1_500_000_000_000L + i),
+        LocalDate.ofEpochDay(i),
+        // nanoseconds of the day, with a sub-microsecond precision
+        i * 1_000L + 1,
+        ByteBuffer.wrap(new byte[] {(byte) i}),
+        // nulls are written as missing values
+        i % 2 == 0 ? null : i / 2d,
+        i % 3 == 0,
+        (short) i);
+  }
+
+  private static List<Long> positions(long first, long last) {
+    return Stream.iterate(first, i -> i + 1).limit(last - first + 1).collect(Collectors.toList());
+  }
+}
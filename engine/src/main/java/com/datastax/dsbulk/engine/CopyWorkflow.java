@@ -0,0 +1,258 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine;
+
+import static com.datastax.dsbulk.engine.internal.utils.WorkflowUtils.TPC_THRESHOLD;
+import static com.datastax.dsbulk.engine.internal.utils.WorkflowUtils.checkProductCompatibility;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.dse.DseCluster;
+import com.datastax.driver.dse.DseSession;
+import com.datastax.dsbulk.commons.config.LoaderConfig;
+import com.datastax.dsbulk.engine.internal.codecs.ExtendedCodecRegistry;
+import com.datastax.dsbulk.engine.internal.log.LogManager;
+import com.datastax.dsbulk.engine.internal.metrics.MetricsManager;
+import com.datastax.dsbulk.engine.internal.schema.ReadResultCopier;
+import com.datastax.dsbulk.engine.internal.settings.CodecSettings;
+import com.datastax.dsbulk.engine.internal.settings.CopySettings;
+import com.datastax.dsbulk.engine.internal.settings.DriverSettings;
+import com.datastax.dsbulk.engine.internal.settings.EngineSettings;
+import com.datastax.dsbulk.engine.internal.settings.ExecutorSettings;
+import com.datastax.dsbulk.engine.internal.settings.LogSettings;
+import com.datastax.dsbulk.engine.internal.settings.MonitoringSettings;
+import com.datastax.dsbulk.engine.internal.settings.SchemaSettings;
+import com.datastax.dsbulk.engine.internal.settings.SettingsManager;
+import com.datastax.dsbulk.engine.internal.utils.WorkflowUtils;
+import com.datastax.dsbulk.executor.api.internal.result.DefaultWriteResult;
+import com.datastax.dsbulk.executor.api.result.WriteResult;
+import com.datastax.dsbulk.executor.reactor.reader.ReactorBulkReader;
+import com.datastax.dsbulk.executor.reactor.writer.ReactorBulkWriter;
+import com.google.common.base.Stopwatch;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+/**
+ * The main class for copy workflows.
+ *
+ * <p>Copy workflows read a table with token range scans, like unload workflows do, then write the
+ * rows read to a target table, possibly in another cluster, like load workflows do. Rows are never
+ * converted to records: their columns are bound to the target statement as raw bytes whenever
+ * possible, and no connector is involved.
+ */
+public class CopyWorkflow implements Workflow {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CopyWorkflow.class);
+
+  private final SettingsManager settingsManager;
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  private String executionId;
+  private Scheduler scheduler;
+  private ReadResultCopier readResultCopier;
+  private MetricsManager metricsManager;
+  private LogManager logManager;
+  private DseCluster cluster;
+  private DseCluster targetCluster;
+  private ReactorBulkReader reader;
+  private ReactorBulkWriter writer;
+  private List<Statement> readStatements;
+  private boolean dryRun;
+  private int maxInFlight;
+  private boolean replicaAware;
+
+  CopyWorkflow(LoaderConfig config) {
+    settingsManager = new SettingsManager(config, WorkflowType.COPY);
+  }
+
+  @Override
+  public void init() throws Exception {
+    settingsManager.init();
+    executionId = settingsManager.getExecutionId();
+    LogSettings logSettings = settingsManager.getLogSettings();
+    logSettings.init(false);
+    logSettings.logEffectiveSettings(settingsManager.getGlobalConfig());
+    DriverSettings driverSettings = settingsManager.getDriverSettings();
+    SchemaSettings schemaSettings = settingsManager.getSchemaSettings();
+    ExecutorSettings executorSettings = settingsManager.getExecutorSettings();
+    CodecSettings codecSettings = settingsManager.getCodecSettings();
+    MonitoringSettings monitoringSettings = settingsManager.getMonitoringSettings();
+    EngineSettings engineSettings = settingsManager.getEngineSettings();
+    CopySettings copySettings = settingsManager.getCopySettings();
+    monitoringSettings.init();
+    codecSettings.init();
+    driverSettings.init();
+    executorSettings.init();
+    engineSettings.init();
+    schemaSettings.init();
+    copySettings.init();
+    scheduler =
+        Schedulers.newParallel(
+            Runtime.getRuntime().availableProcessors(), new DefaultThreadFactory("workflow"));
+    cluster = driverSettings.newCluster();
+    checkProductCompatibility(cluster);
+    DseSession session = cluster.connect();
+    DseSession targetSession;
+    if (copySettings.hasTargetCluster()) {
+      targetCluster = copySettings.newTargetCluster(driverSettings);
+      checkProductCompatibility(targetCluster);
+      targetSession = targetCluster.connect();
+    } else {
+      targetSession = session;
+    }
+    logManager = logSettings.newLogManager(WorkflowType.COPY, cluster);
+    logManager.init();
+    metricsManager =
+        monitoringSettings.newMetricsManager(
+            WorkflowType.COPY,
+            false,
+            logManager.getExecutionDirectory(),
+            logSettings.getMainLogFileAppender(),
+            cluster.getMetrics().getRegistry(),
+            cluster.getConfiguration().getProtocolOptions().getProtocolVersion(),
+            cluster.getConfiguration().getCodecRegistry());
+    metricsManager.init();
+    reader = executorSettings.newReadExecutor(session, metricsManager.getExecutionListener());
+    writer =
+        executorSettings.newWriteExecutor(targetSession, metricsManager.getExecutionListener());
+    ExtendedCodecRegistry codecRegistry =
+        codecSettings.createCodecRegistry(cluster.getConfiguration().getCodecRegistry());
+    readResultCopier =
+        schemaSettings.createReadResultCopier(
+            session,
+            targetSession,
+            copySettings.getKeyspace(),
+            copySettings.getTable(),
+            codecRegistry);
+    readStatements = schemaSettings.createReadStatements(cluster);
+    maxInFlight = executorSettings.getMaxInFlight();
+    replicaAware = executorSettings.isReplicaAwareEnabled();
+    dryRun = engineSettings.isDryRun();
+    if (dryRun) {
+      LOGGER.info("Dry-run mode enabled.");
+    }
+    closed.set(false);
+  }
+
+  @Override
+  public boolean execute() {
+    LOGGER.info("{} started.", this);
+    Stopwatch timer = Stopwatch.createStarted();
+    Flux<Void> flux;
+    if (readStatements.size() >= TPC_THRESHOLD) {
+      flux = threadPerCoreFlux();
+    } else {
+      flux = parallelFlux();
+    }
+    flux.transform(logManager.newTerminationHandler()).blockLast();
+    timer.stop();
+    long seconds = timer.elapsed(SECONDS);
+    if (logManager.getTotalErrors() == 0) {
+      LOGGER.info("{} completed successfully in {}.", this, WorkflowUtils.formatElapsed(seconds));
+    } else {
+      LOGGER.info(
+          "{} completed with {} errors in {}.",
+          this,
+          logManager.getTotalErrors(),
+          WorkflowUtils.formatElapsed(seconds));
+    }
+    return logManager.getTotalErrors() == 0;
+  }
+
+  @NotNull
+  private Flux<Void> threadPerCoreFlux() {
+    LOGGER.info("Using thread-per-core pattern.");
+    int concurrency =
+        Math.max(Queues.XS_BUFFER_SIZE, maxInFlight / Runtime.getRuntime().availableProcessors());
+    return Flux.fromIterable(readStatements)
+        .flatMap(
+            statement -> {
+              Flux<Statement> stmts =
+                  reader
+                      .readReactive(statement)
+                      .transform(metricsManager.newTotalItemsMonitor())
+                      .transform(logManager.newTotalItemsCounter())
+                      .transform(metricsManager.newFailedItemsMonitor())
+                      .transform(logManager.newFailedReadsHandler())
+                      .map(readResultCopier::map)
+                      .transform(metricsManager.newFailedItemsMonitor())
+                      .transform(logManager.newUnmappableStatementsHandler());
+              return executeStatements(stmts, concurrency).subscribeOn(scheduler);
+            },
+            Runtime.getRuntime().availableProcessors());
+  }
+
+  @NotNull
+  private Flux<Void> parallelFlux() {
+    Flux<Statement> stmts =
+        Flux.fromIterable(readStatements)
+            .flatMap(reader::readReactive)
+            .transform(metricsManager.newTotalItemsMonitor())
+            .transform(logManager.newTotalItemsCounter())
+            .transform(metricsManager.newFailedItemsMonitor())
+            .transform(logManager.newFailedReadsHandler())
+            .parallel()
+            .runOn(scheduler)
+            .map(readResultCopier::map)
+            .sequential()
+            .transform(metricsManager.newFailedItemsMonitor())
+            .transform(logManager.newUnmappableStatementsHandler());
+    return executeStatements(stmts, maxInFlight);
+  }
+
+  private Flux<Void> executeStatements(Flux<Statement> stmts, int concurrency) {
+    Flux<WriteResult> results;
+    if (dryRun) {
+      results = stmts.map(s -> new DefaultWriteResult(s, null));
+    } else if (replicaAware) {
+      // concurrency is bounded by the executor's per-host budgets
+      results = writer.writeReactive(stmts);
+    } else {
+      results = stmts.flatMap(writer::writeReactive, concurrency);
+    }
+    return results.transform(logManager.newFailedWritesHandler()).then().flux();
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (closed.compareAndSet(false, true)) {
+      LOGGER.info("{} closing.", this);
+      Exception e = WorkflowUtils.closeQuietly(metricsManager, null);
+      e = WorkflowUtils.closeQuietly(logManager, e);
+      e = WorkflowUtils.closeQuietly(scheduler, e);
+      e = WorkflowUtils.closeQuietly(reader, e);
+      e = WorkflowUtils.closeQuietly(writer, e);
+      e = WorkflowUtils.closeQuietly(targetCluster, e);
+      e = WorkflowUtils.closeQuietly(cluster, e);
+      if (metricsManager != null) {
+        metricsManager.reportFinalMetrics();
+      }
+      if (logManager != null) {
+        logManager.reportLastLocations();
+      }
+      LOGGER.info("{} closed.", this);
+      if (e != null) {
+        throw e;
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "Copy workflow engine execution " + executionId;
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.dse.DseCluster;
+import com.datastax.driver.dse.DseSession;
+import com.datastax.dsbulk.commons.config.BulkConfigurationException;
+import com.datastax.dsbulk.commons.config.LoaderConfig;
+import com.datastax.dsbulk.engine.internal.log.LogManager;
+import com.datastax.dsbulk.engine.internal.metrics.MetricsManager;
+import com.datastax.dsbulk.engine.internal.schema.ReadResultCounter;
+import com.datastax.dsbulk.engine.internal.schema.ReadResultCounter.CountingUnit;
+import com.datastax.dsbulk.engine.internal.settings.DriverSettings;
+import com.datastax.dsbulk.engine.internal.settings.EngineSettings;
+import com.datastax.dsbulk.engine.internal.settings.ExecutorSettings;
+import com.datastax.dsbulk.engine.internal.settings.LogSettings;
+import com.datastax.dsbulk.engine.internal.settings.MonitoringSettings;
+import com.datastax.dsbulk.engine.internal.settings.SchemaSettings;
+import com.datastax.dsbulk.engine.internal.settings.SettingsManager;
+import com.datastax.dsbulk.engine.internal.settings.StatsSettings;
+import com.datastax.dsbulk.engine.internal.utils.WorkflowUtils;
+import com.datastax.dsbulk.executor.reactor.reader.ReactorBulkReader;
+import com.google.common.base.Stopwatch;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+/** The main class for count workflows. */
+public class CountWorkflow implements Workflow {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CountWorkflow.class);
+
+  private final SettingsManager settingsManager;
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  private String executionId;
+  private ReadResultCounter readResultCounter;
+  private MetricsManager metricsManager;
+  private LogManager logManager;
+  private DseCluster cluster;
+  private ReactorBulkReader executor;
+  private List<Statement> readStatements;
+  private boolean success;
+
+  CountWorkflow(LoaderConfig config) {
+    settingsManager = new SettingsManager(config, WorkflowType.COUNT);
+  }
+
+  @Override
+  public void init() throws Exception {
+    settingsManager.init();
+    executionId = settingsManager.getExecutionId();
+    LogSettings logSettings = settingsManager.getLogSettings();
+    DriverSettings driverSettings = settingsManager.getDriverSettings();
+    SchemaSettings schemaSettings = settingsManager.getSchemaSettings();
+    ExecutorSettings executorSettings = settingsManager.getExecutorSettings();
+    MonitoringSettings monitoringSettings = settingsManager.getMonitoringSettings();
+    StatsSettings statsSettings = settingsManager.getStatsSettings();
+    EngineSettings engineSettings = settingsManager.getEngineSettings();
+    engineSettings.init();
+    // First verify that dry-run is off; that's unsupported for count.
+    if (engineSettings.isDryRun()) {
+      throw new BulkConfigurationException("Dry-run is not supported for count");
+    }
+    // Totals are printed to the standard output, so logs must not go there.
+    // No logs should be produced until the following statement returns
+    logSettings.init(true);
+    logSettings.logEffectiveSettings(settingsManager.getGlobalConfig());
+    schemaSettings.init();
+    statsSettings.init();
+    monitoringSettings.init();
+    executorSettings.init();
+    driverSettings.init();
+    cluster = driverSettings.newCluster();
+    DseSession session = cluster.connect();
+    logManager = logSettings.newLogManager(WorkflowType.COUNT, cluster);
+    logManager.init();
+    metricsManager =
+        monitoringSettings.newMetricsManager(
+            WorkflowType.COUNT,
+            false,
+            logManager.getExecutionDirectory(),
+            logSettings.getMainLogFileAppender(),
+            cluster.getMetrics().getRegistry(),
+            cluster.getConfiguration().getProtocolOptions().getProtocolVersion(),
+            cluster.getConfiguration().getCodecRegistry());
+    metricsManager.init();
+    executor = executorSettings.newReadExecutor(session, metricsManager.getExecutionListener());
+    readResultCounter =
+        schemaSettings.createReadResultCounter(
+            session, statsSettings.getModes(), statsSettings.getNumPartitions());
+    readStatements = schemaSettings.createReadStatements(cluster);
+    closed.set(false);
+    success = false;
+  }
+
+  @Override
+  public boolean execute() {
+    LOGGER.info("{} started.", this);
+    Stopwatch timer = Stopwatch.createStarted();
+    Flux.fromIterable(readStatements)
+        .flatMap(
+            statement -> {
+              CountingUnit unit = readResultCounter.newCountingUnit(statement);
+              return executor
+                  .readReactive(statement)
+                  .transform(metricsManager.newTotalItemsMonitor())
+                  .transform(logManager.newTotalItemsCounter())
+                  .transform(metricsManager.newFailedItemsMonitor())
+                  .transform(logManager.newFailedReadsHandler())
+                  .doOnNext(unit::update)
+                  .doOnComplete(unit::close);
+            },
+            Runtime.getRuntime().availableProcessors())
+        .then()
+        .flux()
+        .transform(logManager.newTerminationHandler())
+        .blockLast();
+    timer.stop();
+    long seconds = timer.elapsed(SECONDS);
+    success = logManager.getTotalErrors() == 0;
+    if (success) {
+      LOGGER.info("{} completed successfully in {}.", this, WorkflowUtils.formatElapsed(seconds));
+    } else {
+      LOGGER.info(
+          "{} completed with {} errors in {}.",
+          this,
+          logManager.getTotalErrors(),
+          WorkflowUtils.formatElapsed(seconds));
+    }
+    return success;
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (closed.compareAndSet(false, true)) {
+      LOGGER.info("{} closing.", this);
+      Exception e = WorkflowUtils.closeQuietly(metricsManager, null);
+      e = WorkflowUtils.closeQuietly(logManager, e);
+      e = WorkflowUtils.closeQuietly(executor, e);
+      e = WorkflowUtils.closeQuietly(cluster, e);
+      if (metricsManager != null) {
+        metricsManager.reportFinalMetrics();
+      }
+      if (logManager != null) {
+        logManager.reportLastLocations();
+      }
+      LOGGER.info("{} closed.", this);
+      if (success) {
+        readResultCounter.reportTotals();
+      } else {
+        LOGGER.warn(
+            "Totals were not reported because the operation did not complete successfully.");
+      }
+      if (e != null) {
+        throw e;
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "Count workflow engine execution " + executionId;
+  }
+}
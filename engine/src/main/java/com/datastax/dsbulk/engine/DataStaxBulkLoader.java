@@ -278,9 +278,9 @@ public class DataStaxBulkLoader {
       throw new VersionRequestException();
     }
 
-    if (!Arrays.asList("load", "unload").contains(subCommand)) {
+    if (!Arrays.asList("load", "unload", "copy", "count").contains(subCommand)) {
       throw new ParseException(
-          "First argument must be subcommand \"load\", \"unload\", or \"help\"");
+          "First argument must be subcommand \"load\", \"unload\", \"copy\", \"count\", or \"help\"");
     }
 
     Iterator<Option> it = cmd.iterator();
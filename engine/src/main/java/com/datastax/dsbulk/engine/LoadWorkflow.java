@@ -14,6 +14,7 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.dse.DseCluster;
 import com.datastax.driver.dse.DseSession;
+import com.datastax.dsbulk.commons.config.BulkConfigurationException;
 import com.datastax.dsbulk.commons.config.LoaderConfig;
 import com.datastax.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.dsbulk.connectors.api.Connector;
@@ -30,9 +31,11 @@ import com.datastax.dsbulk.engine.internal.settings.LogSettings;
 import com.datastax.dsbulk.engine.internal.settings.MonitoringSettings;
 import com.datastax.dsbulk.engine.internal.settings.SchemaSettings;
 import com.datastax.dsbulk.engine.internal.settings.SettingsManager;
+import com.datastax.dsbulk.engine.internal.statement.ExternalStatementSorter;
 import com.datastax.dsbulk.engine.internal.utils.WorkflowUtils;
 import com.datastax.dsbulk.executor.api.internal.result.DefaultWriteResult;
 import com.datastax.dsbulk.executor.api.result.WriteResult;
+import com.datastax.dsbulk.executor.reactor.batch.ReactorSortedStatementBatcher;
 import com.datastax.dsbulk.executor.reactor.batch.ReactorStatementBatcher;
 import com.datastax.dsbulk.executor.reactor.writer.ReactorBulkWriter;
 import com.google.common.base.Stopwatch;
@@ -63,6 +66,8 @@ public class LoadWorkflow implements Workflow {
   private MetricsManager metricsManager;
   private LogManager logManager;
   private ReactorStatementBatcher batcher;
+  private ExternalStatementSorter sorter;
+  private ReactorSortedStatementBatcher sortedBatcher;
   private DseCluster cluster;
   private ReactorBulkWriter executor;
   private boolean batchingEnabled;
@@ -70,6 +75,7 @@ public class LoadWorkflow implements Workflow {
   private int resourceCount;
   private int batchBufferSize;
   private int maxInFlight;
+  private boolean replicaAware;
   private Set<Disposable> disposables;
 
   LoadWorkflow(LoaderConfig config) {
@@ -108,6 +114,14 @@ public class LoadWorkflow implements Workflow {
     batchBufferSize = batchSettings.getBufferSize();
     logManager = logSettings.newLogManager(WorkflowType.LOAD, cluster);
     logManager.init();
+    if (!logManager.getResumedPositions().isEmpty()) {
+      if (!connector.supports(CommonConnectorFeature.SKIPPABLE_POSITIONS)) {
+        throw new BulkConfigurationException(
+            "The connector does not support resuming an operation; "
+                + "please set log.checkpoint.resumeFrom to an empty string and try again.");
+      }
+      connector.skipPositions(logManager.getResumedPositions());
+    }
     metricsManager =
         monitoringSettings.newMetricsManager(
             WorkflowType.LOAD,
@@ -124,11 +138,17 @@ public class LoadWorkflow implements Workflow {
             session,
             connector.getRecordMetadata(),
             codecSettings.createCodecRegistry(cluster.getConfiguration().getCodecRegistry()),
-            !connector.supports(CommonConnectorFeature.MAPPED_RECORDS));
+            !connector.supports(CommonConnectorFeature.MAPPED_RECORDS),
+            connector.supports(CommonConnectorFeature.SERIALIZED_VALUES));
     if (batchingEnabled) {
       batcher = batchSettings.newStatementBatcher(cluster);
+      if (batchSettings.isSortingEnabled()) {
+        sorter = batchSettings.newStatementSorter(cluster, logManager.getExecutionDirectory());
+        sortedBatcher = batchSettings.newSortedStatementBatcher(cluster);
+      }
     }
     maxInFlight = executorSettings.getMaxInFlight();
+    replicaAware = executorSettings.isReplicaAwareEnabled();
     dryRun = engineSettings.isDryRun();
     if (dryRun) {
       LOGGER.info("Dry-run mode enabled.");
@@ -143,7 +163,9 @@ public class LoadWorkflow implements Workflow {
     LOGGER.info("{} started.", this);
     Stopwatch timer = Stopwatch.createStarted();
     Flux<Void> flux;
-    if (resourceCount >= WorkflowUtils.TPC_THRESHOLD) {
+    if (sorter != null) {
+      flux = sortedFlux();
+    } else if (resourceCount >= WorkflowUtils.TPC_THRESHOLD) {
       flux = threadPerCoreFlux();
     } else {
       flux = parallelFlux();
@@ -234,10 +256,38 @@ public class LoadWorkflow implements Workflow {
             });
   }
 
+  @NotNull
+  private Flux<Void> sortedFlux() {
+    LOGGER.info("Sorting statements by routing token before batching.");
+    Scheduler scheduler =
+        Schedulers.newParallel(
+            Runtime.getRuntime().availableProcessors(), new DefaultThreadFactory("workflow"));
+    disposables.add(scheduler);
+    Flux<Statement> stmts =
+        Flux.defer(connector.read())
+            .transform(metricsManager.newTotalItemsMonitor())
+            .transform(logManager.newTotalItemsCounter())
+            .transform(metricsManager.newFailedItemsMonitor())
+            .transform(logManager.newFailedRecordsHandler())
+            .parallel()
+            .runOn(scheduler)
+            .map(recordMapper::map)
+            .sequential()
+            .transform(metricsManager.newFailedItemsMonitor())
+            .transform(logManager.newUnmappableStatementsHandler())
+            .transform(sorter)
+            .transform(sortedBatcher)
+            .transform(metricsManager.newBatcherMonitor());
+    return executeStatements(stmts, maxInFlight);
+  }
+
   private Flux<Void> executeStatements(Flux<Statement> stmts, int concurrency) {
     Flux<WriteResult> results;
     if (dryRun) {
       results = stmts.map(s -> new DefaultWriteResult(s, null));
+    } else if (replicaAware) {
+      // concurrency is bounded by the executor's per-host budgets
+      results = executor.writeReactive(stmts);
     } else {
       results = stmts.flatMap(executor::writeReactive, concurrency);
     }
@@ -22,6 +22,7 @@ import com.datastax.dsbulk.connectors.api.Record;
 import com.datastax.dsbulk.connectors.api.RecordMetadata;
 import com.datastax.dsbulk.engine.internal.codecs.ExtendedCodecRegistry;
 import com.datastax.dsbulk.engine.internal.log.LogManager;
+import com.datastax.dsbulk.engine.internal.log.UnloadCheckpointManager;
 import com.datastax.dsbulk.engine.internal.metrics.MetricsManager;
 import com.datastax.dsbulk.engine.internal.schema.ReadResultMapper;
 import com.datastax.dsbulk.engine.internal.settings.CodecSettings;
@@ -34,11 +35,13 @@ import com.datastax.dsbulk.engine.internal.settings.MonitoringSettings;
 import com.datastax.dsbulk.engine.internal.settings.SchemaSettings;
 import com.datastax.dsbulk.engine.internal.settings.SettingsManager;
 import com.datastax.dsbulk.engine.internal.utils.WorkflowUtils;
+import com.datastax.dsbulk.executor.api.result.ReadResult;
 import com.datastax.dsbulk.executor.reactor.reader.ReactorBulkReader;
 import com.google.common.base.Stopwatch;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +63,7 @@ public class UnloadWorkflow implements Workflow {
   private ReadResultMapper readResultMapper;
   private MetricsManager metricsManager;
   private LogManager logManager;
+  private UnloadCheckpointManager checkpointManager;
   private DseCluster cluster;
   private ReactorBulkReader executor;
   private List<Statement> readStatements;
@@ -122,8 +126,14 @@ public class UnloadWorkflow implements Workflow {
             session,
             recordMetadata,
             codecRegistry,
-            !connector.supports(CommonConnectorFeature.MAPPED_RECORDS));
+            !connector.supports(CommonConnectorFeature.MAPPED_RECORDS),
+            connector.supports(CommonConnectorFeature.SERIALIZED_VALUES));
     readStatements = schemaSettings.createReadStatements(cluster);
+    if (logSettings.isCheckpointEnabled()) {
+      checkpointManager = logSettings.newUnloadCheckpointManager(connector);
+      checkpointManager.init();
+      readStatements = checkpointManager.prepareStatements(readStatements);
+    }
     closed.set(false);
   }
 
@@ -138,6 +148,7 @@ public class UnloadWorkflow implements Workflow {
       flux = parallelFlux();
     }
     flux.compose(connector.write())
+        .transform(newWrittenRecordsTracker())
         .transform(metricsManager.newFailedItemsMonitor())
         .transform(logManager.newFailedRecordsHandler())
         .then()
@@ -166,11 +177,13 @@ public class UnloadWorkflow implements Workflow {
             statement ->
                 executor
                     .readReactive(statement)
+                    .transform(newRangeTracker(statement))
                     .transform(metricsManager.newTotalItemsMonitor())
                     .transform(logManager.newTotalItemsCounter())
                     .transform(metricsManager.newFailedItemsMonitor())
                     .transform(logManager.newFailedReadsHandler())
                     .map(readResultMapper::map)
+                    .transform(newUnmappableRecordsTracker())
                     .transform(metricsManager.newFailedItemsMonitor())
                     .transform(logManager.newUnmappableRecordsHandler())
                     .subscribeOn(scheduler),
@@ -180,7 +193,8 @@ public class UnloadWorkflow implements Workflow {
   @NotNull
   private Flux<Record> parallelFlux() {
     return Flux.fromIterable(readStatements)
-        .flatMap(executor::readReactive)
+        .flatMap(
+            statement -> executor.readReactive(statement).transform(newRangeTracker(statement)))
         .transform(metricsManager.newTotalItemsMonitor())
         .transform(logManager.newTotalItemsCounter())
         .transform(metricsManager.newFailedItemsMonitor())
@@ -189,10 +203,32 @@ public class UnloadWorkflow implements Workflow {
         .runOn(scheduler)
         .map(readResultMapper::map)
         .sequential()
+        .transform(newUnmappableRecordsTracker())
         .transform(metricsManager.newFailedItemsMonitor())
         .transform(logManager.newUnmappableRecordsHandler());
   }
 
+  @NotNull
+  private Function<Flux<ReadResult>, Flux<ReadResult>> newRangeTracker(Statement statement) {
+    return checkpointManager == null
+        ? Function.identity()
+        : checkpointManager.newRangeTracker(statement);
+  }
+
+  @NotNull
+  private Function<Flux<Record>, Flux<Record>> newUnmappableRecordsTracker() {
+    return checkpointManager == null
+        ? Function.identity()
+        : checkpointManager.newUnmappableRecordsTracker();
+  }
+
+  @NotNull
+  private Function<Flux<Record>, Flux<Record>> newWrittenRecordsTracker() {
+    return checkpointManager == null
+        ? Function.identity()
+        : checkpointManager.newWrittenRecordsTracker();
+  }
+
   @Override
   public void close() throws Exception {
     if (closed.compareAndSet(false, true)) {
@@ -200,6 +236,8 @@ public class UnloadWorkflow implements Workflow {
       Exception e = WorkflowUtils.closeQuietly(metricsManager, null);
       e = WorkflowUtils.closeQuietly(logManager, e);
       e = WorkflowUtils.closeQuietly(connector, e);
+      // must be closed after the connector, so that all written records are flushed
+      e = WorkflowUtils.closeQuietly(checkpointManager, e);
       e = WorkflowUtils.closeQuietly(scheduler, e);
       e = WorkflowUtils.closeQuietly(executor, e);
       e = WorkflowUtils.closeQuietly(cluster, e);
@@ -209,6 +247,9 @@ public class UnloadWorkflow implements Workflow {
       if (logManager != null) {
         logManager.reportLastLocations();
       }
+      if (checkpointManager != null) {
+        checkpointManager.reportCheckpoint();
+      }
       LOGGER.info("{} closed.", this);
       if (e != null) {
         throw e;
@@ -23,6 +23,20 @@ public enum WorkflowType {
     public Workflow newWorkflow(LoaderConfig config) {
       return new UnloadWorkflow(config);
     }
+  },
+
+  COPY {
+    @Override
+    public Workflow newWorkflow(LoaderConfig config) {
+      return new CopyWorkflow(config);
+    }
+  },
+
+  COUNT {
+    @Override
+    public Workflow newWorkflow(LoaderConfig config) {
+      return new CountWorkflow(config);
+    }
   };
 
   public abstract Workflow newWorkflow(LoaderConfig config);
@@ -11,20 +11,23 @@ package com.datastax.dsbulk.engine.internal.codecs.json;
 import com.datastax.driver.core.TypeCodec;
 import com.datastax.driver.core.exceptions.InvalidTypeException;
 import com.datastax.dsbulk.engine.internal.codecs.ConvertingCodec;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.function.Supplier;
 
 public abstract class JsonNodeToCollectionCodec<E, C extends Collection<E>>
-    extends JsonNodeConvertingCodec<C> {
+    extends JsonNodeToContainerCodec<C> {
 
   private final ConvertingCodec<JsonNode, E> eltCodec;
   private final Supplier<C> collectionSupplier;
-  private final ObjectMapper objectMapper;
   private final C emptyCollection;
 
   JsonNodeToCollectionCodec(
@@ -34,9 +37,8 @@ public abstract class JsonNodeToCollectionCodec<E, C extends Collection<E>>
       Supplier<C> collectionSupplier,
       List<String> nullStrings,
       C emptyCollection) {
-    super(collectionCodec, nullStrings);
+    super(collectionCodec, objectMapper, nullStrings);
     this.eltCodec = eltCodec;
-    this.objectMapper = objectMapper;
     this.collectionSupplier = collectionSupplier;
     this.emptyCollection = emptyCollection;
   }
@@ -72,4 +74,28 @@ public abstract class JsonNodeToCollectionCodec<E, C extends Collection<E>>
     }
     return root;
   }
+
+  @Override
+  public C parse(JsonParser parser) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      return parseTree(parser);
+    }
+    if (parser.nextToken() == JsonToken.END_ARRAY) {
+      return emptyCollection;
+    }
+    C collection = collectionSupplier.get();
+    do {
+      collection.add(parseElement(parser, eltCodec));
+    } while (parser.nextToken() != JsonToken.END_ARRAY);
+    return collection;
+  }
+
+  @Override
+  public void format(C value, JsonGenerator generator) throws IOException {
+    generator.writeStartArray();
+    for (E element : value) {
+      formatElement(element, eltCodec, generator);
+    }
+    generator.writeEndArray();
+  }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.codecs.json;
+
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.dsbulk.engine.internal.codecs.ConvertingCodec;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Base class for codecs of collections, maps, tuples and UDTs.
+ *
+ * <p>Besides converting trees, these codecs can read values directly from a {@link JsonParser} and
+ * write them directly to a {@link JsonGenerator}, without materializing a tree for the whole
+ * container. Nested containers are streamed as well; only leaf elements are read or written as
+ * nodes.
+ */
+public abstract class JsonNodeToContainerCodec<T> extends JsonNodeConvertingCodec<T> {
+
+  protected final ObjectMapper objectMapper;
+
+  JsonNodeToContainerCodec(
+      TypeCodec<T> targetCodec, ObjectMapper objectMapper, List<String> nullStrings) {
+    super(targetCodec, nullStrings);
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Reads a value from the given parser.
+   *
+   * <p>The parser must be positioned on the value's first token, or on no token at all if the input
+   * is exhausted; when this method returns, it is positioned on the value's last token.
+   *
+   * @param parser the parser to read from.
+   * @return the value read, possibly {@code null}.
+   * @throws IOException if the input cannot be read.
+   */
+  public abstract T parse(JsonParser parser) throws IOException;
+
+  /**
+   * Writes the given non-null value to the given generator.
+   *
+   * @param value the value to write.
+   * @param generator the generator to write to.
+   * @throws IOException if the output cannot be written.
+   */
+  public abstract void format(T value, JsonGenerator generator) throws IOException;
+
+  /**
+   * Reads the value the parser is positioned on as a tree and converts it; used when that value is
+   * not of the expected container type, so that nulls and errors are handled as for trees.
+   */
+  T parseTree(JsonParser parser) throws IOException {
+    return externalToInternal(objectMapper.readTree(parser));
+  }
+
+  @SuppressWarnings("unchecked")
+  <E> E parseElement(JsonParser parser, ConvertingCodec<JsonNode, E> codec) throws IOException {
+    if (codec instanceof JsonNodeToContainerCodec) {
+      return ((JsonNodeToContainerCodec<E>) codec).parse(parser);
+    }
+    return codec.externalToInternal(readNode(parser));
+  }
+
+  @SuppressWarnings("unchecked")
+  <E> void formatElement(E element, ConvertingCodec<JsonNode, E> codec, JsonGenerator generator)
+      throws IOException {
+    if (element != null && codec instanceof JsonNodeToContainerCodec) {
+      ((JsonNodeToContainerCodec<E>) codec).format(element, generator);
+    } else {
+      writeNode(codec.internalToExternal(element), generator);
+    }
+  }
+
+  /**
+   * Reads the value the parser is positioned on as a node. Strings, booleans, nulls and integers
+   * are built from the current token exactly as the object mapper would build them; other values
+   * are handed over to the object mapper.
+   */
+  private JsonNode readNode(JsonParser parser) throws IOException {
+    JsonNodeFactory factory = objectMapper.getNodeFactory();
+    switch (parser.currentToken()) {
+      case VALUE_STRING:
+        return factory.textNode(parser.getText());
+      case VALUE_TRUE:
+        return factory.booleanNode(true);
+      case VALUE_FALSE:
+        return factory.booleanNode(false);
+      case VALUE_NULL:
+        return factory.nullNode();
+      case VALUE_NUMBER_INT:
+        if (!objectMapper.isEnabled(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS)
+            && !objectMapper.isEnabled(DeserializationFeature.USE_LONG_FOR_INTS)) {
+          switch (parser.getNumberType()) {
+            case INT:
+              return factory.numberNode(parser.getIntValue());
+            case LONG:
+              return factory.numberNode(parser.getLongValue());
+            default:
+              return factory.numberNode(parser.getBigIntegerValue());
+          }
+        }
+        return objectMapper.readTree(parser);
+      default:
+        return objectMapper.readTree(parser);
+    }
+  }
+
+  private static void writeNode(JsonNode node, JsonGenerator generator) throws IOException {
+    if (node == null || node.isNull()) {
+      generator.writeNull();
+    } else if (node.isTextual()) {
+      generator.writeString(node.textValue());
+    } else if (node.isInt()) {
+      generator.writeNumber(node.intValue());
+    } else if (node.isLong()) {
+      generator.writeNumber(node.longValue());
+    } else {
+      generator.writeTree(node);
+    }
+  }
+}
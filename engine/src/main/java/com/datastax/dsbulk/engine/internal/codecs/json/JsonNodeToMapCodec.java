@@ -11,20 +11,23 @@ package com.datastax.dsbulk.engine.internal.codecs.json;
 import com.datastax.driver.core.TypeCodec;
 import com.datastax.driver.core.exceptions.InvalidTypeException;
 import com.datastax.dsbulk.engine.internal.codecs.ConvertingCodec;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-public class JsonNodeToMapCodec<K, V> extends JsonNodeConvertingCodec<Map<K, V>> {
+public class JsonNodeToMapCodec<K, V> extends JsonNodeToContainerCodec<Map<K, V>> {
 
   private final ConvertingCodec<String, K> keyCodec;
   private final ConvertingCodec<JsonNode, V> valueCodec;
-  private final ObjectMapper objectMapper;
   private final Map<K, V> emptyMap;
 
   public JsonNodeToMapCodec(
@@ -33,10 +36,9 @@ public class JsonNodeToMapCodec<K, V> extends JsonNodeConvertingCodec<Map<K, V>>
       ConvertingCodec<JsonNode, V> valueCodec,
       ObjectMapper objectMapper,
       List<String> nullStrings) {
-    super(collectionCodec, nullStrings);
+    super(collectionCodec, objectMapper, nullStrings);
     this.keyCodec = keyCodec;
     this.valueCodec = valueCodec;
-    this.objectMapper = objectMapper;
     emptyMap = ImmutableMap.of();
   }
 
@@ -75,4 +77,31 @@ public class JsonNodeToMapCodec<K, V> extends JsonNodeConvertingCodec<Map<K, V>>
     }
     return root;
   }
+
+  @Override
+  public Map<K, V> parse(JsonParser parser) throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      return parseTree(parser);
+    }
+    if (parser.nextToken() == JsonToken.END_OBJECT) {
+      return emptyMap;
+    }
+    Map<K, V> map = new LinkedHashMap<>();
+    do {
+      K key = keyCodec.externalToInternal(parser.getCurrentName());
+      parser.nextToken();
+      map.put(key, parseElement(parser, valueCodec));
+    } while (parser.nextToken() != JsonToken.END_OBJECT);
+    return map;
+  }
+
+  @Override
+  public void format(Map<K, V> map, JsonGenerator generator) throws IOException {
+    generator.writeStartObject();
+    for (Map.Entry<K, V> entry : map.entrySet()) {
+      generator.writeFieldName(keyCodec.internalToExternal(entry.getKey()));
+      formatElement(entry.getValue(), valueCodec, generator);
+    }
+    generator.writeEndObject();
+  }
 }
@@ -13,26 +13,28 @@ import com.datastax.driver.core.TupleValue;
 import com.datastax.driver.core.TypeCodec;
 import com.datastax.driver.core.exceptions.InvalidTypeException;
 import com.datastax.dsbulk.engine.internal.codecs.ConvertingCodec;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import java.io.IOException;
 import java.util.List;
 
-public class JsonNodeToTupleCodec extends JsonNodeConvertingCodec<TupleValue> {
+public class JsonNodeToTupleCodec extends JsonNodeToContainerCodec<TupleValue> {
 
   private final TupleType definition;
   private final List<ConvertingCodec<JsonNode, Object>> eltCodecs;
-  private final ObjectMapper objectMapper;
 
   public JsonNodeToTupleCodec(
       TypeCodec<TupleValue> tupleCodec,
       List<ConvertingCodec<JsonNode, Object>> eltCodecs,
       ObjectMapper objectMapper,
       List<String> nullStrings) {
-    super(tupleCodec, nullStrings);
+    super(tupleCodec, objectMapper, nullStrings);
     this.eltCodecs = eltCodecs;
     definition = (TupleType) tupleCodec.getCqlType();
-    this.objectMapper = objectMapper;
   }
 
   @Override
@@ -72,4 +74,40 @@ public class JsonNodeToTupleCodec extends JsonNodeConvertingCodec<TupleValue> {
     }
     return root;
   }
+
+  @Override
+  public TupleValue parse(JsonParser parser) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      return parseTree(parser);
+    }
+    int size = definition.getComponentTypes().size();
+    TupleValue tuple = definition.newValue();
+    int i = 0;
+    for (; parser.nextToken() != JsonToken.END_ARRAY; i++) {
+      if (i < size) {
+        ConvertingCodec<JsonNode, Object> eltCodec = eltCodecs.get(i);
+        Object o = parseElement(parser, eltCodec);
+        tuple.set(i, o, eltCodec.getInternalJavaType());
+      } else {
+        // keep counting, to report the actual number of elements
+        parser.skipChildren();
+      }
+    }
+    if (i != size) {
+      throw new InvalidTypeException(String.format("Expecting %d elements, got %d", size, i));
+    }
+    return tuple;
+  }
+
+  @Override
+  public void format(TupleValue tuple, JsonGenerator generator) throws IOException {
+    generator.writeStartArray();
+    int size = definition.getComponentTypes().size();
+    for (int i = 0; i < size; i++) {
+      ConvertingCodec<JsonNode, Object> eltCodec = eltCodecs.get(i);
+      Object o = tuple.get(i, eltCodec.getInternalJavaType());
+      formatElement(o, eltCodec, generator);
+    }
+    generator.writeEndArray();
+  }
 }
@@ -13,29 +13,33 @@ import com.datastax.driver.core.UDTValue;
 import com.datastax.driver.core.UserType;
 import com.datastax.driver.core.exceptions.InvalidTypeException;
 import com.datastax.dsbulk.engine.internal.codecs.ConvertingCodec;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-public class JsonNodeToUDTCodec extends JsonNodeConvertingCodec<UDTValue> {
+public class JsonNodeToUDTCodec extends JsonNodeToContainerCodec<UDTValue> {
 
   private final Map<String, ConvertingCodec<JsonNode, Object>> fieldCodecs;
   private final UserType definition;
-  private final ObjectMapper objectMapper;
 
   public JsonNodeToUDTCodec(
       TypeCodec<UDTValue> udtCodec,
       Map<String, ConvertingCodec<JsonNode, Object>> fieldCodecs,
       ObjectMapper objectMapper,
       List<String> nullStrings) {
-    super(udtCodec, nullStrings);
+    super(udtCodec, objectMapper, nullStrings);
     this.fieldCodecs = fieldCodecs;
     definition = (UserType) udtCodec.getCqlType();
-    this.objectMapper = objectMapper;
   }
 
   @Override
@@ -85,4 +89,57 @@ public class JsonNodeToUDTCodec extends JsonNodeConvertingCodec<UDTValue> {
     }
     return root;
   }
+
+  @Override
+  public UDTValue parse(JsonParser parser) throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      return parseTree(parser);
+    }
+    UDTValue value = definition.newValue();
+    if (parser.nextToken() == JsonToken.END_OBJECT) {
+      return value;
+    }
+    Collection<String> fieldNames = definition.getFieldNames();
+    // behave as externalToInternal: duplicate fields are counted once, and the last value wins;
+    // unknown fields are only reported if the number of distinct fields is correct
+    Set<String> names = new HashSet<>();
+    String unknown = null;
+    do {
+      String name = parser.getCurrentName();
+      names.add(name);
+      parser.nextToken();
+      if (fieldNames.contains(name)) {
+        ConvertingCodec<JsonNode, Object> fieldCodec = fieldCodecs.get(name);
+        Object o = parseElement(parser, fieldCodec);
+        value.set(name, o, fieldCodec.getInternalJavaType());
+      } else {
+        if (unknown == null) {
+          unknown = name;
+        }
+        parser.skipChildren();
+      }
+    } while (parser.nextToken() != JsonToken.END_OBJECT);
+    if (names.size() != definition.size()) {
+      throw new InvalidTypeException(
+          String.format("Expecting %d fields, got %d", definition.size(), names.size()));
+    }
+    if (unknown != null) {
+      throw new InvalidTypeException(
+          String.format("Unknown field %s in UDT %s", unknown, definition.getName()));
+    }
+    return value;
+  }
+
+  @Override
+  public void format(UDTValue value, JsonGenerator generator) throws IOException {
+    generator.writeStartObject();
+    for (UserType.Field field : definition) {
+      String name = field.getName();
+      ConvertingCodec<JsonNode, Object> eltCodec = fieldCodecs.get(name);
+      Object o = value.get(name, eltCodec.getInternalJavaType());
+      generator.writeFieldName(name);
+      formatElement(o, eltCodec, generator);
+    }
+    generator.writeEndObject();
+  }
 }
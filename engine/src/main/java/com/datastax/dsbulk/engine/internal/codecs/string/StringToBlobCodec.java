@@ -8,6 +8,9 @@
  */
 package com.datastax.dsbulk.engine.internal.codecs.string;
 
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.utils.Bytes;
 import com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils;
 import java.nio.ByteBuffer;
@@ -20,6 +23,16 @@ public class StringToBlobCodec extends StringConvertingCodec<ByteBuffer> {
     super(blob(), nullStrings);
   }
 
+  @Override
+  public String deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion) {
+    if (bytes != null) {
+      // fast path: encode the raw bytes directly, without copying them first
+      ByteBuffer encoded = Base64.getEncoder().encode(bytes.duplicate());
+      return new String(encoded.array(), encoded.arrayOffset(), encoded.remaining(), US_ASCII);
+    }
+    return super.deserialize(bytes, protocolVersion);
+  }
+
   @Override
   public ByteBuffer externalToInternal(String s) {
     if (isNullOrEmpty(s)) {
@@ -8,7 +8,9 @@
  */
 package com.datastax.dsbulk.engine.internal.codecs.string;
 
+import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.exceptions.InvalidTypeException;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 
@@ -24,6 +26,15 @@ public class StringToBooleanCodec extends StringConvertingCodec<Boolean> {
     this.outputs = outputs;
   }
 
+  @Override
+  public String deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion) {
+    if (bytes != null && bytes.remaining() == 1) {
+      // fast path: read the raw byte directly
+      return internalToExternal(bytes.get(bytes.position()) != 0);
+    }
+    return super.deserialize(bytes, protocolVersion);
+  }
+
   @Override
   public Boolean externalToInternal(String s) {
     if (isNullOrEmpty(s)) {
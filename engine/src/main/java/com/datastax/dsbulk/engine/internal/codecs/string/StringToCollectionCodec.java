@@ -10,10 +10,11 @@ package com.datastax.dsbulk.engine.internal.codecs.string;
 
 import com.datastax.driver.core.exceptions.InvalidTypeException;
 import com.datastax.dsbulk.engine.internal.codecs.json.JsonNodeToCollectionCodec;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Collection;
 import java.util.List;
 
@@ -37,9 +38,9 @@ public abstract class StringToCollectionCodec<E, C extends Collection<E>>
     if (isNullOrEmpty(s)) {
       return null;
     }
-    try {
-      JsonNode node = objectMapper.readTree(s);
-      return jsonCodec.externalToInternal(node);
+    try (JsonParser parser = objectMapper.getFactory().createParser(s)) {
+      parser.nextToken();
+      return jsonCodec.parse(parser);
     } catch (IOException e) {
       throw new InvalidTypeException(String.format("Could not parse '%s' as Json", s), e);
     }
@@ -51,9 +52,12 @@ public abstract class StringToCollectionCodec<E, C extends Collection<E>>
       return nullString();
     }
     try {
-      JsonNode node = jsonCodec.internalToExternal(collection);
-      return objectMapper.writeValueAsString(node);
-    } catch (JsonProcessingException e) {
+      StringWriter writer = new StringWriter();
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+        jsonCodec.format(collection, generator);
+      }
+      return writer.toString();
+    } catch (IOException e) {
       throw new InvalidTypeException(String.format("Could not format '%s' to Json", collection), e);
     }
   }
@@ -8,14 +8,18 @@
  */
 package com.datastax.dsbulk.engine.internal.codecs.string;
 
+import static com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils.NOT_A_PLAIN_INTEGER;
 import static java.util.stream.Collectors.toList;
 
+import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.TypeCodec;
+import com.datastax.driver.core.TypeCodec.PrimitiveIntCodec;
 import com.datastax.dsbulk.engine.internal.codecs.util.OverflowStrategy;
 import com.datastax.dsbulk.engine.internal.codecs.util.TemporalFormat;
 import io.netty.util.concurrent.FastThreadLocal;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
 import java.text.NumberFormat;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -25,6 +29,11 @@ import java.util.concurrent.TimeUnit;
 
 public class StringToIntegerCodec extends StringToNumberCodec<Integer> {
 
+  /** The maximum number of digits of plain integer literals that always fit in a int. */
+  private static final int MAX_DIGITS = 9;
+
+  private final PrimitiveIntCodec targetCodec;
+
   public StringToIntegerCodec(
       FastThreadLocal<NumberFormat> numberFormat,
       OverflowStrategy overflowStrategy,
@@ -48,10 +57,39 @@ public class StringToIntegerCodec extends StringToNumberCodec<Integer> {
         booleanStrings,
         booleanNumbers.stream().map(BigDecimal::intValueExact).collect(toList()),
         nullStrings);
+    this.targetCodec = TypeCodec.cint();
+  }
+
+  @Override
+  public long parsePlainValue(String s) {
+    return parsePlainInteger(s, MAX_DIGITS);
+  }
+
+  @Override
+  public ByteBuffer serialize(String s, ProtocolVersion protocolVersion) {
+    long value = parsePlainValue(s);
+    if (value != NOT_A_PLAIN_INTEGER) {
+      // fast path: serialize the primitive value directly, without boxing
+      return targetCodec.serializeNoBoxing((int) value, protocolVersion);
+    }
+    return super.serialize(s, protocolVersion);
+  }
+
+  @Override
+  public String deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion) {
+    if (bytes != null && bytes.remaining() == 4 && formatsWithToString()) {
+      // fast path: format the primitive value directly, without boxing
+      return Integer.toString(targetCodec.deserializeNoBoxing(bytes, protocolVersion));
+    }
+    return super.deserialize(bytes, protocolVersion);
   }
 
   @Override
   public Integer externalToInternal(String s) {
+    long value = parsePlainValue(s);
+    if (value != NOT_A_PLAIN_INTEGER) {
+      return (int) value;
+    }
     Number number = parseNumber(s);
     if (number == null) {
       return null;
@@ -8,13 +8,17 @@
  */
 package com.datastax.dsbulk.engine.internal.codecs.string;
 
+import static com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils.NOT_A_PLAIN_INTEGER;
 import static java.util.stream.Collectors.toList;
 
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.TypeCodec.PrimitiveLongCodec;
 import com.datastax.dsbulk.engine.internal.codecs.util.OverflowStrategy;
 import com.datastax.dsbulk.engine.internal.codecs.util.TemporalFormat;
 import io.netty.util.concurrent.FastThreadLocal;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
 import java.text.NumberFormat;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -24,6 +28,11 @@ import java.util.concurrent.TimeUnit;
 
 public class StringToLongCodec extends StringToNumberCodec<Long> {
 
+  /** The maximum number of digits of plain integer literals that always fit in a long. */
+  private static final int MAX_DIGITS = 18;
+
+  private final PrimitiveLongCodec targetCodec;
+
   public StringToLongCodec(
       PrimitiveLongCodec targetCodec,
       FastThreadLocal<NumberFormat> numberFormat,
@@ -48,10 +57,39 @@ public class StringToLongCodec extends StringToNumberCodec<Long> {
         booleanStrings,
         booleanNumbers.stream().map(BigDecimal::longValueExact).collect(toList()),
         nullStrings);
+    this.targetCodec = targetCodec;
+  }
+
+  @Override
+  public long parsePlainValue(String s) {
+    return parsePlainInteger(s, MAX_DIGITS);
+  }
+
+  @Override
+  public ByteBuffer serialize(String s, ProtocolVersion protocolVersion) {
+    long value = parsePlainValue(s);
+    if (value != NOT_A_PLAIN_INTEGER) {
+      // fast path: serialize the primitive value directly, without boxing
+      return targetCodec.serializeNoBoxing(value, protocolVersion);
+    }
+    return super.serialize(s, protocolVersion);
+  }
+
+  @Override
+  public String deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion) {
+    if (bytes != null && bytes.remaining() == 8 && formatsWithToString()) {
+      // fast path: format the primitive value directly, without boxing
+      return Long.toString(targetCodec.deserializeNoBoxing(bytes, protocolVersion));
+    }
+    return super.deserialize(bytes, protocolVersion);
   }
 
   @Override
   public Long externalToInternal(String s) {
+    long value = parsePlainValue(s);
+    if (value != NOT_A_PLAIN_INTEGER) {
+      return value;
+    }
     Number number = parseNumber(s);
     if (number == null) {
       return null;
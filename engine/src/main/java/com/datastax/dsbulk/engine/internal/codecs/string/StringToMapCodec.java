@@ -10,10 +10,11 @@ package com.datastax.dsbulk.engine.internal.codecs.string;
 
 import com.datastax.driver.core.exceptions.InvalidTypeException;
 import com.datastax.dsbulk.engine.internal.codecs.json.JsonNodeToMapCodec;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.List;
 import java.util.Map;
 
@@ -34,9 +35,9 @@ public class StringToMapCodec<K, V> extends StringConvertingCodec<Map<K, V>> {
     if (isNullOrEmpty(s)) {
       return null;
     }
-    try {
-      JsonNode node = objectMapper.readTree(s);
-      return jsonCodec.externalToInternal(node);
+    try (JsonParser parser = objectMapper.getFactory().createParser(s)) {
+      parser.nextToken();
+      return jsonCodec.parse(parser);
     } catch (IOException e) {
       throw new InvalidTypeException(String.format("Could not parse '%s' as Json", s), e);
     }
@@ -48,9 +49,12 @@ public class StringToMapCodec<K, V> extends StringConvertingCodec<Map<K, V>> {
       return nullString();
     }
     try {
-      JsonNode node = jsonCodec.internalToExternal(map);
-      return objectMapper.writeValueAsString(node);
-    } catch (JsonProcessingException e) {
+      StringWriter writer = new StringWriter();
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+        jsonCodec.format(map, generator);
+      }
+      return writer.toString();
+    } catch (IOException e) {
       throw new InvalidTypeException(String.format("Could not format '%s' to Json", map), e);
     }
   }
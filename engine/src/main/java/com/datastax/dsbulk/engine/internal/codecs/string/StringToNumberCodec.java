@@ -12,6 +12,7 @@ import com.datastax.driver.core.TypeCodec;
 import com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils;
 import com.datastax.dsbulk.engine.internal.codecs.util.OverflowStrategy;
 import com.datastax.dsbulk.engine.internal.codecs.util.TemporalFormat;
+import com.datastax.dsbulk.engine.internal.codecs.util.ToStringNumberFormat;
 import io.netty.util.concurrent.FastThreadLocal;
 import java.math.RoundingMode;
 import java.text.NumberFormat;
@@ -65,6 +66,16 @@ public abstract class StringToNumberCodec<N extends Number> extends StringConver
     return CodecUtils.formatNumber(value, numberFormat.get());
   }
 
+  /**
+   * Returns whether numbers are formatted with {@link Number#toString()}, in which case primitive
+   * values can be formatted directly, without boxing them nor going through the number format.
+   *
+   * @return whether numbers are formatted with {@link Number#toString()}.
+   */
+  boolean formatsWithToString() {
+    return numberFormat.get() instanceof ToStringNumberFormat;
+  }
+
   Number parseNumber(String s) {
     if (isNullOrEmpty(s)) {
       return null;
@@ -80,6 +91,37 @@ public abstract class StringToNumberCodec<N extends Number> extends StringConver
         booleanNumbers);
   }
 
+  /**
+   * Parses the given string as a plain integer literal, see {@link
+   * CodecUtils#parsePlainInteger(String, int)}.
+   *
+   * @param s the string to parse, may be {@code null}.
+   * @param maxDigits the maximum number of digits to accept.
+   * @return the parsed value, or {@link CodecUtils#NOT_A_PLAIN_INTEGER} if the string is a null
+   *     string, or is empty, or is not a plain integer literal.
+   */
+  long parsePlainInteger(String s, int maxDigits) {
+    if (isNullOrEmpty(s)) {
+      return CodecUtils.NOT_A_PLAIN_INTEGER;
+    }
+    return CodecUtils.parsePlainInteger(s, maxDigits);
+  }
+
+  /**
+   * Parses the given string as a plain integer literal that always fits in the target type, so that
+   * callers can serialize it as a primitive value, without boxing.
+   *
+   * <p>This implementation always returns {@link CodecUtils#NOT_A_PLAIN_INTEGER}; codecs targeting
+   * integral types override it.
+   *
+   * @param s the string to parse, may be {@code null}.
+   * @return the parsed value, or {@link CodecUtils#NOT_A_PLAIN_INTEGER} if the string cannot be
+   *     parsed without going through {@code externalToInternal}.
+   */
+  public long parsePlainValue(String s) {
+    return CodecUtils.NOT_A_PLAIN_INTEGER;
+  }
+
   N narrowNumber(Number number, Class<? extends N> targetClass) {
     return CodecUtils.narrowNumber(number, targetClass, overflowStrategy, roundingMode);
   }
@@ -8,13 +8,17 @@
  */
 package com.datastax.dsbulk.engine.internal.codecs.string;
 
+import static com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils.NOT_A_PLAIN_INTEGER;
 import static java.util.stream.Collectors.toList;
 
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.TypeCodec.PrimitiveShortCodec;
 import com.datastax.dsbulk.engine.internal.codecs.util.OverflowStrategy;
 import com.datastax.dsbulk.engine.internal.codecs.util.TemporalFormat;
 import io.netty.util.concurrent.FastThreadLocal;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
 import java.text.NumberFormat;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -24,6 +28,11 @@ import java.util.concurrent.TimeUnit;
 
 public class StringToShortCodec extends StringToNumberCodec<Short> {
 
+  /** The maximum number of digits of plain integer literals that always fit in a short. */
+  private static final int MAX_DIGITS = 4;
+
+  private final PrimitiveShortCodec targetCodec;
+
   public StringToShortCodec(
       FastThreadLocal<NumberFormat> numberFormat,
       OverflowStrategy overflowStrategy,
@@ -47,10 +56,39 @@ public class StringToShortCodec extends StringToNumberCodec<Short> {
         booleanStrings,
         booleanNumbers.stream().map(BigDecimal::shortValueExact).collect(toList()),
         nullStrings);
+    this.targetCodec = smallInt();
+  }
+
+  @Override
+  public long parsePlainValue(String s) {
+    return parsePlainInteger(s, MAX_DIGITS);
+  }
+
+  @Override
+  public ByteBuffer serialize(String s, ProtocolVersion protocolVersion) {
+    long value = parsePlainValue(s);
+    if (value != NOT_A_PLAIN_INTEGER) {
+      // fast path: serialize the primitive value directly, without boxing
+      return targetCodec.serializeNoBoxing((short) value, protocolVersion);
+    }
+    return super.serialize(s, protocolVersion);
+  }
+
+  @Override
+  public String deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion) {
+    if (bytes != null && bytes.remaining() == 2 && formatsWithToString()) {
+      // fast path: format the primitive value directly, without boxing
+      return Short.toString(targetCodec.deserializeNoBoxing(bytes, protocolVersion));
+    }
+    return super.deserialize(bytes, protocolVersion);
   }
 
   @Override
   public Short externalToInternal(String s) {
+    long value = parsePlainValue(s);
+    if (value != NOT_A_PLAIN_INTEGER) {
+      return (short) value;
+    }
     Number number = parseNumber(s);
     if (number == null) {
       return null;
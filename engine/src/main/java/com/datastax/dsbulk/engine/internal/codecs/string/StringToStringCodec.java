@@ -8,13 +8,39 @@
  */
 package com.datastax.dsbulk.engine.internal.codecs.string;
 
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.TypeCodec;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.List;
 
 public class StringToStringCodec extends StringConvertingCodec<String> {
 
+  private final Charset charset;
+
   public StringToStringCodec(TypeCodec<String> innerCodec, List<String> nullStrings) {
     super(innerCodec, nullStrings);
+    // only the driver's built-in codecs are known to simply decode the raw bytes
+    if (innerCodec == TypeCodec.varchar()) {
+      charset = UTF_8;
+    } else if (innerCodec == TypeCodec.ascii()) {
+      charset = US_ASCII;
+    } else {
+      charset = null;
+    }
+  }
+
+  @Override
+  public String deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion) {
+    if (charset != null && bytes != null && bytes.hasArray()) {
+      // fast path: decode the raw bytes in place, without copying them first
+      return new String(
+          bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining(), charset);
+    }
+    return super.deserialize(bytes, protocolVersion);
   }
 
   @Override
@@ -11,10 +11,11 @@ package com.datastax.dsbulk.engine.internal.codecs.string;
 import com.datastax.driver.core.TupleValue;
 import com.datastax.driver.core.exceptions.InvalidTypeException;
 import com.datastax.dsbulk.engine.internal.codecs.json.JsonNodeToTupleCodec;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.List;
 
 public class StringToTupleCodec extends StringConvertingCodec<TupleValue> {
@@ -34,9 +35,9 @@ public class StringToTupleCodec extends StringConvertingCodec<TupleValue> {
     if (isNullOrEmpty(s)) {
       return null;
     }
-    try {
-      JsonNode node = objectMapper.readTree(s);
-      return jsonCodec.externalToInternal(node);
+    try (JsonParser parser = objectMapper.getFactory().createParser(s)) {
+      parser.nextToken();
+      return jsonCodec.parse(parser);
     } catch (IOException e) {
       throw new InvalidTypeException(String.format("Could not parse '%s' as Json", s), e);
     }
@@ -48,9 +49,12 @@ public class StringToTupleCodec extends StringConvertingCodec<TupleValue> {
       return nullString();
     }
     try {
-      JsonNode node = jsonCodec.internalToExternal(tuple);
-      return objectMapper.writeValueAsString(node);
-    } catch (JsonProcessingException e) {
+      StringWriter writer = new StringWriter();
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+        jsonCodec.format(tuple, generator);
+      }
+      return writer.toString();
+    } catch (IOException e) {
       throw new InvalidTypeException(String.format("Could not format '%s' to Json", tuple), e);
     }
   }
@@ -11,10 +11,11 @@ package com.datastax.dsbulk.engine.internal.codecs.string;
 import com.datastax.driver.core.UDTValue;
 import com.datastax.driver.core.exceptions.InvalidTypeException;
 import com.datastax.dsbulk.engine.internal.codecs.json.JsonNodeToUDTCodec;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.List;
 
 public class StringToUDTCodec extends StringConvertingCodec<UDTValue> {
@@ -34,9 +35,9 @@ public class StringToUDTCodec extends StringConvertingCodec<UDTValue> {
     if (isNullOrEmpty(s)) {
       return null;
     }
-    try {
-      JsonNode node = objectMapper.readTree(s);
-      return jsonCodec.externalToInternal(node);
+    try (JsonParser parser = objectMapper.getFactory().createParser(s)) {
+      parser.nextToken();
+      return jsonCodec.parse(parser);
     } catch (IOException e) {
       throw new InvalidTypeException(String.format("Could not parse '%s' as Json", s), e);
     }
@@ -48,9 +49,12 @@ public class StringToUDTCodec extends StringConvertingCodec<UDTValue> {
       return nullString();
     }
     try {
-      JsonNode node = jsonCodec.internalToExternal(udt);
-      return objectMapper.writeValueAsString(node);
-    } catch (JsonProcessingException e) {
+      StringWriter writer = new StringWriter();
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+        jsonCodec.format(udt, generator);
+      }
+      return writer.toString();
+    } catch (IOException e) {
       throw new InvalidTypeException(String.format("Could not format '%s' to Json", udt), e);
     }
   }
@@ -8,16 +8,20 @@
  */
 package com.datastax.dsbulk.engine.internal.codecs.string;
 
+import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.TypeCodec;
 import com.datastax.dsbulk.engine.internal.codecs.ConvertingCodec;
 import com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils;
 import com.datastax.dsbulk.engine.internal.codecs.util.TimeUUIDGenerator;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 public class StringToUUIDCodec extends StringConvertingCodec<UUID> {
 
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
   private final ConvertingCodec<String, Instant> instantCodec;
   private final TimeUUIDGenerator generator;
 
@@ -31,6 +35,26 @@ public class StringToUUIDCodec extends StringConvertingCodec<UUID> {
     this.generator = generator;
   }
 
+  @Override
+  public String deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion) {
+    if (bytes != null && bytes.remaining() == 16) {
+      // fast path: format the raw bytes directly, without creating a UUID instance
+      char[] chars = new char[36];
+      int pos = bytes.position();
+      int c = 0;
+      for (int i = 0; i < 16; i++) {
+        if (i == 4 || i == 6 || i == 8 || i == 10) {
+          chars[c++] = '-';
+        }
+        byte b = bytes.get(pos + i);
+        chars[c++] = HEX_DIGITS[(b >> 4) & 0xF];
+        chars[c++] = HEX_DIGITS[b & 0xF];
+      }
+      return new String(chars);
+    }
+    return super.deserialize(bytes, protocolVersion);
+  }
+
   @Override
   public UUID externalToInternal(String s) {
     if (isNullOrEmpty(s)) {
@@ -292,6 +292,48 @@ public class CodecUtils {
     return number;
   }
 
+  /**
+   * The value returned by {@link #parsePlainInteger(String, int)} when the string is not a plain
+   * integer literal.
+   */
+  public static final long NOT_A_PLAIN_INTEGER = Long.MIN_VALUE;
+
+  /**
+   * Parses the given string as a plain integer literal, that is, an optional minus sign followed by
+   * at most {@code maxDigits} ASCII digits, without grouping separators, decimal separators,
+   * exponents or surrounding whitespace.
+   *
+   * <p>This is a fast path for the most common numeric input: such literals are always parsed to
+   * the same value by {@link #parseNumber(String, NumberFormat, TemporalFormat, ZoneId, TimeUnit,
+   * ZonedDateTime, Map, List)}, whatever the number format in use, but this method does it without
+   * allocating any object. Callers should fall back to the latter when this method returns {@link
+   * #NOT_A_PLAIN_INTEGER}.
+   *
+   * @param s the string to parse; cannot be {@code null}.
+   * @param maxDigits the maximum number of digits to accept; cannot be greater than 18, so that the
+   *     parsed value never overflows.
+   * @return the parsed value, or {@link #NOT_A_PLAIN_INTEGER} if the string is not a plain integer
+   *     literal, or has more than {@code maxDigits} digits.
+   */
+  public static long parsePlainInteger(@NotNull String s, int maxDigits) {
+    assert maxDigits <= 18;
+    int length = s.length();
+    int start = length > 0 && s.charAt(0) == '-' ? 1 : 0;
+    int digits = length - start;
+    if (digits == 0 || digits > maxDigits) {
+      return NOT_A_PLAIN_INTEGER;
+    }
+    long value = 0;
+    for (int i = start; i < length; i++) {
+      char c = s.charAt(i);
+      if (c < '0' || c > '9') {
+        return NOT_A_PLAIN_INTEGER;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return start == 0 ? value : -value;
+  }
+
   /**
    * Formats the given number using the given format.
    *
@@ -12,8 +12,13 @@ import static com.datastax.dsbulk.engine.internal.log.LogUtils.appendRecordInfo;
 import static com.datastax.dsbulk.engine.internal.log.LogUtils.appendStatementInfo;
 import static com.datastax.dsbulk.engine.internal.log.LogUtils.printAndMaybeAddNewLine;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
 import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toList;
@@ -46,30 +51,33 @@ import com.datastax.dsbulk.executor.api.result.Result;
 import com.datastax.dsbulk.executor.api.result.WriteResult;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
-import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableRangeSet;
 import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
 import com.google.common.util.concurrent.MoreExecutors;
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
-import org.jctools.maps.NonBlockingHashMap;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
@@ -79,7 +87,6 @@ import reactor.core.publisher.Signal;
 import reactor.core.publisher.UnicastProcessor;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
-import reactor.util.concurrent.Queues;
 
 public class LogManager implements AutoCloseable {
 
@@ -97,6 +104,8 @@ public class LogManager implements AutoCloseable {
 
   private static final String POSITIONS_FILE = "positions.txt";
 
+  public static final String CHECKPOINT_FILE = "checkpoint.txt";
+
   private final WorkflowType workflowType;
   private final Cluster cluster;
   private final Path executionDirectory;
@@ -104,6 +113,9 @@ public class LogManager implements AutoCloseable {
   private final float maxErrorRatio;
   private final StatementFormatter formatter;
   private final StatementFormatVerbosity verbosity;
+  private final boolean checkpointEnabled;
+  private final Duration checkpointInterval;
+  private final Path checkpointToResume;
 
   private final AtomicInteger errors = new AtomicInteger(0);
   private final LongAdder totalItems = new LongAdder();
@@ -112,7 +124,7 @@ public class LogManager implements AutoCloseable {
       Caffeine.newBuilder()
           .build(path -> new PrintWriter(Files.newBufferedWriter(path, UTF_8, CREATE_NEW, WRITE)));
 
-  private final ConcurrentMap<URI, List<Range<Long>>> positions = new NonBlockingHashMap<>();
+  private final PositionsTracker positions = new PositionsTracker();
 
   private ScalableThreadPoolExecutor executor;
   private Scheduler scheduler;
@@ -134,6 +146,10 @@ public class LogManager implements AutoCloseable {
 
   private AtomicBoolean invalidMappingWarningDone;
 
+  private Map<URI, RangeSet<Long>> resumedPositions;
+  private Scheduler checkpointScheduler;
+  private boolean checkpointWritten;
+
   public LogManager(
       WorkflowType workflowType,
       Cluster cluster,
@@ -142,6 +158,37 @@ public class LogManager implements AutoCloseable {
       float maxErrorRatio,
       StatementFormatter formatter,
       StatementFormatVerbosity verbosity) {
+    this(
+        workflowType,
+        cluster,
+        executionDirectory,
+        maxErrors,
+        maxErrorRatio,
+        formatter,
+        verbosity,
+        false,
+        Duration.ZERO,
+        null);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * <p>Checkpointing only applies to load workflows: when enabled, the positions of all processed
+   * records are periodically written to the checkpoint file; when resuming, the positions recorded
+   * by the checkpoint file of the operation to resume are considered processed.
+   */
+  public LogManager(
+      WorkflowType workflowType,
+      Cluster cluster,
+      Path executionDirectory,
+      int maxErrors,
+      float maxErrorRatio,
+      StatementFormatter formatter,
+      StatementFormatVerbosity verbosity,
+      boolean checkpointEnabled,
+      Duration checkpointInterval,
+      @Nullable Path checkpointToResume) {
     this.workflowType = workflowType;
     this.cluster = cluster;
     this.executionDirectory = executionDirectory;
@@ -149,9 +196,24 @@ public class LogManager implements AutoCloseable {
     this.maxErrorRatio = maxErrorRatio;
     this.formatter = formatter;
     this.verbosity = verbosity;
+    this.checkpointEnabled = workflowType == WorkflowType.LOAD && checkpointEnabled;
+    this.checkpointInterval = checkpointInterval;
+    this.checkpointToResume = workflowType == WorkflowType.LOAD ? checkpointToResume : null;
   }
 
-  public void init() {
+  public void init() throws IOException {
+    resumedPositions = new TreeMap<>();
+    if (checkpointToResume != null) {
+      readCheckpoint();
+    }
+    if (checkpointEnabled && !checkpointInterval.isZero()) {
+      checkpointScheduler = Schedulers.newSingle("checkpoint");
+      checkpointScheduler.schedulePeriodically(
+          this::writeCheckpointQuietly,
+          checkpointInterval.toMillis(),
+          checkpointInterval.toMillis(),
+          MILLISECONDS);
+    }
     executor =
         // Only spawn 1 thread initially, but stretch up to 8 in case lots of errors arrive
         new ScalableThreadPoolExecutor(1, 8, 60L, SECONDS);
@@ -196,8 +258,22 @@ public class LogManager implements AutoCloseable {
     return errors.get();
   }
 
+  /**
+   * Returns the positions that were processed by the operation being resumed, per resource.
+   *
+   * <p>Used only by the load workflow. The returned map is empty if no operation is being resumed.
+   *
+   * @return the positions that were processed by the operation being resumed.
+   */
+  public Map<URI, RangeSet<Long>> getResumedPositions() {
+    return resumedPositions;
+  }
+
   @Override
   public void close() throws IOException {
+    if (checkpointScheduler != null) {
+      checkpointScheduler.dispose();
+    }
     failedRecordSink.complete();
     unmappableRecordSink.complete();
     unmappableStatementSink.complete();
@@ -226,12 +302,15 @@ public class LogManager implements AutoCloseable {
                   Charset.forName("UTF-8"),
                   CREATE_NEW,
                   WRITE));
-      // sort positions by URI
-      new TreeMap<>(positions)
+      positions
+          .getPositions()
           .forEach((resource, ranges) -> appendToPositionsFile(resource, ranges, positionsPrinter));
       positionsPrinter.flush();
       positionsPrinter.close();
     }
+    if (checkpointEnabled) {
+      writeCheckpoint();
+    }
   }
 
   public void reportLastLocations() {
@@ -257,6 +336,9 @@ public class LogManager implements AutoCloseable {
     if (positionsPrinter != null) {
       LOGGER.info("Last processed positions can be found in {}", POSITIONS_FILE);
     }
+    if (checkpointWritten) {
+      LOGGER.info("Operation progress can be found in {}", CHECKPOINT_FILE);
+    }
   }
 
   /**
@@ -288,9 +370,10 @@ public class LogManager implements AutoCloseable {
 
   /**
    * Handler for unmappable statements produced by the {@linkplain
-   * com.datastax.dsbulk.engine.internal.schema.RecordMapper record mapper}.
+   * com.datastax.dsbulk.engine.internal.schema.RecordMapper record mapper} or by the {@linkplain
+   * com.datastax.dsbulk.engine.internal.schema.ReadResultCopier result copier}.
    *
-   * <p>Used only in load workflows.
+   * <p>Used in load and copy workflows.
    *
    * <p>Increments the number of errors and forwards unmappable statements to the unmappable
    * statement processor for further processing.
@@ -394,7 +477,7 @@ public class LogManager implements AutoCloseable {
   /**
    * Handler for unsuccessful {@link WriteResult}s.
    *
-   * <p>Used only by the load workflow.
+   * <p>Used by the load and copy workflows.
    *
    * <p>Increments the number of errors and forwards unsuccessful write results to the write result
    * processor for further processing.
@@ -436,7 +519,7 @@ public class LogManager implements AutoCloseable {
   /**
    * Handler for unsuccessful {@link ReadResult}s.
    *
-   * <p>Used only by the unload workflow.
+   * <p>Used by the unload and copy workflows.
    *
    * <p>Increments the number of errors and forwards unsuccessful read results to the read result
    * processor for further processing.
@@ -511,29 +594,22 @@ public class LogManager implements AutoCloseable {
    *
    * <p>Used only by the load workflow.
    *
-   * <p>Groups together records by {@linkplain Record#getResource() resource} then merges all their
-   * {@linkplain Record#getPosition() positions} into continuous ranges.
+   * <p>Records the {@linkplain Record#getPosition() positions} of records per {@linkplain
+   * Record#getResource() resource}; positions are merged into continuous ranges only when they are
+   * written to the checkpoint or positions files.
    *
    * @return A tracker for statement positions.
    */
   private Function<Flux<? extends Record>, Flux<Void>> newRecordPositionTracker() {
     return upstream ->
         upstream
-            .filter(record -> record.getPosition() > 0)
-            .window(Queues.SMALL_BUFFER_SIZE)
-            .flatMap(
-                window ->
-                    window
-                        .groupBy(Record::getResource, Record::getPosition)
-                        .flatMap(
-                            group ->
-                                group
-                                    .reduceWith(ArrayList::new, LogManager::addPosition)
-                                    .doOnNext(
-                                        ranges ->
-                                            positions.merge(
-                                                group.key(), ranges, LogManager::mergePositions)),
-                            Queues.SMALL_BUFFER_SIZE))
+            .doOnNext(
+                record -> {
+                  long position = record.getPosition();
+                  if (position > 0) {
+                    positions.update(record.getResource(), position);
+                  }
+                })
             .then()
             .flux();
   }
@@ -620,50 +696,57 @@ public class LogManager implements AutoCloseable {
    * A processor for unmappable statementsproduced by the {@linkplain
    * com.datastax.dsbulk.engine.internal.schema.RecordMapper} record mapper}.
    *
-   * <p>Used only in the load workflow.
+   * <p>Used in the load and copy workflows.
    *
-   * <p>Appends the statement to the debug file, then extracts its record, appends it to the bad
-   * file, then forwards the record's position to the {@linkplain #newRecordPositionTracker()
-   * position tracker}.
+   * <p>Appends the statement to the debug file, then (for load workflows only) extracts its record,
+   * appends it to the bad file, then forwards the record's position to the {@linkplain
+   * #newRecordPositionTracker() position tracker}.
    *
    * @return A processor for unmappable statements.
    */
   @NotNull
   private FluxSink<UnmappableStatement> newUnmappableStatementSink() {
     UnicastProcessor<UnmappableStatement> processor = UnicastProcessor.create();
-    processor
-        .publishOn(scheduler)
-        .doOnNext(this::maybeWarnInvalidMapping)
-        .doOnNext(this::appendToDebugFile)
-        .transform(newStatementToRecordMapper())
-        .doOnNext(record -> appendToBadFile(record, MAPPING_BAD_FILE))
-        .transform(newRecordPositionTracker())
-        .subscribe();
+    Flux<UnmappableStatement> flux =
+        processor
+            .publishOn(scheduler)
+            .doOnNext(this::maybeWarnInvalidMapping)
+            .doOnNext(this::appendToDebugFile);
+    if (workflowType == WorkflowType.LOAD) {
+      flux.transform(newStatementToRecordMapper())
+          .doOnNext(record -> appendToBadFile(record, MAPPING_BAD_FILE))
+          .transform(newRecordPositionTracker())
+          .subscribe();
+    } else {
+      flux.subscribe();
+    }
     return processor.sink();
   }
 
   /**
    * A processor for failed write results.
    *
-   * <p>Used only in the load workflow.
+   * <p>Used in the load and copy workflows.
    *
-   * <p>Appends the failed result to the debug file, then extracts its statement, then extracts its
-   * record, then appends it to the bad file, then forwards the record's position to the {@linkplain
-   * #newRecordPositionTracker() position tracker}.
+   * <p>Appends the failed result to the debug file, then (for load workflows only) extracts its
+   * statement, then extracts its record, then appends it to the bad file, then forwards the
+   * record's position to the {@linkplain #newRecordPositionTracker() position tracker}.
    *
    * @return A processor for failed write results.
    */
   @NotNull
   private FluxSink<WriteResult> newWriteResultSink() {
     UnicastProcessor<WriteResult> processor = UnicastProcessor.create();
-    processor
-        .publishOn(scheduler)
-        .doOnNext(this::appendToDebugFile)
-        .map(Result::getStatement)
-        .transform(newStatementToRecordMapper())
-        .doOnNext(record -> appendToBadFile(record, LOAD_BAD_FILE))
-        .transform(newRecordPositionTracker())
-        .subscribe();
+    Flux<WriteResult> flux = processor.publishOn(scheduler).doOnNext(this::appendToDebugFile);
+    if (workflowType == WorkflowType.LOAD) {
+      flux.map(Result::getStatement)
+          .transform(newStatementToRecordMapper())
+          .doOnNext(record -> appendToBadFile(record, LOAD_BAD_FILE))
+          .transform(newRecordPositionTracker())
+          .subscribe();
+    } else {
+      flux.subscribe();
+    }
     return processor.sink();
   }
 
@@ -731,109 +814,85 @@ public class LogManager implements AutoCloseable {
     stackTracePrinter.printStackTrace(record.getError(), writer);
   }
 
-  private static void appendToPositionsFile(
-      URI resource, List<Range<Long>> positions, PrintWriter positionsPrinter) {
-    positionsPrinter.print(resource);
-    positionsPrinter.print(':');
-    positions.stream().findFirst().ifPresent(pos -> positionsPrinter.print(pos.upperEndpoint()));
-    positionsPrinter.println();
-  }
-
-  @NotNull
-  @VisibleForTesting
-  static List<Range<Long>> addPosition(@NotNull List<Range<Long>> positions, long position) {
-    ListIterator<Range<Long>> iterator = positions.listIterator();
-    while (iterator.hasNext()) {
-      Range<Long> range = iterator.next();
-      if (range.contains(position)) {
-        return positions;
-      } else if (range.upperEndpoint() + 1L == position) {
-        range = Range.closed(range.lowerEndpoint(), position);
-        iterator.set(range);
-        if (iterator.hasNext()) {
-          Range<Long> next = iterator.next();
-          if (range.upperEndpoint() == next.lowerEndpoint() - 1) {
-            iterator.remove();
-            iterator.previous();
-            iterator.set(Range.closed(range.lowerEndpoint(), next.upperEndpoint()));
+  private void readCheckpoint() throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(checkpointToResume, UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        try {
+          int i = line.lastIndexOf(':');
+          URI resource = new URI(line.substring(0, i));
+          PositionSet ranges = new PositionSet();
+          ImmutableRangeSet.Builder<Long> builder = ImmutableRangeSet.builder();
+          for (String range : Splitter.on(',').split(line.substring(i + 1))) {
+            int j = range.indexOf('-');
+            long lower = Long.parseLong(range.substring(0, j));
+            long upper = Long.parseLong(range.substring(j + 1));
+            ranges.add(lower, upper);
+            builder.add(Range.closed(lower, upper));
           }
+          positions.update(resource, ranges);
+          resumedPositions.put(resource, builder.build());
+        } catch (URISyntaxException | RuntimeException e) {
+          throw new IOException(
+              String.format("Invalid checkpoint file %s: %s", checkpointToResume, line), e);
         }
-        return positions;
-      } else if (range.lowerEndpoint() - 1L == position) {
-        range = Range.closed(position, range.upperEndpoint());
-        iterator.set(range);
-        return positions;
-      } else if (position < range.lowerEndpoint()) {
-        iterator.previous();
-        iterator.add(Range.singleton(position));
-        return positions;
       }
     }
-    iterator.add(Range.singleton(position));
-    return positions;
+    LOGGER.info(
+        "Resuming operation from {}: {} resources partially or entirely processed.",
+        checkpointToResume,
+        resumedPositions.size());
   }
 
-  @NotNull
-  @VisibleForTesting
-  static List<Range<Long>> mergePositions(
-      @NotNull List<Range<Long>> positions1, @NotNull List<Range<Long>> positions2) {
-    if (positions1.isEmpty()) {
-      return positions2;
-    }
-    if (positions2.isEmpty()) {
-      return positions1;
-    }
-    List<Range<Long>> merged = new ArrayList<>();
-    ListIterator<Range<Long>> iterator1 = positions1.listIterator();
-    ListIterator<Range<Long>> iterator2 = positions2.listIterator();
-    Range<Long> previous = null;
-    while (true) {
-      Range<Long> current = nextRange(iterator1, iterator2);
-      if (current == null) {
-        merged.add(previous);
-        break;
-      }
-      if (previous == null) {
-        previous = current;
-      } else if (isContiguous(previous, current)) {
-        previous = previous.span(current);
-      } else {
-        merged.add(previous);
-        previous = current;
-      }
+  private void writeCheckpointQuietly() {
+    try {
+      writeCheckpoint();
+    } catch (IOException e) {
+      LOGGER.warn("Could not write checkpoint file: " + e.getMessage(), e);
     }
-    return merged;
   }
 
-  private static boolean isContiguous(Range<Long> range1, Range<Long> range2) {
-    return range1.lowerEndpoint() - range2.upperEndpoint() <= 1
-        && range2.lowerEndpoint() - range1.upperEndpoint() <= 1;
+  private synchronized void writeCheckpoint() throws IOException {
+    if (positions.isEmpty()) {
+      return;
+    }
+    writeCheckpointFile(executionDirectory, positions.getPositions());
+    checkpointWritten = true;
   }
 
-  private static Range<Long> nextRange(
-      ListIterator<Range<Long>> iterator1, ListIterator<Range<Long>> iterator2) {
-    Range<Long> range1 = null;
-    Range<Long> range2 = null;
-    if (iterator1.hasNext()) {
-      range1 = iterator1.next();
-    }
-    if (iterator2.hasNext()) {
-      range2 = iterator2.next();
-    }
-    if (range1 == null && range2 == null) {
-      return null;
+  /**
+   * Writes a checkpoint file in the given execution directory, one line per entry, in the form
+   * {@code key:value}. Used by both load and unload operations.
+   *
+   * @param executionDirectory the directory where the checkpoint file will be written.
+   * @param entries the entries to write.
+   * @throws IOException if the file cannot be written.
+   */
+  static void writeCheckpointFile(Path executionDirectory, Map<?, ?> entries) throws IOException {
+    // write to a temporary file first, then replace the checkpoint file, so that
+    // the latter is never left half-written if the operation is interrupted
+    Path checkpoint = executionDirectory.resolve(CHECKPOINT_FILE);
+    Path temp = executionDirectory.resolve(CHECKPOINT_FILE + ".tmp");
+    try (PrintWriter writer =
+        new PrintWriter(Files.newBufferedWriter(temp, UTF_8, CREATE, TRUNCATE_EXISTING, WRITE))) {
+      entries.forEach(
+          (key, value) -> {
+            writer.print(key);
+            writer.print(':');
+            writer.println(value);
+          });
     }
-    if (range1 == null) {
-      return range2;
-    } else if (range2 == null) {
-      return range1;
-    } else if (range1.lowerEndpoint() < range2.lowerEndpoint()) {
-      iterator2.previous();
-      return range1;
-    } else {
-      iterator1.previous();
-      return range2;
+    Files.move(temp, checkpoint, REPLACE_EXISTING, ATOMIC_MOVE);
+  }
+
+  private static void appendToPositionsFile(
+      URI resource, PositionSet positions, PrintWriter positionsPrinter) {
+    positionsPrinter.print(resource);
+    positionsPrinter.print(':');
+    if (!positions.isEmpty()) {
+      positionsPrinter.print(positions.upperEndpoint(0));
     }
+    positionsPrinter.println();
   }
 
   private static int delta(Statement statement) {
@@ -0,0 +1,193 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.log;
+
+import java.util.Arrays;
+
+/**
+ * A set of record positions, stored as sorted, disjoint and non-adjacent closed intervals in a
+ * primitive array.
+ *
+ * <p>Positions are usually recorded in increasing order, in which case adding a position either
+ * extends or appends the last interval, in amortized constant time and without boxing.
+ *
+ * <p>This class is not thread-safe.
+ */
+final class PositionSet {
+
+  /** The bounds of each interval: lower at even indices, upper at odd indices. */
+  private long[] bounds = new long[8];
+
+  /** The number of bounds in use, that is, twice the number of intervals. */
+  private int size;
+
+  void add(long position) {
+    if (size > 0) {
+      long last = bounds[size - 1];
+      if (position == last + 1) {
+        bounds[size - 1] = position;
+        return;
+      }
+      if (position > last) {
+        append(position, position);
+        return;
+      }
+      if (position >= bounds[size - 2]) {
+        return;
+      }
+    }
+    add(position, position);
+  }
+
+  void add(long lower, long upper) {
+    assert lower <= upper;
+    int intervals = size / 2;
+    // the first interval that overlaps or is adjacent to, or comes after the new one
+    int first = firstIntervalEndingAtOrAfter(lower - 1);
+    if (first == intervals) {
+      append(lower, upper);
+      return;
+    }
+    // the first interval that comes strictly after the new one
+    int last = first;
+    while (last < intervals && bounds[last * 2] <= upper + 1) {
+      last++;
+    }
+    if (first == last) {
+      insert(first, lower, upper);
+    } else {
+      // merge intervals first to last - 1 with the new one
+      bounds[first * 2] = Math.min(lower, bounds[first * 2]);
+      bounds[first * 2 + 1] = Math.max(upper, bounds[last * 2 - 1]);
+      int removed = last - first - 1;
+      if (removed > 0) {
+        System.arraycopy(bounds, last * 2, bounds, (first + 1) * 2, size - last * 2);
+        size -= removed * 2;
+      }
+    }
+  }
+
+  /**
+   * Adds all the positions of the given set to this set.
+   *
+   * <p>Both sets are merged in a single pass, in time linear in their number of intervals.
+   *
+   * @param other the positions to add.
+   */
+  void addAll(PositionSet other) {
+    if (other.size == 0) {
+      return;
+    }
+    if (size == 0) {
+      bounds = Arrays.copyOf(other.bounds, Math.max(other.size, 8));
+      size = other.size;
+      return;
+    }
+    long[] merged = new long[size + other.size];
+    int length = 0;
+    int i = 0;
+    int j = 0;
+    while (i < size || j < other.size) {
+      long lower;
+      long upper;
+      // take the interval with the lowest lower bound from either set
+      if (j == other.size || (i < size && bounds[i] <= other.bounds[j])) {
+        lower = bounds[i];
+        upper = bounds[i + 1];
+        i += 2;
+      } else {
+        lower = other.bounds[j];
+        upper = other.bounds[j + 1];
+        j += 2;
+      }
+      if (length > 0 && lower <= merged[length - 1] + 1) {
+        merged[length - 1] = Math.max(upper, merged[length - 1]);
+      } else {
+        merged[length++] = lower;
+        merged[length++] = upper;
+      }
+    }
+    bounds = merged.length < 8 ? Arrays.copyOf(merged, 8) : merged;
+    size = length;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** @return the number of intervals in this set. */
+  int intervals() {
+    return size / 2;
+  }
+
+  long lowerEndpoint(int interval) {
+    return bounds[interval * 2];
+  }
+
+  long upperEndpoint(int interval) {
+    return bounds[interval * 2 + 1];
+  }
+
+  PositionSet copy() {
+    PositionSet copy = new PositionSet();
+    copy.bounds = Arrays.copyOf(bounds, Math.max(size, 8));
+    copy.size = size;
+    return copy;
+  }
+
+  /**
+   * Returns this set in the format of checkpoint files, that is, a comma-separated list of
+   * intervals, each interval being formatted as {@code lower-upper}.
+   */
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < size; i += 2) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(bounds[i]).append('-').append(bounds[i + 1]);
+    }
+    return sb.toString();
+  }
+
+  private int firstIntervalEndingAtOrAfter(long position) {
+    int low = 0;
+    int high = size / 2;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (bounds[mid * 2 + 1] < position) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private void append(long lower, long upper) {
+    ensureCapacity();
+    bounds[size++] = lower;
+    bounds[size++] = upper;
+  }
+
+  private void insert(int interval, long lower, long upper) {
+    ensureCapacity();
+    System.arraycopy(bounds, interval * 2, bounds, interval * 2 + 2, size - interval * 2);
+    bounds[interval * 2] = lower;
+    bounds[interval * 2 + 1] = upper;
+    size += 2;
+  }
+
+  private void ensureCapacity() {
+    if (size + 2 > bounds.length) {
+      bounds = Arrays.copyOf(bounds, bounds.length * 2);
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.log;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tracks the positions of processed records, per resource.
+ *
+ * <p>Positions are recorded in lock stripes, selected by resource, so that threads recording
+ * positions of different resources rarely contend with each other. All the positions of a given
+ * resource are held by a single {@link PositionSet}, whatever the thread recording them: positions
+ * recorded out of order by different threads are thus merged into intervals as they are recorded,
+ * and the memory used grows with the number of gaps between processed records, not with the number
+ * of records. Positions are copied when they are {@linkplain #getPositions() requested}, typically
+ * when the checkpoint or positions files are written.
+ */
+final class PositionsTracker {
+
+  private final Stripe[] stripes;
+  private final int mask;
+
+  PositionsTracker() {
+    this(Runtime.getRuntime().availableProcessors() * 2);
+  }
+
+  PositionsTracker(int concurrency) {
+    int size = Integer.highestOneBit(Math.max(1, concurrency - 1)) << 1;
+    stripes = new Stripe[size];
+    for (int i = 0; i < size; i++) {
+      stripes[i] = new Stripe();
+    }
+    mask = size - 1;
+  }
+
+  void update(URI resource, long position) {
+    Stripe stripe = stripe(resource);
+    synchronized (stripe) {
+      stripe.positions(resource).add(position);
+    }
+  }
+
+  void update(URI resource, PositionSet positions) {
+    Stripe stripe = stripe(resource);
+    synchronized (stripe) {
+      stripe.positions(resource).addAll(positions);
+    }
+  }
+
+  boolean isEmpty() {
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        if (!stripe.positions.isEmpty()) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns a copy of the positions recorded so far.
+   *
+   * @return the positions recorded so far, per resource, sorted by resource.
+   */
+  Map<URI, PositionSet> getPositions() {
+    Map<URI, PositionSet> copy = new TreeMap<>();
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        stripe.positions.forEach((resource, positions) -> copy.put(resource, positions.copy()));
+      }
+    }
+    return copy;
+  }
+
+  /** @return the number of intervals currently held, for all resources. */
+  int intervals() {
+    int intervals = 0;
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        for (PositionSet positions : stripe.positions.values()) {
+          intervals += positions.intervals();
+        }
+      }
+    }
+    return intervals;
+  }
+
+  private Stripe stripe(URI resource) {
+    int hash = resource.hashCode();
+    // spread the higher bits, as HashMap does
+    return stripes[(hash ^ (hash >>> 16)) & mask];
+  }
+
+  private static final class Stripe {
+
+    private final Map<URI, PositionSet> positions = new HashMap<>();
+
+    // records of a same resource are usually processed in sequence
+    private URI lastResource;
+    private PositionSet lastPositions;
+
+    // a cheap identity check: the same URI instance is usually shared by all the records of a
+    // resource, and an equal but distinct instance only costs a map lookup
+    @SuppressWarnings("ReferenceEquality")
+    private PositionSet positions(URI resource) {
+      if (resource != lastResource) {
+        lastPositions = positions.computeIfAbsent(resource, r -> new PositionSet());
+        lastResource = resource;
+      }
+      return lastPositions;
+    }
+  }
+}
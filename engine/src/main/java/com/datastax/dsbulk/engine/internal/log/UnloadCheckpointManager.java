@@ -0,0 +1,410 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.log;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.datastax.driver.core.ExecutionInfo;
+import com.datastax.driver.core.Statement;
+import com.datastax.dsbulk.connectors.api.CommonConnectorFeature;
+import com.datastax.dsbulk.connectors.api.Connector;
+import com.datastax.dsbulk.connectors.api.ErrorRecord;
+import com.datastax.dsbulk.connectors.api.Record;
+import com.datastax.dsbulk.executor.api.result.ReadResult;
+import com.datastax.dsbulk.executor.api.statement.TokenRangeReadStatement;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Records the progress of an unload operation, per token range, so that an interrupted operation
+ * can be resumed later on.
+ *
+ * <p>A token range is considered completed when all of its rows have been either written by the
+ * connector, or rejected. For token ranges that are not completed, the paging state of the last
+ * page whose rows were all processed is recorded, so that the token range can be restarted from
+ * there.
+ *
+ * <p>The checkpoint file is written when this component is closed, which must happen after the
+ * connector is closed, to make sure that all records written so far have been flushed. If the
+ * connector can {@linkplain Connector#flush() flush} its records while writing, the checkpoint file
+ * is also updated periodically, so that progress is not lost if the operation crashes.
+ */
+public class UnloadCheckpointManager implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(UnloadCheckpointManager.class);
+
+  private static final String COMPLETED = "COMPLETED";
+  private static final String WHOLE_RING = "*";
+
+  private final Path executionDirectory;
+  private final Path checkpointToResume;
+  private final Duration checkpointInterval;
+  private final Connector connector;
+
+  private final Map<String, String> previousCheckpoint = new TreeMap<>();
+  private final Map<Statement, RangeProgress> ranges = new IdentityHashMap<>();
+
+  private Scheduler checkpointScheduler;
+  private boolean checkpointWritten;
+  private boolean closed;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param executionDirectory the directory where the checkpoint file will be written.
+   * @param checkpointToResume the checkpoint file of the operation to resume, or {@code null} if no
+   *     operation is being resumed.
+   * @param checkpointInterval how often to update the checkpoint file, or zero to only write it
+   *     when this component is closed.
+   * @param connector the connector writing the unloaded records.
+   */
+  public UnloadCheckpointManager(
+      Path executionDirectory,
+      @Nullable Path checkpointToResume,
+      Duration checkpointInterval,
+      Connector connector) {
+    this.executionDirectory = executionDirectory;
+    this.checkpointToResume = checkpointToResume;
+    this.checkpointInterval = checkpointInterval;
+    this.connector = connector;
+  }
+
+  public void init() throws IOException {
+    if (checkpointToResume != null) {
+      try (BufferedReader reader = Files.newBufferedReader(checkpointToResume, UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          int i = line.lastIndexOf(':');
+          if (i == -1) {
+            throw new IOException(
+                String.format("Invalid checkpoint file %s: %s", checkpointToResume, line));
+          }
+          previousCheckpoint.put(line.substring(0, i), line.substring(i + 1));
+        }
+      }
+    }
+  }
+
+  /**
+   * Prepares the given read statements for execution, skipping those that were completed by the
+   * operation being resumed, and restarting the others from their recorded paging state, if any.
+   *
+   * <p>Only statements returned by this method can be tracked. This method must be called exactly
+   * once.
+   *
+   * @param statements the read statements to prepare.
+   * @return the read statements to execute.
+   */
+  public List<Statement> prepareStatements(List<Statement> statements) {
+    List<Statement> prepared = new ArrayList<>(statements.size());
+    int skipped = 0;
+    int restarted = 0;
+    for (Statement statement : statements) {
+      String key = key(statement);
+      String state = previousCheckpoint.get(key);
+      RangeProgress progress = new RangeProgress(key);
+      if (COMPLETED.equals(state)) {
+        progress.completed = true;
+        skipped++;
+      } else {
+        if (state != null) {
+          progress.pagingState = Base64.getDecoder().decode(state);
+          statement.setPagingStateUnsafe(progress.pagingState);
+          restarted++;
+        }
+        prepared.add(statement);
+      }
+      ranges.put(statement, progress);
+    }
+    if (checkpointToResume != null) {
+      if (!previousCheckpoint.isEmpty() && skipped == 0 && restarted == 0) {
+        LOGGER.warn(
+            "None of the token ranges recorded in {} matches the token ranges to read; "
+                + "all token ranges will be read from the beginning. "
+                + "Make sure that the query and schema.splits are the same as "
+                + "in the operation being resumed, and that the cluster topology did not change.",
+            checkpointToResume);
+      } else {
+        LOGGER.info(
+            "Resuming operation from {}: {} token ranges already completed, {} token ranges restarted from their last page.",
+            checkpointToResume,
+            skipped,
+            restarted);
+      }
+    }
+    // only start periodic checkpoints once all ranges are known:
+    // scheduling the task publishes them to the checkpoint thread
+    if (!checkpointInterval.isZero()) {
+      if (connector.supports(CommonConnectorFeature.FLUSHABLE_WRITES)) {
+        checkpointScheduler = Schedulers.newSingle("checkpoint");
+        checkpointScheduler.schedulePeriodically(
+            this::writeCheckpointQuietly,
+            checkpointInterval.toMillis(),
+            checkpointInterval.toMillis(),
+            MILLISECONDS);
+      } else {
+        LOGGER.info(
+            "The connector cannot flush records while writing; "
+                + "the checkpoint file will only be written when the operation terminates.");
+      }
+    }
+    return prepared;
+  }
+
+  /**
+   * A tracker for the results of a given read statement.
+   *
+   * <p>Records how many rows each page contained, and whether the statement completed successfully.
+   *
+   * @param statement the statement whose results are tracked; must have been {@linkplain
+   *     #prepareStatements(List) prepared} before.
+   * @return a tracker for the results of the given read statement.
+   */
+  @NotNull
+  public Function<Flux<ReadResult>, Flux<ReadResult>> newRangeTracker(Statement statement) {
+    RangeProgress progress = ranges.get(statement);
+    return upstream ->
+        upstream
+            .doOnNext(
+                result -> {
+                  if (result.isSuccess()) {
+                    progress.onRowEmitted(
+                        result.getExecutionInfo().orElseThrow(IllegalStateException::new));
+                  } else {
+                    progress.onRangeFailed();
+                  }
+                })
+            .doOnComplete(progress::onRangeExhausted);
+  }
+
+  /**
+   * A tracker for records that were rejected by the {@linkplain
+   * com.datastax.dsbulk.engine.internal.schema.ReadResultMapper result mapper}.
+   *
+   * <p>Must be applied before the {@linkplain LogManager#newUnmappableRecordsHandler() unmappable
+   * records handler}, since the latter removes rejected records.
+   *
+   * @return a tracker for unmappable records.
+   */
+  @NotNull
+  public Function<Flux<Record>, Flux<Record>> newUnmappableRecordsTracker() {
+    return upstream ->
+        upstream.doOnNext(
+            record -> {
+              if (record instanceof ErrorRecord) {
+                onRecordProcessed(record);
+              }
+            });
+  }
+
+  /**
+   * A tracker for records emitted by the connector, whether they were successfully written or not.
+   *
+   * @return a tracker for written records.
+   */
+  @NotNull
+  public Function<Flux<Record>, Flux<Record>> newWrittenRecordsTracker() {
+    return upstream -> upstream.doOnNext(this::onRecordProcessed);
+  }
+
+  private void onRecordProcessed(Record record) {
+    Object source = record.getSource();
+    if (source instanceof ReadResult) {
+      ReadResult result = (ReadResult) source;
+      RangeProgress progress = ranges.get(result.getStatement());
+      if (progress != null && result.getExecutionInfo().isPresent()) {
+        progress.onRowProcessed(result.getExecutionInfo().get());
+      }
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (checkpointScheduler != null) {
+      checkpointScheduler.dispose();
+    }
+    closed = true;
+    writeCheckpoint(snapshot());
+  }
+
+  private void writeCheckpointQuietly() {
+    try {
+      Map<String, String> checkpoint;
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        checkpoint = snapshot();
+      }
+      // Rows are recorded as processed once the connector emitted them. Flushing the connector
+      // after the snapshot guarantees that all the rows it covers are durably written.
+      connector.flush();
+      synchronized (this) {
+        // the final checkpoint written by close() must not be overwritten
+        if (!closed) {
+          writeCheckpoint(checkpoint);
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Could not write checkpoint file: " + e.getMessage(), e);
+    }
+  }
+
+  @NotNull
+  private Map<String, String> snapshot() {
+    Map<String, String> checkpoint = new TreeMap<>(previousCheckpoint);
+    for (RangeProgress progress : ranges.values()) {
+      String state = progress.getState();
+      if (state != null) {
+        checkpoint.put(progress.key, state);
+      }
+    }
+    return checkpoint;
+  }
+
+  private void writeCheckpoint(Map<String, String> checkpoint) throws IOException {
+    if (!checkpoint.isEmpty()) {
+      LogManager.writeCheckpointFile(executionDirectory, checkpoint);
+      checkpointWritten = true;
+    }
+  }
+
+  public void reportCheckpoint() {
+    if (checkpointWritten) {
+      long completed = ranges.values().stream().filter(RangeProgress::isCompleted).count();
+      if (completed < ranges.size()) {
+        LOGGER.info(
+            "{} token ranges out of {} were completed; operation progress can be found in {}",
+            completed,
+            ranges.size(),
+            LogManager.CHECKPOINT_FILE);
+      } else {
+        LOGGER.info("Operation progress can be found in {}", LogManager.CHECKPOINT_FILE);
+      }
+    }
+  }
+
+  @NotNull
+  private static String key(Statement statement) {
+    if (statement instanceof TokenRangeReadStatement) {
+      return ((TokenRangeReadStatement) statement).getTokenRange().toString();
+    }
+    return WHOLE_RING;
+  }
+
+  private static class RangeProgress {
+
+    private final String key;
+    private final Deque<Page> pages = new ArrayDeque<>();
+
+    private byte[] pagingState;
+    private boolean exhausted;
+    private boolean failed;
+    private boolean completed;
+
+    private RangeProgress(String key) {
+      this.key = key;
+    }
+
+    private synchronized void onRowEmitted(ExecutionInfo info) {
+      Page last = pages.peekLast();
+      if (last == null || last.info != info) {
+        if (last != null) {
+          last.closed = true;
+        }
+        last = new Page(info);
+        pages.addLast(last);
+      }
+      last.emitted++;
+    }
+
+    private synchronized void onRowProcessed(ExecutionInfo info) {
+      for (Page page : pages) {
+        if (page.info == info) {
+          page.processed++;
+          break;
+        }
+      }
+      advance();
+    }
+
+    private synchronized void onRangeFailed() {
+      failed = true;
+    }
+
+    private synchronized void onRangeExhausted() {
+      exhausted = true;
+      Page last = pages.peekLast();
+      if (last != null) {
+        last.closed = true;
+      }
+      advance();
+    }
+
+    private void advance() {
+      while (!pages.isEmpty()) {
+        Page first = pages.peekFirst();
+        if (!first.closed || first.processed < first.emitted) {
+          break;
+        }
+        pages.removeFirst();
+        // a null paging state means that the range must be restarted from the beginning
+        pagingState = first.info.getPagingStateUnsafe();
+      }
+      completed = exhausted && !failed && pages.isEmpty();
+    }
+
+    private synchronized boolean isCompleted() {
+      return completed;
+    }
+
+    @Nullable
+    private synchronized String getState() {
+      if (completed) {
+        return COMPLETED;
+      }
+      if (pagingState != null) {
+        return Base64.getEncoder().encodeToString(pagingState);
+      }
+      return null;
+    }
+  }
+
+  private static class Page {
+
+    private final ExecutionInfo info;
+    private long emitted;
+    private long processed;
+    private boolean closed;
+
+    private Page(ExecutionInfo info) {
+      this.info = info;
+    }
+  }
+}
@@ -99,6 +99,9 @@ public class MetricsManager implements AutoCloseable {
       Appender<ILoggingEvent> mainLogFileAppender,
       Duration reportInterval,
       boolean batchingEnabled,
+      int rowSamplingInterval,
+      boolean trackHosts,
+      boolean trackRanges,
       ProtocolVersion protocolVersion,
       CodecRegistry codecRegistry) {
     this.registry = new MetricRegistry();
@@ -106,7 +109,8 @@ public class MetricsManager implements AutoCloseable {
         .getMetrics()
         .forEach((name, metric) -> this.registry.register("driver/" + name, metric));
     this.listener =
-        new MetricsCollectingExecutionListener(registry, protocolVersion, codecRegistry);
+        new MetricsCollectingExecutionListener(
+            registry, protocolVersion, codecRegistry, rowSamplingInterval, trackHosts, trackRanges);
     this.workflowType = workflowType;
     this.executionId = executionId;
     this.scheduler = scheduler;
@@ -147,8 +151,14 @@ public class MetricsManager implements AutoCloseable {
         break;
 
       case UNLOAD:
+      case COUNT:
         startReadsReporter();
         break;
+
+      case COPY:
+        startReadsReporter();
+        startWritesReporter();
+        break;
     }
   }
 
@@ -259,7 +269,7 @@ public class MetricsManager implements AutoCloseable {
                     StringTokenizer tokenizer = new StringTokenizer(name, "/");
                     int i = 1;
                     while (tokenizer.hasMoreTokens()) {
-                      String token = tokenizer.nextToken();
+                      String token = quoteIfNecessary(tokenizer.nextToken());
                       if (tokenizer.hasMoreTokens()) {
                         sb.append(i++).append('=').append(token).append(',');
                       } else {
@@ -275,6 +285,16 @@ public class MetricsManager implements AutoCloseable {
     jmxReporter.start();
   }
 
+  private static String quoteIfNecessary(String token) {
+    // per-host and per-range metric names contain characters that are illegal in unquoted values
+    for (char c : token.toCharArray()) {
+      if (c == ',' || c == '=' || c == ':' || c == '"' || c == '*' || c == '?') {
+        return ObjectName.quote(token);
+      }
+    }
+    return token;
+  }
+
   private void startCSVReporter() {
     csvReporter =
         CsvReporter.forRegistry(registry)
@@ -0,0 +1,175 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.schema;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.DriverCoreHooks;
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.driver.core.exceptions.CodecNotFoundException;
+import com.datastax.dsbulk.commons.config.BulkConfigurationException;
+import com.datastax.dsbulk.commons.internal.uri.URIUtils;
+import com.datastax.dsbulk.connectors.api.internal.DefaultRecord;
+import com.datastax.dsbulk.engine.internal.codecs.ExtendedCodecRegistry;
+import com.datastax.dsbulk.engine.internal.statement.BulkBoundStatement;
+import com.datastax.dsbulk.engine.internal.statement.UnmappableStatement;
+import com.datastax.dsbulk.executor.api.result.ReadResult;
+import com.google.common.base.Suppliers;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link ReadResultCopier} that binds the columns of each row to the variables of an insert
+ * statement having the same names.
+ *
+ * <p>When a column and its variable have the same CQL type, the column's raw bytes are bound as is,
+ * without being deserialized then serialized again. Otherwise, the column value is deserialized
+ * with the source cluster's codec, then serialized with a codec – possibly a converting one –
+ * obtained from the extended codec registry.
+ */
+public class DefaultReadResultCopier implements ReadResultCopier {
+
+  private static final String COLUMN = "column";
+  private static final String CQL_TYPE = "cqlType";
+
+  private final PreparedStatement insertStatement;
+  private final ProtocolVersion protocolVersion;
+  private final boolean nullToUnset;
+  private final Binding[] bindings;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param insertStatement the statement to bind; all its variables must be named after a source
+   *     column.
+   * @param sourceColumns the columns of the rows to copy.
+   * @param sourceProtocolVersion the protocol version used to read the rows to copy.
+   * @param sourceCodecRegistry the codec registry of the source cluster.
+   * @param codecRegistry the codec registry to use when column types differ.
+   * @param nullToUnset whether to leave null values unset instead of binding them.
+   */
+  public DefaultReadResultCopier(
+      PreparedStatement insertStatement,
+      ColumnDefinitions sourceColumns,
+      ProtocolVersion sourceProtocolVersion,
+      CodecRegistry sourceCodecRegistry,
+      ExtendedCodecRegistry codecRegistry,
+      boolean nullToUnset) {
+    this.insertStatement = insertStatement;
+    this.protocolVersion = DriverCoreHooks.protocolVersion(insertStatement.getPreparedId());
+    this.nullToUnset = nullToUnset;
+    // collections are serialized differently in protocol versions 1 and 2
+    boolean sameFormat =
+        (sourceProtocolVersion.compareTo(ProtocolVersion.V3) >= 0)
+            == (protocolVersion.compareTo(ProtocolVersion.V3) >= 0);
+    ColumnDefinitions variables = insertStatement.getVariables();
+    bindings = new Binding[variables.size()];
+    for (int index = 0; index < variables.size(); index++) {
+      String variable = variables.getName(index);
+      // quote the name to get an exact, case-sensitive match
+      int sourceIndex = sourceColumns.getIndexOf(Metadata.quote(variable));
+      if (sourceIndex == -1) {
+        throw new BulkConfigurationException(
+            String.format(
+                "Variable %s does not match any source column",
+                Metadata.quoteIfNecessary(variable)));
+      }
+      DataType sourceType = sourceColumns.getType(sourceIndex);
+      DataType targetType = variables.getType(index);
+      if (sameFormat && sourceType.equals(targetType)) {
+        bindings[index] = new Binding(variable, sourceIndex, index, targetType, null, null);
+      } else {
+        TypeCodec<Object> sourceCodec = sourceCodecRegistry.codecFor(sourceType);
+        TypeCodec<Object> targetCodec;
+        try {
+          targetCodec = codecRegistry.codecFor(targetType, sourceCodec.getJavaType());
+        } catch (CodecNotFoundException e) {
+          throw new BulkConfigurationException(
+              String.format(
+                  "Column %s cannot be copied: source type %s is not compatible with target type %s",
+                  Metadata.quoteIfNecessary(variable), sourceType, targetType),
+              e);
+        }
+        bindings[index] =
+            new Binding(variable, sourceIndex, index, targetType, sourceCodec, targetCodec);
+      }
+    }
+  }
+
+  @Override
+  public Statement map(ReadResult result) {
+    Row row = result.getRow().orElseThrow(IllegalStateException::new);
+    Binding binding = null;
+    try {
+      BoundStatement bs = new BulkBoundStatement<>(result, insertStatement);
+      for (Binding b : bindings) {
+        binding = b;
+        ByteBuffer bb;
+        if (b.targetCodec == null) {
+          bb = row.getBytesUnsafe(b.sourceIndex);
+        } else {
+          Object value = row.get(b.sourceIndex, b.sourceCodec);
+          bb = b.targetCodec.serialize(value, protocolVersion);
+        }
+        if (bb == null && nullToUnset) {
+          continue;
+        }
+        bs.setBytesUnsafe(b.targetIndex, bb);
+      }
+      return bs;
+    } catch (Exception e) {
+      DefaultRecord record = new DefaultRecord(result, ReadResultLocator.INSTANCE, -1);
+      Binding finalBinding = binding;
+      return new UnmappableStatement(
+          record,
+          Suppliers.memoize(
+              () ->
+                  finalBinding == null
+                      ? record.getLocation()
+                      : URIUtils.addParamsToURI(
+                          record.getLocation(),
+                          COLUMN,
+                          finalBinding.variable,
+                          CQL_TYPE,
+                          finalBinding.cqlType.toString())),
+          e);
+    }
+  }
+
+  private static class Binding {
+
+    private final String variable;
+    private final int sourceIndex;
+    private final int targetIndex;
+    private final DataType cqlType;
+    private final TypeCodec<Object> sourceCodec;
+    private final TypeCodec<Object> targetCodec;
+
+    private Binding(
+        String variable,
+        int sourceIndex,
+        int targetIndex,
+        DataType cqlType,
+        TypeCodec<Object> sourceCodec,
+        TypeCodec<Object> targetCodec) {
+      this.variable = variable;
+      this.sourceIndex = sourceIndex;
+      this.targetIndex = targetIndex;
+      this.cqlType = cqlType;
+      this.sourceCodec = sourceCodec;
+      this.targetCodec = targetCodec;
+    }
+  }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.schema;
+
+import com.datastax.driver.core.ExecutionInfo;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.TokenRange;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.dsbulk.engine.internal.settings.StatsSettings.StatisticsMode;
+import com.datastax.dsbulk.executor.api.result.ReadResult;
+import com.datastax.dsbulk.executor.api.statement.TokenRangeReadStatement;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * The default {@link ReadResultCounter}.
+ *
+ * <p>When partitions are not being counted, each read statement is expected to return one single
+ * row containing a server-side {@code count(*)}; otherwise, each read statement is expected to
+ * return the partition key columns of every row, and rows are counted client-side.
+ *
+ * <p>Counting units accumulate their counts locally and only merge them into the global totals when
+ * the queried host changes, or when they are closed; the global totals are lock-free, except for
+ * the largest partitions, which are merged under a lock once per unit.
+ */
+public class DefaultReadResultCounter implements ReadResultCounter {
+
+  private static final Comparator<PartitionCount> BY_COUNT =
+      Comparator.comparingLong(pc -> pc.count);
+
+  private final EnumSet<StatisticsMode> modes;
+  private final int numPartitions;
+  private final List<TypeCodec<Object>> partitionKeyCodecs;
+  private final ProtocolVersion protocolVersion;
+  private final PrintStream out;
+  private final boolean countPartitions;
+
+  private final LongAdder totalRows = new LongAdder();
+  private final ConcurrentMap<TokenRange, Long> totalsByRange = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Host, LongAdder> totalsByHost = new ConcurrentHashMap<>();
+  private final PriorityQueue<PartitionCount> largestPartitions;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param modes the statistics to compute.
+   * @param numPartitions the number of largest partitions to report, if partitions are counted.
+   * @param partitionKeyCodecs the codecs for the partition key columns, if partitions are counted;
+   *     the read rows are expected to contain exactly these columns, in this order.
+   * @param protocolVersion the protocol version in use.
+   * @param out where to print the totals.
+   */
+  public DefaultReadResultCounter(
+      EnumSet<StatisticsMode> modes,
+      int numPartitions,
+      List<TypeCodec<Object>> partitionKeyCodecs,
+      ProtocolVersion protocolVersion,
+      PrintStream out) {
+    this.modes = modes;
+    this.numPartitions = numPartitions;
+    this.partitionKeyCodecs = partitionKeyCodecs;
+    this.protocolVersion = protocolVersion;
+    this.out = out;
+    countPartitions = modes.contains(StatisticsMode.partitions);
+    largestPartitions = new PriorityQueue<>(numPartitions + 1, BY_COUNT);
+  }
+
+  @Override
+  public CountingUnit newCountingUnit(Statement statement) {
+    TokenRange range =
+        statement instanceof TokenRangeReadStatement
+            ? ((TokenRangeReadStatement) statement).getTokenRange()
+            : null;
+    return new DefaultCountingUnit(range);
+  }
+
+  @Override
+  public void reportTotals() {
+    long total = totalRows.sum();
+    for (StatisticsMode mode : modes) {
+      switch (mode) {
+        case global:
+          out.println(total);
+          break;
+        case ranges:
+          totalsByRange
+              .entrySet()
+              .stream()
+              .sorted(Map.Entry.comparingByKey())
+              .forEach(
+                  entry ->
+                      out.printf(
+                          Locale.ENGLISH,
+                          "%s %s %d %.2f%n",
+                          entry.getKey().getStart(),
+                          entry.getKey().getEnd(),
+                          entry.getValue(),
+                          percentage(entry.getValue(), total)));
+          break;
+        case hosts:
+          totalsByHost
+              .entrySet()
+              .stream()
+              .sorted(Comparator.comparing(entry -> format(entry.getKey())))
+              .forEach(
+                  entry ->
+                      out.printf(
+                          Locale.ENGLISH,
+                          "%s %d %.2f%n",
+                          format(entry.getKey()),
+                          entry.getValue().sum(),
+                          percentage(entry.getValue().sum(), total)));
+          break;
+        case partitions:
+          List<PartitionCount> partitions;
+          synchronized (largestPartitions) {
+            partitions = new ArrayList<>(largestPartitions);
+          }
+          partitions.sort(BY_COUNT.reversed());
+          for (PartitionCount partition : partitions) {
+            out.printf(
+                Locale.ENGLISH,
+                "%s %d %.2f%n",
+                format(partition.key),
+                partition.count,
+                percentage(partition.count, total));
+          }
+          break;
+      }
+    }
+  }
+
+  private static double percentage(long count, long total) {
+    return total == 0 ? 0 : count * 100d / total;
+  }
+
+  private static String format(Host host) {
+    return host.getSocketAddress().getAddress().getHostAddress()
+        + ':'
+        + host.getSocketAddress().getPort();
+  }
+
+  private String format(List<ByteBuffer> key) {
+    List<String> values = new ArrayList<>(key.size());
+    for (int i = 0; i < key.size(); i++) {
+      TypeCodec<Object> codec = partitionKeyCodecs.get(i);
+      values.add(codec.format(codec.deserialize(key.get(i), protocolVersion)));
+    }
+    return values.stream().collect(Collectors.joining("|"));
+  }
+
+  private static void offer(PriorityQueue<PartitionCount> queue, PartitionCount count, int max) {
+    queue.offer(count);
+    if (queue.size() > max) {
+      queue.poll();
+    }
+  }
+
+  private class DefaultCountingUnit implements CountingUnit {
+
+    private final TokenRange range;
+    private final PriorityQueue<PartitionCount> unitLargestPartitions;
+
+    private long rangeCount;
+    private Host currentHost;
+    private long currentHostCount;
+    private List<ByteBuffer> currentKey;
+    private long currentKeyCount;
+
+    private DefaultCountingUnit(TokenRange range) {
+      this.range = range;
+      unitLargestPartitions =
+          countPartitions ? new PriorityQueue<>(numPartitions + 1, BY_COUNT) : null;
+    }
+
+    @Override
+    public void update(ReadResult result) {
+      if (!result.isSuccess()) {
+        return;
+      }
+      Row row = result.getRow().orElseThrow(IllegalStateException::new);
+      long count = countPartitions ? 1 : row.getLong(0);
+      rangeCount += count;
+      Host host = result.getExecutionInfo().map(ExecutionInfo::getQueriedHost).orElse(null);
+      if (!Objects.equals(host, currentHost)) {
+        flushHost();
+        currentHost = host;
+      }
+      currentHostCount += count;
+      if (countPartitions) {
+        // rows of a same partition are always contiguous in a token range
+        List<ByteBuffer> key = new ArrayList<>(partitionKeyCodecs.size());
+        for (int i = 0; i < partitionKeyCodecs.size(); i++) {
+          key.add(row.getBytesUnsafe(i));
+        }
+        if (!key.equals(currentKey)) {
+          flushPartition();
+          currentKey = key;
+        }
+        currentKeyCount++;
+      }
+    }
+
+    @Override
+    public void close() {
+      totalRows.add(rangeCount);
+      if (range != null) {
+        totalsByRange.merge(range, rangeCount, Long::sum);
+      }
+      flushHost();
+      if (countPartitions) {
+        flushPartition();
+        synchronized (largestPartitions) {
+          for (PartitionCount partition : unitLargestPartitions) {
+            offer(largestPartitions, partition, numPartitions);
+          }
+        }
+      }
+    }
+
+    private void flushHost() {
+      if (currentHost != null && currentHostCount > 0) {
+        totalsByHost.computeIfAbsent(currentHost, h -> new LongAdder()).add(currentHostCount);
+      }
+      currentHostCount = 0;
+    }
+
+    private void flushPartition() {
+      if (currentKey != null) {
+        offer(
+            unitLargestPartitions, new PartitionCount(currentKey, currentKeyCount), numPartitions);
+      }
+      currentKey = null;
+      currentKeyCount = 0;
+    }
+  }
+
+  private static class PartitionCount {
+
+    private final List<ByteBuffer> key;
+    private final long count;
+
+    private PartitionCount(List<ByteBuffer> key, long count) {
+      this.key = key;
+      this.count = count;
+    }
+  }
+}
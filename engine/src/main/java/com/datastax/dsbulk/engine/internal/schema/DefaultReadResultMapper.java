@@ -9,63 +9,60 @@
 package com.datastax.dsbulk.engine.internal.schema;
 
 import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.TypeCodec;
-import com.datastax.dsbulk.commons.internal.uri.URIUtils;
 import com.datastax.dsbulk.connectors.api.Record;
 import com.datastax.dsbulk.connectors.api.RecordMetadata;
 import com.datastax.dsbulk.connectors.api.internal.DefaultErrorRecord;
 import com.datastax.dsbulk.connectors.api.internal.DefaultRecord;
 import com.datastax.dsbulk.executor.api.result.ReadResult;
-import com.google.common.base.Suppliers;
 import com.google.common.reflect.TypeToken;
-import java.net.URI;
-import java.util.function.Supplier;
 
 public class DefaultReadResultMapper implements ReadResultMapper {
 
   private final Mapping mapping;
   private final RecordMetadata recordMetadata;
 
-  public DefaultReadResultMapper(Mapping mapping, RecordMetadata recordMetadata) {
+  /** Whether to emit the serialized values of the row, instead of decoding them. */
+  private final boolean serializedValues;
+
+  public DefaultReadResultMapper(
+      Mapping mapping, RecordMetadata recordMetadata, boolean serializedValues) {
     this.mapping = mapping;
     this.recordMetadata = recordMetadata;
+    this.serializedValues = serializedValues;
   }
 
   @Override
   public Record map(ReadResult result) {
     Row row = result.getRow().orElseThrow(IllegalStateException::new);
-    Supplier<URI> resource =
-        Suppliers.memoize(
-            () ->
-                URIUtils.getRowResource(
-                    result.getRow().orElseThrow(IllegalStateException::new),
-                    result.getExecutionInfo().orElseThrow(IllegalStateException::new)));
-    Supplier<URI> location =
-        Suppliers.memoize(
-            () ->
-                URIUtils.getRowLocation(
-                    result.getRow().orElseThrow(IllegalStateException::new),
-                    result.getExecutionInfo().orElseThrow(IllegalStateException::new),
-                    result.getStatement()));
     try {
-      DefaultRecord record = new DefaultRecord(result, resource, -1, location);
-      for (ColumnDefinitions.Definition col : row.getColumnDefinitions()) {
+      DefaultRecord record = new DefaultRecord(result, ReadResultLocator.INSTANCE, -1);
+      ColumnDefinitions definitions = row.getColumnDefinitions();
+      for (int i = 0; i < definitions.size(); i++) {
         // do not quote variable names here as the mapping expects them unquoted
-        String variable = col.getName();
+        String variable = definitions.getName(i);
         String field = mapping.variableToField(variable);
         if (field != null) {
-          TypeToken<?> fieldType = recordMetadata.getFieldType(field, col.getType());
+          DataType cqlType = definitions.getType(i);
+          TypeToken<?> fieldType = recordMetadata.getFieldType(field, cqlType);
           if (fieldType != null) {
-            TypeCodec<?> codec = mapping.codec(variable, col.getType(), fieldType);
-            Object value = row.get(col.getName(), codec);
+            Object value;
+            if (serializedValues) {
+              value = row.getBytesUnsafe(i);
+            } else {
+              TypeCodec<?> codec = mapping.codec(variable, cqlType, fieldType);
+              // access the value by index: codecs for common types format the raw bytes directly
+              value = row.get(i, codec);
+            }
             record.setFieldValue(field, value);
           }
         }
       }
       return record;
     } catch (Exception e) {
-      return new DefaultErrorRecord(result, resource, -1, location, e);
+      return new DefaultErrorRecord(result, ReadResultLocator.INSTANCE, -1, e);
     }
   }
 }
@@ -8,6 +8,8 @@
  */
 package com.datastax.dsbulk.engine.internal.schema;
 
+import static com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils.NOT_A_PLAIN_INTEGER;
+
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.DataType;
@@ -20,15 +22,22 @@ import com.datastax.driver.core.TypeCodec;
 import com.datastax.dsbulk.commons.internal.uri.URIUtils;
 import com.datastax.dsbulk.connectors.api.Record;
 import com.datastax.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.dsbulk.connectors.api.internal.ArrayBackedRecord;
+import com.datastax.dsbulk.connectors.api.internal.FieldIndex;
+import com.datastax.dsbulk.engine.internal.codecs.ConvertingCodec;
+import com.datastax.dsbulk.engine.internal.codecs.string.StringToNumberCodec;
 import com.datastax.dsbulk.engine.internal.statement.BulkBoundStatement;
 import com.datastax.dsbulk.engine.internal.statement.UnmappableStatement;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Suppliers;
 import com.google.common.reflect.TypeToken;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 import java.util.function.BiFunction;
+import org.jetbrains.annotations.Nullable;
 
 public class DefaultRecordMapper implements RecordMapper {
 
@@ -39,22 +48,40 @@ public class DefaultRecordMapper implements RecordMapper {
   private final int[] pkIndices;
   private final ProtocolVersion protocolVersion;
   private final Mapping mapping;
-  private final RecordMetadata recordMetadata;
   private final boolean allowExtraFields;
   private final boolean allowMissingFields;
 
   /** Whether to map null input to "unset" */
   private final boolean nullToUnset;
 
+  /** Whether field values are already serialized, in which case they are bound as they are. */
+  private final boolean serializedValues;
+
   private final BiFunction<Record, PreparedStatement, BoundStatement> boundStatementFactory;
 
+  /** The fields mapped to each bound variable, in bind order; may contain nulls. */
+  private final String[] requiredFields;
+
+  /** The binding plan: one binding per bound variable that can be bound. */
+  private final Binding[] bindings;
+
+  /**
+   * The size of the slab holding the serialized values of fixed-length types of each statement, or
+   * zero if no slab is needed; see {@link FixedLengthSerializer}.
+   */
+  private final int slabSize;
+
+  /** Field slots of the last field index encountered, see {@link #slotsFor(FieldIndex)}. */
+  private volatile FieldSlots lastSlots;
+
   public DefaultRecordMapper(
       PreparedStatement insertStatement,
       Mapping mapping,
       RecordMetadata recordMetadata,
       boolean nullToUnset,
       boolean allowExtraFields,
-      boolean allowMissingFields) {
+      boolean allowMissingFields,
+      boolean serializedValues) {
     this(
         insertStatement,
         DriverCoreHooks.partitionKeyIndices(insertStatement.getPreparedId()),
@@ -64,6 +91,7 @@ public class DefaultRecordMapper implements RecordMapper {
         nullToUnset,
         allowExtraFields,
         allowMissingFields,
+        serializedValues,
         (mappedRecord, statement) -> new BulkBoundStatement<>(mappedRecord, insertStatement));
   }
 
@@ -77,16 +105,36 @@ public class DefaultRecordMapper implements RecordMapper {
       boolean nullToUnset,
       boolean allowExtraFields,
       boolean allowMissingFields,
+      boolean serializedValues,
       BiFunction<Record, PreparedStatement, BoundStatement> boundStatementFactory) {
     this.insertStatement = insertStatement;
     this.pkIndices = pkIndices;
     this.protocolVersion = protocolVersion;
     this.mapping = mapping;
-    this.recordMetadata = recordMetadata;
     this.nullToUnset = nullToUnset;
     this.allowExtraFields = allowExtraFields;
     this.allowMissingFields = allowMissingFields;
+    this.serializedValues = serializedValues;
     this.boundStatementFactory = boundStatementFactory;
+    ColumnDefinitions variables = insertStatement.getVariables();
+    requiredFields = new String[variables.size()];
+    List<Binding> bindings = new ArrayList<>(variables.size());
+    int slabSize = 0;
+    for (int index = 0; index < variables.size(); index++) {
+      String variable = variables.getName(index);
+      String field = mapping.variableToField(variable);
+      requiredFields[index] = field;
+      if (field != null) {
+        DataType cqlType = variables.getType(index);
+        TypeToken<?> fieldType = recordMetadata.getFieldType(field, cqlType);
+        if (fieldType != null) {
+          bindings.add(new Binding(field, variable, index, cqlType, fieldType));
+          slabSize += FixedLengthSerializer.maxLength(cqlType);
+        }
+      }
+    }
+    this.bindings = bindings.toArray(new Binding[0]);
+    this.slabSize = serializedValues ? 0 : slabSize;
   }
 
   @Override
@@ -96,28 +144,39 @@ public class DefaultRecordMapper implements RecordMapper {
     Object raw = null;
     DataType cqlType = null;
     try {
+      Set<String> recordFields = record.fields();
       if (!allowMissingFields) {
-        ensureAllFieldsPresent(record.fields());
+        ensureAllFieldsPresent(recordFields);
+      }
+      if (!allowExtraFields) {
+        ensureNoExtraFields(recordFields);
       }
       BoundStatement bs = boundStatementFactory.apply(record, insertStatement);
-      for (String field : record.fields()) {
-        currentField = field;
-        variable = mapping.fieldToVariable(field);
-        if (variable != null) {
-          cqlType = insertStatement.getVariables().getType(variable);
-          TypeToken<?> fieldType = recordMetadata.getFieldType(field, cqlType);
-          if (fieldType != null) {
-            raw = record.getFieldValue(field);
-            bindColumn(bs, variable, raw, cqlType, fieldType);
+      ArrayBackedRecord arrayBackedRecord = null;
+      int[] slots = null;
+      // one allocation for all values of fixed-length types, instead of one per value
+      ByteBuffer slab = slabSize == 0 ? null : ByteBuffer.allocate(slabSize);
+      if (record instanceof ArrayBackedRecord) {
+        arrayBackedRecord = (ArrayBackedRecord) record;
+        slots = slotsFor(arrayBackedRecord.getFieldIndex());
+      }
+      for (int i = 0; i < bindings.length; i++) {
+        Binding binding = bindings[i];
+        currentField = binding.field;
+        variable = binding.variable;
+        cqlType = binding.cqlType;
+        if (slots != null) {
+          int slot = slots[i];
+          if (slot == -1) {
+            continue;
           }
-        } else if (!allowExtraFields) {
-          throw new InvalidMappingException(
-              "Extraneous field "
-                  + field
-                  + " was found in record. "
-                  + "Please declare it explicitly in the mapping "
-                  + "or set schema.allowExtraFields to true.");
+          raw = arrayBackedRecord.getFieldValue(slot);
+        } else if (recordFields.contains(binding.field)) {
+          raw = record.getFieldValue(binding.field);
+        } else {
+          continue;
         }
+        bindColumn(bs, binding, raw, slab);
       }
       ensurePrimaryKeySet(bs);
       record.clear();
@@ -143,23 +202,15 @@ public class DefaultRecordMapper implements RecordMapper {
     }
   }
 
-  private <T> void bindColumn(
-      BoundStatement bs,
-      String variable,
-      T raw,
-      DataType cqlType,
-      TypeToken<? extends T> javaType) {
-    // the mapping provides unquoted variable names,
-    // so we need to quote them now
-    String name = Metadata.quoteIfNecessary(variable);
-    TypeCodec<T> codec = mapping.codec(variable, cqlType, javaType);
-    ByteBuffer bb = codec.serialize(raw, protocolVersion);
+  private void bindColumn(
+      BoundStatement bs, Binding binding, Object raw, @Nullable ByteBuffer slab) {
+    ByteBuffer bb = serializedValues ? (ByteBuffer) raw : binding.serialize(raw, slab);
     // Account for nullToUnset.
-    if (isNull(bb, cqlType)) {
-      if (isPrimaryKey(variable)) {
+    if (bb == null || (!bb.hasRemaining() && binding.emptyIsNull)) {
+      if (binding.primaryKey) {
         throw new InvalidMappingException(
             "Primary key column "
-                + Metadata.quoteIfNecessary(variable)
+                + Metadata.quoteIfNecessary(binding.variable)
                 + " cannot be mapped to null. "
                 + "Check that your settings (schema.mapping or schema.query) match your dataset contents.");
       }
@@ -167,38 +218,29 @@ public class DefaultRecordMapper implements RecordMapper {
         return;
       }
     }
-    bs.setBytesUnsafe(name, bb);
+    bs.setBytesUnsafe(binding.index, bb);
   }
 
-  private boolean isNull(ByteBuffer bb, DataType cqlType) {
-    if (bb == null) {
-      return true;
-    }
-    if (bb.hasRemaining()) {
-      return false;
-    }
-    switch (cqlType.getName()) {
-      case TEXT:
-      case VARCHAR:
-      case ASCII:
-        // empty strings are encoded as zero-length buffers,
-        // and should not be considered as nulls.
-        return false;
-      default:
-        return true;
+  private int[] slotsFor(FieldIndex index) {
+    // records emitted from the same resource share the same field index,
+    // so caching the last computed slots is enough in most cases
+    FieldSlots slots = lastSlots;
+    if (slots == null || slots.index != index) {
+      int[] array = new int[bindings.length];
+      for (int i = 0; i < bindings.length; i++) {
+        array[i] = index.slotOf(bindings[i].field);
+      }
+      slots = new FieldSlots(index, array);
+      lastSlots = slots;
     }
-  }
-
-  private boolean isPrimaryKey(String variable) {
-    return Arrays.binarySearch(pkIndices, insertStatement.getVariables().getIndexOf(variable)) >= 0;
+    return slots.slots;
   }
 
   private void ensureAllFieldsPresent(Set<String> recordFields) {
-    ColumnDefinitions variables = insertStatement.getVariables();
-    for (int i = 0; i < variables.size(); i++) {
-      String variable = variables.getName(i);
-      String field = mapping.variableToField(variable);
+    for (int i = 0; i < requiredFields.length; i++) {
+      String field = requiredFields[i];
       if (!recordFields.contains(field)) {
+        String variable = insertStatement.getVariables().getName(i);
         throw new InvalidMappingException(
             "Required field "
                 + field
@@ -211,6 +253,19 @@ public class DefaultRecordMapper implements RecordMapper {
     }
   }
 
+  private void ensureNoExtraFields(Set<String> recordFields) {
+    for (String field : recordFields) {
+      if (mapping.fieldToVariable(field) == null) {
+        throw new InvalidMappingException(
+            "Extraneous field "
+                + field
+                + " was found in record. "
+                + "Please declare it explicitly in the mapping "
+                + "or set schema.allowExtraFields to true.");
+      }
+    }
+  }
+
   private void ensurePrimaryKeySet(BoundStatement bs) {
     for (int pkIndex : pkIndices) {
       if (!bs.isSet(pkIndex)) {
@@ -223,4 +278,99 @@ public class DefaultRecordMapper implements RecordMapper {
       }
     }
   }
+
+  /** How to bind a field to a bound variable; computed once per mapper. */
+  private final class Binding {
+
+    private final String field;
+    private final String variable;
+    private final int index;
+    private final DataType cqlType;
+    private final TypeToken<?> fieldType;
+    private final boolean primaryKey;
+
+    /**
+     * Whether an empty buffer should be considered as null; empty strings are encoded as
+     * zero-length buffers and should not be considered as nulls.
+     */
+    private final boolean emptyIsNull;
+
+    private volatile TypeCodec<Object> codec;
+
+    /** The serializer for values of this binding, if they can be serialized into a slab. */
+    private FixedLengthSerializer serializer;
+
+    /** The codec of this binding, if it can parse plain integers without boxing them. */
+    private StringToNumberCodec<?> numberCodec;
+
+    private Binding(
+        String field, String variable, int index, DataType cqlType, TypeToken<?> fieldType) {
+      this.field = field;
+      this.variable = variable;
+      this.index = index;
+      this.cqlType = cqlType;
+      this.fieldType = fieldType;
+      primaryKey = Arrays.binarySearch(pkIndices, index) >= 0;
+      switch (cqlType.getName()) {
+        case TEXT:
+        case VARCHAR:
+        case ASCII:
+          emptyIsNull = false;
+          break;
+        default:
+          emptyIsNull = true;
+      }
+    }
+
+    /**
+     * Returns the codec to use for this binding. The codec is resolved on first use, so that a
+     * codec that cannot be found results in unmappable records rather than in a failure to create
+     * the mapper.
+     */
+    @SuppressWarnings("unchecked")
+    private TypeCodec<Object> codec() {
+      TypeCodec<Object> codec = this.codec;
+      if (codec == null) {
+        codec = mapping.codec(variable, cqlType, (TypeToken<Object>) fieldType);
+        if (codec instanceof ConvertingCodec) {
+          serializer =
+              FixedLengthSerializer.forCodec(((ConvertingCodec<?, ?>) codec).getInternalCodec());
+          if (serializer != null && codec instanceof StringToNumberCodec) {
+            numberCodec = (StringToNumberCodec<?>) (TypeCodec<?>) codec;
+          }
+        }
+        // the volatile write publishes the serializer as well
+        this.codec = codec;
+      }
+      return codec;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ByteBuffer serialize(Object raw, @Nullable ByteBuffer slab) {
+      TypeCodec<Object> codec = codec();
+      if (slab != null && serializer != null) {
+        if (numberCodec != null) {
+          long value = numberCodec.parsePlainValue((String) raw);
+          if (value != NOT_A_PLAIN_INTEGER) {
+            // fast path: serialize the primitive value directly, without boxing
+            return serializer.serializePlainInteger(value, slab);
+          }
+        }
+        Object value = ((ConvertingCodec<Object, Object>) codec).externalToInternal(raw);
+        return value == null ? null : serializer.serialize(value, slab);
+      }
+      return codec.serialize(raw, protocolVersion);
+    }
+  }
+
+  private static final class FieldSlots {
+
+    private final FieldIndex index;
+    private final int[] slots;
+
+    private FieldSlots(FieldIndex index, int[] slots) {
+      this.index = index;
+      this.slots = slots;
+    }
+  }
 }
@@ -0,0 +1,259 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.schema;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.driver.core.exceptions.InvalidTypeException;
+import com.datastax.driver.extras.codecs.jdk8.InstantCodec;
+import com.datastax.driver.extras.codecs.jdk8.LocalTimeCodec;
+import com.datastax.dsbulk.engine.internal.codecs.string.StringToNumberCodec;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalTime;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Serializes values of fixed-length CQL types into a slab shared by all the values of a statement,
+ * instead of allocating one buffer per value.
+ *
+ * <p>Serializers are only available for the driver's built-in codecs, whose serialized form is
+ * known; values handled by any other codec must be serialized by the codec itself.
+ */
+enum FixedLengthSerializer {
+  INT(4) {
+    @Override
+    void put(Object value, ByteBuffer slab) {
+      slab.putInt((Integer) value);
+    }
+
+    @Override
+    void putPlainInteger(long value, ByteBuffer slab) {
+      slab.putInt((int) value);
+    }
+  },
+
+  BIGINT(8) {
+    @Override
+    void put(Object value, ByteBuffer slab) {
+      slab.putLong((Long) value);
+    }
+
+    @Override
+    void putPlainInteger(long value, ByteBuffer slab) {
+      slab.putLong(value);
+    }
+  },
+
+  SMALLINT(2) {
+    @Override
+    void put(Object value, ByteBuffer slab) {
+      slab.putShort((Short) value);
+    }
+
+    @Override
+    void putPlainInteger(long value, ByteBuffer slab) {
+      slab.putShort((short) value);
+    }
+  },
+
+  TINYINT(1) {
+    @Override
+    void put(Object value, ByteBuffer slab) {
+      slab.put((Byte) value);
+    }
+
+    @Override
+    void putPlainInteger(long value, ByteBuffer slab) {
+      slab.put((byte) value);
+    }
+  },
+
+  FLOAT(4) {
+    @Override
+    void put(Object value, ByteBuffer slab) {
+      slab.putFloat((Float) value);
+    }
+  },
+
+  DOUBLE(8) {
+    @Override
+    void put(Object value, ByteBuffer slab) {
+      slab.putDouble((Double) value);
+    }
+  },
+
+  BOOLEAN(1) {
+    @Override
+    void put(Object value, ByteBuffer slab) {
+      slab.put((Boolean) value ? (byte) 1 : (byte) 0);
+    }
+  },
+
+  UUID(16) {
+    @Override
+    void put(Object value, ByteBuffer slab) {
+      java.util.UUID uuid = (java.util.UUID) value;
+      slab.putLong(uuid.getMostSignificantBits());
+      slab.putLong(uuid.getLeastSignificantBits());
+    }
+  },
+
+  TIMEUUID(16) {
+    @Override
+    void put(Object value, ByteBuffer slab) {
+      // same check as the driver's codec, which is bypassed
+      if (((java.util.UUID) value).version() != 1) {
+        throw new InvalidTypeException(
+            String.format("%s is not a Type 1 (time-based) UUID", value));
+      }
+      UUID.put(value, slab);
+    }
+  },
+
+  TIMESTAMP(8) {
+    @Override
+    void put(Object value, ByteBuffer slab) {
+      slab.putLong(((Instant) value).toEpochMilli());
+    }
+  },
+
+  TIME(8) {
+    @Override
+    void put(Object value, ByteBuffer slab) {
+      slab.putLong(((LocalTime) value).toNanoOfDay());
+    }
+  };
+
+  private final int length;
+
+  FixedLengthSerializer(int length) {
+    this.length = length;
+  }
+
+  /**
+   * Returns the number of bytes that values of the given CQL type occupy in a slab, if they could
+   * be serialized by one of the serializers, or zero otherwise.
+   *
+   * @param cqlType the CQL type.
+   * @return the number of bytes to reserve for values of this type.
+   */
+  static int maxLength(DataType cqlType) {
+    switch (cqlType.getName()) {
+      case TINYINT:
+      case BOOLEAN:
+        return 1;
+      case SMALLINT:
+        return 2;
+      case INT:
+      case FLOAT:
+        return 4;
+      case BIGINT:
+      case COUNTER:
+      case DOUBLE:
+      case TIMESTAMP:
+      case TIME:
+        return 8;
+      case UUID:
+      case TIMEUUID:
+        return 16;
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Returns the serializer for values handled by the given codec, or {@code null} if the codec is
+   * not one of the driver's built-in codecs for fixed-length types.
+   *
+   * @param codec the codec that would otherwise serialize values.
+   * @return the serializer to use, or {@code null}.
+   */
+  @Nullable
+  static FixedLengthSerializer forCodec(TypeCodec<?> codec) {
+    if (codec == TypeCodec.cint()) {
+      return INT;
+    }
+    if (codec == TypeCodec.bigint() || codec == TypeCodec.counter()) {
+      return BIGINT;
+    }
+    if (codec == TypeCodec.smallInt()) {
+      return SMALLINT;
+    }
+    if (codec == TypeCodec.tinyInt()) {
+      return TINYINT;
+    }
+    if (codec == TypeCodec.cfloat()) {
+      return FLOAT;
+    }
+    if (codec == TypeCodec.cdouble()) {
+      return DOUBLE;
+    }
+    if (codec == TypeCodec.cboolean()) {
+      return BOOLEAN;
+    }
+    if (codec == TypeCodec.uuid()) {
+      return UUID;
+    }
+    if (codec == TypeCodec.timeUUID()) {
+      return TIMEUUID;
+    }
+    if (codec == InstantCodec.instance) {
+      return TIMESTAMP;
+    }
+    if (codec == LocalTimeCodec.instance) {
+      return TIME;
+    }
+    return null;
+  }
+
+  /**
+   * Serializes the given value at the current position of the slab, and returns a buffer that views
+   * the serialized bytes only.
+   *
+   * @param value the value to serialize, in the Java type of its codec; cannot be null.
+   * @param slab the slab to write to; its position is advanced past the serialized bytes.
+   * @return a view of the serialized bytes, sharing the slab's content.
+   */
+  ByteBuffer serialize(Object value, ByteBuffer slab) {
+    int start = slab.position();
+    put(value, slab);
+    return view(slab, start);
+  }
+
+  /**
+   * Serializes the given plain integer at the current position of the slab, without boxing, and
+   * returns a buffer that views the serialized bytes only.
+   *
+   * <p>Only serializers of integral types support this operation; the value must fit in their type,
+   * see {@link StringToNumberCodec#parsePlainValue(String)}.
+   *
+   * @param value the value to serialize.
+   * @param slab the slab to write to; its position is advanced past the serialized bytes.
+   * @return a view of the serialized bytes, sharing the slab's content.
+   */
+  ByteBuffer serializePlainInteger(long value, ByteBuffer slab) {
+    int start = slab.position();
+    putPlainInteger(value, slab);
+    return view(slab, start);
+  }
+
+  abstract void put(Object value, ByteBuffer slab);
+
+  void putPlainInteger(long value, ByteBuffer slab) {
+    throw new UnsupportedOperationException(name() + " values are not integers");
+  }
+
+  private ByteBuffer view(ByteBuffer slab, int start) {
+    ByteBuffer bytes = slab.duplicate();
+    bytes.position(start);
+    bytes.limit(start + length);
+    return bytes;
+  }
+}
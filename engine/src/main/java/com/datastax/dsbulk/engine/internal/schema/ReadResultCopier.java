@@ -0,0 +1,18 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.schema;
+
+import com.datastax.driver.core.Statement;
+import com.datastax.dsbulk.executor.api.result.ReadResult;
+
+/** Maps rows read from a source table to statements writing them to a target table. */
+public interface ReadResultCopier {
+
+  Statement map(ReadResult result);
+}
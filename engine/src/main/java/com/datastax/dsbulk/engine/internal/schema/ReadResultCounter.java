@@ -0,0 +1,40 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.schema;
+
+import com.datastax.driver.core.Statement;
+import com.datastax.dsbulk.executor.api.result.ReadResult;
+
+/** Counts rows read from a table, and reports the totals once all rows have been counted. */
+public interface ReadResultCounter {
+
+  /**
+   * Creates a new counting unit for the given read statement.
+   *
+   * <p>Each read statement must have its own counting unit; a counting unit is not thread-safe, but
+   * different counting units can be used concurrently.
+   *
+   * @param statement the read statement whose results will be counted.
+   * @return a new counting unit.
+   */
+  CountingUnit newCountingUnit(Statement statement);
+
+  /** Reports the totals; must be called after all counting units have been closed. */
+  void reportTotals();
+
+  /** Counts the results of a single read statement. */
+  interface CountingUnit extends AutoCloseable {
+
+    void update(ReadResult result);
+
+    /** Merges the counts of this unit into the global totals. */
+    @Override
+    void close();
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.schema;
+
+import com.datastax.dsbulk.commons.internal.uri.URIUtils;
+import com.datastax.dsbulk.connectors.api.RecordLocator;
+import com.datastax.dsbulk.executor.api.result.ReadResult;
+import java.net.URI;
+
+/**
+ * A {@link RecordLocator} for records whose source is a {@link ReadResult}.
+ *
+ * <p>URIs are derived from the result's row, execution info and statement, see {@link
+ * URIUtils#getRowResource} and {@link URIUtils#getRowLocation}.
+ */
+public class ReadResultLocator implements RecordLocator {
+
+  public static final ReadResultLocator INSTANCE = new ReadResultLocator();
+
+  private ReadResultLocator() {}
+
+  @Override
+  public URI getResource(Object source, long position) {
+    ReadResult result = (ReadResult) source;
+    return URIUtils.getRowResource(
+        result.getRow().orElseThrow(IllegalStateException::new),
+        result.getExecutionInfo().orElseThrow(IllegalStateException::new));
+  }
+
+  @Override
+  public URI getLocation(Object source, long position) {
+    ReadResult result = (ReadResult) source;
+    return URIUtils.getRowLocation(
+        result.getRow().orElseThrow(IllegalStateException::new),
+        result.getExecutionInfo().orElseThrow(IllegalStateException::new),
+        result.getStatement());
+  }
+}
@@ -13,9 +13,12 @@ import com.datastax.driver.core.Cluster;
 import com.datastax.dsbulk.commons.config.BulkConfigurationException;
 import com.datastax.dsbulk.commons.config.LoaderConfig;
 import com.datastax.dsbulk.commons.internal.config.ConfigUtils;
+import com.datastax.dsbulk.engine.internal.statement.ExternalStatementSorter;
 import com.datastax.dsbulk.executor.api.batch.StatementBatcher;
+import com.datastax.dsbulk.executor.reactor.batch.ReactorSortedStatementBatcher;
 import com.datastax.dsbulk.executor.reactor.batch.ReactorStatementBatcher;
 import com.typesafe.config.ConfigException;
+import java.nio.file.Path;
 
 public class BatchSettings {
 
@@ -23,6 +26,9 @@ public class BatchSettings {
   private static final String MAX_BATCH_SIZE = "maxBatchSize";
   private static final String BUFFER_SIZE = "bufferSize";
   private static final String ENABLED = "enabled";
+  private static final String SORT_ENABLED = "sort.enabled";
+  private static final String SORT_MAX_BUFFERED_STATEMENTS = "sort.maxBufferedStatements";
+  private static final String SORT_MAX_MERGE_FAN_IN = "sort.maxMergeFanIn";
 
   private final LoaderConfig config;
 
@@ -30,6 +36,9 @@ public class BatchSettings {
   private int maxBatchSize;
   private int bufferSize;
   private boolean enabled;
+  private boolean sortEnabled;
+  private int maxBufferedStatements;
+  private int maxMergeFanIn;
 
   BatchSettings(LoaderConfig config) {
     this.config = config;
@@ -48,6 +57,21 @@ public class BatchSettings {
                 "batch.bufferSize (%d) must be greater than or equal to buffer.maxBatchSize (%d). See settings.md for more information.",
                 bufferSize, maxBatchSize));
       }
+      sortEnabled = config.getBoolean(SORT_ENABLED);
+      maxBufferedStatements = config.getInt(SORT_MAX_BUFFERED_STATEMENTS);
+      if (sortEnabled && maxBufferedStatements < 1) {
+        throw new BulkConfigurationException(
+            String.format(
+                "batch.sort.maxBufferedStatements (%d) must be greater than zero. See settings.md for more information.",
+                maxBufferedStatements));
+      }
+      maxMergeFanIn = config.getInt(SORT_MAX_MERGE_FAN_IN);
+      if (sortEnabled && maxMergeFanIn < 2) {
+        throw new BulkConfigurationException(
+            String.format(
+                "batch.sort.maxMergeFanIn (%d) must be greater than or equal to 2. See settings.md for more information.",
+                maxMergeFanIn));
+      }
     } catch (ConfigException e) {
       throw ConfigUtils.configExceptionToBulkConfigurationException(e, "batch");
     }
@@ -57,6 +81,10 @@ public class BatchSettings {
     return enabled;
   }
 
+  public boolean isSortingEnabled() {
+    return enabled && sortEnabled;
+  }
+
   public int getBufferSize() {
     return bufferSize;
   }
@@ -64,4 +92,13 @@ public class BatchSettings {
   public ReactorStatementBatcher newStatementBatcher(Cluster cluster) {
     return new ReactorStatementBatcher(cluster, mode, BatchStatement.Type.UNLOGGED, maxBatchSize);
   }
+
+  public ReactorSortedStatementBatcher newSortedStatementBatcher(Cluster cluster) {
+    return new ReactorSortedStatementBatcher(
+        cluster, mode, BatchStatement.Type.UNLOGGED, maxBatchSize);
+  }
+
+  public ExternalStatementSorter newStatementSorter(Cluster cluster, Path directory) {
+    return new ExternalStatementSorter(cluster, directory, maxBufferedStatements, maxMergeFanIn);
+  }
 }
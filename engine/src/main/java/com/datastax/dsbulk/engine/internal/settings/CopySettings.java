@@ -0,0 +1,70 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.settings;
+
+import com.datastax.driver.dse.DseCluster;
+import com.datastax.dsbulk.commons.config.LoaderConfig;
+import com.datastax.dsbulk.commons.internal.config.ConfigUtils;
+import com.typesafe.config.ConfigException;
+import java.util.List;
+import org.jetbrains.annotations.Nullable;
+
+public class CopySettings {
+
+  private static final String HOSTS = "hosts";
+  private static final String PORT = "port";
+  private static final String KEYSPACE = "keyspace";
+  private static final String TABLE = "table";
+
+  private final LoaderConfig config;
+
+  private List<String> hosts;
+  private int port;
+  private String keyspace;
+  private String table;
+
+  CopySettings(LoaderConfig config) {
+    this.config = config;
+  }
+
+  public void init() {
+    try {
+      hosts = config.getStringList(HOSTS);
+      port = config.getInt(PORT);
+      keyspace = config.getString(KEYSPACE);
+      table = config.getString(TABLE);
+    } catch (ConfigException e) {
+      throw ConfigUtils.configExceptionToBulkConfigurationException(e, "copy");
+    }
+  }
+
+  /**
+   * Whether the target table lives in a cluster other than the source cluster.
+   *
+   * @return {@code true} if the target cluster has its own contact points, {@code false} if the
+   *     target table must be written to through the source cluster.
+   */
+  public boolean hasTargetCluster() {
+    return !hosts.isEmpty();
+  }
+
+  public DseCluster newTargetCluster(DriverSettings driverSettings) {
+    return driverSettings.newTargetCluster(hosts, port);
+  }
+
+  @Nullable
+  public String getKeyspace() {
+    return keyspace.isEmpty() ? null : keyspace;
+  }
+
+  @Nullable
+  public String getTable() {
+    return table.isEmpty() ? null : table;
+  }
+}
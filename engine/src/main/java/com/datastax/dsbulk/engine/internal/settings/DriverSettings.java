@@ -362,7 +362,38 @@ public class DriverSettings {
   }
 
   public DseCluster newCluster() throws BulkConfigurationException {
-    DseCluster.Builder builder = DseCluster.builder().withClusterName(executionId + "-driver");
+    return newCluster(executionId + "-driver", hosts, port, policy);
+  }
+
+  /**
+   * Creates a cluster connecting to the given contact points, but otherwise configured like the
+   * cluster returned by {@link #newCluster()}.
+   *
+   * <p>Used by copy workflows, when the target table lives in another cluster.
+   *
+   * @param targetHosts the contact points of the target cluster.
+   * @param targetPort the native transport port of the target cluster.
+   * @return a new cluster.
+   */
+  public DseCluster newTargetCluster(List<String> targetHosts, int targetPort)
+      throws BulkConfigurationException {
+    // load balancing policies cannot be shared between clusters
+    LoadBalancingPolicy targetPolicy = null;
+    try {
+      if (config.hasPath(POLICY_NAME)) {
+        targetPolicy =
+            getLoadBalancingPolicy(config, config.getEnum(BuiltinLBP.class, POLICY_NAME));
+      }
+    } catch (ConfigException e) {
+      throw ConfigUtils.configExceptionToBulkConfigurationException(e, "driver");
+    }
+    return newCluster(executionId + "-target-driver", targetHosts, targetPort, targetPolicy);
+  }
+
+  private DseCluster newCluster(
+      String clusterName, List<String> hosts, int port, LoadBalancingPolicy policy)
+      throws BulkConfigurationException {
+    DseCluster.Builder builder = DseCluster.builder().withClusterName(clusterName);
     hosts.forEach(builder::addContactPoints);
     builder
         .withPort(port)
@@ -14,6 +14,7 @@ import com.datastax.driver.core.ContinuousPagingOptions;
 import com.datastax.driver.core.ContinuousPagingSession;
 import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.Session;
+import com.datastax.dsbulk.commons.config.BulkConfigurationException;
 import com.datastax.dsbulk.commons.config.LoaderConfig;
 import com.datastax.dsbulk.commons.internal.config.ConfigUtils;
 import com.datastax.dsbulk.engine.WorkflowType;
@@ -39,6 +40,11 @@ public class ExecutorSettings {
 
   private static final String MAX_PER_SECOND = "maxPerSecond";
   private static final String MAX_IN_FLIGHT = "maxInFlight";
+  private static final String ADAPTIVE_CONCURRENCY = "adaptiveConcurrency";
+  private static final String MIN_IN_FLIGHT = "minInFlight";
+  private static final String REPLICA_AWARE = "replicaAware";
+  private static final String MAX_IN_FLIGHT_PER_HOST = "maxInFlightPerHost";
+  private static final String MAX_QUEUED_PER_HOST = "maxQueuedPerHost";
   private static final String CONTINUOUS_PAGING = "continuousPaging";
   private static final String ENABLED = "enabled";
   private static final String PAGE_SIZE = "pageSize";
@@ -50,6 +56,11 @@ public class ExecutorSettings {
 
   private int maxPerSecond;
   private int maxInFlight;
+  private boolean adaptiveConcurrencyEnabled;
+  private int minInFlight;
+  private boolean replicaAwareEnabled;
+  private int maxInFlightPerHost;
+  private int maxQueuedPerHost;
   private boolean continuousPagingEnabled;
   private int pageSize;
   private int maxPages;
@@ -64,6 +75,35 @@ public class ExecutorSettings {
     try {
       maxPerSecond = config.getInt(MAX_PER_SECOND);
       maxInFlight = config.getInt(MAX_IN_FLIGHT);
+      Config adaptiveConcurrencyConfig = config.getConfig(ADAPTIVE_CONCURRENCY);
+      adaptiveConcurrencyEnabled = adaptiveConcurrencyConfig.getBoolean(ENABLED);
+      if (adaptiveConcurrencyEnabled) {
+        minInFlight = adaptiveConcurrencyConfig.getInt(MIN_IN_FLIGHT);
+        if (minInFlight < 1) {
+          throw new BulkConfigurationException(
+              String.format(
+                  "executor.adaptiveConcurrency.minInFlight (%d) must be greater than zero. See settings.md for more information.",
+                  minInFlight));
+        }
+      }
+      Config replicaAwareConfig = config.getConfig(REPLICA_AWARE);
+      replicaAwareEnabled = replicaAwareConfig.getBoolean(ENABLED);
+      if (replicaAwareEnabled) {
+        maxInFlightPerHost = replicaAwareConfig.getInt(MAX_IN_FLIGHT_PER_HOST);
+        if (maxInFlightPerHost < 1) {
+          throw new BulkConfigurationException(
+              String.format(
+                  "executor.replicaAware.maxInFlightPerHost (%d) must be greater than zero. See settings.md for more information.",
+                  maxInFlightPerHost));
+        }
+        maxQueuedPerHost = replicaAwareConfig.getInt(MAX_QUEUED_PER_HOST);
+        if (maxQueuedPerHost < 1) {
+          throw new BulkConfigurationException(
+              String.format(
+                  "executor.replicaAware.maxQueuedPerHost (%d) must be greater than zero. See settings.md for more information.",
+                  maxQueuedPerHost));
+        }
+      }
       Config continuousPagingConfig = config.getConfig(CONTINUOUS_PAGING);
       continuousPagingEnabled = continuousPagingConfig.getBoolean(ENABLED);
       if (continuousPagingEnabled) {
@@ -113,6 +153,9 @@ public class ExecutorSettings {
     }
     DefaultReactorBulkExecutorBuilder builder = DefaultReactorBulkExecutor.builder(session);
     configure(builder, executionListener);
+    if (replicaAwareEnabled && workflowType == WorkflowType.LOAD) {
+      builder.withReplicaAwareWrites(maxInFlightPerHost, maxQueuedPerHost);
+    }
     return builder.build();
   }
 
@@ -120,6 +163,10 @@ public class ExecutorSettings {
     return maxInFlight;
   }
 
+  public boolean isReplicaAwareEnabled() {
+    return replicaAwareEnabled;
+  }
+
   private boolean continuousPagingAvailable(Session session) {
     Configuration configuration = session.getCluster().getConfiguration();
     ProtocolVersion protocolVersion = configuration.getProtocolOptions().getProtocolVersion();
@@ -138,5 +185,8 @@ public class ExecutorSettings {
         .withMaxInFlightRequests(maxInFlight)
         .withMaxRequestsPerSecond(maxPerSecond)
         .failSafe();
+    if (adaptiveConcurrencyEnabled && maxInFlight > 0) {
+      builder.withAdaptiveInFlightRequests(minInFlight);
+    }
   }
 }
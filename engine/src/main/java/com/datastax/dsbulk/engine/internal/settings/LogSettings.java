@@ -19,12 +19,15 @@ import com.datastax.driver.core.Cluster;
 import com.datastax.dsbulk.commons.config.BulkConfigurationException;
 import com.datastax.dsbulk.commons.config.LoaderConfig;
 import com.datastax.dsbulk.commons.internal.config.ConfigUtils;
+import com.datastax.dsbulk.connectors.api.Connector;
 import com.datastax.dsbulk.engine.WorkflowType;
 import com.datastax.dsbulk.engine.internal.log.JansiConsoleAppender;
 import com.datastax.dsbulk.engine.internal.log.LogManager;
+import com.datastax.dsbulk.engine.internal.log.UnloadCheckpointManager;
 import com.datastax.dsbulk.engine.internal.log.statement.StatementFormatVerbosity;
 import com.datastax.dsbulk.engine.internal.log.statement.StatementFormatter;
 import com.datastax.dsbulk.engine.internal.utils.HelpUtils;
+import com.datastax.dsbulk.engine.internal.utils.WorkflowUtils;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
@@ -36,6 +39,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Comparator;
 import java.util.Map;
 import java.util.Set;
@@ -95,6 +99,10 @@ public class LogSettings {
   private static final String LEVEL = STMT + DELIMITER + "level";
   private static final String MAX_ERRORS = "maxErrors";
   private static final String ANSI_ENABLED = "ansiEnabled";
+  private static final String CHECKPOINT = "checkpoint";
+  private static final String CHECKPOINT_ENABLED = CHECKPOINT + DELIMITER + "enabled";
+  private static final String CHECKPOINT_INTERVAL = CHECKPOINT + DELIMITER + "interval";
+  private static final String CHECKPOINT_RESUME_FROM = CHECKPOINT + DELIMITER + "resumeFrom";
 
   private final LoaderConfig config;
   private final String executionId;
@@ -107,6 +115,9 @@ public class LogSettings {
   private StatementFormatVerbosity level;
   private int maxErrors;
   private float maxErrorsRatio;
+  private boolean checkpointEnabled;
+  private Duration checkpointInterval;
+  private Path checkpointToResume;
   private FileAppender<ILoggingEvent> mainLogFileAppender;
 
   LogSettings(LoaderConfig config, String executionId) {
@@ -133,6 +144,17 @@ public class LogSettings {
         maxErrors = config.getInt(MAX_ERRORS);
         maxErrorsRatio = 0;
       }
+      if (config.hasPath(CHECKPOINT_RESUME_FROM)) {
+        checkpointToResume = config.getPath(CHECKPOINT_RESUME_FROM);
+        if (Files.isDirectory(checkpointToResume)) {
+          checkpointToResume = checkpointToResume.resolve(LogManager.CHECKPOINT_FILE);
+        }
+        WorkflowUtils.assertAccessibleFile(checkpointToResume, "Checkpoint file");
+        checkpointEnabled = true;
+      } else {
+        checkpointEnabled = config.getBoolean(CHECKPOINT_ENABLED);
+      }
+      checkpointInterval = config.getDuration(CHECKPOINT_INTERVAL);
       if (!config.getBoolean(ANSI_ENABLED)) {
         disableAnsi();
       }
@@ -190,7 +212,25 @@ public class LogSettings {
             .withMaxInnerStatements(maxInnerStatements)
             .build();
     return new LogManager(
-        workflowType, cluster, executionDirectory, maxErrors, maxErrorsRatio, formatter, level);
+        workflowType,
+        cluster,
+        executionDirectory,
+        maxErrors,
+        maxErrorsRatio,
+        formatter,
+        level,
+        checkpointEnabled,
+        checkpointInterval,
+        checkpointToResume);
+  }
+
+  public boolean isCheckpointEnabled() {
+    return checkpointEnabled;
+  }
+
+  public UnloadCheckpointManager newUnloadCheckpointManager(Connector connector) {
+    return new UnloadCheckpointManager(
+        executionDirectory, checkpointToResume, checkpointInterval, connector);
   }
 
   public FileAppender<ILoggingEvent> getMainLogFileAppender() {
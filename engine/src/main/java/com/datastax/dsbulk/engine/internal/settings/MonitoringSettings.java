@@ -13,6 +13,7 @@ import ch.qos.logback.core.Appender;
 import com.codahale.metrics.MetricRegistry;
 import com.datastax.driver.core.CodecRegistry;
 import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.dsbulk.commons.config.BulkConfigurationException;
 import com.datastax.dsbulk.commons.config.LoaderConfig;
 import com.datastax.dsbulk.commons.internal.config.ConfigUtils;
 import com.datastax.dsbulk.engine.WorkflowType;
@@ -33,6 +34,9 @@ public class MonitoringSettings {
   private static final String EXPECTED_READS = "expectedReads";
   private static final String JMX = "jmx";
   private static final String CSV = "csv";
+  private static final String ROW_SAMPLING_INTERVAL = "rowSamplingInterval";
+  private static final String TRACK_HOSTS = "trackHosts";
+  private static final String TRACK_RANGES = "trackRanges";
 
   private final LoaderConfig config;
   private final String executionId;
@@ -44,6 +48,9 @@ public class MonitoringSettings {
   private long expectedReads;
   private boolean jmx;
   private boolean csv;
+  private int rowSamplingInterval;
+  private boolean trackHosts;
+  private boolean trackRanges;
 
   MonitoringSettings(LoaderConfig config, String executionId) {
     this.config = config;
@@ -59,6 +66,15 @@ public class MonitoringSettings {
       expectedReads = config.getLong(EXPECTED_READS);
       jmx = config.getBoolean(JMX);
       csv = config.getBoolean(CSV);
+      rowSamplingInterval = config.getInt(ROW_SAMPLING_INTERVAL);
+      if (rowSamplingInterval < 1) {
+        throw new BulkConfigurationException(
+            String.format(
+                "monitoring.rowSamplingInterval (%d) must be greater than zero. See settings.md for more information.",
+                rowSamplingInterval));
+      }
+      trackHosts = config.getBoolean(TRACK_HOSTS);
+      trackRanges = config.getBoolean(TRACK_RANGES);
     } catch (ConfigException e) {
       throw ConfigUtils.configExceptionToBulkConfigurationException(e, "monitoring");
     }
@@ -94,6 +110,9 @@ public class MonitoringSettings {
         mainLogFileAppender,
         reportRate,
         batchingEnabled,
+        rowSamplingInterval,
+        trackHosts,
+        trackRanges,
         protocolVersion,
         codecRegistry);
   }
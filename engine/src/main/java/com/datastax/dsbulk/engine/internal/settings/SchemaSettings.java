@@ -16,10 +16,12 @@ import static java.time.Instant.EPOCH;
 import static java.util.concurrent.TimeUnit.MICROSECONDS;
 
 import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.CodecRegistry;
 import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.ColumnMetadata;
 import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.DriverCoreHooks;
+import com.datastax.driver.core.Host;
 import com.datastax.driver.core.KeyspaceMetadata;
 import com.datastax.driver.core.Metadata;
 import com.datastax.driver.core.ParseUtils;
@@ -28,6 +30,7 @@ import com.datastax.driver.core.Session;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.TableMetadata;
 import com.datastax.driver.core.TokenRange;
+import com.datastax.driver.core.TypeCodec;
 import com.datastax.dsbulk.commons.config.BulkConfigurationException;
 import com.datastax.dsbulk.commons.config.LoaderConfig;
 import com.datastax.dsbulk.commons.cql3.CqlBaseListener;
@@ -38,10 +41,15 @@ import com.datastax.dsbulk.connectors.api.RecordMetadata;
 import com.datastax.dsbulk.engine.WorkflowType;
 import com.datastax.dsbulk.engine.internal.codecs.ExtendedCodecRegistry;
 import com.datastax.dsbulk.engine.internal.schema.DefaultMapping;
+import com.datastax.dsbulk.engine.internal.schema.DefaultReadResultCopier;
+import com.datastax.dsbulk.engine.internal.schema.DefaultReadResultCounter;
 import com.datastax.dsbulk.engine.internal.schema.DefaultReadResultMapper;
 import com.datastax.dsbulk.engine.internal.schema.DefaultRecordMapper;
+import com.datastax.dsbulk.engine.internal.schema.ReadResultCopier;
+import com.datastax.dsbulk.engine.internal.schema.ReadResultCounter;
 import com.datastax.dsbulk.engine.internal.schema.ReadResultMapper;
 import com.datastax.dsbulk.engine.internal.schema.RecordMapper;
+import com.datastax.dsbulk.engine.internal.settings.StatsSettings.StatisticsMode;
 import com.datastax.dsbulk.engine.internal.utils.StringUtils;
 import com.datastax.dsbulk.executor.api.statement.TableScanner;
 import com.google.common.base.Preconditions;
@@ -53,11 +61,13 @@ import com.typesafe.config.ConfigException;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigValue;
 import com.typesafe.config.ConfigValueType;
+import java.net.InetSocketAddress;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -78,6 +88,7 @@ import org.antlr.v4.runtime.Recognizer;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -98,6 +109,7 @@ public class SchemaSettings {
   private static final String QUERY = "query";
   private static final String QUERY_TTL = "queryTtl";
   private static final String QUERY_TIMESTAMP = "queryTimestamp";
+  private static final String SPLITS = "splits";
 
   // A mapping spec may refer to these special variables which are used to bind
   // input fields to the write timestamp or ttl of the record.
@@ -117,6 +129,7 @@ public class SchemaSettings {
   private String keyspaceName;
   private int ttlSeconds;
   private long timestampMicros;
+  private int splits;
   private TableMetadata table;
   private String query;
   private PreparedStatement preparedStatement;
@@ -147,6 +160,7 @@ public class SchemaSettings {
         }
       }
       this.query = config.hasPath(QUERY) ? config.getString(QUERY) : null;
+      splits = config.getString(SPLITS).trim().equals("-1") ? -1 : config.getThreads(SPLITS);
 
       boolean keyspaceTablePresent = false;
       if (config.hasPath(KEYSPACE)) {
@@ -281,7 +295,8 @@ public class SchemaSettings {
       Session session,
       RecordMetadata recordMetadata,
       ExtendedCodecRegistry codecRegistry,
-      boolean expectIndexedMapping)
+      boolean expectIndexedMapping,
+      boolean serializedValues)
       throws BulkConfigurationException {
     DefaultMapping mapping =
         prepareStatementAndCreateMapping(session, codecRegistry, LOAD, expectIndexedMapping);
@@ -291,20 +306,149 @@ public class SchemaSettings {
         recordMetadata,
         nullToUnset,
         allowExtraFields,
-        allowMissingFields);
+        allowMissingFields,
+        serializedValues);
   }
 
   public ReadResultMapper createReadResultMapper(
       Session session,
       RecordMetadata recordMetadata,
       ExtendedCodecRegistry codecRegistry,
-      boolean expectIndexedMapping)
+      boolean expectIndexedMapping,
+      boolean serializedValues)
       throws BulkConfigurationException {
     // wo don't check that mapping records are supported when unloading, the only thing that matters
     // is the order in which fields appear in the record.
     DefaultMapping mapping =
         prepareStatementAndCreateMapping(session, codecRegistry, UNLOAD, expectIndexedMapping);
-    return new DefaultReadResultMapper(mapping, recordMetadata);
+    return new DefaultReadResultMapper(mapping, recordMetadata, serializedValues);
+  }
+
+  /**
+   * Prepares the statement that reads the source table, then creates a copier for the rows it
+   * returns, writing them to the given target table. Must be called before {@link
+   * #createReadStatements(Cluster)}.
+   *
+   * <p>Only the columns that exist in the target table are copied; they must include all the
+   * primary key columns of the target table.
+   *
+   * @param session the session connected to the source cluster.
+   * @param targetSession the session connected to the target cluster; can be the same as the source
+   *     session.
+   * @param targetKeyspace the target keyspace, or {@code null} to use the source keyspace.
+   * @param targetTable the target table, or {@code null} to use the source table.
+   * @param codecRegistry the codec registry to use when source and target column types differ.
+   * @return a copier for rows read from the source table.
+   */
+  public ReadResultCopier createReadResultCopier(
+      Session session,
+      Session targetSession,
+      @Nullable String targetKeyspace,
+      @Nullable String targetTable,
+      ExtendedCodecRegistry codecRegistry)
+      throws BulkConfigurationException {
+    prepareStatementAndCreateMapping(session, codecRegistry, UNLOAD, false);
+    ColumnDefinitions sourceColumns = resultSetVariables(preparedStatement);
+    String sourceKeyspace = Metadata.quoteIfNecessary(sourceColumns.getKeyspace(0));
+    String sourceTable = Metadata.quoteIfNecessary(sourceColumns.getTable(0));
+    String keyspace =
+        targetKeyspace == null ? sourceKeyspace : Metadata.quoteIfNecessary(targetKeyspace);
+    String tableName = targetTable == null ? sourceTable : Metadata.quoteIfNecessary(targetTable);
+    if (keyspace.equals(sourceKeyspace)
+        && tableName.equals(sourceTable)
+        && isSameCluster(session, targetSession)) {
+      throw new BulkConfigurationException(
+          String.format(
+              "Target table %s.%s is the source table; "
+                  + "please set copy.keyspace, copy.table or copy.hosts to copy to another table",
+              keyspace, tableName));
+    }
+    KeyspaceMetadata keyspaceMetadata =
+        targetSession.getCluster().getMetadata().getKeyspace(keyspace);
+    if (keyspaceMetadata == null) {
+      throw new BulkConfigurationException(
+          String.format("Target keyspace %s does not exist", keyspace));
+    }
+    TableMetadata target = keyspaceMetadata.getTable(tableName);
+    if (target == null) {
+      throw new BulkConfigurationException(
+          String.format("Target table %s.%s does not exist", keyspace, tableName));
+    }
+    if (target
+        .getColumns()
+        .stream()
+        .anyMatch(c -> c.getType().getName() == DataType.Name.COUNTER)) {
+      throw new BulkConfigurationException("Copying to a counter table is not supported.");
+    }
+    List<String> columns = new ArrayList<>();
+    for (ColumnDefinitions.Definition column : sourceColumns) {
+      if (target.getColumn(Metadata.quote(column.getName())) != null) {
+        columns.add(column.getName());
+      }
+    }
+    for (ColumnMetadata pk : target.getPrimaryKey()) {
+      if (!columns.contains(pk.getName())) {
+        throw new BulkConfigurationException(
+            String.format(
+                "Primary key column %s of target table %s.%s is not read from the source table",
+                Metadata.quoteIfNecessary(pk.getName()), keyspace, tableName));
+      }
+    }
+    PreparedStatement insertStatement =
+        targetSession.prepare(inferCopyQuery(keyspace, tableName, columns));
+    return new DefaultReadResultCopier(
+        insertStatement,
+        sourceColumns,
+        session.getCluster().getConfiguration().getProtocolOptions().getProtocolVersion(),
+        session.getCluster().getConfiguration().getCodecRegistry(),
+        codecRegistry,
+        nullToUnset);
+  }
+
+  public ReadResultCounter createReadResultCounter(
+      Session session, EnumSet<StatisticsMode> modes, int numPartitions)
+      throws BulkConfigurationException {
+    if (query != null) {
+      throw new BulkConfigurationException(
+          String.format(
+              "%s must not be defined when counting rows; use %s and %s instead",
+              prettyPath(QUERY), prettyPath(KEYSPACE), prettyPath(TABLE)));
+    }
+    resolveTable(session);
+    // count rows server-side, unless partitions must be counted client-side
+    boolean countPartitions = modes.contains(StatisticsMode.partitions);
+    StringBuilder sb = new StringBuilder("SELECT ");
+    if (countPartitions) {
+      boolean isFirst = true;
+      for (ColumnMetadata pk : table.getPartitionKey()) {
+        if (!isFirst) {
+          sb.append(',');
+        }
+        isFirst = false;
+        sb.append(Metadata.quoteIfNecessary(pk.getName()));
+      }
+    } else {
+      sb.append("count(*)");
+    }
+    sb.append(" FROM ").append(keyspaceName).append('.').append(tableName).append(" WHERE ");
+    appendTokenFunction(sb, table.getPartitionKey());
+    sb.append(" > :start AND ");
+    appendTokenFunction(sb, table.getPartitionKey());
+    sb.append(" <= :end");
+    preparedStatement = session.prepare(sb.toString());
+    CodecRegistry codecRegistry = session.getCluster().getConfiguration().getCodecRegistry();
+    List<TypeCodec<Object>> partitionKeyCodecs = new ArrayList<>();
+    if (countPartitions) {
+      for (ColumnMetadata pk : table.getPartitionKey()) {
+        partitionKeyCodecs.add(codecRegistry.codecFor(pk.getType()));
+      }
+    }
+    return new DefaultReadResultCounter(
+        modes,
+        numPartitions,
+        partitionKeyCodecs,
+        session.getCluster().getConfiguration().getProtocolOptions().getProtocolVersion(),
+        System.out);
   }
 
   public List<Statement> createReadStatements(Cluster cluster) {
@@ -324,7 +468,13 @@ public class SchemaSettings {
                   + "only 'start' and 'end' can be used to define a token range",
               unrecognized));
     }
-    Set<TokenRange> ring = cluster.getMetadata().getTokenRanges();
+    Metadata metadata = cluster.getMetadata();
+    String keyspace = variables.getKeyspace(0);
+    List<TokenRange> ring =
+        TableScanner.split(
+            metadata.getTokenRanges(),
+            splits,
+            range -> metadata.getReplicas(Metadata.quoteIfNecessary(keyspace), range));
     return TableScanner.scan(
         ring,
         range ->
@@ -407,10 +557,7 @@ public class SchemaSettings {
     }
   }
 
-  private BiMap<String, String> createFieldsToVariablesMap(
-      Session session, Supplier<List<String>> columns, boolean expectIndexedMapping)
-      throws BulkConfigurationException {
-    BiMap<String, String> fieldsToVariables;
+  private void resolveTable(Session session) {
     if (keyspaceName != null && tableName != null) {
       Metadata metadata = session.getCluster().getMetadata();
       KeyspaceMetadata keyspace = metadata.getKeyspace(keyspaceName);
@@ -439,6 +586,13 @@ public class SchemaSettings {
         }
       }
     }
+  }
+
+  private BiMap<String, String> createFieldsToVariablesMap(
+      Session session, Supplier<List<String>> columns, boolean expectIndexedMapping)
+      throws BulkConfigurationException {
+    BiMap<String, String> fieldsToVariables;
+    resolveTable(session);
 
     // create indexed mappings only for unload, and only if the connector really requires it, to
     // match the order in which the query declares variables.
@@ -712,6 +866,55 @@ public class SchemaSettings {
     }
   }
 
+  private static boolean isSameCluster(Session session, Session targetSession) {
+    if (session.getCluster() == targetSession.getCluster()) {
+      return true;
+    }
+    // the target cluster was created with its own contact points, but they may designate
+    // nodes of the source cluster
+    Set<InetSocketAddress> sourceHosts =
+        session
+            .getCluster()
+            .getMetadata()
+            .getAllHosts()
+            .stream()
+            .map(Host::getSocketAddress)
+            .collect(Collectors.toSet());
+    return targetSession
+        .getCluster()
+        .getMetadata()
+        .getAllHosts()
+        .stream()
+        .map(Host::getSocketAddress)
+        .anyMatch(sourceHosts::contains);
+  }
+
+  private String inferCopyQuery(String keyspace, String tableName, List<String> columns) {
+    StringBuilder sb = new StringBuilder("INSERT INTO ");
+    sb.append(keyspace).append('.').append(tableName).append('(');
+    sb.append(columns.stream().map(Metadata::quoteIfNecessary).collect(Collectors.joining(",")));
+    sb.append(") VALUES (");
+    sb.append(
+        columns
+            .stream()
+            .map(col -> ':' + Metadata.quoteIfNecessary(col))
+            .collect(Collectors.joining(",")));
+    sb.append(')');
+    if (ttlSeconds != -1 || timestampMicros != -1) {
+      sb.append(" USING ");
+      if (ttlSeconds != -1) {
+        sb.append("TTL ").append(ttlSeconds);
+        if (timestampMicros != -1) {
+          sb.append(" AND ");
+        }
+      }
+      if (timestampMicros != -1) {
+        sb.append("TIMESTAMP ").append(timestampMicros);
+      }
+    }
+    return sb.toString();
+  }
+
   private String inferReadQuery(BiMap<String, String> fieldsToVariables) {
     StringBuilder sb = new StringBuilder("SELECT ");
     appendColumnNames(fieldsToVariables, sb);
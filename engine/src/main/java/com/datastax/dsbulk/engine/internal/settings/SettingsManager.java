@@ -32,6 +32,8 @@ public class SettingsManager {
   private CodecSettings codecSettings;
   private MonitoringSettings monitoringSettings;
   private EngineSettings engineSettings;
+  private CopySettings copySettings;
+  private StatsSettings statsSettings;
 
   public SettingsManager(LoaderConfig config, WorkflowType workflowType) {
     this.config = config;
@@ -55,6 +57,8 @@ public class SettingsManager {
     codecSettings = new CodecSettings(config.getConfig("codec"));
     schemaSettings = new SchemaSettings(config.getConfig("schema"));
     monitoringSettings = new MonitoringSettings(config.getConfig("monitoring"), this.executionId);
+    copySettings = new CopySettings(config.getConfig("copy"));
+    statsSettings = new StatsSettings(config.getConfig("stats"));
   }
 
   public String getExecutionId() {
@@ -97,15 +101,26 @@ public class SettingsManager {
     return engineSettings;
   }
 
+  public CopySettings getCopySettings() {
+    return copySettings;
+  }
+
+  public StatsSettings getStatsSettings() {
+    return statsSettings;
+  }
+
   public LoaderConfig getGlobalConfig() {
+    LoaderConfig global = config.withoutPath("metaSettings").withoutPath("connector");
+    if (workflowType == WorkflowType.COPY || workflowType == WorkflowType.COUNT) {
+      // copy and count workflows do not use connectors
+      return global;
+    }
     // must be called after connector settings initialized
-    return config
-        .withoutPath("metaSettings")
+    return global
         // limit connector configuration to the selected connector
-        .withoutPath("connector")
         .withFallback(
-            connectorSettings
-                .getConnectorConfig()
-                .atPath("connector." + connectorSettings.getConnectorName()));
+        connectorSettings
+            .getConnectorConfig()
+            .atPath("connector." + connectorSettings.getConnectorName()));
   }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.settings;
+
+import com.datastax.dsbulk.commons.config.BulkConfigurationException;
+import com.datastax.dsbulk.commons.config.LoaderConfig;
+import com.datastax.dsbulk.commons.internal.config.ConfigUtils;
+import com.typesafe.config.ConfigException;
+import java.util.EnumSet;
+import java.util.List;
+
+public class StatsSettings {
+
+  private static final String MODES = "modes";
+  private static final String NUM_PARTITIONS = "numPartitions";
+
+  public enum StatisticsMode {
+    global,
+    ranges,
+    hosts,
+    partitions
+  }
+
+  private final LoaderConfig config;
+
+  private EnumSet<StatisticsMode> modes;
+  private int numPartitions;
+
+  StatsSettings(LoaderConfig config) {
+    this.config = config;
+  }
+
+  public void init() {
+    try {
+      List<StatisticsMode> list = config.getEnumList(StatisticsMode.class, MODES);
+      if (list.isEmpty()) {
+        throw new BulkConfigurationException(
+            "stats.modes cannot be empty. See settings.md for more information.");
+      }
+      modes = EnumSet.copyOf(list);
+      numPartitions = config.getInt(NUM_PARTITIONS);
+      if (numPartitions < 1) {
+        throw new BulkConfigurationException(
+            String.format(
+                "stats.numPartitions (%d) must be greater than zero. See settings.md for more information.",
+                numPartitions));
+      }
+    } catch (ConfigException e) {
+      throw ConfigUtils.configExceptionToBulkConfigurationException(e, "stats");
+    }
+  }
+
+  public EnumSet<StatisticsMode> getModes() {
+    return modes;
+  }
+
+  public int getNumPartitions() {
+    return numPartitions;
+  }
+}
@@ -0,0 +1,497 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.statement;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.Token;
+import com.datastax.dsbulk.connectors.api.Record;
+import com.datastax.dsbulk.connectors.api.RecordLocator;
+import com.datastax.dsbulk.connectors.api.internal.DefaultRecord;
+import com.google.common.annotations.VisibleForTesting;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import reactor.core.publisher.Flux;
+
+/**
+ * A {@code Function<Flux<Statement>, Flux<Statement>>} that sorts bound statements by routing
+ * token, so that statements sharing the same partition key, or the same replica set, are delivered
+ * next to each other.
+ *
+ * <p>This operator must consume its whole upstream before emitting sorted statements. It keeps at
+ * most {@code maxBufferedStatements} statements in memory; when this limit is reached, buffered
+ * statements are sorted and spilled to a temporary file ("sorted run"); sorted runs are finally
+ * merged together when the upstream completes. At most {@code maxMergeFanIn} runs are merged at
+ * once: if there are more runs than that, intermediate merge passes combine them into larger runs
+ * first, so that the number of files open simultaneously remains bounded. Temporary files are
+ * deleted when the downstream terminates.
+ *
+ * <p>Spilled statements are re-created from their serialized values; their sources are re-created
+ * as fieldless records whose source is the string representation of the original source, which is
+ * all that is required to log failed writes and track record positions.
+ *
+ * <p>Statements that are not bound statements, or whose routing token cannot be computed, are not
+ * sorted and are passed downstream immediately.
+ *
+ * <p>This operator is meant to be used upstream of a {@link
+ * com.datastax.dsbulk.executor.reactor.batch.ReactorSortedStatementBatcher}.
+ */
+public class ExternalStatementSorter
+    implements Function<Flux<? extends Statement>, Flux<Statement>> {
+
+  private static final int NULL = -1;
+  private static final int UNSET = -2;
+
+  private final Function<ByteBuffer, Token> tokenFactory;
+  private final ProtocolVersion protocolVersion;
+  private final CodecRegistry codecRegistry;
+  private final Path directory;
+  private final int maxBufferedStatements;
+  private final int maxMergeFanIn;
+
+  public ExternalStatementSorter(
+      Cluster cluster, Path directory, int maxBufferedStatements, int maxMergeFanIn) {
+    this(
+        routingKey -> cluster.getMetadata().newToken(routingKey),
+        cluster.getConfiguration().getProtocolOptions().getProtocolVersion(),
+        cluster.getConfiguration().getCodecRegistry(),
+        directory,
+        maxBufferedStatements,
+        maxMergeFanIn);
+  }
+
+  @VisibleForTesting
+  ExternalStatementSorter(
+      Function<ByteBuffer, Token> tokenFactory,
+      ProtocolVersion protocolVersion,
+      CodecRegistry codecRegistry,
+      Path directory,
+      int maxBufferedStatements,
+      int maxMergeFanIn) {
+    if (maxBufferedStatements < 1) {
+      throw new IllegalArgumentException("Maximum number of buffered statements must be positive");
+    }
+    if (maxMergeFanIn < 2) {
+      throw new IllegalArgumentException("Maximum merge fan-in must be at least 2");
+    }
+    this.tokenFactory = tokenFactory;
+    this.protocolVersion = protocolVersion;
+    this.codecRegistry = codecRegistry;
+    this.directory = directory;
+    this.maxBufferedStatements = maxBufferedStatements;
+    this.maxMergeFanIn = maxMergeFanIn;
+  }
+
+  @Override
+  public Flux<Statement> apply(Flux<? extends Statement> upstream) {
+    return Flux.using(
+        SortState::new,
+        state ->
+            upstream
+                .<Statement>handle(
+                    (statement, sink) -> {
+                      if (!state.add(statement)) {
+                        sink.next(statement);
+                      }
+                    })
+                .concatWith(Flux.defer(() -> Flux.fromIterable(state::merge))),
+        SortState::close);
+  }
+
+  private class SortState implements Closeable {
+
+    private final List<Entry> buffer = new ArrayList<>();
+    private final List<Path> runFiles = new ArrayList<>();
+    private final List<Run> runs = new ArrayList<>();
+    private final Map<PreparedStatement, Integer> preparedIds = new IdentityHashMap<>();
+    private final List<PreparedStatement> preparedStatements = new ArrayList<>();
+
+    /**
+     * Adds the given statement to the sort buffer, spilling the buffer if it is full.
+     *
+     * @return {@code true} if the statement was added, {@code false} if it cannot be sorted.
+     */
+    private boolean add(Statement statement) {
+      if (!(statement instanceof BulkBoundStatement)) {
+        return false;
+      }
+      BulkBoundStatement<?> bs = (BulkBoundStatement<?>) statement;
+      Token token = token(bs);
+      if (token == null) {
+        return false;
+      }
+      buffer.add(new Entry(token, bs));
+      if (buffer.size() >= maxBufferedStatements) {
+        spill();
+      }
+      return true;
+    }
+
+    private void spill() {
+      buffer.sort(Comparator.naturalOrder());
+      try {
+        Path file = Files.createTempFile(directory, "sort-", ".tmp");
+        runFiles.add(file);
+        try (DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+          for (Entry entry : buffer) {
+            write(entry.statement, out);
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not spill sorted statements to disk", e);
+      }
+      buffer.clear();
+    }
+
+    /**
+     * Merges the oldest sorted runs together into a new run, until the remaining runs, including
+     * the in-memory one, can be merged in one single pass.
+     */
+    private void mergeIntermediateRuns() throws IOException {
+      int maxFileRuns = buffer.isEmpty() ? maxMergeFanIn : maxMergeFanIn - 1;
+      while (runFiles.size() > maxFileRuns) {
+        List<Path> files = new ArrayList<>(runFiles.subList(0, maxMergeFanIn));
+        Path merged = Files.createTempFile(directory, "sort-", ".tmp");
+        runFiles.add(merged);
+        PriorityQueue<Run> queue = new PriorityQueue<>();
+        try (DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(merged)))) {
+          for (Path file : files) {
+            Run run = new FileRun(file);
+            runs.add(run);
+            if (run.advance()) {
+              queue.add(run);
+            }
+          }
+          while (!queue.isEmpty()) {
+            Run run = queue.remove();
+            write(run.current.statement, out);
+            if (run.advance()) {
+              queue.add(run);
+            }
+          }
+        } finally {
+          for (Run run : runs) {
+            run.close();
+          }
+          runs.clear();
+        }
+        for (Path file : files) {
+          Files.deleteIfExists(file);
+        }
+        runFiles.removeAll(files);
+      }
+    }
+
+    private Iterator<Statement> merge() {
+      buffer.sort(Comparator.naturalOrder());
+      if (runFiles.isEmpty()) {
+        return buffer.stream().<Statement>map(entry -> entry.statement).iterator();
+      }
+      PriorityQueue<Run> queue = new PriorityQueue<>();
+      try {
+        mergeIntermediateRuns();
+        for (Path file : runFiles) {
+          Run run = new FileRun(file);
+          runs.add(run);
+          if (run.advance()) {
+            queue.add(run);
+          }
+        }
+        Run memory = new MemoryRun(buffer.iterator());
+        if (memory.advance()) {
+          queue.add(memory);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not read sorted statements from disk", e);
+      }
+      return new Iterator<Statement>() {
+
+        @Override
+        public boolean hasNext() {
+          return !queue.isEmpty();
+        }
+
+        @Override
+        public Statement next() {
+          Run run = queue.remove();
+          Statement statement = run.current.statement;
+          try {
+            if (run.advance()) {
+              queue.add(run);
+            }
+          } catch (IOException e) {
+            throw new UncheckedIOException("Could not read sorted statements from disk", e);
+          }
+          return statement;
+        }
+      };
+    }
+
+    @Override
+    public void close() {
+      buffer.clear();
+      for (Run run : runs) {
+        try {
+          run.close();
+        } catch (IOException ignored) {
+        }
+      }
+      for (Path file : runFiles) {
+        try {
+          Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+        }
+      }
+    }
+
+    private void write(BulkBoundStatement<?> statement, DataOutputStream out) throws IOException {
+      PreparedStatement ps = statement.preparedStatement();
+      Integer id = preparedIds.get(ps);
+      if (id == null) {
+        id = preparedStatements.size();
+        preparedIds.put(ps, id);
+        preparedStatements.add(ps);
+      }
+      out.writeInt(id);
+      int size = ps.getVariables().size();
+      out.writeInt(size);
+      for (int i = 0; i < size; i++) {
+        if (!statement.isSet(i)) {
+          out.writeInt(UNSET);
+        } else {
+          writeBytes(statement.getBytesUnsafe(i), out);
+        }
+      }
+      Object source = statement.getSource();
+      if (source instanceof Record) {
+        Record record = (Record) source;
+        out.writeBoolean(true);
+        writeString(record.getSource() == null ? null : record.getSource().toString(), out);
+        writeString(record.getResource() == null ? null : record.getResource().toString(), out);
+        out.writeLong(record.getPosition());
+        writeString(record.getLocation() == null ? null : record.getLocation().toString(), out);
+      } else {
+        out.writeBoolean(false);
+        writeString(source == null ? null : source.toString(), out);
+      }
+    }
+
+    private BulkBoundStatement<?> read(DataInputStream in) throws IOException {
+      PreparedStatement ps = preparedStatements.get(in.readInt());
+      int size = in.readInt();
+      ByteBuffer[] values = new ByteBuffer[size];
+      boolean[] unset = new boolean[size];
+      for (int i = 0; i < size; i++) {
+        int length = in.readInt();
+        if (length == UNSET) {
+          unset[i] = true;
+        } else {
+          values[i] = readBytes(length, in);
+        }
+      }
+      Object source;
+      if (in.readBoolean()) {
+        String recordSource = readString(in);
+        String resource = readString(in);
+        long position = in.readLong();
+        String location = readString(in);
+        source =
+            new DefaultRecord(
+                recordSource, new SerializedRecordLocator(resource, location), position);
+      } else {
+        source = readString(in);
+      }
+      BulkBoundStatement<?> statement = new BulkBoundStatement<>(source, ps);
+      for (int i = 0; i < size; i++) {
+        if (!unset[i]) {
+          statement.setBytesUnsafe(i, values[i]);
+        }
+      }
+      return statement;
+    }
+
+    private abstract class Run implements Comparable<Run>, Closeable {
+
+      Entry current;
+
+      /** Moves to the next entry in this run, returns false if the run is exhausted. */
+      abstract boolean advance() throws IOException;
+
+      @Override
+      public int compareTo(@NotNull Run that) {
+        return current.compareTo(that.current);
+      }
+
+      @Override
+      public void close() throws IOException {}
+    }
+
+    private class MemoryRun extends Run {
+
+      private final Iterator<Entry> entries;
+
+      private MemoryRun(Iterator<Entry> entries) {
+        this.entries = entries;
+      }
+
+      @Override
+      boolean advance() {
+        current = entries.hasNext() ? entries.next() : null;
+        return current != null;
+      }
+    }
+
+    private class FileRun extends Run {
+
+      private final DataInputStream in;
+
+      private FileRun(Path file) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+      }
+
+      @Override
+      boolean advance() throws IOException {
+        BulkBoundStatement<?> statement;
+        try {
+          statement = read(in);
+        } catch (EOFException e) {
+          current = null;
+          in.close();
+          return false;
+        }
+        Token token = token(statement);
+        assert token != null;
+        current = new Entry(token, statement);
+        return true;
+      }
+
+      @Override
+      public void close() throws IOException {
+        in.close();
+      }
+    }
+  }
+
+  @Nullable
+  private Token token(BoundStatement statement) {
+    ByteBuffer routingKey = statement.getRoutingKey(protocolVersion, codecRegistry);
+    if (routingKey == null) {
+      return null;
+    }
+    try {
+      return tokenFactory.apply(routingKey);
+    } catch (RuntimeException e) {
+      // token metadata not available
+      return null;
+    }
+  }
+
+  private static void writeBytes(@Nullable ByteBuffer bytes, DataOutputStream out)
+      throws IOException {
+    if (bytes == null) {
+      out.writeInt(NULL);
+    } else {
+      ByteBuffer bb = bytes.duplicate();
+      out.writeInt(bb.remaining());
+      if (bb.hasArray()) {
+        out.write(bb.array(), bb.arrayOffset() + bb.position(), bb.remaining());
+      } else {
+        while (bb.hasRemaining()) {
+          out.writeByte(bb.get());
+        }
+      }
+    }
+  }
+
+  @Nullable
+  private static ByteBuffer readBytes(int length, DataInputStream in) throws IOException {
+    if (length == NULL) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return ByteBuffer.wrap(bytes);
+  }
+
+  private static void writeString(@Nullable String s, DataOutputStream out) throws IOException {
+    writeBytes(s == null ? null : ByteBuffer.wrap(s.getBytes(UTF_8)), out);
+  }
+
+  @Nullable
+  private static String readString(DataInputStream in) throws IOException {
+    ByteBuffer bytes = readBytes(in.readInt(), in);
+    return bytes == null ? null : new String(bytes.array(), UTF_8);
+  }
+
+  /** A locator for records read back from a run file, that parses their URIs on demand. */
+  private static class SerializedRecordLocator implements RecordLocator {
+
+    private final String resource;
+    private final String location;
+
+    private SerializedRecordLocator(@Nullable String resource, @Nullable String location) {
+      this.resource = resource;
+      this.location = location;
+    }
+
+    @Override
+    public URI getResource(Object source, long position) {
+      return resource == null ? null : URI.create(resource);
+    }
+
+    @Override
+    public URI getLocation(Object source, long position) {
+      return location == null ? null : URI.create(location);
+    }
+  }
+
+  private static class Entry implements Comparable<Entry> {
+
+    private final Token token;
+    private final BulkBoundStatement<?> statement;
+
+    private Entry(Token token, BulkBoundStatement<?> statement) {
+      this.token = token;
+      this.statement = statement;
+    }
+
+    @Override
+    public int compareTo(@NotNull Entry that) {
+      return token.compareTo(that.token);
+    }
+  }
+}
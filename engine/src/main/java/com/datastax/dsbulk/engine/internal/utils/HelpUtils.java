@@ -144,7 +144,7 @@ public class HelpUtils {
   private static class HelpEmitter {
 
     private static final String HEADER =
-        "Usage: dsbulk (load|unload) [options]\n       dsbulk help [section]\nOptions:";
+        "Usage: dsbulk (load|unload|copy|count) [options]\n       dsbulk help [section]\nOptions:";
 
     private static final int DEFAULT_LINE_LENGTH = 150;
     private static final int LINE_LENGTH = getLineLength();
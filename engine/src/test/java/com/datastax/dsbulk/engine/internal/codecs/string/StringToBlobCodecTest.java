@@ -8,6 +8,7 @@
  */
 package com.datastax.dsbulk.engine.internal.codecs.string;
 
+import static com.datastax.driver.core.ProtocolVersion.V4;
 import static com.datastax.dsbulk.engine.tests.EngineAssertions.assertThat;
 import static com.google.common.collect.Lists.newArrayList;
 
@@ -57,6 +58,15 @@ class StringToBlobCodecTest {
         .toExternal("NULL");
   }
 
+  @Test
+  void should_deserialize_raw_bytes() {
+    ByteBuffer frame = ByteBuffer.wrap(new byte[] {0, 1, 2, 3, 4, 5, 6, 0});
+    frame.position(1).limit(7);
+    assertThat(codec.deserialize(frame.slice(), V4)).isEqualTo(data64);
+    assertThat(codec.deserialize(emptyBb, V4)).isEqualTo("");
+    assertThat(codec.deserialize(null, V4)).isEqualTo("NULL");
+  }
+
   @Test
   void should_not_convert_from_invalid_external() {
     assertThat(codec).cannotConvertFromExternal("not a valid binary");
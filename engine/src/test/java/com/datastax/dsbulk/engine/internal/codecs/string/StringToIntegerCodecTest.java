@@ -9,9 +9,11 @@
 package com.datastax.dsbulk.engine.internal.codecs.string;
 
 import static com.datastax.driver.core.DataType.cint;
+import static com.datastax.driver.core.ProtocolVersion.V4;
 import static com.datastax.dsbulk.engine.internal.codecs.CodecTestUtils.newCodecRegistry;
 import static com.datastax.dsbulk.engine.tests.EngineAssertions.assertThat;
 
+import com.datastax.driver.core.TypeCodec;
 import com.google.common.reflect.TypeToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -59,6 +61,32 @@ class StringToIntegerCodecTest {
         .toInternal(null);
   }
 
+  @Test
+  void should_serialize_plain_and_formatted_integers_alike() {
+    // plain integer literals take a fast path, others go through the number format
+    assertThat(codec.serialize("0", V4)).isEqualTo(TypeCodec.cint().serialize(0, V4));
+    assertThat(codec.serialize("-2147483648", V4))
+        .isEqualTo(TypeCodec.cint().serialize(Integer.MIN_VALUE, V4));
+    assertThat(codec.serialize("2,147,483,647", V4))
+        .isEqualTo(TypeCodec.cint().serialize(Integer.MAX_VALUE, V4));
+    assertThat(codec.serialize("TRUE", V4)).isEqualTo(TypeCodec.cint().serialize(1, V4));
+    assertThat(codec.serialize("NULL", V4)).isNull();
+  }
+
+  @Test
+  void should_deserialize_plain_and_formatted_integers_alike() {
+    // without number formatting, primitive values take a fast path
+    StringToIntegerCodec plain =
+        (StringToIntegerCodec)
+            newCodecRegistry("nullStrings = [NULL]").codecFor(cint(), TypeToken.of(String.class));
+    assertThat(plain.deserialize(TypeCodec.cint().serialize(Integer.MIN_VALUE, V4), V4))
+        .isEqualTo("-2147483648");
+    assertThat(plain.deserialize(null, V4)).isEqualTo("NULL");
+    assertThat(codec.deserialize(TypeCodec.cint().serialize(Integer.MAX_VALUE, V4), V4))
+        .isEqualTo("2,147,483,647");
+    assertThat(codec.deserialize(null, V4)).isEqualTo("NULL");
+  }
+
   @Test
   void should_convert_from_valid_internal() {
     assertThat(codec)
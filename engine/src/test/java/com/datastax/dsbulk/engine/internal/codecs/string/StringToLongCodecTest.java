@@ -9,9 +9,11 @@
 package com.datastax.dsbulk.engine.internal.codecs.string;
 
 import static com.datastax.driver.core.DataType.bigint;
+import static com.datastax.driver.core.ProtocolVersion.V4;
 import static com.datastax.dsbulk.engine.internal.codecs.CodecTestUtils.newCodecRegistry;
 import static com.datastax.dsbulk.engine.tests.EngineAssertions.assertThat;
 
+import com.datastax.driver.core.TypeCodec;
 import com.google.common.reflect.TypeToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -57,6 +59,32 @@ class StringToLongCodecTest {
         .toInternal(null);
   }
 
+  @Test
+  void should_serialize_plain_and_formatted_integers_alike() {
+    // plain integer literals take a fast path, others go through the number format
+    assertThat(codec.serialize("0", V4)).isEqualTo(TypeCodec.bigint().serialize(0L, V4));
+    assertThat(codec.serialize("-9223372036854775808", V4))
+        .isEqualTo(TypeCodec.bigint().serialize(Long.MIN_VALUE, V4));
+    assertThat(codec.serialize("9,223,372,036,854,775,807", V4))
+        .isEqualTo(TypeCodec.bigint().serialize(Long.MAX_VALUE, V4));
+    assertThat(codec.serialize("TRUE", V4)).isEqualTo(TypeCodec.bigint().serialize(1L, V4));
+    assertThat(codec.serialize("NULL", V4)).isNull();
+  }
+
+  @Test
+  void should_deserialize_plain_and_formatted_integers_alike() {
+    // without number formatting, primitive values take a fast path
+    StringToLongCodec plain =
+        (StringToLongCodec)
+            newCodecRegistry("nullStrings = [NULL]").codecFor(bigint(), TypeToken.of(String.class));
+    assertThat(plain.deserialize(TypeCodec.bigint().serialize(Long.MIN_VALUE, V4), V4))
+        .isEqualTo("-9223372036854775808");
+    assertThat(plain.deserialize(null, V4)).isEqualTo("NULL");
+    assertThat(codec.deserialize(TypeCodec.bigint().serialize(Long.MAX_VALUE, V4), V4))
+        .isEqualTo("9,223,372,036,854,775,807");
+    assertThat(codec.deserialize(null, V4)).isEqualTo("NULL");
+  }
+
   @Test
   void should_convert_from_valid_internal() {
     assertThat(codec)
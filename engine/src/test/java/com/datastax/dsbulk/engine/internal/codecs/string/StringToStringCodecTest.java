@@ -8,10 +8,13 @@
  */
 package com.datastax.dsbulk.engine.internal.codecs.string;
 
+import static com.datastax.driver.core.ProtocolVersion.V4;
 import static com.datastax.dsbulk.engine.tests.EngineAssertions.assertThat;
 import static com.google.common.collect.Lists.newArrayList;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.datastax.driver.core.TypeCodec;
+import java.nio.ByteBuffer;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 
@@ -44,4 +47,14 @@ class StringToStringCodecTest {
         .convertsFromInternal("")
         .toExternal("");
   }
+
+  @Test
+  void should_deserialize_raw_bytes() {
+    StringToStringCodec codec = new StringToStringCodec(TypeCodec.varchar(), nullStrings);
+    ByteBuffer frame = ByteBuffer.wrap("[f\u00f6\u00f6]".getBytes(UTF_8));
+    frame.position(1).limit(frame.limit() - 1);
+    assertThat(codec.deserialize(frame.slice(), V4)).isEqualTo("f\u00f6\u00f6");
+    assertThat(codec.deserialize(ByteBuffer.allocate(0), V4)).isEqualTo("");
+    assertThat(codec.deserialize(null, V4)).isEqualTo("NULL");
+  }
 }
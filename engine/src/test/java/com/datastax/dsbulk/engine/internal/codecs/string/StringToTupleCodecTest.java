@@ -14,9 +14,11 @@ import static com.datastax.driver.core.DriverCoreEngineTestHooks.newTupleType;
 import static com.datastax.driver.core.ProtocolVersion.V4;
 import static com.datastax.dsbulk.engine.internal.codecs.CodecTestUtils.newCodecRegistry;
 import static com.datastax.dsbulk.engine.tests.EngineAssertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.datastax.driver.core.CodecRegistry;
 import com.datastax.driver.core.TupleType;
+import com.datastax.driver.core.exceptions.InvalidTypeException;
 import com.datastax.driver.extras.codecs.jdk8.InstantCodec;
 import com.google.common.reflect.TypeToken;
 import java.time.Instant;
@@ -92,4 +94,12 @@ class StringToTupleCodecTest {
         .cannotConvertFromExternal("{\"not a valid tuple\":42}")
         .cannotConvertFromExternal("[\"2016-07-24T20:34:12.999\"]");
   }
+
+  @Test
+  void should_report_actual_number_of_elements() {
+    assertThatThrownBy(
+            () -> codec.externalToInternal("[\"2016-07-24T20:34:12.999\",\"+01:00\",[1,2],3]"))
+        .isInstanceOf(InvalidTypeException.class)
+        .hasMessage("Expecting 2 elements, got 4");
+  }
 }
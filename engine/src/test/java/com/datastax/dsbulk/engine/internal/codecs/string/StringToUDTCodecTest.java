@@ -18,11 +18,13 @@ import static com.datastax.driver.core.DriverCoreEngineTestHooks.newField;
 import static com.datastax.driver.core.DriverCoreEngineTestHooks.newUserType;
 import static com.datastax.dsbulk.engine.internal.codecs.CodecTestUtils.newCodecRegistry;
 import static com.datastax.dsbulk.engine.tests.EngineAssertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.datastax.driver.core.CodecRegistry;
 import com.datastax.driver.core.TypeCodec;
 import com.datastax.driver.core.UDTValue;
 import com.datastax.driver.core.UserType;
+import com.datastax.driver.core.exceptions.InvalidTypeException;
 import com.datastax.driver.extras.codecs.jdk8.LocalDateCodec;
 import com.datastax.dsbulk.engine.internal.codecs.ExtendedCodecRegistry;
 import com.google.common.reflect.TypeToken;
@@ -133,6 +135,28 @@ class StringToUDTCodecTest {
         .cannotConvertFromExternal("{\"not a valid input\":\"foo\"}");
   }
 
+  @Test
+  void should_count_duplicate_fields_once() {
+    // duplicate fields are counted once, and the last value wins, as in Json objects
+    assertThat(udtCodec1)
+        .convertsFromExternal("{\"f1a\":1,\"f1b\":{\"foo\":1234.56,\"\":0.12},\"f1a\":42}")
+        .toInternal(udt1Value);
+    assertThatThrownBy(() -> udtCodec1.externalToInternal("{\"f1a\":1,\"f1a\":2}"))
+        .isInstanceOf(InvalidTypeException.class)
+        .hasMessage("Expecting 2 fields, got 1");
+  }
+
+  @Test
+  void should_report_field_count_before_unknown_fields() {
+    assertThatThrownBy(
+            () -> udtCodec1.externalToInternal("{\"f1a\":42,\"f1b\":{},\"f1c\":{\"x\":[1]}}"))
+        .isInstanceOf(InvalidTypeException.class)
+        .hasMessage("Expecting 2 fields, got 3");
+    assertThatThrownBy(() -> udtCodec1.externalToInternal("{\"f1c\":{\"x\":[1]},\"f1a\":42}"))
+        .isInstanceOf(InvalidTypeException.class)
+        .hasMessageStartingWith("Unknown field f1c in UDT");
+  }
+
   @SuppressWarnings("SameParameterValue")
   private static Map<String, Double> newMap(String k1, Double v1, String k2, Double v2) {
     Map<String, Double> map = new LinkedHashMap<>();
@@ -8,6 +8,7 @@
  */
 package com.datastax.dsbulk.engine.internal.codecs.string;
 
+import static com.datastax.driver.core.ProtocolVersion.V4;
 import static com.datastax.dsbulk.engine.internal.codecs.util.TimeUUIDGenerator.FIXED;
 import static com.datastax.dsbulk.engine.internal.codecs.util.TimeUUIDGenerator.MAX;
 import static com.datastax.dsbulk.engine.internal.codecs.util.TimeUUIDGenerator.MIN;
@@ -24,6 +25,7 @@ import com.datastax.driver.core.TypeCodec;
 import com.datastax.driver.core.utils.UUIDs;
 import com.datastax.dsbulk.engine.internal.settings.CodecSettings;
 import io.netty.util.concurrent.FastThreadLocal;
+import java.nio.ByteBuffer;
 import java.text.NumberFormat;
 import java.time.ZonedDateTime;
 import java.util.List;
@@ -115,6 +117,17 @@ class StringToUUIDCodecTest {
         .toExternal("a15341ec-ebef-4eab-b91d-ff16bf801a79");
   }
 
+  @Test
+  void should_deserialize_raw_bytes() {
+    UUID uuid = UUID.fromString("a15341ec-ebef-4eab-b91d-ff16bf801a79");
+    ByteBuffer bytes = ByteBuffer.allocate(20);
+    bytes.position(2);
+    bytes.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+    bytes.position(2).limit(18);
+    assertThat(codec.deserialize(bytes.slice(), V4)).isEqualTo(uuid.toString());
+    assertThat(codec.deserialize(null, V4)).isEqualTo("NULL");
+  }
+
   @Test
   void should_not_convert_from_invalid_external() {
     assertThat(codec).cannotConvertFromExternal("not a valid UUID");
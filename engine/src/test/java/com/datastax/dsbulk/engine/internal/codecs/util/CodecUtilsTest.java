@@ -8,12 +8,14 @@
  */
 package com.datastax.dsbulk.engine.internal.codecs.util;
 
+import static com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils.NOT_A_PLAIN_INTEGER;
 import static com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils.convertNumber;
 import static com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils.convertTemporal;
 import static com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils.formatNumber;
 import static com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils.instantToNumber;
 import static com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils.numberToInstant;
 import static com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils.parseNumber;
+import static com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils.parsePlainInteger;
 import static com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils.parseTemporal;
 import static com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils.toBigDecimal;
 import static com.datastax.dsbulk.engine.internal.codecs.util.CodecUtils.toBigIntegerExact;
@@ -312,6 +314,28 @@ class CodecUtilsTest {
         .hasMessageContaining("Invalid number format: 0.1234 ABC");
   }
 
+  @Test
+  void should_parse_plain_integer() {
+    assertThat(parsePlainInteger("0", 9)).isEqualTo(0L);
+    assertThat(parsePlainInteger("-0", 9)).isEqualTo(0L);
+    assertThat(parsePlainInteger("007", 9)).isEqualTo(7L);
+    assertThat(parsePlainInteger("123456789", 9)).isEqualTo(123456789L);
+    assertThat(parsePlainInteger("-123456789", 9)).isEqualTo(-123456789L);
+    assertThat(parsePlainInteger("999999999999999999", 18)).isEqualTo(999999999999999999L);
+    assertThat(parsePlainInteger("-999999999999999999", 18)).isEqualTo(-999999999999999999L);
+    // too many digits
+    assertThat(parsePlainInteger("1234567890", 9)).isEqualTo(NOT_A_PLAIN_INTEGER);
+    // not plain integer literals
+    assertThat(parsePlainInteger("", 9)).isEqualTo(NOT_A_PLAIN_INTEGER);
+    assertThat(parsePlainInteger("-", 9)).isEqualTo(NOT_A_PLAIN_INTEGER);
+    assertThat(parsePlainInteger("+1", 9)).isEqualTo(NOT_A_PLAIN_INTEGER);
+    assertThat(parsePlainInteger(" 1", 9)).isEqualTo(NOT_A_PLAIN_INTEGER);
+    assertThat(parsePlainInteger("1,234", 9)).isEqualTo(NOT_A_PLAIN_INTEGER);
+    assertThat(parsePlainInteger("1.0", 9)).isEqualTo(NOT_A_PLAIN_INTEGER);
+    assertThat(parsePlainInteger("1e3", 9)).isEqualTo(NOT_A_PLAIN_INTEGER);
+    assertThat(parsePlainInteger("--1", 9)).isEqualTo(NOT_A_PLAIN_INTEGER);
+  }
+
   @Test
   void should_format_number() {
     assertThat(formatNumber(null, numberFormat1)).isNull();
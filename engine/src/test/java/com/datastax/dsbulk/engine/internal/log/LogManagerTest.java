@@ -9,8 +9,7 @@
 package com.datastax.dsbulk.engine.internal.log;
 
 import static com.datastax.dsbulk.engine.internal.log.statement.StatementFormatVerbosity.EXTENDED;
-import static com.google.common.collect.Range.closed;
-import static com.google.common.collect.Range.singleton;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Fail.fail;
 import static org.mockito.Mockito.mock;
@@ -30,6 +29,7 @@ import com.datastax.dsbulk.commons.tests.utils.ReflectionUtils;
 import com.datastax.dsbulk.connectors.api.Record;
 import com.datastax.dsbulk.connectors.api.internal.DefaultErrorRecord;
 import com.datastax.dsbulk.connectors.api.internal.DefaultRecord;
+import com.datastax.dsbulk.connectors.api.internal.FixedRecordLocator;
 import com.datastax.dsbulk.engine.WorkflowType;
 import com.datastax.dsbulk.engine.internal.log.statement.StatementFormatter;
 import com.datastax.dsbulk.engine.internal.statement.BulkSimpleStatement;
@@ -39,17 +39,14 @@ import com.datastax.dsbulk.executor.api.internal.result.DefaultReadResult;
 import com.datastax.dsbulk.executor.api.internal.result.DefaultWriteResult;
 import com.datastax.dsbulk.executor.api.result.ReadResult;
 import com.datastax.dsbulk.executor.api.result.WriteResult;
-import com.google.common.collect.Range;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.LongStream;
-import org.assertj.core.util.Lists;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
@@ -112,13 +109,22 @@ class LogManagerTest {
     location3 = new URI("file:///file3.csv?line=3");
     record1 =
         new DefaultErrorRecord(
-            source1, () -> resource1, 1, () -> location1, new RuntimeException("error 1"));
+            source1,
+            new FixedRecordLocator(resource1, location1),
+            1,
+            new RuntimeException("error 1"));
     record2 =
         new DefaultErrorRecord(
-            source2, () -> resource2, 2, () -> location2, new RuntimeException("error 2"));
+            source2,
+            new FixedRecordLocator(resource2, location2),
+            2,
+            new RuntimeException("error 2"));
     record3 =
         new DefaultErrorRecord(
-            source3, () -> resource3, 3, () -> location3, new RuntimeException("error 3"));
+            source3,
+            new FixedRecordLocator(resource3, location3),
+            3,
+            new RuntimeException("error 3"));
     stmt1 = new UnmappableStatement(record1, () -> location1, new RuntimeException("error 1"));
     stmt2 = new UnmappableStatement(record2, () -> location2, new RuntimeException("error 2"));
     stmt3 = new UnmappableStatement(record3, () -> location3, new RuntimeException("error 3"));
@@ -561,94 +567,102 @@ class LogManagerTest {
     LogManager logManager =
         new LogManager(WorkflowType.LOAD, cluster, outputDir, 1, 0, formatter, EXTENDED);
     logManager.init();
-    assertRanges(logManager, new long[] {1, 2, 3, 4}, closed(1L, 4L));
-    assertRanges(logManager, new long[] {1, 2, 3, 5}, closed(1L, 3L), singleton(5L));
-    assertRanges(logManager, new long[] {5, 3, 2, 1}, closed(1L, 3L), singleton(5L));
-    assertRanges(logManager, new long[] {1, 3, 5, 4, 2}, closed(1L, 5L));
-    assertRanges(logManager, new long[] {2, 4, 5, 3, 1}, closed(1L, 5L));
-    assertRanges(logManager, new long[] {4, 3, 2, 1}, closed(1L, 4L));
-    assertRanges(logManager, new long[] {4, 3, 2, 1}, closed(1L, 4L));
-    assertRanges(logManager, new long[] {3, 2}, closed(2L, 3L));
-    assertRanges(logManager, new long[] {3, 5, 4, 2}, closed(2L, 5L));
+    assertRanges(logManager, "file1", new long[] {1, 2, 3, 4}, "1-4");
+    assertRanges(logManager, "file2", new long[] {1, 2, 3, 5}, "1-3,5-5");
+    assertRanges(logManager, "file3", new long[] {5, 3, 2, 1}, "1-3,5-5");
+    assertRanges(logManager, "file4", new long[] {1, 3, 5, 4, 2}, "1-5");
+    assertRanges(logManager, "file5", new long[] {2, 4, 5, 3, 1}, "1-5");
+    assertRanges(logManager, "file6", new long[] {4, 3, 2, 1}, "1-4");
+    assertRanges(logManager, "file6", new long[] {4, 3, 2, 1}, "1-4");
+    assertRanges(logManager, "file7", new long[] {3, 2}, "2-3");
+    assertRanges(logManager, "file8", new long[] {3, 5, 4, 2}, "2-5");
     logManager.close();
   }
 
   @Test
-  void should_add_position() {
-    List<Range<Long>> positions = new ArrayList<>();
-    positions = LogManager.addPosition(positions, 3);
-    assertThat(positions).containsExactly(singleton(3L));
-    positions = LogManager.addPosition(positions, 1);
-    assertThat(positions).containsExactly(singleton(1L), singleton(3L));
-    positions = LogManager.addPosition(positions, 2);
-    assertThat(positions).containsExactly(closed(1L, 3L));
-    positions = LogManager.addPosition(positions, 2);
-    assertThat(positions).containsExactly(closed(1L, 3L));
-    positions = LogManager.addPosition(positions, 6);
-    assertThat(positions).containsExactly(closed(1L, 3L), singleton(6L));
-    positions = LogManager.addPosition(positions, 5);
-    assertThat(positions).containsExactly(closed(1L, 3L), closed(5L, 6L));
-    positions = LogManager.addPosition(positions, 4);
-    assertThat(positions).containsExactly(closed(1L, 6L));
-  }
-
-  @Test
-  void should_merge_positions() {
-    assertThat(LogManager.mergePositions(ranges(), ranges())).isEmpty();
-    assertThat(LogManager.mergePositions(ranges(), ranges(closed(1L, 3L))))
-        .isEqualTo(ranges(closed(1L, 3L)));
-    assertThat(LogManager.mergePositions(ranges(closed(1L, 3L)), ranges()))
-        .isEqualTo(ranges(closed(1L, 3L)));
-    assertThat(LogManager.mergePositions(ranges(), ranges())).isEmpty();
-    assertThat(LogManager.mergePositions(ranges(closed(1L, 3L)), ranges(closed(1L, 3L))))
-        .isEqualTo(ranges(closed(1L, 3L)));
-    assertThat(LogManager.mergePositions(ranges(closed(1L, 3L)), ranges(closed(2L, 4L))))
-        .isEqualTo(ranges(closed(1L, 4L)));
-    assertThat(LogManager.mergePositions(ranges(closed(1L, 3L)), ranges(closed(4L, 6L))))
-        .isEqualTo(ranges(closed(1L, 6L)));
-    assertThat(LogManager.mergePositions(ranges(closed(1L, 3L)), ranges(closed(5L, 7L))))
-        .isEqualTo(ranges(closed(1L, 3L), closed(5L, 7L)));
-    assertThat(LogManager.mergePositions(ranges(closed(2L, 4L)), ranges(closed(1L, 3L))))
-        .isEqualTo(ranges(closed(1L, 4L)));
-    assertThat(LogManager.mergePositions(ranges(closed(4L, 6L)), ranges(closed(1L, 3L))))
-        .isEqualTo(ranges(closed(1L, 6L)));
-    assertThat(LogManager.mergePositions(ranges(closed(5L, 7L)), ranges(closed(1L, 3L))))
-        .isEqualTo(ranges(closed(1L, 3L), closed(5L, 7L)));
-  }
-
-  @SafeVarargs
-  private static List<Range<Long>> ranges(Range<Long>... ranges) {
-    return ranges == null ? Lists.emptyList() : Lists.newArrayList(ranges);
+  void should_write_checkpoint_and_resume_from_it() throws Exception {
+    Path outputDir1 = Files.createTempDirectory("test");
+    LogManager logManager =
+        new LogManager(
+            WorkflowType.LOAD,
+            cluster,
+            outputDir1,
+            1,
+            0,
+            formatter,
+            EXTENDED,
+            true,
+            Duration.ZERO,
+            null);
+    logManager.init();
+    Flux.just(result(1), result(2), result(4))
+        .transform(logManager.newResultPositionTracker())
+        .blockLast();
+    logManager.close();
+    Path checkpoint = logManager.getExecutionDirectory().resolve(LogManager.CHECKPOINT_FILE);
+    assertThat(Files.readAllLines(checkpoint, UTF_8)).containsExactly("file1:1-2,4-4");
+    Path outputDir2 = Files.createTempDirectory("test");
+    logManager =
+        new LogManager(
+            WorkflowType.LOAD,
+            cluster,
+            outputDir2,
+            1,
+            0,
+            formatter,
+            EXTENDED,
+            true,
+            Duration.ZERO,
+            checkpoint);
+    logManager.init();
+    assertThat(logManager.getResumedPositions())
+        .containsOnlyKeys(new URI("file1"))
+        .hasEntrySatisfying(
+            new URI("file1"),
+            ranges -> {
+              assertThat(ranges.contains(2L)).isTrue();
+              assertThat(ranges.contains(3L)).isFalse();
+              assertThat(ranges.contains(4L)).isTrue();
+            });
+    Flux.just(result(3)).transform(logManager.newResultPositionTracker()).blockLast();
+    logManager.close();
+    assertThat(
+            Files.readAllLines(
+                logManager.getExecutionDirectory().resolve(LogManager.CHECKPOINT_FILE), UTF_8))
+        .containsExactly("file1:1-4");
   }
 
-  @SafeVarargs
-  private static void assertRanges(LogManager logManager, long[] lines, Range<Long>... ranges)
+  private static void assertRanges(
+      LogManager logManager, String resource, long[] lines, String expected)
       throws URISyntaxException {
     Flux.fromStream(LongStream.of(lines).boxed())
         .map(
             line -> {
               try {
-                return result(line);
+                return result(resource, line);
               } catch (URISyntaxException e) {
                 throw new RuntimeException(e);
               }
             })
         .transform(logManager.newResultPositionTracker())
         .blockLast();
-    @SuppressWarnings("unchecked")
-    Map<URI, List<Range<Long>>> positions =
-        (Map<URI, List<Range<Long>>>) ReflectionUtils.getInternalState(logManager, "positions");
-    assertThat(positions)
-        .hasEntrySatisfying(new URI("file1"), l -> assertThat(l).containsExactly(ranges));
-    positions.clear();
+    PositionsTracker positions =
+        (PositionsTracker) ReflectionUtils.getInternalState(logManager, "positions");
+    assertThat(positions.getPositions())
+        .hasEntrySatisfying(new URI(resource), p -> assertThat(p).hasToString(expected));
   }
 
   private static WriteResult result(long position) throws URISyntaxException {
-    URI resource = new URI("file1");
-    URI location = new URI("file1?line=" + position);
+    return result("file1", position);
+  }
+
+  private static WriteResult result(String file, long position) throws URISyntaxException {
+    URI resource = new URI(file);
+    URI location = new URI(file + "?line=" + position);
     return new DefaultWriteResult(
         new BulkSimpleStatement<>(
-            new DefaultRecord("irrelevant", () -> resource, position, () -> location), "INSERT 1"),
+            new DefaultRecord("irrelevant", new FixedRecordLocator(resource, location), position),
+            "INSERT 1"),
         null);
   }
 }
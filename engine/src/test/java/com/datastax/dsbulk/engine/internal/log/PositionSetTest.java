@@ -0,0 +1,155 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class PositionSetTest {
+
+  @Test
+  void should_extend_last_interval_when_positions_are_in_order() {
+    PositionSet positions = new PositionSet();
+    for (long i = 1; i <= 1000; i++) {
+      positions.add(i);
+    }
+    assertThat(positions.intervals()).isEqualTo(1);
+    assertThat(positions).hasToString("1-1000");
+  }
+
+  @Test
+  void should_add_positions_out_of_order() {
+    PositionSet positions = new PositionSet();
+    assertThat(positions.isEmpty()).isTrue();
+    positions.add(3);
+    assertThat(positions).hasToString("3-3");
+    positions.add(1);
+    assertThat(positions).hasToString("1-1,3-3");
+    positions.add(1);
+    assertThat(positions).hasToString("1-1,3-3");
+    positions.add(5);
+    assertThat(positions).hasToString("1-1,3-3,5-5");
+    positions.add(2);
+    assertThat(positions).hasToString("1-3,5-5");
+    positions.add(3);
+    assertThat(positions).hasToString("1-3,5-5");
+    positions.add(7);
+    positions.add(9);
+    assertThat(positions).hasToString("1-3,5-5,7-7,9-9");
+    positions.add(6);
+    assertThat(positions).hasToString("1-3,5-7,9-9");
+    positions.add(4);
+    assertThat(positions).hasToString("1-7,9-9");
+    positions.add(8);
+    assertThat(positions).hasToString("1-9");
+    assertThat(positions.isEmpty()).isFalse();
+    assertThat(positions.lowerEndpoint(0)).isEqualTo(1);
+    assertThat(positions.upperEndpoint(0)).isEqualTo(9);
+  }
+
+  @Test
+  void should_add_intervals() {
+    PositionSet positions = new PositionSet();
+    positions.add(10, 20);
+    positions.add(30, 40);
+    positions.add(50, 60);
+    positions.add(1, 5);
+    assertThat(positions).hasToString("1-5,10-20,30-40,50-60");
+    positions.add(15, 35);
+    assertThat(positions).hasToString("1-5,10-40,50-60");
+    positions.add(6, 9);
+    assertThat(positions).hasToString("1-40,50-60");
+    positions.add(45, 70);
+    assertThat(positions).hasToString("1-40,45-70");
+    positions.add(41, 44);
+    assertThat(positions).hasToString("1-70");
+    positions.add(72, 72);
+    positions.add(0, 100);
+    assertThat(positions).hasToString("0-100");
+  }
+
+  @Test
+  void should_grow_when_many_intervals_are_added() {
+    PositionSet positions = new PositionSet();
+    for (long i = 1000; i > 0; i -= 2) {
+      positions.add(i);
+    }
+    assertThat(positions.intervals()).isEqualTo(500);
+    assertThat(positions.lowerEndpoint(0)).isEqualTo(2);
+    assertThat(positions.upperEndpoint(499)).isEqualTo(1000);
+    for (long i = 1; i < 1000; i += 2) {
+      positions.add(i);
+    }
+    assertThat(positions).hasToString("1-1000");
+  }
+
+  @Test
+  void should_merge_sets() {
+    PositionSet positions1 = new PositionSet();
+    positions1.add(1, 3);
+    positions1.add(7, 9);
+    PositionSet positions2 = new PositionSet();
+    positions2.add(4, 5);
+    positions2.add(11, 12);
+    PositionSet copy = positions1.copy();
+    positions1.addAll(positions2);
+    assertThat(positions1).hasToString("1-5,7-9,11-12");
+    assertThat(copy).hasToString("1-3,7-9");
+    positions1.addAll(new PositionSet());
+    assertThat(positions1).hasToString("1-5,7-9,11-12");
+  }
+
+  @Test
+  void should_merge_overlapping_and_adjacent_sets() {
+    assertThat(merge(set(), set())).hasToString("");
+    assertThat(merge(set(), set(1, 3))).hasToString("1-3");
+    assertThat(merge(set(1, 3), set())).hasToString("1-3");
+    assertThat(merge(set(1, 3), set(1, 3))).hasToString("1-3");
+    assertThat(merge(set(1, 3), set(2, 4))).hasToString("1-4");
+    assertThat(merge(set(1, 3), set(4, 6))).hasToString("1-6");
+    assertThat(merge(set(1, 3), set(5, 7))).hasToString("1-3,5-7");
+    assertThat(merge(set(2, 4), set(1, 3))).hasToString("1-4");
+    assertThat(merge(set(4, 6), set(1, 3))).hasToString("1-6");
+    assertThat(merge(set(5, 7), set(1, 3))).hasToString("1-3,5-7");
+    assertThat(merge(set(1, 2, 5, 6, 9, 10), set(3, 8))).hasToString("1-10");
+    assertThat(merge(set(3, 8), set(1, 2, 5, 6, 9, 10))).hasToString("1-10");
+    assertThat(merge(set(1, 1, 5, 5), set(3, 3, 7, 7))).hasToString("1-1,3-3,5-5,7-7");
+  }
+
+  @Test
+  void should_merge_interleaved_sets_in_linear_time() {
+    // one set holds the odd positions, the other the even ones: inserting the intervals of one set
+    // into the other one by one would shift the whole array at each insertion
+    PositionSet odd = new PositionSet();
+    PositionSet even = new PositionSet();
+    for (long i = 1; i <= 1_000_000; i += 2) {
+      odd.add(i);
+      even.add(i + 1);
+    }
+    assertThat(odd.intervals()).isEqualTo(500_000);
+    assertTimeout(Duration.ofSeconds(10), () -> odd.addAll(even));
+    assertThat(odd).hasToString("1-1000000");
+  }
+
+  private static PositionSet set(long... bounds) {
+    PositionSet positions = new PositionSet();
+    for (int i = 0; i < bounds.length; i += 2) {
+      positions.add(bounds[i], bounds[i + 1]);
+    }
+    return positions;
+  }
+
+  private static PositionSet merge(PositionSet positions1, PositionSet positions2) {
+    positions1.addAll(positions2);
+    return positions1;
+  }
+}
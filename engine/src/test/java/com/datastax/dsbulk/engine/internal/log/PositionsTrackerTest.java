@@ -0,0 +1,102 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class PositionsTrackerTest {
+
+  private final URI resource1 = URI.create("file://file1");
+  private final URI resource2 = URI.create("file://file2");
+
+  @Test
+  void should_merge_positions_recorded_by_several_threads() throws Exception {
+    PositionsTracker tracker = new PositionsTracker(4);
+    assertThat(tracker.isEmpty()).isTrue();
+    recordInterleavedPositions(tracker, 4, 10_000);
+    assertThat(tracker.isEmpty()).isFalse();
+    Map<URI, PositionSet> positions = tracker.getPositions();
+    assertThat(positions).containsOnlyKeys(resource1, resource2);
+    assertThat(positions.get(resource1)).hasToString("1-10000");
+    assertThat(positions.get(resource2)).hasToString("1-10000");
+  }
+
+  @Test
+  void should_keep_interleaved_positions_merged() throws Exception {
+    PositionsTracker tracker = new PositionsTracker(8);
+    recordInterleavedPositions(tracker, 8, 100_000);
+    // positions recorded by different threads are merged as they are recorded, so that only one
+    // interval per resource is held, and copied when positions are requested
+    assertThat(tracker.intervals()).isEqualTo(2);
+    Map<URI, PositionSet> positions = tracker.getPositions();
+    assertThat(positions.get(resource1).intervals()).isEqualTo(1);
+    assertThat(positions.get(resource2).intervals()).isEqualTo(1);
+    assertThat(positions.get(resource1)).hasToString("1-100000");
+    assertThat(positions.get(resource2)).hasToString("1-100000");
+  }
+
+  @Test
+  void should_merge_resumed_positions() {
+    PositionsTracker tracker = new PositionsTracker();
+    PositionSet resumed = new PositionSet();
+    resumed.add(1, 10);
+    resumed.add(20, 30);
+    tracker.update(resource1, resumed);
+    tracker.update(resource1, 11);
+    tracker.update(resource2, 1);
+    Map<URI, PositionSet> positions = tracker.getPositions();
+    assertThat(positions.keySet()).containsExactly(resource1, resource2);
+    assertThat(positions.get(resource1)).hasToString("1-11,20-30");
+    assertThat(positions.get(resource2)).hasToString("1-1");
+  }
+
+  /**
+   * Records positions 1 to {@code count} of each resource from the given number of threads, each
+   * thread recording every n-th position.
+   */
+  private void recordInterleavedPositions(PositionsTracker tracker, int threads, long count)
+      throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    try {
+      for (int t = 0; t < threads; t++) {
+        long first = (long) t + 1;
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  for (long i = first; i <= count; i += threads) {
+                    tracker.update(resource1, i);
+                    tracker.update(resource2, i);
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        assertThat(future.get(1, TimeUnit.MINUTES)).isNull();
+      }
+    } finally {
+      executor.shutdown();
+      assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+    }
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.log;
+
+import static com.datastax.driver.core.DriverCoreEngineTestHooks.newToken;
+import static com.datastax.driver.core.DriverCoreEngineTestHooks.newTokenRange;
+import static com.datastax.dsbulk.commons.tests.utils.FileUtils.deleteDirectory;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.ExecutionInfo;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.dsbulk.connectors.api.CommonConnectorFeature;
+import com.datastax.dsbulk.connectors.api.Connector;
+import com.datastax.dsbulk.connectors.api.Record;
+import com.datastax.dsbulk.connectors.api.internal.DefaultErrorRecord;
+import com.datastax.dsbulk.connectors.api.internal.DefaultRecord;
+import com.datastax.dsbulk.connectors.api.internal.FixedRecordLocator;
+import com.datastax.dsbulk.executor.api.exception.BulkExecutionException;
+import com.datastax.dsbulk.executor.api.internal.result.DefaultReadResult;
+import com.datastax.dsbulk.executor.api.result.ReadResult;
+import com.datastax.dsbulk.executor.api.statement.TokenRangeReadStatement;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class UnloadCheckpointManagerTest {
+
+  private final URI resource = URI.create("cql://ks/t");
+
+  private final SimpleStatement wrapped1 = spy(new SimpleStatement("irrelevant"));
+  private final Statement statement1 =
+      new TokenRangeReadStatement(wrapped1, newTokenRange(newToken(1), newToken(2)), "ks");
+  private final Statement statement2 =
+      new TokenRangeReadStatement(
+          new SimpleStatement("irrelevant"), newTokenRange(newToken(2), newToken(3)), "ks");
+
+  private final Connector connector = mock(Connector.class);
+
+  private Path executionDirectory;
+
+  @BeforeEach
+  void createExecutionDirectory() throws IOException {
+    executionDirectory = Files.createTempDirectory("test");
+  }
+
+  @AfterEach
+  void deleteExecutionDirectory() {
+    deleteDirectory(executionDirectory);
+  }
+
+  @Test
+  void should_record_paging_state_of_last_processed_page() throws IOException {
+    UnloadCheckpointManager manager =
+        new UnloadCheckpointManager(executionDirectory, null, Duration.ZERO, connector);
+    manager.init();
+    assertThat(manager.prepareStatements(Arrays.asList(statement1, statement2)))
+        .containsExactly(statement1, statement2);
+    ExecutionInfo page1 = newExecutionInfo(new byte[] {1});
+    ExecutionInfo page2 = newExecutionInfo(null);
+    ReadResult result1 = newReadResult(statement1, page1);
+    ReadResult result2 = newReadResult(statement1, page1);
+    ReadResult result3 = newReadResult(statement1, page2);
+    Flux.just(result1, result2, result3).transform(manager.newRangeTracker(statement1)).blockLast();
+    ReadResult result4 = newReadResult(statement2, newExecutionInfo(null));
+    Flux.just(result4).transform(manager.newRangeTracker(statement2)).blockLast();
+    // result 2 is rejected by the result mapper, result 3 is still being written
+    Flux.just(newErrorRecord(result2)).transform(manager.newUnmappableRecordsTracker()).blockLast();
+    Flux.just(newRecord(result1), newRecord(result4))
+        .transform(manager.newWrittenRecordsTracker())
+        .blockLast();
+    manager.close();
+    assertThat(readCheckpoint()).containsExactly("]1, 2]:AQ==", "]2, 3]:COMPLETED");
+  }
+
+  @Test
+  void should_not_complete_failed_range() throws IOException {
+    UnloadCheckpointManager manager =
+        new UnloadCheckpointManager(executionDirectory, null, Duration.ZERO, connector);
+    manager.init();
+    manager.prepareStatements(Arrays.asList(statement1, statement2));
+    ReadResult failed =
+        new DefaultReadResult(new BulkExecutionException(new RuntimeException(), statement1));
+    Flux.just(failed).transform(manager.newRangeTracker(statement1)).blockLast();
+    manager.close();
+    assertThat(executionDirectory.resolve(LogManager.CHECKPOINT_FILE)).doesNotExist();
+  }
+
+  @Test
+  void should_resume_from_previous_checkpoint() throws IOException {
+    Path previous = Files.createTempDirectory("previous");
+    try {
+      Path checkpoint = previous.resolve(LogManager.CHECKPOINT_FILE);
+      Files.write(checkpoint, Arrays.asList("]1, 2]:AQ==", "]2, 3]:COMPLETED"), UTF_8);
+      UnloadCheckpointManager manager =
+          new UnloadCheckpointManager(executionDirectory, checkpoint, Duration.ZERO, connector);
+      manager.init();
+      assertThat(manager.prepareStatements(Arrays.asList(statement1, statement2)))
+          .containsExactly(statement1);
+      verify(wrapped1).setPagingStateUnsafe(new byte[] {1});
+      // the remaining rows of range 1 are all processed
+      ReadResult result = newReadResult(statement1, newExecutionInfo(null));
+      Flux.just(result).transform(manager.newRangeTracker(statement1)).blockLast();
+      Flux.just(newRecord(result)).transform(manager.newWrittenRecordsTracker()).blockLast();
+      manager.close();
+      assertThat(readCheckpoint()).containsExactly("]1, 2]:COMPLETED", "]2, 3]:COMPLETED");
+    } finally {
+      deleteDirectory(previous);
+    }
+  }
+
+  @Test
+  void should_write_checkpoint_periodically_when_connector_is_flushable() throws Exception {
+    when(connector.supports(CommonConnectorFeature.FLUSHABLE_WRITES)).thenReturn(true);
+    UnloadCheckpointManager manager =
+        new UnloadCheckpointManager(executionDirectory, null, Duration.ofMillis(10), connector);
+    manager.init();
+    manager.prepareStatements(Arrays.asList(statement1, statement2));
+    ReadResult result = newReadResult(statement2, newExecutionInfo(null));
+    Flux.just(result).transform(manager.newRangeTracker(statement2)).blockLast();
+    Flux.just(newRecord(result)).transform(manager.newWrittenRecordsTracker()).blockLast();
+    await()
+        .atMost(10, SECONDS)
+        .until(() -> Files.exists(executionDirectory.resolve(LogManager.CHECKPOINT_FILE)));
+    verify(connector, atLeastOnce()).flush();
+    assertThat(readCheckpoint()).containsExactly("]2, 3]:COMPLETED");
+    manager.close();
+  }
+
+  @Test
+  void should_not_write_checkpoint_periodically_when_connector_is_not_flushable() throws Exception {
+    UnloadCheckpointManager manager =
+        new UnloadCheckpointManager(executionDirectory, null, Duration.ofMillis(10), connector);
+    manager.init();
+    manager.prepareStatements(Arrays.asList(statement1, statement2));
+    ReadResult result = newReadResult(statement2, newExecutionInfo(null));
+    Flux.just(result).transform(manager.newRangeTracker(statement2)).blockLast();
+    Flux.just(newRecord(result)).transform(manager.newWrittenRecordsTracker()).blockLast();
+    Thread.sleep(100);
+    assertThat(executionDirectory.resolve(LogManager.CHECKPOINT_FILE)).doesNotExist();
+    verify(connector, never()).flush();
+    manager.close();
+    assertThat(readCheckpoint()).containsExactly("]2, 3]:COMPLETED");
+  }
+
+  private List<String> readCheckpoint() throws IOException {
+    return Files.readAllLines(executionDirectory.resolve(LogManager.CHECKPOINT_FILE), UTF_8);
+  }
+
+  private static ExecutionInfo newExecutionInfo(byte[] pagingState) {
+    ExecutionInfo info = mock(ExecutionInfo.class);
+    when(info.getPagingStateUnsafe()).thenReturn(pagingState);
+    return info;
+  }
+
+  private static ReadResult newReadResult(Statement statement, ExecutionInfo info) {
+    return new DefaultReadResult(statement, info, mock(Row.class));
+  }
+
+  private Record newRecord(ReadResult result) {
+    return new DefaultRecord(result, new FixedRecordLocator(resource, resource), -1);
+  }
+
+  private Record newErrorRecord(ReadResult result) {
+    return new DefaultErrorRecord(
+        result, new FixedRecordLocator(resource, resource), -1, new Exception());
+  }
+}
@@ -31,6 +31,7 @@ import com.datastax.dsbulk.commons.tests.utils.ReflectionUtils;
 import com.datastax.dsbulk.connectors.api.Record;
 import com.datastax.dsbulk.connectors.api.internal.DefaultErrorRecord;
 import com.datastax.dsbulk.connectors.api.internal.DefaultRecord;
+import com.datastax.dsbulk.connectors.api.internal.FixedRecordLocator;
 import com.datastax.dsbulk.engine.WorkflowType;
 import com.datastax.dsbulk.engine.internal.statement.BulkSimpleStatement;
 import com.datastax.dsbulk.engine.internal.statement.UnmappableStatement;
@@ -69,11 +70,14 @@ class MetricsManagerTest {
     String source1 = "line1\n";
     String source2 = "line2\n";
     String source3 = "line3\n";
-    record1 = new DefaultRecord(source1, null, -1, () -> location1, "irrelevant");
-    record2 = new DefaultRecord(source2, null, -1, () -> location2, "irrelevant");
+    record1 = new DefaultRecord(source1, new FixedRecordLocator(null, location1), -1, "irrelevant");
+    record2 = new DefaultRecord(source2, new FixedRecordLocator(null, location2), -1, "irrelevant");
     record3 =
         new DefaultErrorRecord(
-            source3, null, -1, () -> location3, new RuntimeException("irrelevant"));
+            source3,
+            new FixedRecordLocator(null, location3),
+            -1,
+            new RuntimeException("irrelevant"));
     Statement stmt1 = new BulkSimpleStatement<>(record1, "irrelevant");
     Statement stmt2 = new BulkSimpleStatement<>(record2, "irrelevant");
     stmt3 =
@@ -105,6 +109,9 @@ class MetricsManagerTest {
             null,
             Duration.ofSeconds(5),
             false,
+            1,
+            false,
+            false,
             protocolVersion,
             codecRegistry)) {
       manager.init();
@@ -139,6 +146,9 @@ class MetricsManagerTest {
             null,
             Duration.ofSeconds(5),
             true,
+            1,
+            false,
+            false,
             protocolVersion,
             codecRegistry)) {
       manager.init();
@@ -176,6 +186,9 @@ class MetricsManagerTest {
             mainLogFileAppender,
             Duration.ofSeconds(5),
             true,
+            1,
+            false,
+            false,
             protocolVersion,
             codecRegistry);
     try {
@@ -0,0 +1,173 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.schema;
+
+import static com.datastax.driver.core.DriverCoreCommonsTestHooks.newColumnDefinitions;
+import static com.datastax.driver.core.DriverCoreCommonsTestHooks.newDefinition;
+import static com.datastax.driver.core.DriverCoreEngineTestHooks.newPreparedId;
+import static com.datastax.dsbulk.engine.internal.codecs.CodecTestUtils.newCodecRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ExecutionInfo;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.dsbulk.commons.config.BulkConfigurationException;
+import com.datastax.dsbulk.engine.internal.codecs.ExtendedCodecRegistry;
+import com.datastax.dsbulk.engine.internal.statement.BulkStatement;
+import com.datastax.dsbulk.engine.internal.statement.UnmappableStatement;
+import com.datastax.dsbulk.executor.api.result.ReadResult;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DefaultReadResultCopierTest {
+
+  private static final String C1 = "col1";
+  private static final String C2 = "My Fancy Column Name";
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.V4;
+
+  private final CodecRegistry sourceCodecRegistry = new CodecRegistry();
+  private final ExtendedCodecRegistry codecRegistry = newCodecRegistry("");
+
+  private ReadResult result;
+  private Row row;
+
+  @BeforeEach
+  void setUp() {
+    row = mock(Row.class);
+    result = mock(ReadResult.class);
+    when(result.getRow()).thenReturn(Optional.of(row));
+    // to generate locations
+    BoundStatement boundStatement = mock(BoundStatement.class);
+    ExecutionInfo executionInfo = mock(ExecutionInfo.class);
+    Host host = mock(Host.class);
+    PreparedStatement ps = mock(PreparedStatement.class);
+    when(result.getStatement()).thenReturn(boundStatement);
+    when(result.getExecutionInfo()).thenReturn(Optional.of(executionInfo));
+    when(executionInfo.getQueriedHost()).thenReturn(host);
+    when(host.getSocketAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 9042));
+    when(boundStatement.preparedStatement()).thenReturn(ps);
+    when(ps.getQueryString()).thenReturn("irrelevant");
+    when(ps.getVariables()).thenReturn(newColumnDefinitions());
+    when(row.getColumnDefinitions())
+        .thenReturn(
+            newColumnDefinitions(
+                newDefinition(C1, DataType.cint()), newDefinition(C2, DataType.bigint())));
+  }
+
+  @Test
+  void should_copy_raw_bytes_when_types_match() {
+    ByteBuffer bb1 = TypeCodec.cint().serialize(42, VERSION);
+    ByteBuffer bb2 = TypeCodec.bigint().serialize(4242L, VERSION);
+    when(row.getBytesUnsafe(0)).thenReturn(bb1);
+    when(row.getBytesUnsafe(1)).thenReturn(bb2);
+    DefaultReadResultCopier copier =
+        newCopier(sourceColumns(DataType.cint(), DataType.bigint()), DataType.cint(), true);
+    Statement statement = copier.map(result);
+    assertThat(statement).isInstanceOf(BoundStatement.class);
+    assertThat(((BulkStatement<?>) statement).getSource()).isSameAs(result);
+    BoundStatement bs = (BoundStatement) statement;
+    // variables are in reverse order compared to source columns
+    assertThat(bs.getBytesUnsafe(0)).isEqualTo(bb2);
+    assertThat(bs.getBytesUnsafe(1)).isEqualTo(bb1);
+    verify(row, never()).get(anyInt(), eq(TypeCodec.cint()));
+  }
+
+  @Test
+  void should_convert_values_when_types_differ() {
+    when(row.getBytesUnsafe(1)).thenReturn(TypeCodec.bigint().serialize(4242L, VERSION));
+    when(row.get(0, TypeCodec.cint())).thenReturn(42);
+    DefaultReadResultCopier copier =
+        newCopier(sourceColumns(DataType.cint(), DataType.bigint()), DataType.bigint(), false);
+    BoundStatement bs = (BoundStatement) copier.map(result);
+    assertThat(bs.getLong(0)).isEqualTo(4242L);
+    assertThat(bs.getLong(1)).isEqualTo(42L);
+  }
+
+  @Test
+  void should_leave_null_values_unset() {
+    when(row.getBytesUnsafe(0)).thenReturn(null);
+    when(row.getBytesUnsafe(1)).thenReturn(TypeCodec.bigint().serialize(4242L, VERSION));
+    DefaultReadResultCopier copier =
+        newCopier(sourceColumns(DataType.cint(), DataType.bigint()), DataType.cint(), true);
+    BoundStatement bs = (BoundStatement) copier.map(result);
+    assertThat(bs.isSet(0)).isTrue();
+    assertThat(bs.isSet(1)).isFalse();
+    copier = newCopier(sourceColumns(DataType.cint(), DataType.bigint()), DataType.cint(), false);
+    bs = (BoundStatement) copier.map(result);
+    assertThat(bs.isSet(1)).isTrue();
+    assertThat(bs.isNull(1)).isTrue();
+  }
+
+  @Test
+  void should_return_unmappable_statement_when_conversion_fails() {
+    when(row.getBytesUnsafe(1)).thenReturn(TypeCodec.bigint().serialize(4242L, VERSION));
+    when(row.get(0, TypeCodec.bigint())).thenReturn(Long.MAX_VALUE);
+    DefaultReadResultCopier copier =
+        newCopier(sourceColumns(DataType.bigint(), DataType.bigint()), DataType.cint(), false);
+    Statement statement = copier.map(result);
+    assertThat(statement).isInstanceOf(UnmappableStatement.class);
+    UnmappableStatement unmappable = (UnmappableStatement) statement;
+    assertThat(unmappable.getError()).isInstanceOf(ArithmeticException.class);
+    assertThat(unmappable.getSource().getSource()).isSameAs(result);
+    assertThat(unmappable.getLocation())
+        .hasScheme("cql")
+        .hasHost("127.0.0.1")
+        .hasPort(9042)
+        .hasParameter("column", C1)
+        .hasParameter("cqlType", "int");
+  }
+
+  @Test
+  void should_reject_incompatible_types() {
+    assertThatThrownBy(
+            () ->
+                newCopier(
+                    sourceColumns(DataType.uuid(), DataType.bigint()), DataType.cboolean(), false))
+        .isInstanceOf(BulkConfigurationException.class)
+        .hasMessage(
+            "Column col1 cannot be copied: source type uuid is not compatible with target type boolean");
+  }
+
+  private static ColumnDefinitions sourceColumns(DataType type1, DataType type2) {
+    return newColumnDefinitions(newDefinition(C1, type1), newDefinition(C2, type2));
+  }
+
+  /** Creates a copier whose insert statement binds C2 first, then C1 with the given type. */
+  private DefaultReadResultCopier newCopier(
+      ColumnDefinitions sourceColumns, DataType targetType1, boolean nullToUnset) {
+    ColumnDefinitions variables =
+        newColumnDefinitions(newDefinition(C2, DataType.bigint()), newDefinition(C1, targetType1));
+    PreparedStatement insertStatement = mock(PreparedStatement.class);
+    when(insertStatement.getVariables()).thenReturn(variables);
+    when(insertStatement.getPreparedId())
+        .thenReturn(newPreparedId(variables, new int[] {0}, VERSION));
+    when(insertStatement.getCodecRegistry()).thenReturn(sourceCodecRegistry);
+    return new DefaultReadResultCopier(
+        insertStatement, sourceColumns, VERSION, sourceCodecRegistry, codecRegistry, nullToUnset);
+  }
+}
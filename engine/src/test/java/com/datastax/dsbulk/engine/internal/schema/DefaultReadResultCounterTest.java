@@ -0,0 +1,126 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.schema;
+
+import static com.datastax.driver.core.DriverCoreEngineTestHooks.newToken;
+import static com.datastax.driver.core.DriverCoreEngineTestHooks.newTokenRange;
+import static com.datastax.dsbulk.engine.internal.settings.StatsSettings.StatisticsMode.global;
+import static com.datastax.dsbulk.engine.internal.settings.StatsSettings.StatisticsMode.hosts;
+import static com.datastax.dsbulk.engine.internal.settings.StatsSettings.StatisticsMode.partitions;
+import static com.datastax.dsbulk.engine.internal.settings.StatsSettings.StatisticsMode.ranges;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ExecutionInfo;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.dsbulk.engine.internal.schema.ReadResultCounter.CountingUnit;
+import com.datastax.dsbulk.executor.api.internal.result.DefaultReadResult;
+import com.datastax.dsbulk.executor.api.statement.TokenRangeReadStatement;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.EnumSet;
+import org.junit.jupiter.api.Test;
+
+class DefaultReadResultCounterTest {
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.V4;
+
+  private final Statement statement1 =
+      new TokenRangeReadStatement(
+          new SimpleStatement("irrelevant"), newTokenRange(newToken(1), newToken(2)), "ks");
+  private final Statement statement2 =
+      new TokenRangeReadStatement(
+          new SimpleStatement("irrelevant"), newTokenRange(newToken(2), newToken(3)), "ks");
+
+  private final ExecutionInfo info1 = newExecutionInfo("127.0.0.1");
+  private final ExecutionInfo info2 = newExecutionInfo("127.0.0.2");
+
+  private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+  private final PrintStream out = new PrintStream(baos, true);
+
+  @Test
+  void should_report_server_side_counts() throws Exception {
+    DefaultReadResultCounter counter =
+        new DefaultReadResultCounter(
+            EnumSet.of(hosts, global, ranges), 10, Collections.emptyList(), VERSION, out);
+    CountingUnit unit1 = counter.newCountingUnit(statement1);
+    CountingUnit unit2 = counter.newCountingUnit(statement2);
+    unit2.update(new DefaultReadResult(statement2, info2, newCountRow(10)));
+    unit1.update(new DefaultReadResult(statement1, info1, newCountRow(30)));
+    unit2.close();
+    unit1.close();
+    counter.reportTotals();
+    assertThat(new String(baos.toByteArray(), UTF_8).split(System.lineSeparator()))
+        .containsExactly(
+            "40",
+            "1 2 30 75.00",
+            "2 3 10 25.00",
+            "127.0.0.1:9042 30 75.00",
+            "127.0.0.2:9042 10 25.00");
+  }
+
+  @Test
+  void should_report_largest_partitions() throws Exception {
+    DefaultReadResultCounter counter =
+        new DefaultReadResultCounter(
+            EnumSet.of(global, partitions, hosts),
+            2,
+            Collections.singletonList(CodecRegistry.DEFAULT_INSTANCE.codecFor(DataType.cint())),
+            VERSION,
+            out);
+    CountingUnit unit1 = counter.newCountingUnit(statement1);
+    CountingUnit unit2 = counter.newCountingUnit(statement2);
+    // key 1: 3 rows, key 2: 1 row, key 3: 2 rows, key 4: 5 rows
+    for (int key : new int[] {1, 1, 1, 2, 3, 3}) {
+      unit1.update(new DefaultReadResult(statement1, info1, newPartitionKeyRow(key)));
+    }
+    for (int i = 0; i < 5; i++) {
+      // pages of a same token range may be served by different hosts
+      ExecutionInfo info = i < 2 ? info1 : info2;
+      unit2.update(new DefaultReadResult(statement2, info, newPartitionKeyRow(4)));
+    }
+    unit1.close();
+    unit2.close();
+    counter.reportTotals();
+    assertThat(new String(baos.toByteArray(), UTF_8).split(System.lineSeparator()))
+        .containsExactly(
+            "11", "127.0.0.1:9042 8 72.73", "127.0.0.2:9042 3 27.27", "4 5 45.45", "1 3 27.27");
+  }
+
+  private static ExecutionInfo newExecutionInfo(String address) {
+    Host host = mock(Host.class);
+    when(host.getSocketAddress()).thenReturn(new InetSocketAddress(address, 9042));
+    ExecutionInfo info = mock(ExecutionInfo.class);
+    when(info.getQueriedHost()).thenReturn(host);
+    return info;
+  }
+
+  private static Row newCountRow(long count) {
+    Row row = mock(Row.class);
+    when(row.getLong(0)).thenReturn(count);
+    return row;
+  }
+
+  private static Row newPartitionKeyRow(int key) {
+    Row row = mock(Row.class);
+    when(row.getBytesUnsafe(0)).thenReturn(TypeCodec.cint().serialize(key, VERSION));
+    return row;
+  }
+}
@@ -10,8 +10,12 @@ package com.datastax.dsbulk.engine.internal.schema;
 
 import static com.datastax.driver.core.DriverCoreCommonsTestHooks.newColumnDefinitions;
 import static com.datastax.driver.core.DriverCoreCommonsTestHooks.newDefinition;
+import static com.datastax.driver.core.ProtocolVersion.V4;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.datastax.driver.core.BoundStatement;
@@ -30,6 +34,7 @@ import com.datastax.dsbulk.executor.api.result.ReadResult;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.reflect.TypeToken;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -73,9 +78,9 @@ class DefaultReadResultMapperTest {
     when(mapping.codec(C1, DataType.cint(), TypeToken.of(Integer.class))).thenReturn(codec1);
     when(mapping.codec(C2, DataType.varchar(), TypeToken.of(String.class))).thenReturn(codec2);
     when(mapping.codec(C3, DataType.varchar(), TypeToken.of(String.class))).thenReturn(codec2);
-    when(row.get(C1, codec1)).thenReturn(42);
-    when(row.get(C2, codec2)).thenReturn("foo");
-    when(row.get(C3, codec2)).thenReturn("bar");
+    when(row.get(0, codec1)).thenReturn(42);
+    when(row.get(1, codec2)).thenReturn("foo");
+    when(row.get(2, codec2)).thenReturn("bar");
 
     // to generate locations
     BoundStatement boundStatement = mock(BoundStatement.class);
@@ -101,7 +106,7 @@ class DefaultReadResultMapperTest {
 
   @Test
   void should_map_result_to_mapped_record_when_mapping_succeeds() {
-    DefaultReadResultMapper mapper = new DefaultReadResultMapper(mapping, recordMetadata);
+    DefaultReadResultMapper mapper = new DefaultReadResultMapper(mapping, recordMetadata, false);
     Record record = mapper.map(result);
     assertThat(record.fields()).containsOnly("f0", "f1", "f2");
     assertThat(record.getFieldValue("f0")).isEqualTo(42);
@@ -109,12 +114,26 @@ class DefaultReadResultMapperTest {
     assertThat(record.getFieldValue("f2")).isEqualTo("bar");
   }
 
+  @Test
+  void should_map_result_to_serialized_values() {
+    ByteBuffer value = TypeCodec.cint().serialize(42, V4);
+    Row row = result.getRow().get();
+    when(row.getBytesUnsafe(0)).thenReturn(value);
+    when(row.getBytesUnsafe(1)).thenReturn(null);
+    DefaultReadResultMapper mapper = new DefaultReadResultMapper(mapping, recordMetadata, true);
+    Record record = mapper.map(result);
+    assertThat(record.fields()).containsOnly("f0", "f1", "f2");
+    assertThat(record.getFieldValue("f0")).isEqualTo(value);
+    assertThat(record.getFieldValue("f1")).isNull();
+    verify(mapping, never()).codec(any(), any(), any());
+  }
+
   @Test
   void should_map_result_to_error_record_when_mapping_fails() {
     CodecNotFoundException exception =
         new CodecNotFoundException("not really", DataType.varchar(), TypeToken.of(String.class));
     when(mapping.codec(C3, DataType.varchar(), TypeToken.of(String.class))).thenThrow(exception);
-    DefaultReadResultMapper mapper = new DefaultReadResultMapper(mapping, recordMetadata);
+    DefaultReadResultMapper mapper = new DefaultReadResultMapper(mapping, recordMetadata, false);
     ErrorRecord record = (ErrorRecord) mapper.map(result);
     assertThat(record.getError()).isSameAs(exception);
     assertThat(record.getSource()).isSameAs(result);
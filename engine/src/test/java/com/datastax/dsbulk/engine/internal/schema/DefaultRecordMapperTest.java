@@ -10,6 +10,7 @@ package com.datastax.dsbulk.engine.internal.schema;
 
 import static com.datastax.driver.core.DataType.bigint;
 import static com.datastax.driver.core.ProtocolVersion.V4;
+import static com.datastax.dsbulk.engine.internal.codecs.util.TimeUUIDGenerator.MIN;
 import static com.google.common.collect.Lists.newArrayList;
 import static java.math.BigDecimal.ONE;
 import static java.math.BigDecimal.ZERO;
@@ -22,6 +23,7 @@ import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -30,15 +32,20 @@ import static org.mockito.Mockito.when;
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.DataType;
-import com.datastax.driver.core.Metadata;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.TypeCodec;
 import com.datastax.driver.core.exceptions.CodecNotFoundException;
+import com.datastax.driver.core.exceptions.InvalidTypeException;
 import com.datastax.dsbulk.connectors.api.Record;
 import com.datastax.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.dsbulk.connectors.api.internal.ArrayBackedRecord;
+import com.datastax.dsbulk.connectors.api.internal.FieldIndex;
+import com.datastax.dsbulk.connectors.api.internal.FixedRecordLocator;
+import com.datastax.dsbulk.engine.internal.codecs.ConvertingCodec;
 import com.datastax.dsbulk.engine.internal.codecs.string.StringToIntegerCodec;
 import com.datastax.dsbulk.engine.internal.codecs.string.StringToLongCodec;
+import com.datastax.dsbulk.engine.internal.codecs.string.StringToUUIDCodec;
 import com.datastax.dsbulk.engine.internal.codecs.util.CqlTemporalFormat;
 import com.datastax.dsbulk.engine.internal.codecs.util.OverflowStrategy;
 import com.datastax.dsbulk.engine.internal.codecs.util.TemporalFormat;
@@ -86,7 +93,7 @@ class DefaultRecordMapperTest {
   private PreparedStatement insertStatement;
   private BoundStatement boundStatement;
   private ColumnDefinitions variables;
-  private ArgumentCaptor<String> variableCaptor;
+  private ArgumentCaptor<Integer> indexCaptor;
   private ArgumentCaptor<ByteBuffer> valueCaptor;
   private RecordMetadata recordMetadata;
   private final FastThreadLocal<NumberFormat> formatter =
@@ -94,7 +101,7 @@ class DefaultRecordMapperTest {
 
   @BeforeEach
   void setUp() {
-    variableCaptor = ArgumentCaptor.forClass(String.class);
+    indexCaptor = ArgumentCaptor.forClass(Integer.class);
     valueCaptor = ArgumentCaptor.forClass(ByteBuffer.class);
 
     recordMetadata =
@@ -122,6 +129,9 @@ class DefaultRecordMapperTest {
     when(variables.getType(C1)).thenReturn(DataType.cint());
     when(variables.getType(C2)).thenReturn(DataType.bigint());
     when(variables.getType(C3)).thenReturn(DataType.varchar());
+    when(variables.getType(0)).thenReturn(DataType.cint());
+    when(variables.getType(1)).thenReturn(DataType.bigint());
+    when(variables.getType(2)).thenReturn(DataType.varchar());
     when(variables.getIndexOf(C1)).thenReturn(0);
     when(variables.getIndexOf(C2)).thenReturn(1);
     when(variables.getIndexOf(C3)).thenReturn(2);
@@ -183,20 +193,219 @@ class DefaultRecordMapperTest {
             true,
             true,
             false,
+            false,
+            (mappedRecord, statement) -> boundStatement);
+    Statement result = mapper.map(record);
+    assertThat(result).isSameAs(boundStatement);
+    verify(boundStatement, times(3)).setBytesUnsafe(indexCaptor.capture(), valueCaptor.capture());
+    assertParameter(0, 0, TypeCodec.cint().serialize(42, V4));
+    assertParameter(1, 1, TypeCodec.bigint().serialize(4242L, V4));
+    assertParameter(2, 2, TypeCodec.varchar().serialize("foo", V4));
+  }
+
+  @Test
+  void should_map_array_backed_record() {
+    FieldIndex index = FieldIndex.named(F3, F1, F2);
+    Record record =
+        new ArrayBackedRecord(
+            "source", new FixedRecordLocator(location, location), 1, index, "foo", "42", "4242");
+    RecordMapper mapper =
+        new DefaultRecordMapper(
+            insertStatement,
+            pkIndices,
+            V4,
+            mapping,
+            recordMetadata,
+            true,
+            true,
+            false,
+            false,
+            (mappedRecord, statement) -> boundStatement);
+    Statement result = mapper.map(record);
+    assertThat(result).isSameAs(boundStatement);
+    verify(boundStatement, times(3)).setBytesUnsafe(indexCaptor.capture(), valueCaptor.capture());
+    assertParameter(0, 0, TypeCodec.cint().serialize(42, V4));
+    assertParameter(1, 1, TypeCodec.bigint().serialize(4242L, V4));
+    assertParameter(2, 2, TypeCodec.varchar().serialize("foo", V4));
+  }
+
+  @Test
+  void should_bind_serialized_values_without_codecs() {
+    ByteBuffer value1 = TypeCodec.cint().serialize(42, V4);
+    ByteBuffer value2 = TypeCodec.bigint().serialize(4242L, V4);
+    ByteBuffer value3 = TypeCodec.varchar().serialize("foo", V4);
+    when(record.fields()).thenReturn(set(F1, F2, F3));
+    when(record.getFieldValue(F1)).thenReturn(value1);
+    when(record.getFieldValue(F2)).thenReturn(value2);
+    when(record.getFieldValue(F3)).thenReturn(value3);
+    RecordMapper mapper =
+        new DefaultRecordMapper(
+            insertStatement,
+            pkIndices,
+            V4,
+            mapping,
+            recordMetadata,
+            true,
+            true,
+            false,
+            true,
             (mappedRecord, statement) -> boundStatement);
     Statement result = mapper.map(record);
     assertThat(result).isSameAs(boundStatement);
-    verify(boundStatement, times(3))
-        .setBytesUnsafe(variableCaptor.capture(), valueCaptor.capture());
-    assertParameter(0, C1, TypeCodec.cint().serialize(42, V4));
-    assertParameter(1, C2, TypeCodec.bigint().serialize(4242L, V4));
-    assertParameter(2, C3, TypeCodec.varchar().serialize("foo", V4));
+    verify(boundStatement, times(3)).setBytesUnsafe(indexCaptor.capture(), valueCaptor.capture());
+    assertParameter(0, 0, value1);
+    assertParameter(1, 1, value2);
+    assertParameter(2, 2, value3);
+    verify(mapping, never()).codec(any(), any(), any());
+  }
+
+  @Test
+  void should_serialize_fixed_length_values_into_shared_slab() {
+    when(record.fields()).thenReturn(set(F1, F2, F3));
+    when(mapping.codec(C1, DataType.cint(), TypeToken.of(String.class)))
+        .thenReturn(
+            new StringToIntegerCodec(
+                formatter,
+                OverflowStrategy.REJECT,
+                HALF_EVEN,
+                CqlTemporalFormat.DEFAULT_INSTANCE,
+                UTC,
+                MILLISECONDS,
+                EPOCH.atZone(UTC),
+                ImmutableMap.of("true", true, "false", false),
+                newArrayList(ONE, ZERO),
+                nullStrings));
+    when(mapping.codec(C2, DataType.bigint(), TypeToken.of(String.class)))
+        .thenReturn(
+            new StringToLongCodec(
+                TypeCodec.bigint(),
+                formatter,
+                OverflowStrategy.REJECT,
+                HALF_EVEN,
+                CqlTemporalFormat.DEFAULT_INSTANCE,
+                UTC,
+                MILLISECONDS,
+                EPOCH.atZone(UTC),
+                ImmutableMap.of("true", true, "false", false),
+                newArrayList(ONE, ZERO),
+                nullStrings));
+    RecordMapper mapper =
+        new DefaultRecordMapper(
+            insertStatement,
+            pkIndices,
+            V4,
+            mapping,
+            recordMetadata,
+            true,
+            true,
+            false,
+            false,
+            (mappedRecord, statement) -> boundStatement);
+    Statement result = mapper.map(record);
+    assertThat(result).isSameAs(boundStatement);
+    verify(boundStatement, times(3)).setBytesUnsafe(indexCaptor.capture(), valueCaptor.capture());
+    assertParameter(0, 0, TypeCodec.cint().serialize(42, V4));
+    assertParameter(1, 1, TypeCodec.bigint().serialize(4242L, V4));
+    assertParameter(2, 2, TypeCodec.varchar().serialize("foo", V4));
+    assertThat(valueCaptor.getAllValues().get(0).array())
+        .isSameAs(valueCaptor.getAllValues().get(1).array());
+  }
+
+  @Test
+  void should_serialize_plain_integers_into_slab_without_boxing() {
+    when(record.fields()).thenReturn(set(F1, F2, F3));
+    when(record.getFieldValue(F2)).thenReturn("4,242");
+    StringToIntegerCodec codec1 =
+        spy(
+            new StringToIntegerCodec(
+                formatter,
+                OverflowStrategy.REJECT,
+                HALF_EVEN,
+                CqlTemporalFormat.DEFAULT_INSTANCE,
+                UTC,
+                MILLISECONDS,
+                EPOCH.atZone(UTC),
+                ImmutableMap.of("true", true, "false", false),
+                newArrayList(ONE, ZERO),
+                nullStrings));
+    StringToLongCodec codec2 =
+        spy(
+            new StringToLongCodec(
+                TypeCodec.bigint(),
+                formatter,
+                OverflowStrategy.REJECT,
+                HALF_EVEN,
+                CqlTemporalFormat.DEFAULT_INSTANCE,
+                UTC,
+                MILLISECONDS,
+                EPOCH.atZone(UTC),
+                ImmutableMap.of("true", true, "false", false),
+                newArrayList(ONE, ZERO),
+                nullStrings));
+    when(mapping.codec(C1, DataType.cint(), TypeToken.of(String.class))).thenReturn(codec1);
+    when(mapping.codec(C2, DataType.bigint(), TypeToken.of(String.class))).thenReturn(codec2);
+    RecordMapper mapper =
+        new DefaultRecordMapper(
+            insertStatement,
+            pkIndices,
+            V4,
+            mapping,
+            recordMetadata,
+            true,
+            true,
+            false,
+            false,
+            (mappedRecord, statement) -> boundStatement);
+    Statement result = mapper.map(record);
+    assertThat(result).isSameAs(boundStatement);
+    verify(boundStatement, times(3)).setBytesUnsafe(indexCaptor.capture(), valueCaptor.capture());
+    assertParameter(0, 0, TypeCodec.cint().serialize(42, V4));
+    assertParameter(1, 1, TypeCodec.bigint().serialize(4242L, V4));
+    assertParameter(2, 2, TypeCodec.varchar().serialize("foo", V4));
+    assertThat(valueCaptor.getAllValues().get(0).array())
+        .isSameAs(valueCaptor.getAllValues().get(1).array());
+    // "42" is a plain integer, "4,242" is not
+    verify(codec1, never()).externalToInternal(any());
+    verify(codec2).externalToInternal("4,242");
+  }
+
+  @Test
+  void should_return_unmappable_statement_when_timeuuid_is_not_time_based() {
+    when(record.fields()).thenReturn(set(F1, F2, F3));
+    when(variables.getType(0)).thenReturn(DataType.timeuuid());
+    when(mapping.codec(C1, DataType.timeuuid(), TypeToken.of(String.class)))
+        .thenReturn(
+            new StringToUUIDCodec(
+                TypeCodec.timeUUID(), mock(ConvertingCodec.class), MIN, nullStrings));
+    RecordMapper mapper =
+        new DefaultRecordMapper(
+            insertStatement,
+            pkIndices,
+            V4,
+            mapping,
+            recordMetadata,
+            true,
+            true,
+            false,
+            false,
+            (mappedRecord, statement) -> boundStatement);
+    // a time-based UUID
+    when(record.getFieldValue(F1)).thenReturn("6b6a3e40-7a3b-11e8-9c0b-8b6f2a4e0c11");
+    assertThat(mapper.map(record)).isSameAs(boundStatement);
+    // a random UUID
+    when(record.getFieldValue(F1)).thenReturn("a15341ec-ebef-4eab-b91d-ff16bf801a79");
+    Statement result = mapper.map(record);
+    assertThat(result).isNotSameAs(boundStatement).isInstanceOf(UnmappableStatement.class);
+    assertThat(((UnmappableStatement) result).getError())
+        .isInstanceOf(InvalidTypeException.class)
+        .hasMessage("a15341ec-ebef-4eab-b91d-ff16bf801a79 is not a Type 1 (time-based) UUID");
   }
 
   @Test
   void should_bind_mapped_numeric_timestamp() {
     when(record.fields()).thenReturn(set(F1));
     when(variables.getType(C1)).thenReturn(bigint());
+    when(variables.getType(0)).thenReturn(bigint());
     // timestamp is 123456 minutes before unix epoch
     when(record.getFieldValue(F1)).thenReturn("-123456");
     StringToLongCodec codec =
@@ -224,16 +433,18 @@ class DefaultRecordMapperTest {
             true,
             true,
             true,
+            false,
             (mappedRecord, statement) -> boundStatement);
     Statement result = mapper.map(record);
     assertThat(result).isSameAs(boundStatement);
-    verify(boundStatement).setBytesUnsafe(C1, TypeCodec.bigint().serialize(-123456L, V4));
+    verify(boundStatement).setBytesUnsafe(0, TypeCodec.bigint().serialize(-123456L, V4));
   }
 
   @Test
   void should_bind_mapped_numeric_timestamp_with_custom_unit_and_epoch() {
     when(record.fields()).thenReturn(set(F1));
     when(variables.getType(C1)).thenReturn(bigint());
+    when(variables.getType(0)).thenReturn(bigint());
     // timestamp is one minute before year 2000
     when(record.getFieldValue(F1)).thenReturn("-1");
     Instant millennium = Instant.parse("2000-01-01T00:00:00Z");
@@ -262,16 +473,18 @@ class DefaultRecordMapperTest {
             true,
             true,
             true,
+            false,
             (mappedRecord, statement) -> boundStatement);
     Statement result = mapper.map(record);
     assertThat(result).isSameAs(boundStatement);
-    verify(boundStatement).setBytesUnsafe(C1, TypeCodec.bigint().serialize(-1L, V4));
+    verify(boundStatement).setBytesUnsafe(0, TypeCodec.bigint().serialize(-1L, V4));
   }
 
   @Test
   void should_bind_mapped_alphanumeric_timestamp() {
     when(record.fields()).thenReturn(set(F1));
     when(variables.getType(C1)).thenReturn(bigint());
+    when(variables.getType(0)).thenReturn(bigint());
     when(record.getFieldValue(F1)).thenReturn("2017-01-02T00:00:02");
     StringToLongCodec codec =
         spy(
@@ -298,12 +511,13 @@ class DefaultRecordMapperTest {
             true,
             true,
             true,
+            false,
             (mappedRecord, statement) -> boundStatement);
     Statement result = mapper.map(record);
     assertThat(result).isSameAs(boundStatement);
     verify(boundStatement)
         .setBytesUnsafe(
-            C1,
+            0,
             TypeCodec.bigint().serialize(Instant.parse("2017-01-02T00:00:02Z").toEpochMilli(), V4));
   }
 
@@ -311,6 +525,7 @@ class DefaultRecordMapperTest {
   void should_bind_mapped_alphanumeric_timestamp_with_custom_pattern() {
     when(record.fields()).thenReturn(set(F1));
     when(variables.getType(C1)).thenReturn(bigint());
+    when(variables.getType(0)).thenReturn(bigint());
     when(record.getFieldValue(F1)).thenReturn("20171123-123456");
     TemporalFormat timestampFormat =
         new ZonedTemporalFormat(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"), UTC);
@@ -339,12 +554,13 @@ class DefaultRecordMapperTest {
             true,
             true,
             true,
+            false,
             (mappedRecord, statement) -> boundStatement);
     Statement result = mapper.map(record);
     assertThat(result).isSameAs(boundStatement);
     verify(boundStatement)
         .setBytesUnsafe(
-            C1,
+            0,
             TypeCodec.bigint().serialize(Instant.parse("2017-11-23T12:34:56Z").toEpochMilli(), V4));
   }
 
@@ -362,13 +578,13 @@ class DefaultRecordMapperTest {
             true,
             true,
             false,
+            false,
             (mappedRecord, statement) -> boundStatement);
     Statement result = mapper.map(record);
     assertThat(result).isSameAs(boundStatement);
-    verify(boundStatement, times(2))
-        .setBytesUnsafe(variableCaptor.capture(), valueCaptor.capture());
-    assertParameter(0, C1, TypeCodec.cint().serialize(42, V4));
-    assertParameter(1, C3, TypeCodec.varchar().serialize("foo", V4));
+    verify(boundStatement, times(2)).setBytesUnsafe(indexCaptor.capture(), valueCaptor.capture());
+    assertParameter(0, 0, TypeCodec.cint().serialize(42, V4));
+    assertParameter(1, 2, TypeCodec.varchar().serialize("foo", V4));
   }
 
   @Test
@@ -385,11 +601,12 @@ class DefaultRecordMapperTest {
             false,
             true,
             true,
+            false,
             (mappedRecord, statement) -> boundStatement);
     Statement result = mapper.map(record);
     assertThat(result).isSameAs(boundStatement);
-    verify(boundStatement).setBytesUnsafe(variableCaptor.capture(), valueCaptor.capture());
-    assertParameter(0, C1, null);
+    verify(boundStatement).setBytesUnsafe(indexCaptor.capture(), valueCaptor.capture());
+    assertParameter(0, 0, null);
   }
 
   @Test
@@ -407,16 +624,16 @@ class DefaultRecordMapperTest {
             false,
             true,
             false,
+            false,
             (mappedRecord, statement) -> boundStatement);
     Statement result = mapper.map(record);
     assertThat(result).isNotSameAs(boundStatement).isInstanceOf(UnmappableStatement.class);
     assertThat(((UnmappableStatement) result).getSource()).isEqualTo(record);
     assertThat(((UnmappableStatement) result).getLocation().toString())
         .isEqualTo(location.toString() + "&field=field3&My+Fancy+Column+Name=foo&cqlType=varchar");
-    verify(boundStatement, times(2))
-        .setBytesUnsafe(variableCaptor.capture(), valueCaptor.capture());
-    assertParameter(0, C1, TypeCodec.cint().serialize(42, V4));
-    assertParameter(1, C2, TypeCodec.bigint().serialize(4242L, V4));
+    verify(boundStatement, times(2)).setBytesUnsafe(indexCaptor.capture(), valueCaptor.capture());
+    assertParameter(0, 0, TypeCodec.cint().serialize(42, V4));
+    assertParameter(1, 1, TypeCodec.bigint().serialize(4242L, V4));
   }
 
   @Test
@@ -433,6 +650,7 @@ class DefaultRecordMapperTest {
             false,
             true,
             false,
+            false,
             (mappedRecord, statement) -> boundStatement);
     Statement result = mapper.map(record);
     assertThat(result).isNotSameAs(boundStatement).isInstanceOf(UnmappableStatement.class);
@@ -458,6 +676,7 @@ class DefaultRecordMapperTest {
             false,
             true,
             false,
+            false,
             (mappedRecord, statement) -> boundStatement);
     Statement result = mapper.map(record);
     assertThat(result).isNotSameAs(boundStatement).isInstanceOf(UnmappableStatement.class);
@@ -481,6 +700,7 @@ class DefaultRecordMapperTest {
             false,
             false,
             false,
+            false,
             (mappedRecord, statement) -> boundStatement);
     Statement result = mapper.map(record);
     assertThat(result).isNotSameAs(boundStatement).isInstanceOf(UnmappableStatement.class);
@@ -506,6 +726,7 @@ class DefaultRecordMapperTest {
             false,
             true,
             false,
+            false,
             (mappedRecord, statement) -> boundStatement);
     Statement result = mapper.map(record);
     assertThat(result).isNotSameAs(boundStatement).isInstanceOf(UnmappableStatement.class);
@@ -518,9 +739,8 @@ class DefaultRecordMapperTest {
                 + "or set schema.allowMissingFields to true.");
   }
 
-  private void assertParameter(int index, String expectedVariable, ByteBuffer expectedValue) {
-    assertThat(variableCaptor.getAllValues().get(index))
-        .isEqualTo(Metadata.quoteIfNecessary(expectedVariable));
+  private void assertParameter(int index, int expectedVariableIndex, ByteBuffer expectedValue) {
+    assertThat(indexCaptor.getAllValues().get(index)).isEqualTo(expectedVariableIndex);
     assertThat(valueCaptor.getAllValues().get(index)).isEqualTo(expectedValue);
   }
 
@@ -0,0 +1,101 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.schema;
+
+import static com.datastax.driver.core.ProtocolVersion.V4;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.driver.core.exceptions.InvalidTypeException;
+import com.datastax.driver.extras.codecs.jdk8.InstantCodec;
+import com.datastax.driver.extras.codecs.jdk8.LocalTimeCodec;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class FixedLengthSerializerTest {
+
+  @Test
+  void should_serialize_like_driver_codecs() {
+    ByteBuffer slab = ByteBuffer.allocate(256);
+    assertSerialized(TypeCodec.cint(), -42, slab);
+    assertSerialized(TypeCodec.bigint(), Long.MIN_VALUE, slab);
+    assertSerialized(TypeCodec.counter(), 42L, slab);
+    assertSerialized(TypeCodec.smallInt(), (short) -3, slab);
+    assertSerialized(TypeCodec.tinyInt(), (byte) 7, slab);
+    assertSerialized(TypeCodec.cfloat(), 1.5f, slab);
+    assertSerialized(TypeCodec.cdouble(), -2.25d, slab);
+    assertSerialized(TypeCodec.cboolean(), true, slab);
+    assertSerialized(TypeCodec.cboolean(), false, slab);
+    assertSerialized(TypeCodec.uuid(), UUID.randomUUID(), slab);
+    assertSerialized(
+        TypeCodec.timeUUID(), UUID.fromString("fe2b4360-28c6-11e2-81c1-0800200c9a66"), slab);
+    assertSerialized(InstantCodec.instance, Instant.parse("2018-03-12T10:15:30.123Z"), slab);
+    assertSerialized(LocalTimeCodec.instance, LocalTime.parse("12:34:56.123456789"), slab);
+  }
+
+  @Test
+  void should_serialize_plain_integers_like_driver_codecs() {
+    ByteBuffer slab = ByteBuffer.allocate(64);
+    assertThat(FixedLengthSerializer.forCodec(TypeCodec.cint()).serializePlainInteger(-42, slab))
+        .isEqualTo(TypeCodec.cint().serialize(-42, V4));
+    assertThat(
+            FixedLengthSerializer.forCodec(TypeCodec.bigint())
+                .serializePlainInteger(Long.MIN_VALUE, slab))
+        .isEqualTo(TypeCodec.bigint().serialize(Long.MIN_VALUE, V4));
+    assertThat(FixedLengthSerializer.forCodec(TypeCodec.smallInt()).serializePlainInteger(-3, slab))
+        .isEqualTo(TypeCodec.smallInt().serialize((short) -3, V4));
+    assertThat(FixedLengthSerializer.forCodec(TypeCodec.tinyInt()).serializePlainInteger(7, slab))
+        .isEqualTo(TypeCodec.tinyInt().serialize((byte) 7, V4));
+    assertThat(slab.position()).isEqualTo(15);
+    assertThatThrownBy(
+            () ->
+                FixedLengthSerializer.forCodec(TypeCodec.cdouble()).serializePlainInteger(1, slab))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  void should_reject_timeuuids_that_are_not_time_based() {
+    ByteBuffer slab = ByteBuffer.allocate(16);
+    UUID uuid = UUID.fromString("a15341ec-ebef-4eab-b91d-ff16bf801a79");
+    assertThatThrownBy(
+            () -> FixedLengthSerializer.forCodec(TypeCodec.timeUUID()).serialize(uuid, slab))
+        .isInstanceOf(InvalidTypeException.class)
+        .hasMessage("a15341ec-ebef-4eab-b91d-ff16bf801a79 is not a Type 1 (time-based) UUID");
+    assertThat(slab.position()).isZero();
+    assertSerialized(TypeCodec.uuid(), uuid, slab);
+  }
+
+  @Test
+  void should_not_serialize_other_codecs() {
+    assertThat(FixedLengthSerializer.forCodec(TypeCodec.varchar())).isNull();
+    assertThat(FixedLengthSerializer.forCodec(TypeCodec.timestamp())).isNull();
+    assertThat(FixedLengthSerializer.forCodec(TypeCodec.date())).isNull();
+    assertThat(FixedLengthSerializer.maxLength(DataType.varchar())).isZero();
+    assertThat(FixedLengthSerializer.maxLength(DataType.uuid())).isEqualTo(16);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void assertSerialized(TypeCodec<?> codec, Object value, ByteBuffer slab) {
+    FixedLengthSerializer serializer = FixedLengthSerializer.forCodec(codec);
+    assertThat(serializer).isNotNull();
+    int position = slab.position();
+    ByteBuffer expected = ((TypeCodec<Object>) codec).serialize(value, V4);
+    ByteBuffer actual = serializer.serialize(value, slab);
+    assertThat(actual).isEqualTo(expected);
+    assertThat(actual.remaining())
+        .isEqualTo(FixedLengthSerializer.maxLength(codec.getCqlType()))
+        .isEqualTo(slab.position() - position);
+    assertThat(((TypeCodec<Object>) codec).deserialize(actual, V4)).isEqualTo(value);
+  }
+}
@@ -24,8 +24,11 @@ import com.datastax.dsbulk.commons.config.BulkConfigurationException;
 import com.datastax.dsbulk.commons.config.LoaderConfig;
 import com.datastax.dsbulk.commons.internal.config.DefaultLoaderConfig;
 import com.datastax.dsbulk.commons.tests.utils.ReflectionUtils;
+import com.datastax.dsbulk.engine.internal.statement.ExternalStatementSorter;
+import com.datastax.dsbulk.executor.reactor.batch.ReactorSortedStatementBatcher;
 import com.datastax.dsbulk.executor.reactor.batch.ReactorStatementBatcher;
 import com.typesafe.config.ConfigFactory;
+import java.nio.file.Paths;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -114,4 +117,46 @@ class BatchSettingsTest {
         },
         "batch.bufferSize (5) must be greater than or equal to buffer.maxBatchSize (10). See settings.md for more information.");
   }
+
+  @Test
+  void should_create_sorter_when_sorting_enabled() {
+    LoaderConfig config =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    "sort.enabled = true, sort.maxBufferedStatements = 1000, "
+                        + "sort.maxMergeFanIn = 16")
+                .withFallback(ConfigFactory.load().getConfig("dsbulk.batch")));
+    BatchSettings settings = new BatchSettings(config);
+    settings.init();
+    assertThat(settings.isSortingEnabled()).isTrue();
+    ExternalStatementSorter sorter = settings.newStatementSorter(cluster, Paths.get("."));
+    assertThat(ReflectionUtils.getInternalState(sorter, "maxBufferedStatements")).isEqualTo(1000);
+    assertThat(ReflectionUtils.getInternalState(sorter, "maxMergeFanIn")).isEqualTo(16);
+    ReactorSortedStatementBatcher batcher = settings.newSortedStatementBatcher(cluster);
+    assertThat(ReflectionUtils.getInternalState(batcher, "batchMode")).isEqualTo(PARTITION_KEY);
+    assertThat(ReflectionUtils.getInternalState(batcher, "maxBatchSize")).isEqualTo(32);
+  }
+
+  @Test
+  void should_throw_exception_when_merge_fan_in_less_than_2() {
+    LoaderConfig config =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString("sort.enabled = true, sort.maxMergeFanIn = 1")
+                .withFallback(ConfigFactory.load().getConfig("dsbulk.batch")));
+    BatchSettings settings = new BatchSettings(config);
+    BulkConfigurationException e = assertThrows(BulkConfigurationException.class, settings::init);
+    assertThat(e)
+        .hasMessageContaining("batch.sort.maxMergeFanIn (1) must be greater than or equal to 2");
+  }
+
+  @Test
+  void should_not_enable_sorting_when_batching_disabled() {
+    LoaderConfig config =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString("enabled = false, sort.enabled = true")
+                .withFallback(ConfigFactory.load().getConfig("dsbulk.batch")));
+    BatchSettings settings = new BatchSettings(config);
+    settings.init();
+    assertThat(settings.isSortingEnabled()).isFalse();
+  }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.settings;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.dsbulk.commons.config.BulkConfigurationException;
+import com.datastax.dsbulk.commons.config.LoaderConfig;
+import com.datastax.dsbulk.commons.internal.config.DefaultLoaderConfig;
+import com.typesafe.config.ConfigFactory;
+import org.junit.jupiter.api.Test;
+
+class CopySettingsTest {
+
+  @Test
+  void should_write_to_source_cluster_and_table_by_default() {
+    LoaderConfig config = new DefaultLoaderConfig(ConfigFactory.load().getConfig("dsbulk.copy"));
+    CopySettings settings = new CopySettings(config);
+    settings.init();
+    assertThat(settings.hasTargetCluster()).isFalse();
+    assertThat(settings.getKeyspace()).isNull();
+    assertThat(settings.getTable()).isNull();
+  }
+
+  @Test
+  void should_create_custom_target() {
+    LoaderConfig config =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    "hosts = [\"10.0.0.1\"], port = 9043, keyspace = ks2, table = t2")
+                .withFallback(ConfigFactory.load().getConfig("dsbulk.copy")));
+    CopySettings settings = new CopySettings(config);
+    settings.init();
+    assertThat(settings.hasTargetCluster()).isTrue();
+    assertThat(settings.getKeyspace()).isEqualTo("ks2");
+    assertThat(settings.getTable()).isEqualTo("t2");
+  }
+
+  @Test
+  void should_throw_exception_when_port_not_a_number() {
+    LoaderConfig config =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString("port = NotANumber")
+                .withFallback(ConfigFactory.load().getConfig("dsbulk.copy")));
+    CopySettings settings = new CopySettings(config);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(BulkConfigurationException.class)
+        .hasMessageContaining("copy.port");
+  }
+}
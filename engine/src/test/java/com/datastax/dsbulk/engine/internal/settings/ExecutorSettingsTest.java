@@ -9,6 +9,7 @@
 package com.datastax.dsbulk.engine.internal.settings;
 
 import static com.datastax.dsbulk.commons.tests.assertions.CommonsAssertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -16,20 +17,27 @@ import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.Configuration;
 import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.ContinuousPagingSession;
+import com.datastax.driver.core.Metadata;
 import com.datastax.driver.core.ProtocolOptions;
 import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.QueryOptions;
 import com.datastax.driver.core.Session;
+import com.datastax.dsbulk.commons.config.BulkConfigurationException;
 import com.datastax.dsbulk.commons.config.LoaderConfig;
 import com.datastax.dsbulk.commons.internal.config.DefaultLoaderConfig;
 import com.datastax.dsbulk.commons.tests.logging.LogCapture;
 import com.datastax.dsbulk.commons.tests.logging.LogInterceptingExtension;
 import com.datastax.dsbulk.commons.tests.logging.LogInterceptor;
+import com.datastax.dsbulk.commons.tests.utils.ReflectionUtils;
+import com.datastax.dsbulk.executor.api.internal.concurrency.AdaptiveConcurrencyLimiter;
 import com.datastax.dsbulk.executor.api.reader.ReactiveBulkReader;
 import com.datastax.dsbulk.executor.api.writer.ReactiveBulkWriter;
 import com.datastax.dsbulk.executor.reactor.ContinuousReactorBulkExecutor;
 import com.datastax.dsbulk.executor.reactor.DefaultReactorBulkExecutor;
+import com.datastax.dsbulk.executor.reactor.writer.ReplicaAwareWriteScheduler;
 import com.typesafe.config.ConfigFactory;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -49,6 +57,7 @@ class ExecutorSettingsTest {
     Cluster cluster = mock(Cluster.class);
     when(session.getCluster()).thenReturn(cluster);
     when(dseSession.getCluster()).thenReturn(cluster);
+    when(cluster.getMetadata()).thenReturn(mock(Metadata.class));
     Configuration configuration = mock(Configuration.class);
     when(cluster.getConfiguration()).thenReturn(configuration);
     ProtocolOptions protocolOptions = mock(ProtocolOptions.class);
@@ -119,4 +128,49 @@ class ExecutorSettingsTest {
     ReactiveBulkReader executor = settings.newReadExecutor(session, null);
     assertThat(executor).isNotNull().isInstanceOf(DefaultReactorBulkExecutor.class);
   }
+
+  @Test
+  void should_create_executor_with_adaptive_concurrency() {
+    LoaderConfig config =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    "adaptiveConcurrency.enabled = true, adaptiveConcurrency.minInFlight = 8")
+                .withFallback(ConfigFactory.load().getConfig("dsbulk.executor")));
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    ReactiveBulkWriter executor = settings.newWriteExecutor(session, null);
+    @SuppressWarnings("unchecked")
+    Optional<Semaphore> permits =
+        (Optional<Semaphore>) ReflectionUtils.getInternalState(executor, "requestPermits");
+    assertThat(permits).containsInstanceOf(AdaptiveConcurrencyLimiter.class);
+    assertThat(((AdaptiveConcurrencyLimiter) permits.get()).getLimit()).isEqualTo(8);
+  }
+
+  @Test
+  void should_create_executor_with_replica_aware_writes() {
+    LoaderConfig config =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString("replicaAware.enabled = true")
+                .withFallback(ConfigFactory.load().getConfig("dsbulk.executor")));
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    assertThat(settings.isReplicaAwareEnabled()).isTrue();
+    ReactiveBulkWriter executor = settings.newWriteExecutor(session, null);
+    assertThat(ReflectionUtils.getInternalState(executor, "writeScheduler"))
+        .isInstanceOf(ReplicaAwareWriteScheduler.class);
+  }
+
+  @Test
+  void should_throw_exception_when_maxInFlightPerHost_not_positive() {
+    LoaderConfig config =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    "replicaAware.enabled = true, replicaAware.maxInFlightPerHost = 0")
+                .withFallback(ConfigFactory.load().getConfig("dsbulk.executor")));
+    ExecutorSettings settings = new ExecutorSettings(config);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(BulkConfigurationException.class)
+        .hasMessage(
+            "executor.replicaAware.maxInFlightPerHost (0) must be greater than zero. See settings.md for more information.");
+  }
 }
@@ -31,6 +31,7 @@ import com.datastax.driver.core.CodecRegistry;
 import com.datastax.driver.core.Configuration;
 import com.datastax.driver.core.ProtocolOptions;
 import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.dsbulk.commons.config.BulkConfigurationException;
 import com.datastax.dsbulk.commons.config.LoaderConfig;
 import com.datastax.dsbulk.commons.internal.config.DefaultLoaderConfig;
 import com.datastax.dsbulk.commons.internal.platform.PlatformUtils;
@@ -135,6 +136,38 @@ class LogSettingsTest {
             "maxErrors must either be a number, or percentage between 0 and 100 exclusive.");
   }
 
+  @Test
+  void should_enable_checkpoint_when_resuming_from_operation_directory() throws Exception {
+    Path previous = Files.createDirectory(tempFolder.resolve("previous"));
+    Files.createFile(previous.resolve("checkpoint.txt"));
+    LoaderConfig config =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    "directory = \""
+                        + escapeUserInput(tempFolder)
+                        + "\", checkpoint.resumeFrom = \""
+                        + escapeUserInput(previous)
+                        + "\"")
+                .withFallback(ConfigFactory.load().getConfig("dsbulk.log")));
+    LogSettings settings = new LogSettings(config, "test");
+    settings.init(false);
+    assertThat(settings.isCheckpointEnabled()).isTrue();
+  }
+
+  @Test
+  void should_error_when_checkpoint_to_resume_does_not_exist() {
+    Path checkpoint = tempFolder.resolve("checkpoint.txt");
+    LoaderConfig config =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString(
+                    "checkpoint.resumeFrom = \"" + escapeUserInput(checkpoint) + "\"")
+                .withFallback(ConfigFactory.load().getConfig("dsbulk.log")));
+    LogSettings settings = new LogSettings(config, "test");
+    assertThatThrownBy(() -> settings.init(false))
+        .isInstanceOf(BulkConfigurationException.class)
+        .hasMessage("Checkpoint file %s does not exist", checkpoint);
+  }
+
   @Test
   void should_create_log_manager_when_output_directory_path_provided() throws Exception {
     LoaderConfig config =
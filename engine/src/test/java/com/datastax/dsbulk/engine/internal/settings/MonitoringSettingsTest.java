@@ -13,10 +13,12 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.codahale.metrics.MetricRegistry;
 import com.datastax.driver.core.CodecRegistry;
 import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.dsbulk.commons.config.BulkConfigurationException;
 import com.datastax.dsbulk.commons.config.LoaderConfig;
 import com.datastax.dsbulk.commons.internal.config.DefaultLoaderConfig;
 import com.datastax.dsbulk.commons.tests.utils.ReflectionUtils;
@@ -72,7 +74,10 @@ class MonitoringSettingsTest {
                     + "expectedWrites = 1000, "
                     + "expectedReads = 50,"
                     + "jmx = false,"
-                    + "csv = true"));
+                    + "csv = true,"
+                    + "rowSamplingInterval = 10,"
+                    + "trackHosts = true,"
+                    + "trackRanges = true"));
     MonitoringSettings settings = new MonitoringSettings(config, "test");
     settings.init();
     MetricsManager metricsManager =
@@ -95,5 +100,22 @@ class MonitoringSettingsTest {
     assertThat(ReflectionUtils.getInternalState(metricsManager, "csv")).isEqualTo(true);
     assertThat(ReflectionUtils.getInternalState(metricsManager, "executionDirectory"))
         .isEqualTo(tmpPath);
+    Object listener = ReflectionUtils.getInternalState(metricsManager, "listener");
+    assertThat(ReflectionUtils.getInternalState(listener, "rowSamplingInterval")).isEqualTo(10);
+    assertThat(ReflectionUtils.getInternalState(listener, "trackHosts")).isEqualTo(true);
+    assertThat(ReflectionUtils.getInternalState(listener, "trackRanges")).isEqualTo(true);
+  }
+
+  @Test
+  void should_error_when_row_sampling_interval_is_not_positive() {
+    LoaderConfig config =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString("rowSamplingInterval = 0")
+                .withFallback(ConfigFactory.load().getConfig("dsbulk.monitoring")));
+    MonitoringSettings settings = new MonitoringSettings(config, "test");
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(BulkConfigurationException.class)
+        .hasMessage(
+            "monitoring.rowSamplingInterval (0) must be greater than zero. See settings.md for more information.");
   }
 }
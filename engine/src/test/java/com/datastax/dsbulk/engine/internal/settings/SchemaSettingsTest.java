@@ -24,18 +24,24 @@ import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.CodecRegistry;
 import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.ColumnMetadata;
+import com.datastax.driver.core.Configuration;
+import com.datastax.driver.core.Host;
 import com.datastax.driver.core.KeyspaceMetadata;
 import com.datastax.driver.core.Metadata;
 import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ProtocolOptions;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.StatementWrapper;
@@ -55,6 +61,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.reflect.TypeToken;
 import com.typesafe.config.ConfigFactory;
+import java.net.InetSocketAddress;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.HashMap;
@@ -149,7 +156,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     RecordMapper recordMapper =
-        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(recordMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -174,7 +181,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     RecordMapper recordMapper =
-        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(recordMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -214,7 +221,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     RecordMapper recordMapper =
-        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(recordMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -246,7 +253,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     RecordMapper recordMapper =
-        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(recordMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -264,7 +271,7 @@ class SchemaSettingsTest {
                 + "keyspace=ks, table=t1, queryTtl=30");
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
-    schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+    schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
     assertThat(argument.getValue())
@@ -281,7 +288,7 @@ class SchemaSettingsTest {
                 + "keyspace=ks, table=t1, queryTimestamp=\"2017-01-02T00:00:01Z\"");
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
-    schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+    schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
     assertThat(argument.getValue())
@@ -301,7 +308,7 @@ class SchemaSettingsTest {
                 + "keyspace=ks, table=t1, queryTimestamp=\"2017-01-02T00:00:01Z\", queryTtl=25");
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
-    schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+    schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
     assertThat(argument.getValue())
@@ -327,7 +334,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     RecordMapper recordMapper =
-        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(recordMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -351,7 +358,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     RecordMapper recordMapper =
-        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(recordMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -379,7 +386,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     RecordMapper recordMapper =
-        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(recordMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -401,7 +408,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     RecordMapper recordMapper =
-        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(recordMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -424,7 +431,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     RecordMapper recordMapper =
-        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(recordMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -454,7 +461,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     RecordMapper recordMapper =
-        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(recordMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -475,7 +482,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     RecordMapper recordMapper =
-        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(recordMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -492,7 +499,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     RecordMapper recordMapper =
-        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(recordMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -515,7 +522,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -542,7 +549,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -569,7 +576,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -598,7 +605,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -624,7 +631,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -645,7 +652,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -665,7 +672,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -683,7 +690,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -702,7 +709,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     RecordMapper mapper =
-        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     DefaultMapping mapping = (DefaultMapping) ReflectionUtils.getInternalState(mapper, "mapping");
     assertThat(mapping).isNotNull();
     assertThat(ReflectionUtils.getInternalState(mapping, "writeTimeVariable"))
@@ -724,7 +731,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     RecordMapper mapper =
-        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     DefaultMapping mapping = (DefaultMapping) ReflectionUtils.getInternalState(mapper, "mapping");
     assertThat(mapping).isNotNull();
     assertThat(ReflectionUtils.getInternalState(mapping, "writeTimeVariable")).isEqualTo("c3");
@@ -744,7 +751,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     RecordMapper mapper =
-        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false);
+        schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false, false);
     DefaultMapping mapping = (DefaultMapping) ReflectionUtils.getInternalState(mapper, "mapping");
     assertThat(mapping).isNotNull();
     assertThat(ReflectionUtils.getInternalState(mapping, "writeTimeVariable"))
@@ -759,7 +766,7 @@ class SchemaSettingsTest {
     LoaderConfig config = makeLoaderConfig("query = \"SELECT a,b,c FROM table1\"");
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false, false);
     List<Statement> statements = schemaSettings.createReadStatements(cluster);
     assertThat(statements).hasSize(1).containsExactly(bs);
   }
@@ -787,7 +794,7 @@ class SchemaSettingsTest {
             "keyspace = ks1, query = \"SELECT a,b,c FROM table1 WHERE token(a) > :start and token(a) <= :end \"");
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false, false);
     List<Statement> statements = schemaSettings.createReadStatements(cluster);
     assertThat(statements)
         .hasSize(3)
@@ -826,6 +833,137 @@ class SchemaSettingsTest {
             });
   }
 
+  @Test
+  void should_split_token_ranges_when_splits_provided() {
+    ColumnDefinitions definitions =
+        newColumnDefinitions(newDefinition("start", bigint()), newDefinition("end", bigint()));
+    when(ps.getVariables()).thenReturn(definitions);
+    BoundStatement bs = mock(BoundStatement.class);
+    when(bs.setToken(anyString(), any(Token.class))).thenReturn(bs);
+    when(ps.bind()).thenReturn(bs);
+    LoaderConfig config =
+        makeLoaderConfig(
+            "keyspace = ks1, splits = 6, query = \"SELECT a,b,c FROM table1 WHERE token(a) > :start and token(a) <= :end \"");
+    SchemaSettings schemaSettings = new SchemaSettings(config);
+    schemaSettings.init();
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false, false);
+    List<Statement> statements = schemaSettings.createReadStatements(cluster);
+    assertThat(statements).hasSize(6);
+    assertThat(statements.stream().map(Statement::getRoutingToken).distinct()).hasSize(6);
+    assertThat(statements.stream().map(Statement::getRoutingToken))
+        .contains(token1, token2, token3);
+  }
+
+  @Test
+  void should_coalesce_token_ranges_sharing_replicas_when_splits_provided() {
+    ColumnDefinitions definitions =
+        newColumnDefinitions(newDefinition("start", bigint()), newDefinition("end", bigint()));
+    when(ps.getVariables()).thenReturn(definitions);
+    BoundStatement bs = mock(BoundStatement.class);
+    when(bs.setToken(anyString(), any(Token.class))).thenReturn(bs);
+    when(ps.bind()).thenReturn(bs);
+    Host host1 = mock(Host.class);
+    Host host2 = mock(Host.class);
+    when(metadata.getReplicas(eq("ks"), any(TokenRange.class)))
+        .thenAnswer(
+            invocation -> {
+              TokenRange range = invocation.getArgument(1);
+              return range.getStart().equals(token3)
+                  ? Collections.singleton(host2)
+                  : Collections.singleton(host1);
+            });
+    LoaderConfig config =
+        makeLoaderConfig(
+            "keyspace = ks1, splits = 2, query = \"SELECT a,b,c FROM table1 WHERE token(a) > :start and token(a) <= :end \"");
+    SchemaSettings schemaSettings = new SchemaSettings(config);
+    schemaSettings.init();
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false, false);
+    List<Statement> statements = schemaSettings.createReadStatements(cluster);
+    assertThat(statements).extracting(Statement::getRoutingToken).containsExactly(token3, token1);
+    verify(bs).setToken("start", token1);
+    verify(bs).setToken("end", token3);
+    verify(bs).setToken("start", token3);
+    verify(bs).setToken("end", token1);
+  }
+
+  @Test
+  void should_reject_copy_to_source_table() {
+    LoaderConfig config = makeLoaderConfig("keyspace=ks, table=t");
+    SchemaSettings schemaSettings = new SchemaSettings(config);
+    schemaSettings.init();
+    assertThatThrownBy(
+            () ->
+                schemaSettings.createReadResultCopier(session, session, null, null, codecRegistry))
+        .isInstanceOf(BulkConfigurationException.class)
+        .hasMessageStartingWith("Target table ks.t is the source table");
+    assertThatThrownBy(
+            () -> schemaSettings.createReadResultCopier(session, session, "ks", "t", codecRegistry))
+        .isInstanceOf(BulkConfigurationException.class)
+        .hasMessageStartingWith("Target table ks.t is the source table");
+  }
+
+  @Test
+  void should_reject_copy_to_source_table_through_other_contact_points() {
+    Host host1 = mock(Host.class);
+    Host host2 = mock(Host.class);
+    when(host1.getSocketAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 9042));
+    when(host2.getSocketAddress()).thenReturn(new InetSocketAddress("127.0.0.2", 9042));
+    when(metadata.getAllHosts()).thenReturn(Sets.newHashSet(host1, host2));
+    Session targetSession = mockTargetSession(host2);
+    LoaderConfig config = makeLoaderConfig("keyspace=ks, table=t");
+    SchemaSettings schemaSettings = new SchemaSettings(config);
+    schemaSettings.init();
+    assertThatThrownBy(
+            () ->
+                schemaSettings.createReadResultCopier(
+                    session, targetSession, null, null, codecRegistry))
+        .isInstanceOf(BulkConfigurationException.class)
+        .hasMessageStartingWith("Target table ks.t is the source table");
+  }
+
+  @Test
+  void should_create_read_result_copier_when_target_differs_from_source() {
+    Host host1 = mock(Host.class);
+    Host host2 = mock(Host.class);
+    when(host1.getSocketAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 9042));
+    when(host2.getSocketAddress()).thenReturn(new InetSocketAddress("127.0.0.2", 9042));
+    when(metadata.getAllHosts()).thenReturn(Collections.singleton(host1));
+    Configuration configuration = mock(Configuration.class);
+    ProtocolOptions protocolOptions = mock(ProtocolOptions.class);
+    when(cluster.getConfiguration()).thenReturn(configuration);
+    when(configuration.getProtocolOptions()).thenReturn(protocolOptions);
+    when(protocolOptions.getProtocolVersion()).thenReturn(V4);
+    when(configuration.getCodecRegistry()).thenReturn(CodecRegistry.DEFAULT_INSTANCE);
+    when(table.getColumn(Metadata.quote(C1))).thenReturn(col1);
+    when(table.getColumn(Metadata.quote(C2))).thenReturn(col2);
+    when(table.getColumn(Metadata.quote(C3))).thenReturn(col3);
+    LoaderConfig config = makeLoaderConfig("keyspace=ks, table=t");
+    SchemaSettings schemaSettings = new SchemaSettings(config);
+    schemaSettings.init();
+    // same cluster, other table
+    assertThat(schemaSettings.createReadResultCopier(session, session, null, "t2", codecRegistry))
+        .isNotNull();
+    // same table, other cluster
+    Session targetSession = mockTargetSession(host2);
+    assertThat(
+            schemaSettings.createReadResultCopier(
+                session, targetSession, null, null, codecRegistry))
+        .isNotNull();
+  }
+
+  @NotNull
+  private Session mockTargetSession(Host host) {
+    Session targetSession = mock(Session.class);
+    Cluster targetCluster = mock(Cluster.class);
+    Metadata targetMetadata = mock(Metadata.class);
+    when(targetSession.getCluster()).thenReturn(targetCluster);
+    when(targetCluster.getMetadata()).thenReturn(targetMetadata);
+    when(targetMetadata.getAllHosts()).thenReturn(Collections.singleton(host));
+    when(targetMetadata.getKeyspace(anyString())).thenReturn(keyspace);
+    when(targetSession.prepare(anyString())).thenReturn(ps);
+    return targetSession;
+  }
+
   @Test
   void should_throw_configuration_exception_when_read_statement_variables_not_recognized() {
     ColumnDefinitions definitions =
@@ -836,7 +974,7 @@ class SchemaSettingsTest {
             "keyspace = ks1, query = \"SELECT a,b,c FROM table1 WHERE token(a) > :foo and token(a) <= :bar \"");
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false, false);
     assertThatThrownBy(() -> schemaSettings.createReadStatements(cluster))
         .isInstanceOf(BulkConfigurationException.class)
         .hasMessage(
@@ -851,7 +989,7 @@ class SchemaSettingsTest {
     LoaderConfig config = makeLoaderConfig("keyspace = ks, table = t1, mapping = \"c3, c1\" ");
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecRegistry, false, false);
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
     assertThat(argument.getValue()).startsWith("SELECT c3,c1 FROM");
@@ -865,7 +1003,9 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     assertThatThrownBy(
-            () -> schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false))
+            () ->
+                schemaSettings.createRecordMapper(
+                    session, recordMetadata, codecRegistry, false, false))
         .isInstanceOf(IllegalArgumentException.class)
         .hasMessage(
             "Keyspace \"MyKs\" does not exist, however a keyspace myks was found. Did you mean to use -k myks?");
@@ -879,7 +1019,9 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     assertThatThrownBy(
-            () -> schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false))
+            () ->
+                schemaSettings.createRecordMapper(
+                    session, recordMetadata, codecRegistry, false, false))
         .isInstanceOf(IllegalArgumentException.class)
         .hasMessage(
             "Table \"MyTable\" does not exist, however a table mytable was found. Did you mean to use -t mytable?");
@@ -893,7 +1035,9 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     assertThatThrownBy(
-            () -> schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false))
+            () ->
+                schemaSettings.createRecordMapper(
+                    session, recordMetadata, codecRegistry, false, false))
         .isInstanceOf(IllegalArgumentException.class)
         .hasMessage("Keyspace \"MyKs\" does not exist");
   }
@@ -906,7 +1050,9 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     assertThatThrownBy(
-            () -> schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, false))
+            () ->
+                schemaSettings.createRecordMapper(
+                    session, recordMetadata, codecRegistry, false, false))
         .isInstanceOf(IllegalArgumentException.class)
         .hasMessage("Table \"MyTable\" does not exist");
   }
@@ -917,7 +1063,9 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init();
     assertThatThrownBy(
-            () -> schemaSettings.createRecordMapper(session, recordMetadata, codecRegistry, true))
+            () ->
+                schemaSettings.createRecordMapper(
+                    session, recordMetadata, codecRegistry, true, false))
         .isInstanceOf(BulkConfigurationException.class)
         .hasMessageContaining(
             "Schema mapping contains named fields, but connector only supports indexed fields");
@@ -0,0 +1,82 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.settings;
+
+import static com.datastax.dsbulk.engine.internal.settings.StatsSettings.StatisticsMode.global;
+import static com.datastax.dsbulk.engine.internal.settings.StatsSettings.StatisticsMode.hosts;
+import static com.datastax.dsbulk.engine.internal.settings.StatsSettings.StatisticsMode.partitions;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.dsbulk.commons.config.BulkConfigurationException;
+import com.datastax.dsbulk.commons.config.LoaderConfig;
+import com.datastax.dsbulk.commons.internal.config.DefaultLoaderConfig;
+import com.typesafe.config.ConfigFactory;
+import org.junit.jupiter.api.Test;
+
+class StatsSettingsTest {
+
+  @Test
+  void should_count_global_rows_by_default() {
+    LoaderConfig config = new DefaultLoaderConfig(ConfigFactory.load().getConfig("dsbulk.stats"));
+    StatsSettings settings = new StatsSettings(config);
+    settings.init();
+    assertThat(settings.getModes()).containsOnly(global);
+    assertThat(settings.getNumPartitions()).isEqualTo(10);
+  }
+
+  @Test
+  void should_create_custom_modes() {
+    LoaderConfig config =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString("modes = [partitions, hosts], numPartitions = 3")
+                .withFallback(ConfigFactory.load().getConfig("dsbulk.stats")));
+    StatsSettings settings = new StatsSettings(config);
+    settings.init();
+    assertThat(settings.getModes()).containsExactly(hosts, partitions);
+    assertThat(settings.getNumPartitions()).isEqualTo(3);
+  }
+
+  @Test
+  void should_throw_exception_when_modes_empty() {
+    LoaderConfig config =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString("modes = []")
+                .withFallback(ConfigFactory.load().getConfig("dsbulk.stats")));
+    StatsSettings settings = new StatsSettings(config);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(BulkConfigurationException.class)
+        .hasMessage("stats.modes cannot be empty. See settings.md for more information.");
+  }
+
+  @Test
+  void should_throw_exception_when_mode_invalid() {
+    LoaderConfig config =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString("modes = [foo]")
+                .withFallback(ConfigFactory.load().getConfig("dsbulk.stats")));
+    StatsSettings settings = new StatsSettings(config);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(BulkConfigurationException.class)
+        .hasMessageContaining("Expecting one of global, ranges, hosts, partitions, got 'foo'");
+  }
+
+  @Test
+  void should_throw_exception_when_num_partitions_not_positive() {
+    LoaderConfig config =
+        new DefaultLoaderConfig(
+            ConfigFactory.parseString("numPartitions = 0")
+                .withFallback(ConfigFactory.load().getConfig("dsbulk.stats")));
+    StatsSettings settings = new StatsSettings(config);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(BulkConfigurationException.class)
+        .hasMessage(
+            "stats.numPartitions (0) must be greater than zero. See settings.md for more information.");
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.engine.internal.statement;
+
+import static com.datastax.driver.core.DriverCoreEngineTestHooks.newPreparedId;
+import static com.datastax.driver.core.DriverCoreEngineTestHooks.newToken;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.PreparedId;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.dsbulk.connectors.api.Record;
+import com.datastax.dsbulk.connectors.api.internal.DefaultRecord;
+import com.datastax.dsbulk.connectors.api.internal.ResourceRecordLocator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class ExternalStatementSorterTest {
+
+  private static final URI RESOURCE = URI.create("file:///data.csv");
+
+  private final ProtocolVersion version = ProtocolVersion.NEWEST_SUPPORTED;
+  private final CodecRegistry codecRegistry = CodecRegistry.DEFAULT_INSTANCE;
+
+  private PreparedStatement ps;
+  private Path directory;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    ps = mock(PreparedStatement.class);
+    ColumnDefinitions cd = mock(ColumnDefinitions.class);
+    PreparedId pid = newPreparedId(cd, new int[] {0}, version);
+    when(ps.getVariables()).thenReturn(cd);
+    when(ps.getPreparedId()).thenReturn(pid);
+    when(ps.getCodecRegistry()).thenReturn(codecRegistry);
+    when(cd.size()).thenReturn(2);
+    when(cd.getName(0)).thenReturn("pk");
+    when(cd.getName(1)).thenReturn("v");
+    when(cd.getType(0)).thenReturn(DataType.cint());
+    when(cd.getType(1)).thenReturn(DataType.varchar());
+    directory = Files.createTempDirectory("sort");
+  }
+
+  @AfterEach
+  void deleteDirectory() throws IOException {
+    Files.deleteIfExists(directory);
+  }
+
+  @Test
+  void should_sort_statements_in_memory() throws IOException {
+    List<BulkBoundStatement<Record>> statements = newStatements(3, 1, 2, 1, 0);
+    List<Statement> sorted = sort(statements, 100);
+    assertThat(sorted)
+        .containsExactly(
+            statements.get(4),
+            statements.get(1),
+            statements.get(3),
+            statements.get(2),
+            statements.get(0));
+    assertThat(listFiles()).isEmpty();
+  }
+
+  @Test
+  void should_sort_statements_using_temporary_files() throws IOException {
+    List<BulkBoundStatement<Record>> statements = newStatements(5, 3, 6, 0, 4, 1, 2);
+    statements.get(0).setToNull(1);
+    statements.get(1).unset(1);
+    List<Statement> sorted = sort(statements, 2);
+    assertThat(sorted).hasSize(7);
+    assertThat(sorted)
+        .extracting(s -> ((BoundStatement) s).getInt(0))
+        .containsExactly(0, 1, 2, 3, 4, 5, 6);
+    for (Statement statement : sorted) {
+      @SuppressWarnings("unchecked")
+      BulkBoundStatement<Record> bs = (BulkBoundStatement<Record>) statement;
+      int pk = bs.getInt(0);
+      BulkBoundStatement<Record> original =
+          statements.stream().filter(s -> s.getInt(0) == pk).findFirst().orElse(null);
+      assertThat(original).isNotNull();
+      Record record = bs.getSource();
+      assertThat(record.getSource()).isEqualTo(original.getSource().getSource());
+      assertThat(record.getResource()).isEqualTo(RESOURCE);
+      assertThat(record.getPosition()).isEqualTo(original.getSource().getPosition());
+      assertThat(record.getLocation()).isEqualTo(original.getSource().getLocation());
+      assertThat(bs.isSet(1)).isEqualTo(original.isSet(1));
+      if (bs.isSet(1)) {
+        assertThat(bs.getString(1)).isEqualTo(original.getString(1));
+      }
+    }
+    assertThat(((BoundStatement) sorted.get(5)).isSet(1)).isTrue();
+    assertThat(((BoundStatement) sorted.get(5)).isNull(1)).isTrue();
+    assertThat(((BoundStatement) sorted.get(3)).isSet(1)).isFalse();
+    // temporary files are deleted
+    assertThat(listFiles()).isEmpty();
+  }
+
+  @Test
+  void should_merge_temporary_files_in_several_passes() throws IOException {
+    List<BulkBoundStatement<Record>> statements =
+        newStatements(12, 3, 17, 8, 0, 15, 5, 10, 1, 19, 7, 14, 2, 11, 18, 4, 9, 16, 6, 13);
+    ExternalStatementSorter sorter = newSorter(2, 3);
+    List<Integer> openRunFiles = new ArrayList<>();
+    List<Statement> sorted =
+        Flux.fromIterable(statements)
+            .transform(sorter)
+            .doOnNext(
+                statement -> {
+                  if (openRunFiles.isEmpty()) {
+                    try {
+                      openRunFiles.add(listFiles().size());
+                    } catch (IOException e) {
+                      throw new UncheckedIOException(e);
+                    }
+                  }
+                })
+            .collectList()
+            .block();
+    // 10 runs were spilled, but when the final merge starts, at most 3 runs are left
+    assertThat(openRunFiles).hasSize(1);
+    assertThat(openRunFiles.get(0)).isBetween(1, 3);
+    assertThat(sorted)
+        .extracting(s -> ((BoundStatement) s).getInt(0))
+        .containsExactlyElementsOf(IntStream.range(0, 20).boxed().collect(Collectors.toList()));
+    assertThat(sorted)
+        .extracting(s -> ((BulkBoundStatement<?>) s).getSource())
+        .extracting(record -> ((Record) record).getSource())
+        .containsExactlyElementsOf(
+            IntStream.range(0, 20)
+                .mapToObj(
+                    pk ->
+                        statements
+                            .stream()
+                            .filter(s -> s.getInt(0) == pk)
+                            .findFirst()
+                            .map(s -> s.getSource().getSource())
+                            .orElse(null))
+                .collect(Collectors.toList()));
+    assertThat(listFiles()).isEmpty();
+  }
+
+  @Test
+  void should_pass_through_statements_that_cannot_be_sorted() {
+    List<BulkBoundStatement<Record>> statements = newStatements(2, 1);
+    SimpleStatement simple = new SimpleStatement("irrelevant");
+    List<Statement> sorted =
+        sort(
+            Stream.of(statements.get(0), simple, statements.get(1)).collect(Collectors.toList()),
+            100);
+    assertThat(sorted).containsExactly(simple, statements.get(1), statements.get(0));
+  }
+
+  private List<Path> listFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.collect(Collectors.toList());
+    }
+  }
+
+  private List<Statement> sort(List<? extends Statement> statements, int maxBufferedStatements) {
+    ExternalStatementSorter sorter = newSorter(maxBufferedStatements, 64);
+    return Flux.fromIterable(statements).transform(sorter).collectList().block();
+  }
+
+  private ExternalStatementSorter newSorter(int maxBufferedStatements, int maxMergeFanIn) {
+    return new ExternalStatementSorter(
+        routingKey -> newToken(routingKey.getInt(0)),
+        version,
+        codecRegistry,
+        directory,
+        maxBufferedStatements,
+        maxMergeFanIn);
+  }
+
+  private List<BulkBoundStatement<Record>> newStatements(int... keys) {
+    return IntStream.range(0, keys.length)
+        .mapToObj(
+            i -> {
+              int position = i + 1;
+              Record record =
+                  new DefaultRecord(
+                      "line" + position, new ResourceRecordLocator(RESOURCE), position);
+              BulkBoundStatement<Record> statement = new BulkBoundStatement<>(record, ps);
+              statement.setInt(0, keys[i]);
+              statement.setString(1, "v" + keys[i]);
+              return statement;
+            })
+        .collect(Collectors.toList());
+  }
+}
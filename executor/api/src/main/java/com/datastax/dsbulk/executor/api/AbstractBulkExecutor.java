@@ -9,6 +9,8 @@
 package com.datastax.dsbulk.executor.api;
 
 import com.datastax.driver.core.Session;
+import com.datastax.dsbulk.executor.api.internal.concurrency.AdaptiveConcurrencyLimiter;
+import com.datastax.dsbulk.executor.api.listener.CompositeExecutionListener;
 import com.datastax.dsbulk.executor.api.listener.ExecutionListener;
 import com.google.common.util.concurrent.RateLimiter;
 import java.util.Objects;
@@ -36,7 +38,7 @@ public abstract class AbstractBulkExecutor implements BulkExecutor, AutoCloseabl
   protected final Optional<ExecutionListener> listener;
 
   protected AbstractBulkExecutor(Session session) {
-    this(session, true, DEFAULT_MAX_IN_FLIGHT_REQUESTS, DEFAULT_MAX_REQUESTS_PER_SECOND, null);
+    this(session, true, DEFAULT_MAX_IN_FLIGHT_REQUESTS, -1, DEFAULT_MAX_REQUESTS_PER_SECOND, null);
   }
 
   protected AbstractBulkExecutor(AbstractBulkExecutorBuilder<?> builder) {
@@ -44,6 +46,7 @@ public abstract class AbstractBulkExecutor implements BulkExecutor, AutoCloseabl
         builder.session,
         builder.failFast,
         builder.maxInFlightRequests,
+        builder.minInFlightRequests,
         builder.maxRequestsPerSecond,
         builder.listener);
   }
@@ -52,20 +55,31 @@ public abstract class AbstractBulkExecutor implements BulkExecutor, AutoCloseabl
       Session session,
       boolean failFast,
       int maxInFlightRequests,
+      int minInFlightRequests,
       int maxRequestsPerSecond,
       ExecutionListener listener) {
     Objects.requireNonNull(session, "session cannot be null");
     this.session = session;
     this.failFast = failFast;
-    this.requestPermits =
-        maxInFlightRequests < 0
-            ? Optional.empty()
-            : Optional.of(new Semaphore(maxInFlightRequests));
     this.rateLimiter =
         maxRequestsPerSecond < 0
             ? Optional.empty()
             : Optional.of(RateLimiter.create(maxRequestsPerSecond));
-    this.listener = Optional.ofNullable(listener);
+    if (maxInFlightRequests < 0) {
+      this.requestPermits = Optional.empty();
+      this.listener = Optional.ofNullable(listener);
+    } else if (minInFlightRequests < 0 || maxInFlightRequests == 0) {
+      this.requestPermits = Optional.of(new Semaphore(maxInFlightRequests));
+      this.listener = Optional.ofNullable(listener);
+    } else {
+      AdaptiveConcurrencyLimiter limiter =
+          new AdaptiveConcurrencyLimiter(
+              Math.min(minInFlightRequests, maxInFlightRequests), maxInFlightRequests);
+      this.requestPermits = Optional.of(limiter);
+      this.listener =
+          Optional.of(
+              listener == null ? limiter : new CompositeExecutionListener(limiter, listener));
+    }
   }
 
   @Override
@@ -28,6 +28,8 @@ public abstract class AbstractBulkExecutorBuilder<T extends AbstractBulkExecutor
 
   protected int maxRequestsPerSecond = AbstractBulkExecutor.DEFAULT_MAX_REQUESTS_PER_SECOND;
 
+  protected int minInFlightRequests = -1;
+
   protected ExecutionListener listener;
 
   protected AbstractBulkExecutorBuilder(Session session) {
@@ -79,6 +81,32 @@ public abstract class AbstractBulkExecutorBuilder<T extends AbstractBulkExecutor
     return this;
   }
 
+  /**
+   * Switches on adaptive concurrency.
+   *
+   * <p>By default, the maximum number of "in-flight" requests is fixed. In adaptive mode, it starts
+   * at {@code minInFlightRequests}, then is continuously adjusted, between {@code
+   * minInFlightRequests} and the maximum set with {@link #withMaxInFlightRequests(int)}, based on
+   * observed request latencies and on overload signals (timeouts, overloaded coordinators, busy
+   * connections): it grows as long as the cluster keeps up, and shrinks as soon as latencies build
+   * up or overload signals are received. See {@link
+   * com.datastax.dsbulk.executor.api.internal.concurrency.AdaptiveConcurrencyLimiter} for details.
+   *
+   * <p>Adaptive mode has no effect if the maximum number of in-flight requests is disabled.
+   *
+   * @param minInFlightRequests the minimum number of "in-flight" requests; must be strictly
+   *     positive.
+   * @return this builder (for method chaining).
+   */
+  @SuppressWarnings("UnusedReturnValue")
+  public AbstractBulkExecutorBuilder<T> withAdaptiveInFlightRequests(int minInFlightRequests) {
+    if (minInFlightRequests < 1) {
+      throw new IllegalArgumentException("Minimum in-flight requests must be strictly positive");
+    }
+    this.minInFlightRequests = minInFlightRequests;
+    return this;
+  }
+
   /**
    * Sets the maximum number of concurrent requests per second. This acts as a safeguard against
    * workflows that could overwhelm the cluster with more requests that it can handle. The default
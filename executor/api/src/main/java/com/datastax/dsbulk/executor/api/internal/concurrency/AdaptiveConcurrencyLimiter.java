@@ -0,0 +1,190 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.executor.api.internal.concurrency;
+
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.BusyConnectionException;
+import com.datastax.driver.core.exceptions.BusyPoolException;
+import com.datastax.driver.core.exceptions.NoHostAvailableException;
+import com.datastax.driver.core.exceptions.OperationTimedOutException;
+import com.datastax.driver.core.exceptions.OverloadedException;
+import com.datastax.driver.core.exceptions.ReadTimeoutException;
+import com.datastax.driver.core.exceptions.WriteTimeoutException;
+import com.datastax.dsbulk.executor.api.listener.ExecutionContext;
+import com.datastax.dsbulk.executor.api.listener.ExecutionListener;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A {@link Semaphore} whose number of permits, that is, the maximum number of in-flight requests,
+ * is continuously adjusted based on the observed request latencies and errors.
+ *
+ * <p>This class must be registered as an {@link ExecutionListener} so that it gets notified of
+ * request completions. Completions are grouped in windows of approximately one round-trip, i.e. as
+ * many completions as the current limit. At the end of each window, the limit is adjusted as
+ * follows:
+ *
+ * <ol>
+ *   <li>If the window contained an overload signal – a server-side timeout, an {@link
+ *       OverloadedException}, a client-side timeout, or busy connections – the limit is multiplied
+ *       by {@value #BACKOFF_RATIO};
+ *   <li>Otherwise, if the window average latency exceeds {@value #LATENCY_TOLERANCE} times the
+ *       lowest latency observed so far, requests are queueing up somewhere: the limit is multiplied
+ *       by {@value #QUEUEING_RATIO};
+ *   <li>Otherwise, the limit is increased: it doubles while in the initial "slow start" phase, that
+ *       is, until the first decrease; then it grows additively by one permit.
+ * </ol>
+ *
+ * <p>The lowest latency observed is allowed to drift upwards by {@value #BASELINE_DRIFT} per
+ * window, so that a durable latency increase (for example when the cluster is busy compacting or
+ * repairing) eventually becomes the new baseline.
+ *
+ * <p>The limit always stays between the configured minimum and maximum.
+ */
+public class AdaptiveConcurrencyLimiter extends Semaphore implements ExecutionListener {
+
+  private static final long serialVersionUID = 1L;
+
+  /** The ratio to apply to the limit when an overload signal is detected. */
+  @VisibleForTesting static final double BACKOFF_RATIO = 0.75;
+
+  /** The ratio to apply to the limit when queueing is detected. */
+  @VisibleForTesting static final double QUEUEING_RATIO = 0.9;
+
+  /** How much the window latency can exceed the baseline latency before queueing is detected. */
+  @VisibleForTesting static final double LATENCY_TOLERANCE = 2.0;
+
+  /** How much the baseline latency is allowed to drift upwards per window. */
+  @VisibleForTesting static final double BASELINE_DRIFT = 0.01;
+
+  private final int minLimit;
+  private final int maxLimit;
+
+  private int limit;
+  private boolean slowStart = true;
+  private double baselineLatencyNanos = Double.MAX_VALUE;
+
+  private int windowSamples;
+  private long windowLatencyNanos;
+  private boolean windowOverloaded;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param minLimit the minimum number of in-flight requests; also the initial limit.
+   * @param maxLimit the maximum number of in-flight requests.
+   */
+  public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit) {
+    super(minLimit);
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException(
+          String.format("Invalid in-flight requests limits: [%d,%d]", minLimit, maxLimit));
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limit = minLimit;
+  }
+
+  /**
+   * Returns the current limit, i.e. the current maximum number of in-flight requests.
+   *
+   * @return the current limit.
+   */
+  public synchronized int getLimit() {
+    return limit;
+  }
+
+  @Override
+  public void onWriteRequestSuccessful(Statement statement, ExecutionContext context) {
+    onRequestCompleted(context.elapsedTimeNanos(), false);
+  }
+
+  @Override
+  public void onWriteRequestFailed(Statement statement, Throwable error, ExecutionContext context) {
+    onRequestCompleted(context.elapsedTimeNanos(), isOverloadSignal(error));
+  }
+
+  @Override
+  public void onReadRequestSuccessful(Statement statement, ExecutionContext context) {
+    onRequestCompleted(context.elapsedTimeNanos(), false);
+  }
+
+  @Override
+  public void onReadRequestFailed(Statement statement, Throwable error, ExecutionContext context) {
+    onRequestCompleted(context.elapsedTimeNanos(), isOverloadSignal(error));
+  }
+
+  @VisibleForTesting
+  synchronized void onRequestCompleted(long latencyNanos, boolean overloaded) {
+    windowSamples++;
+    if (overloaded) {
+      windowOverloaded = true;
+    } else {
+      windowLatencyNanos += latencyNanos;
+    }
+    if (windowSamples >= limit) {
+      adjustLimit();
+    }
+  }
+
+  private void adjustLimit() {
+    int newLimit;
+    if (windowOverloaded) {
+      slowStart = false;
+      newLimit = (int) (limit * BACKOFF_RATIO);
+    } else {
+      double windowLatency = (double) windowLatencyNanos / windowSamples;
+      baselineLatencyNanos = Math.min(windowLatency, baselineLatencyNanos * (1 + BASELINE_DRIFT));
+      if (windowLatency > baselineLatencyNanos * LATENCY_TOLERANCE) {
+        slowStart = false;
+        newLimit = (int) (limit * QUEUEING_RATIO);
+      } else if (slowStart) {
+        newLimit = limit * 2;
+      } else {
+        newLimit = limit + 1;
+      }
+    }
+    newLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    if (newLimit > limit) {
+      release(newLimit - limit);
+    } else if (newLimit < limit) {
+      // may result in negative permits, in which case new requests
+      // will wait until enough in-flight requests complete
+      reducePermits(limit - newLimit);
+    }
+    limit = newLimit;
+    windowSamples = 0;
+    windowLatencyNanos = 0;
+    windowOverloaded = false;
+  }
+
+  private static boolean isOverloadSignal(Throwable error) {
+    for (Throwable t = error; t != null; t = t.getCause()) {
+      if (t instanceof OverloadedException
+          || t instanceof WriteTimeoutException
+          || t instanceof ReadTimeoutException
+          || t instanceof OperationTimedOutException
+          || t instanceof BusyPoolException
+          || t instanceof BusyConnectionException) {
+        return true;
+      }
+      if (t instanceof NoHostAvailableException) {
+        for (Throwable hostError : ((NoHostAvailableException) t).getErrors().values()) {
+          if (isOverloadSignal(hostError)) {
+            return true;
+          }
+        }
+      }
+      if (t.getCause() == t) {
+        break;
+      }
+    }
+    return false;
+  }
+}
@@ -62,6 +62,19 @@ public class HdrHistogramReservoir implements Reservoir {
     recorder.recordValue(value);
   }
 
+  /**
+   * Records the given value as many times as the given count, in one single operation.
+   *
+   * <p>This is equivalent to, but much cheaper than, calling {@link #update(long)} {@code count}
+   * times with the same value.
+   *
+   * @param value the value to record.
+   * @param count the number of times to record the value.
+   */
+  public void recordValueWithCount(long value, long count) {
+    recorder.recordValueWithCount(value, count);
+  }
+
   /** @return the data accumulated since the reservoir was created */
   @Override
   public Snapshot getSnapshot() {
@@ -0,0 +1,125 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.executor.api.internal.histogram;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Timer} backed by an {@link HdrHistogramReservoir}, that is capable of recording the same
+ * duration several times in one single operation.
+ *
+ * <p>This is useful when one single request stands for many events, e.g. a batch statement
+ * containing many child statements: the duration of the request can be recorded once for all the
+ * child statements with {@link #update(long, TimeUnit, long)}, instead of once per child statement.
+ */
+public class HdrHistogramTimer extends Timer {
+
+  private final HdrHistogramReservoir reservoir;
+  private final Meter meter;
+  private final Clock clock;
+
+  public HdrHistogramTimer() {
+    this(new HdrHistogramReservoir(), Clock.defaultClock());
+  }
+
+  private HdrHistogramTimer(HdrHistogramReservoir reservoir, Clock clock) {
+    super(reservoir, clock);
+    this.reservoir = reservoir;
+    this.meter = new Meter(clock);
+    this.clock = clock;
+  }
+
+  @Override
+  public void update(long duration, TimeUnit unit) {
+    update(duration, unit, 1);
+  }
+
+  /**
+   * Adds a recorded duration as many times as the given count.
+   *
+   * <p>This is equivalent to, but much cheaper than, calling {@link #update(long, TimeUnit)} {@code
+   * count} times with the same duration.
+   *
+   * @param duration the length of the duration.
+   * @param unit the scale unit of {@code duration}.
+   * @param count the number of times to record the duration.
+   */
+  public void update(long duration, TimeUnit unit, long count) {
+    if (duration >= 0 && count > 0) {
+      reservoir.recordValueWithCount(unit.toNanos(duration), count);
+      meter.mark(count);
+    }
+  }
+
+  @Override
+  public <T> T time(Callable<T> event) throws Exception {
+    long startTime = clock.getTick();
+    try {
+      return event.call();
+    } finally {
+      update(clock.getTick() - startTime, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  @Override
+  public <T> T timeSupplier(Supplier<T> event) {
+    long startTime = clock.getTick();
+    try {
+      return event.get();
+    } finally {
+      update(clock.getTick() - startTime, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  @Override
+  public void time(Runnable event) {
+    long startTime = clock.getTick();
+    try {
+      event.run();
+    } finally {
+      update(clock.getTick() - startTime, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  @Override
+  public long getCount() {
+    return meter.getCount();
+  }
+
+  @Override
+  public double getFifteenMinuteRate() {
+    return meter.getFifteenMinuteRate();
+  }
+
+  @Override
+  public double getFiveMinuteRate() {
+    return meter.getFiveMinuteRate();
+  }
+
+  @Override
+  public double getMeanRate() {
+    return meter.getMeanRate();
+  }
+
+  @Override
+  public double getOneMinuteRate() {
+    return meter.getOneMinuteRate();
+  }
+
+  @Override
+  public Snapshot getSnapshot() {
+    return reservoir.getSnapshot();
+  }
+}
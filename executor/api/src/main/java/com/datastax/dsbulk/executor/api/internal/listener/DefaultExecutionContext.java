@@ -8,6 +8,7 @@
  */
 package com.datastax.dsbulk.executor.api.internal.listener;
 
+import com.datastax.driver.core.ExecutionInfo;
 import com.datastax.dsbulk.executor.api.listener.ExecutionContext;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentMap;
@@ -20,6 +21,8 @@ public class DefaultExecutionContext implements ExecutionContext {
   private volatile long start = -1;
   private volatile long end = -1;
 
+  private volatile ExecutionInfo executionInfo;
+
   @Override
   public void setAttribute(Object key, Object value) {
     getAttributes().put(key, value);
@@ -35,6 +38,15 @@ public class DefaultExecutionContext implements ExecutionContext {
     return start == -1 || end == -1 ? -1 : end - start;
   }
 
+  @Override
+  public Optional<ExecutionInfo> getExecutionInfo() {
+    return Optional.ofNullable(executionInfo);
+  }
+
+  public void setExecutionInfo(ExecutionInfo executionInfo) {
+    this.executionInfo = executionInfo;
+  }
+
   public void start() {
     this.start = System.nanoTime();
   }
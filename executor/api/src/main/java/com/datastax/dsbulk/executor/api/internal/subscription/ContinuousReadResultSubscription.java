@@ -12,6 +12,7 @@ import com.datastax.driver.core.AsyncContinuousPagingResult;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Statement;
 import com.datastax.dsbulk.executor.api.exception.BulkExecutionException;
+import com.datastax.dsbulk.executor.api.internal.listener.DefaultExecutionContext;
 import com.datastax.dsbulk.executor.api.internal.result.DefaultReadResult;
 import com.datastax.dsbulk.executor.api.listener.ExecutionContext;
 import com.datastax.dsbulk.executor.api.listener.ExecutionListener;
@@ -72,7 +73,8 @@ public class ContinuousReadResultSubscription
   }
 
   @Override
-  void onRequestSuccessful(AsyncContinuousPagingResult page, ExecutionContext local) {
+  void onRequestSuccessful(AsyncContinuousPagingResult page, DefaultExecutionContext local) {
+    local.setExecutionInfo(page.getExecutionInfo());
     listener.ifPresent(l -> l.onReadRequestSuccessful(statement, local));
   }
 
@@ -8,10 +8,12 @@
  */
 package com.datastax.dsbulk.executor.api.internal.subscription;
 
+import com.datastax.driver.core.ExecutionInfo;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Statement;
 import com.datastax.dsbulk.executor.api.exception.BulkExecutionException;
+import com.datastax.dsbulk.executor.api.internal.listener.DefaultExecutionContext;
 import com.datastax.dsbulk.executor.api.internal.result.DefaultReadResult;
 import com.datastax.dsbulk.executor.api.listener.ExecutionContext;
 import com.datastax.dsbulk.executor.api.listener.ExecutionListener;
@@ -41,8 +43,13 @@ public class ReadResultSubscription extends ResultSubscription<ReadResult, Resul
 
   @Override
   Page toPage(ResultSet rs, ExecutionContext local) {
-    boolean hasMorePages = rs.getExecutionInfo().getPagingState() != null;
-    return new Page(new ReadResultIterator(rs, local), hasMorePages ? rs::fetchMoreResults : null);
+    // The result set's execution info is replaced as soon as the next page is fetched,
+    // which happens preemptively, before this page is consumed: capture it now,
+    // so that rows are always associated with the page they belong to.
+    ExecutionInfo info = rs.getExecutionInfo();
+    boolean hasMorePages = info.getPagingState() != null;
+    return new Page(
+        new ReadResultIterator(rs, info, local), hasMorePages ? rs::fetchMoreResults : null);
   }
 
   @Override
@@ -56,7 +63,8 @@ public class ReadResultSubscription extends ResultSubscription<ReadResult, Resul
   }
 
   @Override
-  void onRequestSuccessful(ResultSet resultSet, ExecutionContext local) {
+  void onRequestSuccessful(ResultSet resultSet, DefaultExecutionContext local) {
+    local.setExecutionInfo(resultSet.getExecutionInfo());
     listener.ifPresent(l -> l.onReadRequestSuccessful(statement, local));
   }
 
@@ -68,11 +76,13 @@ public class ReadResultSubscription extends ResultSubscription<ReadResult, Resul
   private class ReadResultIterator extends AbstractIterator<ReadResult> {
 
     private final ResultSet rs;
+    private final ExecutionInfo info;
     private final ExecutionContext local;
     private int remaining;
 
-    public ReadResultIterator(ResultSet rs, ExecutionContext local) {
+    public ReadResultIterator(ResultSet rs, ExecutionInfo info, ExecutionContext local) {
       this.rs = rs;
+      this.info = info;
       this.remaining = pageSize;
       this.local = local;
     }
@@ -92,7 +102,7 @@ public class ReadResultSubscription extends ResultSubscription<ReadResult, Resul
         // is less than pageSize
         if (row != null) {
           listener.ifPresent(l -> l.onRowReceived(row, local));
-          return new DefaultReadResult(statement, rs.getExecutionInfo(), row);
+          return new DefaultReadResult(statement, info, row);
         }
       }
       return endOfData();
@@ -386,7 +386,7 @@ public abstract class ResultSubscription<R extends Result, P> implements Subscri
 
   abstract void onRequestStarted(ExecutionContext local);
 
-  abstract void onRequestSuccessful(P result, ExecutionContext local);
+  abstract void onRequestSuccessful(P result, DefaultExecutionContext local);
 
   abstract void onRequestFailed(Throwable t, ExecutionContext local);
 
@@ -11,6 +11,7 @@ package com.datastax.dsbulk.executor.api.internal.subscription;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Statement;
 import com.datastax.dsbulk.executor.api.exception.BulkExecutionException;
+import com.datastax.dsbulk.executor.api.internal.listener.DefaultExecutionContext;
 import com.datastax.dsbulk.executor.api.internal.result.DefaultWriteResult;
 import com.datastax.dsbulk.executor.api.listener.ExecutionContext;
 import com.datastax.dsbulk.executor.api.listener.ExecutionListener;
@@ -59,7 +60,8 @@ public class WriteResultSubscription extends ResultSubscription<WriteResult, Res
   }
 
   @Override
-  void onRequestSuccessful(ResultSet rs, ExecutionContext local) {
+  void onRequestSuccessful(ResultSet rs, DefaultExecutionContext local) {
+    local.setExecutionInfo(rs.getExecutionInfo());
     listener.ifPresent(l -> l.onWriteRequestSuccessful(statement, local));
   }
 
@@ -8,6 +8,7 @@
  */
 package com.datastax.dsbulk.executor.api.listener;
 
+import com.datastax.driver.core.ExecutionInfo;
 import com.datastax.driver.core.Statement;
 import java.util.Optional;
 
@@ -55,4 +56,20 @@ public interface ExecutionContext {
    *     execution hasn't finished yet.
    */
   long elapsedTimeNanos();
+
+  /**
+   * Returns the {@link ExecutionInfo} of the request-response cycle.
+   *
+   * <p>Only local contexts have execution infos, and only once a response was successfully
+   * received, i.e., in {@link ExecutionListener#onWriteRequestSuccessful(Statement,
+   * ExecutionContext) onWriteRequestSuccessful}, {@link
+   * ExecutionListener#onReadRequestSuccessful(Statement, ExecutionContext) onReadRequestSuccessful}
+   * and {@link ExecutionListener#onRowReceived(com.datastax.driver.core.Row, ExecutionContext)
+   * onRowReceived}.
+   *
+   * @return the {@link ExecutionInfo} of the request-response cycle, if available.
+   */
+  default Optional<ExecutionInfo> getExecutionInfo() {
+    return Optional.empty();
+  }
 }
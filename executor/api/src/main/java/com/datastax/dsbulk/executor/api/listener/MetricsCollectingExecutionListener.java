@@ -18,17 +18,37 @@ import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.CodecRegistry;
 import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.ExecutionInfo;
 import com.datastax.driver.core.GettableData;
 import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.SimpleStatement;
 import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.TokenRange;
 import com.datastax.driver.core.exceptions.InvalidTypeException;
 import com.datastax.dsbulk.executor.api.exception.BulkExecutionException;
-import com.datastax.dsbulk.executor.api.internal.histogram.HdrHistogramReservoir;
+import com.datastax.dsbulk.executor.api.internal.histogram.HdrHistogramTimer;
+import com.datastax.dsbulk.executor.api.statement.TokenRangeReadStatement;
+import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
-/** A {@link ExecutionListener} that records useful metrics about the ongoing bulk operations. */
+/**
+ * A {@link ExecutionListener} that records useful metrics about the ongoing bulk operations.
+ *
+ * <p>Request durations are recorded once per request, even for batch statements: the duration of a
+ * batch is recorded with a weight equal to the number of its child statements.
+ *
+ * <p>When unloading, the latency and size of received rows can optionally be sampled, see {@link
+ * #MetricsCollectingExecutionListener(MetricRegistry, ProtocolVersion, CodecRegistry, int)}.
+ *
+ * <p>Metrics can optionally be broken down per coordinator and per token range, see {@link
+ * #MetricsCollectingExecutionListener(MetricRegistry, ProtocolVersion, CodecRegistry, int, boolean,
+ * boolean)}.
+ */
 public class MetricsCollectingExecutionListener implements ExecutionListener {
 
   private final MetricRegistry registry;
@@ -57,6 +77,17 @@ public class MetricsCollectingExecutionListener implements ExecutionListener {
   private final ProtocolVersion protocolVersion;
   private final CodecRegistry codecRegistry;
 
+  private final int rowSamplingInterval;
+  private final AtomicLong rowsReceived = new AtomicLong();
+
+  private final boolean trackHosts;
+  private final boolean trackRanges;
+  private final ConcurrentMap<InetSocketAddress, HostMetrics> hostMetrics =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<TokenRange, Meter> rangeMeters = new ConcurrentHashMap<>();
+  private final Counter completedRangesCounter;
+  private final Counter failedRangesCounter;
+
   /** Creates a new instance using a newly-allocated {@link MetricRegistry}. */
   public MetricsCollectingExecutionListener() {
     this(new MetricRegistry(), ProtocolVersion.NEWEST_SUPPORTED, CodecRegistry.DEFAULT_INSTANCE);
@@ -71,27 +102,85 @@ public class MetricsCollectingExecutionListener implements ExecutionListener {
    */
   public MetricsCollectingExecutionListener(
       MetricRegistry registry, ProtocolVersion protocolVersion, CodecRegistry codecRegistry) {
+    this(registry, protocolVersion, codecRegistry, 1);
+  }
+
+  /**
+   * Creates a new instance using the given {@link MetricRegistry}, and sampling received rows.
+   *
+   * <p>Only one row out of every {@code rowSamplingInterval} rows received has its latency and size
+   * recorded, with a weight equal to {@code rowSamplingInterval}. This reduces the cost of
+   * collecting metrics when unloading, at the expense of less accurate latency percentiles, and of
+   * timer counts and byte counts lagging behind by at most {@code rowSamplingInterval - 1} rows.
+   * Row counters are not sampled and remain exact.
+   *
+   * @param registry The {@link MetricRegistry} to use.
+   * @param protocolVersion the {@link ProtocolVersion} to use.
+   * @param codecRegistry the {@link CodecRegistry} to use.
+   * @param rowSamplingInterval the row sampling interval; {@code 1} disables sampling.
+   */
+  public MetricsCollectingExecutionListener(
+      MetricRegistry registry,
+      ProtocolVersion protocolVersion,
+      CodecRegistry codecRegistry,
+      int rowSamplingInterval) {
+    this(registry, protocolVersion, codecRegistry, rowSamplingInterval, false, false);
+  }
+
+  /**
+   * Creates a new instance using the given {@link MetricRegistry}, sampling received rows, and
+   * optionally breaking down metrics per coordinator and per token range.
+   *
+   * <p>When {@code trackHosts} is true, the following metrics are registered for each coordinator
+   * that answered at least one request, under {@code executor/hosts/<address>:<port>/}: a {@link
+   * Timer} named {@code requests} for the duration of request-response cycles, and two {@link
+   * Meter}s named {@code writes} and {@code reads} for the number of statements written and rows
+   * received. Failed requests are not attributed to any coordinator.
+   *
+   * <p>When {@code trackRanges} is true, reads of {@link TokenRangeReadStatement}s are tracked:
+   * each token range gets a {@link Meter} named {@code executor/ranges/<range>/rows} for the rows
+   * received from it; and two {@link Counter}s, {@code executor/ranges/completed} and {@code
+   * executor/ranges/failed}, count token ranges whose reads are over.
+   *
+   * @param registry The {@link MetricRegistry} to use.
+   * @param protocolVersion the {@link ProtocolVersion} to use.
+   * @param codecRegistry the {@link CodecRegistry} to use.
+   * @param rowSamplingInterval the row sampling interval; {@code 1} disables sampling.
+   * @param trackHosts whether to break down metrics per coordinator.
+   * @param trackRanges whether to break down read metrics per token range.
+   */
+  public MetricsCollectingExecutionListener(
+      MetricRegistry registry,
+      ProtocolVersion protocolVersion,
+      CodecRegistry codecRegistry,
+      int rowSamplingInterval,
+      boolean trackHosts,
+      boolean trackRanges) {
+    if (rowSamplingInterval < 1) {
+      throw new IllegalArgumentException(
+          "Invalid row sampling interval, expecting a strictly positive value, got: "
+              + rowSamplingInterval);
+    }
     this.registry = registry;
     this.protocolVersion = protocolVersion;
     this.codecRegistry = codecRegistry;
+    this.rowSamplingInterval = rowSamplingInterval;
+    this.trackHosts = trackHosts;
+    this.trackRanges = trackRanges;
 
-    totalStatementsTimer =
-        registry.timer("executor/statements/total", () -> new Timer(new HdrHistogramReservoir()));
+    totalStatementsTimer = registry.timer("executor/statements/total", HdrHistogramTimer::new);
     successfulStatementsCounter = registry.counter("executor/statements/successful");
     failedStatementsCounter = registry.counter("executor/statements/failed");
 
-    totalReadsTimer =
-        registry.timer("executor/reads/total", () -> new Timer(new HdrHistogramReservoir()));
+    totalReadsTimer = registry.timer("executor/reads/total", HdrHistogramTimer::new);
     successfulReadsCounter = registry.counter("executor/reads/successful");
     failedReadsCounter = registry.counter("executor/reads/failed");
 
-    totalWritesTimer =
-        registry.timer("executor/writes/total", () -> new Timer(new HdrHistogramReservoir()));
+    totalWritesTimer = registry.timer("executor/writes/total", HdrHistogramTimer::new);
     successfulWritesCounter = registry.counter("executor/writes/successful");
     failedWritesCounter = registry.counter("executor/writes/failed");
 
-    totalReadsWritesTimer =
-        registry.timer("executor/reads-writes/total", () -> new Timer(new HdrHistogramReservoir()));
+    totalReadsWritesTimer = registry.timer("executor/reads-writes/total", HdrHistogramTimer::new);
     successfulReadsWritesCounter = registry.counter("executor/reads-writes/successful");
     failedReadsWritesCounter = registry.counter("executor/reads-writes/failed");
 
@@ -99,6 +188,14 @@ public class MetricsCollectingExecutionListener implements ExecutionListener {
 
     bytesSentMeter = registry.meter("executor/bytes/sent");
     bytesReceivedMeter = registry.meter("executor/bytes/received");
+
+    if (trackRanges) {
+      completedRangesCounter = registry.counter("executor/ranges/completed");
+      failedRangesCounter = registry.counter("executor/ranges/failed");
+    } else {
+      completedRangesCounter = null;
+      failedRangesCounter = null;
+    }
   }
 
   /**
@@ -289,6 +386,11 @@ public class MetricsCollectingExecutionListener implements ExecutionListener {
   @Override
   public void onReadRequestStarted(Statement statement, ExecutionContext context) {
     inFlightRequestsCounter.inc();
+    if (trackRanges && statement instanceof TokenRangeReadStatement) {
+      TokenRange range = ((TokenRangeReadStatement) statement).getTokenRange();
+      context.setAttribute(
+          TokenRange.class, rangeMeters.computeIfAbsent(range, this::newRangeMeter));
+    }
   }
 
   @Override
@@ -299,6 +401,13 @@ public class MetricsCollectingExecutionListener implements ExecutionListener {
     successfulWritesCounter.inc(delta);
     successfulReadsWritesCounter.inc(delta);
     inFlightRequestsCounter.dec();
+    if (trackHosts) {
+      HostMetrics metrics = hostMetrics(context);
+      if (metrics != null) {
+        stop(context, metrics.requestsTimer, 1);
+        metrics.writesMeter.mark(delta);
+      }
+    }
   }
 
   @Override
@@ -314,16 +423,34 @@ public class MetricsCollectingExecutionListener implements ExecutionListener {
   @Override
   public void onReadRequestSuccessful(Statement statement, ExecutionContext context) {
     inFlightRequestsCounter.dec();
+    if (trackHosts) {
+      HostMetrics metrics = hostMetrics(context);
+      if (metrics != null) {
+        stop(context, metrics.requestsTimer, 1);
+      }
+    }
   }
 
   @Override
   public void onRowReceived(Row row, ExecutionContext context) {
-    stop(context, totalReadsTimer, 1);
-    stop(context, totalReadsWritesTimer, 1);
-    successfulReadsCounter.inc(1);
-    successfulReadsWritesCounter.inc(1);
-    long size = size(row);
-    bytesReceivedMeter.mark(size);
+    successfulReadsCounter.inc();
+    successfulReadsWritesCounter.inc();
+    if (trackHosts) {
+      HostMetrics metrics = hostMetrics(context);
+      if (metrics != null) {
+        metrics.readsMeter.mark();
+      }
+    }
+    if (trackRanges) {
+      context.getAttribute(TokenRange.class).ifPresent(meter -> ((Meter) meter).mark());
+    }
+    if (rowSamplingInterval == 1 || rowsReceived.incrementAndGet() % rowSamplingInterval == 0) {
+      // the sampled row stands for all the rows received since the previous sampled row
+      stop(context, totalReadsTimer, rowSamplingInterval);
+      stop(context, totalReadsWritesTimer, rowSamplingInterval);
+      long size = size(row);
+      bytesReceivedMeter.mark(size * rowSamplingInterval);
+    }
   }
 
   @Override
@@ -339,18 +466,42 @@ public class MetricsCollectingExecutionListener implements ExecutionListener {
   public void onExecutionSuccessful(Statement statement, ExecutionContext context) {
     stop(context, totalStatementsTimer, 1);
     successfulStatementsCounter.inc();
+    if (trackRanges && statement instanceof TokenRangeReadStatement) {
+      completedRangesCounter.inc();
+    }
   }
 
   @Override
   public void onExecutionFailed(BulkExecutionException exception, ExecutionContext context) {
     stop(context, totalStatementsTimer, 1);
     failedStatementsCounter.inc();
+    if (trackRanges && exception.getStatement() instanceof TokenRangeReadStatement) {
+      failedRangesCounter.inc();
+    }
+  }
+
+  private HostMetrics hostMetrics(ExecutionContext context) {
+    Optional<ExecutionInfo> info = context.getExecutionInfo();
+    if (info.isPresent() && info.get().getQueriedHost() != null) {
+      InetSocketAddress address = info.get().getQueriedHost().getSocketAddress();
+      return hostMetrics.computeIfAbsent(address, HostMetrics::new);
+    }
+    return null;
+  }
+
+  private Meter newRangeMeter(TokenRange range) {
+    return registry.meter("executor/ranges/]" + range.getStart() + "," + range.getEnd() + "]/rows");
   }
 
   private static void stop(ExecutionContext context, Timer timer, int delta) {
     long elapsed = context.elapsedTimeNanos();
-    for (int i = 0; i < delta; i++) {
-      timer.update(elapsed, NANOSECONDS);
+    if (timer instanceof HdrHistogramTimer) {
+      ((HdrHistogramTimer) timer).update(elapsed, NANOSECONDS, delta);
+    } else {
+      // the registry already contained a timer of another type
+      for (int i = 0; i < delta; i++) {
+        timer.update(elapsed, NANOSECONDS);
+      }
     }
   }
 
@@ -406,4 +557,19 @@ public class MetricsCollectingExecutionListener implements ExecutionListener {
     }
     return size;
   }
+
+  private class HostMetrics {
+
+    private final Timer requestsTimer;
+    private final Meter writesMeter;
+    private final Meter readsMeter;
+
+    private HostMetrics(InetSocketAddress address) {
+      String prefix =
+          "executor/hosts/" + address.getAddress().getHostAddress() + ':' + address.getPort();
+      requestsTimer = registry.timer(prefix + "/requests", HdrHistogramTimer::new);
+      writesMeter = registry.meter(prefix + "/writes");
+      readsMeter = registry.meter(prefix + "/reads");
+    }
+  }
 }
@@ -16,15 +16,19 @@ import static java.util.stream.Collectors.toList;
 
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.ColumnMetadata;
+import com.datastax.driver.core.Host;
 import com.datastax.driver.core.Metadata;
 import com.datastax.driver.core.Statement;
-import com.datastax.driver.core.StatementWrapper;
 import com.datastax.driver.core.TableMetadata;
-import com.datastax.driver.core.Token;
 import com.datastax.driver.core.TokenRange;
 import com.datastax.driver.core.querybuilder.Clause;
 import com.datastax.driver.core.querybuilder.Select;
+import com.google.common.math.IntMath;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
 
@@ -94,7 +98,7 @@ public class TableScanner {
    * @return as many {@link Statement}s as necessary to read the entire table, one per token range.
    */
   public static List<Statement> scan(
-      Set<TokenRange> ring, Function<TokenRange, Statement> statementFactory) {
+      Collection<TokenRange> ring, Function<TokenRange, Statement> statementFactory) {
     return ring.stream()
         .flatMap(
             range ->
@@ -109,6 +113,61 @@ public class TableScanner {
         .collect(toList());
   }
 
+  /**
+   * Splits or coalesces the given token ranges so that the result contains approximately {@code
+   * targetRanges} ranges covering the same portion of the ring.
+   *
+   * <p>If there are fewer ranges than {@code targetRanges}, each range is {@linkplain
+   * TokenRange#splitEvenly(int) split evenly} into as many sub-ranges as necessary.
+   *
+   * <p>If there are more ranges than {@code targetRanges}, adjacent ranges that share the same
+   * replicas are merged together, so that each range can still be routed to a replica that owns all
+   * of it. Ranges are never merged into a range covering the whole ring.
+   *
+   * @param ring the token ranges to split or coalesce.
+   * @param targetRanges the desired number of ranges; if zero or negative, the ring is returned
+   *     unchanged.
+   * @param replicas a function returning the replicas of a given token range.
+   * @return the split or coalesced token ranges, sorted by start token.
+   */
+  public static List<TokenRange> split(
+      Collection<TokenRange> ring, int targetRanges, Function<TokenRange, Set<Host>> replicas) {
+    List<TokenRange> sorted = ring.stream().sorted().collect(toList());
+    if (targetRanges <= 0 || sorted.size() == targetRanges || sorted.isEmpty()) {
+      return sorted;
+    }
+    if (sorted.size() < targetRanges) {
+      int splitFactor = IntMath.divide(targetRanges, sorted.size(), RoundingMode.CEILING);
+      return sorted
+          .stream()
+          .flatMap(range -> range.splitEvenly(splitFactor).stream())
+          .collect(toList());
+    }
+    int maxMerged =
+        Math.min(
+            IntMath.divide(sorted.size(), targetRanges, RoundingMode.CEILING), sorted.size() - 1);
+    List<TokenRange> coalesced = new ArrayList<>();
+    TokenRange current = sorted.get(0);
+    Set<Host> currentReplicas = replicas.apply(current);
+    int merged = 1;
+    for (TokenRange next : sorted.subList(1, sorted.size())) {
+      Set<Host> nextReplicas = replicas.apply(next);
+      if (merged < maxMerged
+          && current.getEnd().equals(next.getStart())
+          && Objects.equals(currentReplicas, nextReplicas)) {
+        current = current.mergeWith(next);
+        merged++;
+      } else {
+        coalesced.add(current);
+        current = next;
+        currentReplicas = nextReplicas;
+        merged = 1;
+      }
+    }
+    coalesced.add(current);
+    return coalesced;
+  }
+
   private static Statement createStatement(TableMetadata table, TokenRange range, Clause where) {
     String[] columns =
         table.getPartitionKey().stream().map(ColumnMetadata::getName).toArray(String[]::new);
@@ -125,16 +184,6 @@ public class TableScanner {
   }
 
   private static Statement route(Statement stmt, TokenRange range, String keyspace) {
-    return new StatementWrapper(stmt) {
-      @Override
-      public Token getRoutingToken() {
-        return range.getEnd();
-      }
-
-      @Override
-      public String getKeyspace() {
-        return keyspace;
-      }
-    };
+    return new TokenRangeReadStatement(stmt, range, keyspace);
   }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.executor.api.statement;
+
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.StatementWrapper;
+import com.datastax.driver.core.Token;
+import com.datastax.driver.core.TokenRange;
+
+/**
+ * A {@link Statement} that reads a given {@link TokenRange}, as created by {@link TableScanner}.
+ *
+ * <p>Such statements are routed to a replica of the range they read.
+ */
+public class TokenRangeReadStatement extends StatementWrapper {
+
+  private final TokenRange range;
+  private final String keyspace;
+
+  public TokenRangeReadStatement(Statement wrapped, TokenRange range, String keyspace) {
+    super(wrapped);
+    this.range = range;
+    this.keyspace = keyspace;
+  }
+
+  /**
+   * Returns the token range read by this statement.
+   *
+   * @return the token range read by this statement.
+   */
+  public TokenRange getTokenRange() {
+    return range;
+  }
+
+  @Override
+  public Token getRoutingToken() {
+    return range.getEnd();
+  }
+
+  @Override
+  public String getKeyspace() {
+    return keyspace;
+  }
+}
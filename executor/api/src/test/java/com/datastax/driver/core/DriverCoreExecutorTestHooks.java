@@ -0,0 +1,19 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.driver.core;
+
+public class DriverCoreExecutorTestHooks {
+
+  public static TokenRange newTokenRange(long start, long end) {
+    return new TokenRange(
+        Token.M3PToken.FACTORY.fromString(Long.toString(start)),
+        Token.M3PToken.FACTORY.fromString(Long.toString(end)),
+        Token.M3PToken.FACTORY);
+  }
+}
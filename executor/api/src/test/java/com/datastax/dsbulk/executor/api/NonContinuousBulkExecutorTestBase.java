@@ -8,6 +8,7 @@
  */
 package com.datastax.dsbulk.executor.api;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
@@ -23,14 +24,18 @@ import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.SimpleStatement;
 import com.datastax.driver.core.exceptions.SyntaxError;
+import com.datastax.dsbulk.executor.api.result.ReadResult;
 import java.net.InetSocketAddress;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 
 public abstract class NonContinuousBulkExecutorTestBase extends BulkExecutorTestBase {
 
@@ -53,6 +58,9 @@ public abstract class NonContinuousBulkExecutorTestBase extends BulkExecutorTest
   private List<Row> page1b = Collections.singletonList(row1ba);
   private List<Row> page2a = Collections.singletonList(row2aa);
 
+  private ExecutionInfo executionInfo1a = mock(ExecutionInfo.class);
+  private ExecutionInfo executionInfo1b = mock(ExecutionInfo.class);
+
   @BeforeEach
   void setUpSession() throws ExecutionException, InterruptedException {
     when(session.executeAsync(any(SimpleStatement.class)))
@@ -76,11 +84,18 @@ public abstract class NonContinuousBulkExecutorTestBase extends BulkExecutorTest
     ArrayDeque<Row> queue1a = new ArrayDeque<>(page1a);
     when(successfulResultSet1a.one()).thenAnswer(invocation -> queue1a.poll());
     when(successfulResultSet1a.isFullyFetched()).thenReturn(true); // only useful in write tests
-    ExecutionInfo executionInfo1a = mock(ExecutionInfo.class);
-    when(successfulResultSet1a.getExecutionInfo()).thenReturn(executionInfo1a);
+    // like the driver does, report the execution info of the last fetched page
+    AtomicReference<ExecutionInfo> lastExecutionInfo1 = new AtomicReference<>(executionInfo1a);
+    when(successfulResultSet1a.getExecutionInfo())
+        .thenAnswer(invocation -> lastExecutionInfo1.get());
     PagingState ps = mock(PagingState.class);
     when(executionInfo1a.getPagingState()).thenReturn(ps);
-    when(successfulResultSet1a.fetchMoreResults()).thenReturn(successFuture1b);
+    when(successfulResultSet1a.fetchMoreResults())
+        .thenAnswer(
+            invocation -> {
+              lastExecutionInfo1.set(executionInfo1b);
+              return successFuture1b;
+            });
     doAnswer(
             invocation -> {
               ((Runnable) invocation.getArguments()[0]).run();
@@ -95,7 +110,6 @@ public abstract class NonContinuousBulkExecutorTestBase extends BulkExecutorTest
     ArrayDeque<Row> queue1b = new ArrayDeque<>(page1b);
     when(successfulResultSet1b.one()).thenAnswer(invocation -> queue1b.poll());
     when(successfulResultSet1b.isFullyFetched()).thenReturn(true); // only useful in write tests
-    ExecutionInfo executionInfo1b = mock(ExecutionInfo.class);
     when(successfulResultSet1b.getExecutionInfo()).thenReturn(executionInfo1b);
     when(executionInfo1b.getPagingState()).thenReturn(null);
     doAnswer(
@@ -145,4 +159,15 @@ public abstract class NonContinuousBulkExecutorTestBase extends BulkExecutorTest
     when(cluster.getConfiguration()).thenReturn(configuration);
     when(configuration.getQueryOptions()).thenReturn(new QueryOptions().setFetchSize(100));
   }
+
+  @Test
+  void readSyncPageExecutionInfoTest() {
+    BulkExecutor executor = newBulkExecutor(false);
+    List<ReadResult> results = new ArrayList<>();
+    executor.readSync("should succeed", results::add);
+    // rows must be associated with their own page, even if the next page was fetched already
+    assertThat(results)
+        .extracting(result -> result.getExecutionInfo().orElse(null))
+        .containsExactly(executionInfo1a, executionInfo1a, executionInfo1a, executionInfo1b);
+  }
 }
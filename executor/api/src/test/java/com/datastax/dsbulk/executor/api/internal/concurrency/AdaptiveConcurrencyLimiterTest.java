@@ -0,0 +1,117 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.executor.api.internal.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.WriteType;
+import com.datastax.driver.core.exceptions.SyntaxError;
+import com.datastax.driver.core.exceptions.WriteTimeoutException;
+import com.datastax.dsbulk.executor.api.listener.ExecutionContext;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private final Statement statement = new SimpleStatement("irrelevant");
+
+  @Test
+  void should_double_limit_during_slow_start() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 100);
+    assertThat(limiter.availablePermits()).isEqualTo(4);
+    completeWindow(limiter, 1000);
+    assertThat(limiter.getLimit()).isEqualTo(8);
+    completeWindow(limiter, 1000);
+    assertThat(limiter.getLimit()).isEqualTo(16);
+    assertThat(limiter.availablePermits()).isEqualTo(16);
+  }
+
+  @Test
+  void should_not_exceed_max_limit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 10);
+    for (int i = 0; i < 5; i++) {
+      completeWindow(limiter, 1000);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(10);
+    assertThat(limiter.availablePermits()).isEqualTo(10);
+  }
+
+  @Test
+  void should_back_off_on_overload_then_grow_additively() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 100);
+    completeWindow(limiter, 1000);
+    completeWindow(limiter, 1000);
+    completeWindow(limiter, 1000);
+    assertThat(limiter.getLimit()).isEqualTo(32);
+    ExecutionContext context = newContext(1000);
+    WriteTimeoutException timeout =
+        new WriteTimeoutException(ConsistencyLevel.ONE, WriteType.SIMPLE, 0, 1);
+    limiter.onWriteRequestFailed(statement, timeout, context);
+    completeWindow(limiter, 1000, 31);
+    assertThat(limiter.getLimit()).isEqualTo(24);
+    assertThat(limiter.availablePermits()).isEqualTo(24);
+    completeWindow(limiter, 1000);
+    assertThat(limiter.getLimit()).isEqualTo(25);
+  }
+
+  @Test
+  void should_not_back_off_on_other_errors() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 100);
+    ExecutionContext context = newContext(1000);
+    for (int i = 0; i < 4; i++) {
+      limiter.onWriteRequestFailed(statement, new SyntaxError(null, "irrelevant"), context);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(8);
+  }
+
+  @Test
+  void should_decrease_limit_when_latency_builds_up() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 100);
+    completeWindow(limiter, 1000);
+    assertThat(limiter.getLimit()).isEqualTo(20);
+    completeWindow(limiter, 5000);
+    assertThat(limiter.getLimit()).isEqualTo(18);
+    // permits in use are taken into account
+    assertThat(limiter.tryAcquire(18)).isTrue();
+    completeWindow(limiter, 5000);
+    assertThat(limiter.getLimit()).isEqualTo(16);
+    assertThat(limiter.availablePermits()).isEqualTo(-2);
+  }
+
+  @Test
+  void should_not_go_below_min_limit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 100);
+    completeWindow(limiter, 1000);
+    for (int i = 0; i < 10; i++) {
+      completeWindow(limiter, 10_000);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(10);
+  }
+
+  private static void completeWindow(AdaptiveConcurrencyLimiter limiter, long latencyNanos) {
+    completeWindow(limiter, latencyNanos, limiter.getLimit());
+  }
+
+  private static void completeWindow(
+      AdaptiveConcurrencyLimiter limiter, long latencyNanos, int samples) {
+    for (int i = 0; i < samples; i++) {
+      limiter.onRequestCompleted(latencyNanos, false);
+    }
+  }
+
+  private static ExecutionContext newContext(long elapsedNanos) {
+    ExecutionContext context = mock(ExecutionContext.class);
+    when(context.elapsedTimeNanos()).thenReturn(elapsedNanos);
+    return context;
+  }
+}
@@ -8,17 +8,27 @@
  */
 package com.datastax.dsbulk.executor.api.listener;
 
+import static com.datastax.driver.core.DriverCoreExecutorTestHooks.newTokenRange;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.codahale.metrics.MetricRegistry;
 import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.CodecRegistry;
 import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.ExecutionInfo;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.SimpleStatement;
 import com.datastax.driver.core.Statement;
 import com.datastax.dsbulk.executor.api.exception.BulkExecutionException;
 import com.datastax.dsbulk.executor.api.internal.listener.DefaultExecutionContext;
+import com.datastax.dsbulk.executor.api.statement.TokenRangeReadStatement;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -123,6 +133,114 @@ class MetricsCollectingExecutionListenerTest {
     assertThat(listener.getSuccessfulReadsCounter().getCount()).isEqualTo(3);
   }
 
+  @Test
+  void should_record_batch_latency_once_weighted_by_batch_size() {
+    MetricsCollectingExecutionListener listener = new MetricsCollectingExecutionListener();
+    ExecutionContext local = new TestExecutionContext();
+    listener.onWriteRequestStarted(successfulWrite, local);
+    listener.onWriteRequestSuccessful(successfulWrite, local);
+    assertThat(listener.getTotalWritesTimer().getCount()).isEqualTo(2);
+    assertThat(listener.getTotalWritesTimer().getSnapshot().size()).isEqualTo(2);
+    assertThat(listener.getTotalWritesTimer().getSnapshot().getMax()).isEqualTo(42);
+  }
+
+  @Test
+  void should_sample_received_rows() {
+    MetricsCollectingExecutionListener listener =
+        new MetricsCollectingExecutionListener(
+            new MetricRegistry(),
+            ProtocolVersion.NEWEST_SUPPORTED,
+            CodecRegistry.DEFAULT_INSTANCE,
+            2);
+    ExecutionContext local = new TestExecutionContext();
+    listener.onReadRequestStarted(successfulRead, local);
+    listener.onReadRequestSuccessful(successfulRead, local);
+    listener.onRowReceived(row, local);
+    // first row not sampled
+    assertThat(listener.getTotalReadsTimer().getCount()).isEqualTo(0);
+    assertThat(listener.getBytesReceivedMeter().getCount()).isEqualTo(0);
+    listener.onRowReceived(row, local);
+    // second row sampled, stands for both rows
+    assertThat(listener.getTotalReadsTimer().getCount()).isEqualTo(2);
+    assertThat(listener.getTotalReadsWritesTimer().getCount()).isEqualTo(2);
+    assertThat(listener.getBytesReceivedMeter().getCount()).isEqualTo(8);
+    listener.onRowReceived(row, local);
+    assertThat(listener.getTotalReadsTimer().getCount()).isEqualTo(2);
+    // row counters are never sampled
+    assertThat(listener.getSuccessfulReadsCounter().getCount()).isEqualTo(3);
+    assertThat(listener.getSuccessfulReadsWritesCounter().getCount()).isEqualTo(3);
+  }
+
+  @Test
+  void should_collect_metrics_per_host() throws UnknownHostException {
+    MetricRegistry registry = new MetricRegistry();
+    MetricsCollectingExecutionListener listener =
+        new MetricsCollectingExecutionListener(
+            registry,
+            ProtocolVersion.NEWEST_SUPPORTED,
+            CodecRegistry.DEFAULT_INSTANCE,
+            1,
+            true,
+            false);
+    DefaultExecutionContext local1 = new TestExecutionContext();
+    DefaultExecutionContext local2 = new TestExecutionContext();
+    local1.setExecutionInfo(newExecutionInfo("127.0.0.1"));
+    local2.setExecutionInfo(newExecutionInfo("127.0.0.2"));
+    listener.onWriteRequestStarted(successfulWrite, local1);
+    listener.onWriteRequestSuccessful(successfulWrite, local1);
+    listener.onReadRequestStarted(successfulRead, local2);
+    listener.onReadRequestSuccessful(successfulRead, local2);
+    listener.onRowReceived(row, local2);
+    listener.onRowReceived(row, local2);
+    listener.onRowReceived(row, local2);
+    assertThat(registry.timer("executor/hosts/127.0.0.1:9042/requests").getCount()).isEqualTo(1);
+    assertThat(registry.meter("executor/hosts/127.0.0.1:9042/writes").getCount()).isEqualTo(2);
+    assertThat(registry.meter("executor/hosts/127.0.0.1:9042/reads").getCount()).isEqualTo(0);
+    assertThat(registry.timer("executor/hosts/127.0.0.2:9042/requests").getCount()).isEqualTo(1);
+    assertThat(registry.meter("executor/hosts/127.0.0.2:9042/writes").getCount()).isEqualTo(0);
+    assertThat(registry.meter("executor/hosts/127.0.0.2:9042/reads").getCount()).isEqualTo(3);
+  }
+
+  @Test
+  void should_collect_metrics_per_token_range() {
+    MetricRegistry registry = new MetricRegistry();
+    MetricsCollectingExecutionListener listener =
+        new MetricsCollectingExecutionListener(
+            registry,
+            ProtocolVersion.NEWEST_SUPPORTED,
+            CodecRegistry.DEFAULT_INSTANCE,
+            1,
+            false,
+            true);
+    Statement read1 = new TokenRangeReadStatement(successfulRead, newTokenRange(1, 2), "ks");
+    Statement read2 = new TokenRangeReadStatement(failedRead, newTokenRange(2, 3), "ks");
+    ExecutionContext global = new TestExecutionContext();
+    ExecutionContext local1 = new TestExecutionContext();
+    ExecutionContext local2 = new TestExecutionContext();
+    listener.onReadRequestStarted(read1, local1);
+    listener.onReadRequestSuccessful(read1, local1);
+    listener.onRowReceived(row, local1);
+    listener.onRowReceived(row, local1);
+    listener.onReadRequestStarted(read2, local2);
+    listener.onReadRequestSuccessful(read2, local2);
+    listener.onRowReceived(row, local2);
+    listener.onExecutionSuccessful(read1, global);
+    listener.onExecutionFailed(new BulkExecutionException(new RuntimeException(), read2), global);
+    assertThat(registry.meter("executor/ranges/]1,2]/rows").getCount()).isEqualTo(2);
+    assertThat(registry.meter("executor/ranges/]2,3]/rows").getCount()).isEqualTo(1);
+    assertThat(registry.counter("executor/ranges/completed").getCount()).isEqualTo(1);
+    assertThat(registry.counter("executor/ranges/failed").getCount()).isEqualTo(1);
+  }
+
+  private static ExecutionInfo newExecutionInfo(String address) throws UnknownHostException {
+    Host host = mock(Host.class);
+    when(host.getSocketAddress())
+        .thenReturn(new InetSocketAddress(InetAddress.getByName(address), 9042));
+    ExecutionInfo info = mock(ExecutionInfo.class);
+    when(info.getQueriedHost()).thenReturn(host);
+    return info;
+  }
+
   private static class TestExecutionContext extends DefaultExecutionContext {
     @Override
     public long elapsedTimeNanos() {
@@ -19,6 +19,7 @@ import com.datastax.dsbulk.executor.api.internal.subscription.ReadResultSubscrip
 import com.datastax.dsbulk.executor.api.internal.subscription.WriteResultSubscription;
 import com.datastax.dsbulk.executor.api.result.ReadResult;
 import com.datastax.dsbulk.executor.api.result.WriteResult;
+import com.datastax.dsbulk.executor.reactor.writer.ReplicaAwareWriteScheduler;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
@@ -34,6 +35,8 @@ import reactor.core.publisher.Mono;
 public class DefaultReactorBulkExecutor extends AbstractBulkExecutor
     implements ReactorBulkExecutor {
 
+  private final ReplicaAwareWriteScheduler writeScheduler;
+
   /**
    * Creates a new builder of {@link DefaultReactorBulkExecutor} instances.
    *
@@ -54,10 +57,27 @@ public class DefaultReactorBulkExecutor extends AbstractBulkExecutor
    */
   public DefaultReactorBulkExecutor(Session session) {
     super(session);
+    writeScheduler = null;
   }
 
   DefaultReactorBulkExecutor(AbstractBulkExecutorBuilder builder) {
     super(builder);
+    writeScheduler = null;
+  }
+
+  DefaultReactorBulkExecutor(DefaultReactorBulkExecutorBuilder builder) {
+    super(builder);
+    if (builder.maxInFlightRequestsPerHost > 0) {
+      writeScheduler =
+          new ReplicaAwareWriteScheduler(
+              session.getCluster(),
+              builder.maxInFlightRequests(),
+              builder.maxInFlightRequestsPerHost,
+              builder.maxQueuedStatementsPerHost,
+              statement -> writeReactive(statement));
+    } else {
+      writeScheduler = null;
+    }
   }
 
   @Override
@@ -102,8 +122,7 @@ public class DefaultReactorBulkExecutor extends AbstractBulkExecutor
   public CompletableFuture<Void> writeAsync(
       Publisher<? extends Statement> statements, Consumer<? super WriteResult> consumer) {
     CompletableFuture<Void> future = new CompletableFuture<>();
-    Flux.from(statements)
-        .flatMap(this::writeReactive)
+    writeReactive(statements)
         .doOnNext(consumer::accept)
         .doOnComplete(() -> future.complete(null))
         .doOnError(future::completeExceptionally)
@@ -132,6 +151,9 @@ public class DefaultReactorBulkExecutor extends AbstractBulkExecutor
   @Override
   public Flux<WriteResult> writeReactive(Publisher<? extends Statement> statements)
       throws BulkExecutionException {
+    if (writeScheduler != null) {
+      return writeScheduler.schedule(statements);
+    }
     return Flux.from(statements).flatMap(this::writeReactive);
   }
 
@@ -211,6 +233,13 @@ public class DefaultReactorBulkExecutor extends AbstractBulkExecutor
     return Flux.from(statements).flatMap(this::readReactive);
   }
 
+  @Override
+  public void close() {
+    if (writeScheduler != null) {
+      writeScheduler.close();
+    }
+  }
+
   private class ReadResultPublisher implements Publisher<ReadResult> {
 
     private final Statement statement;
@@ -15,10 +15,48 @@ import com.datastax.dsbulk.executor.api.AbstractBulkExecutorBuilder;
 public class DefaultReactorBulkExecutorBuilder
     extends AbstractBulkExecutorBuilder<DefaultReactorBulkExecutor> {
 
+  int maxInFlightRequestsPerHost = -1;
+  int maxQueuedStatementsPerHost = -1;
+
   DefaultReactorBulkExecutorBuilder(Session session) {
     super(session);
   }
 
+  /**
+   * Switches on replica-aware writes.
+   *
+   * <p>By default, write statements are executed in the order they are emitted, and all of them
+   * compete for the same in-flight requests; one slow replica can thus end up holding all of them.
+   * When replica-aware writes are enabled, statements passed to {@link
+   * DefaultReactorBulkExecutor#writeReactive(org.reactivestreams.Publisher)} are first dispatched
+   * to per-host queues, and each host gets its own in-flight budget. See {@link
+   * com.datastax.dsbulk.executor.reactor.writer.ReplicaAwareWriteScheduler} for details.
+   *
+   * <p>The global maximum number of in-flight requests, if any, still applies: it caps the sum of
+   * all per-host in-flight requests.
+   *
+   * @param maxInFlightRequestsPerHost the maximum number of in-flight requests per host; must be
+   *     strictly positive.
+   * @param maxQueuedStatementsPerHost the maximum number of statements waiting to be executed per
+   *     host; must be strictly positive.
+   * @return this builder (for method chaining).
+   */
+  @SuppressWarnings("UnusedReturnValue")
+  public AbstractBulkExecutorBuilder<DefaultReactorBulkExecutor> withReplicaAwareWrites(
+      int maxInFlightRequestsPerHost, int maxQueuedStatementsPerHost) {
+    if (maxInFlightRequestsPerHost < 1 || maxQueuedStatementsPerHost < 1) {
+      throw new IllegalArgumentException(
+          "Per-host in-flight requests and queued statements must be strictly positive");
+    }
+    this.maxInFlightRequestsPerHost = maxInFlightRequestsPerHost;
+    this.maxQueuedStatementsPerHost = maxQueuedStatementsPerHost;
+    return this;
+  }
+
+  int maxInFlightRequests() {
+    return maxInFlightRequests;
+  }
+
   @Override
   public DefaultReactorBulkExecutor build() {
     return new DefaultReactorBulkExecutor(this);
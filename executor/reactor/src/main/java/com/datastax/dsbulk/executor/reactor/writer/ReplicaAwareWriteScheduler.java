@@ -0,0 +1,424 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.executor.reactor.writer;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.Token;
+import com.datastax.dsbulk.executor.api.result.WriteResult;
+import com.google.common.annotations.VisibleForTesting;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A write scheduler that dispatches statements to per-host queues, so that one slow replica cannot
+ * stall writes to healthy ones.
+ *
+ * <p>Each statement is assigned to the first replica returned by the cluster metadata for its
+ * routing key or routing token – i.e., to its primary replica. Statements whose replicas cannot be
+ * determined share one extra queue.
+ *
+ * <p>Each host has a bounded queue and an in-flight budget; the total number of in-flight requests
+ * across all hosts is moreover capped by a global maximum. Statements are dispatched round-robin
+ * across hosts that have queued statements and available budget.
+ *
+ * <p>When the queue of a host is full, it may borrow the slots left unused by other hosts, so that
+ * a stream of statements targeting several hosts keeps feeding the healthy ones; the total number
+ * of queued statements is bounded by the per-host maximum times the number of hosts in the cluster
+ * (plus one for the extra queue). The stream that produced the last statement for a full host only
+ * stops pulling statements once there are no slots left to borrow, and until the queue of that host
+ * has room again; streams of statements targeting other hosts are not affected.
+ *
+ * <p>Moreover, statements are only pulled when the downstream subscriber has requested the
+ * corresponding results, so that results never pile up when the downstream is slower than the
+ * cluster.
+ *
+ * <p>Statements are dispatched on a dedicated thread, and never on the thread that completes a
+ * write – typically a driver I/O thread –, because starting a write may block when the global
+ * in-flight or rate limits of the executor are reached.
+ *
+ * <p>Queues and budgets are shared by all the streams scheduled with the same instance.
+ */
+public class ReplicaAwareWriteScheduler implements AutoCloseable {
+
+  /** The key of the queue for statements whose replicas cannot be determined. */
+  private static final Object UNKNOWN_HOST = new Object();
+
+  private final Metadata metadata;
+  private final ProtocolVersion protocolVersion;
+  private final CodecRegistry codecRegistry;
+  private final int maxInFlight;
+  private final int maxInFlightPerHost;
+  private final int maxQueuedPerHost;
+  private final int maxQueued;
+  private final Function<? super Statement, ? extends Publisher<WriteResult>> writer;
+  private final Scheduler dispatcher;
+  private final boolean ownsDispatcher;
+
+  private final Map<Object, HostQueue> queues = new HashMap<>();
+  private final Deque<HostQueue> ready = new ArrayDeque<>();
+  private final Deque<StatementSubscriber> waiting = new ArrayDeque<>();
+  private final AtomicInteger wip = new AtomicInteger();
+
+  private int inFlight;
+  private int queued;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param cluster the {@link Cluster} to compute replicas with.
+   * @param maxInFlight the maximum total number of in-flight requests, or a negative value for no
+   *     limit.
+   * @param maxInFlightPerHost the maximum number of in-flight requests per host.
+   * @param maxQueuedPerHost the maximum number of statements waiting to be executed per host.
+   * @param writer the function to execute statements with.
+   */
+  public ReplicaAwareWriteScheduler(
+      Cluster cluster,
+      int maxInFlight,
+      int maxInFlightPerHost,
+      int maxQueuedPerHost,
+      Function<? super Statement, ? extends Publisher<WriteResult>> writer) {
+    this(
+        cluster,
+        maxInFlight,
+        maxInFlightPerHost,
+        maxQueuedPerHost,
+        writer,
+        Schedulers.newSingle("replica-aware-dispatcher", true),
+        true);
+  }
+
+  @VisibleForTesting
+  ReplicaAwareWriteScheduler(
+      Cluster cluster,
+      int maxInFlight,
+      int maxInFlightPerHost,
+      int maxQueuedPerHost,
+      Function<? super Statement, ? extends Publisher<WriteResult>> writer,
+      Scheduler dispatcher,
+      boolean ownsDispatcher) {
+    Objects.requireNonNull(cluster, "cluster cannot be null");
+    Objects.requireNonNull(writer, "writer cannot be null");
+    if (maxInFlight == 0 || maxInFlightPerHost < 1 || maxQueuedPerHost < 1) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid limits: %d in-flight requests, %d in-flight requests per host, "
+                  + "%d queued statements per host",
+              maxInFlight, maxInFlightPerHost, maxQueuedPerHost));
+    }
+    this.metadata = cluster.getMetadata();
+    this.protocolVersion = cluster.getConfiguration().getProtocolOptions().getProtocolVersion();
+    this.codecRegistry = cluster.getConfiguration().getCodecRegistry();
+    this.maxInFlight = maxInFlight < 0 ? Integer.MAX_VALUE : maxInFlight;
+    this.maxInFlightPerHost = maxInFlightPerHost;
+    this.maxQueuedPerHost = maxQueuedPerHost;
+    // one queue per host, plus one for statements whose replicas cannot be determined
+    long queues = metadata.getAllHosts().size() + 1;
+    this.maxQueued = (int) Math.min(Integer.MAX_VALUE, maxQueuedPerHost * queues);
+    this.writer = writer;
+    this.dispatcher = dispatcher;
+    this.ownsDispatcher = ownsDispatcher;
+  }
+
+  /**
+   * Schedules the given statements for execution.
+   *
+   * @param statements the statements to execute.
+   * @return a {@link Flux} of write results, in completion order.
+   */
+  public Flux<WriteResult> schedule(Publisher<? extends Statement> statements) {
+    return Flux.create(
+        sink -> {
+          StatementSubscriber subscriber = new StatementSubscriber(sink);
+          sink.onRequest(n -> subscriber.tryRequestNext());
+          sink.onCancel(subscriber::terminate);
+          statements.subscribe(subscriber);
+        },
+        // statements are only pulled when their results have been requested, so this buffer
+        // never holds more results than the downstream subscriber asked for
+        FluxSink.OverflowStrategy.BUFFER);
+  }
+
+  /**
+   * Returns the number of in-flight requests for the given host.
+   *
+   * @param host the host.
+   * @return the number of in-flight requests for the given host.
+   */
+  public synchronized int getInFlightRequests(Host host) {
+    HostQueue queue = queues.get(host);
+    return queue == null ? 0 : queue.inFlight;
+  }
+
+  /**
+   * Returns the number of statements waiting to be executed for the given host.
+   *
+   * @param host the host.
+   * @return the number of statements waiting to be executed for the given host.
+   */
+  public synchronized int getQueuedStatements(Host host) {
+    HostQueue queue = queues.get(host);
+    return queue == null ? 0 : queue.statements.size();
+  }
+
+  @Override
+  public void close() {
+    if (ownsDispatcher) {
+      dispatcher.dispose();
+    }
+  }
+
+  private Object hostKey(Statement statement) {
+    String keyspace = statement.getKeyspace();
+    if (keyspace != null) {
+      Set<Host> replicas = null;
+      ByteBuffer routingKey = statement.getRoutingKey(protocolVersion, codecRegistry);
+      if (routingKey != null) {
+        replicas = metadata.getReplicas(keyspace, routingKey);
+      } else {
+        Token routingToken = statement.getRoutingToken();
+        if (routingToken != null) {
+          replicas = metadata.getReplicas(keyspace, routingToken);
+        }
+      }
+      if (replicas != null && !replicas.isEmpty()) {
+        return replicas.iterator().next();
+      }
+    }
+    return UNKNOWN_HOST;
+  }
+
+  /** Enqueues the given statement; returns true if its queue has room for more statements. */
+  private synchronized boolean enqueue(Object key, QueuedStatement statement) {
+    HostQueue queue = queues.computeIfAbsent(key, k -> new HostQueue());
+    queue.statements.add(statement);
+    queued++;
+    markReady(queue);
+    if (hasRoom(queue)) {
+      return true;
+    }
+    statement.owner.blockedOn = queue;
+    waiting.add(statement.owner);
+    return false;
+  }
+
+  private boolean hasRoom(HostQueue queue) {
+    // a full queue may borrow the slots left unused by other queues
+    return queue.statements.size() < maxQueuedPerHost || queued < maxQueued;
+  }
+
+  private synchronized void onWriteCompleted(HostQueue queue) {
+    queue.inFlight--;
+    inFlight--;
+    markReady(queue);
+  }
+
+  private void markReady(HostQueue queue) {
+    if (!queue.ready && !queue.statements.isEmpty() && queue.inFlight < maxInFlightPerHost) {
+      queue.ready = true;
+      ready.add(queue);
+    }
+  }
+
+  /**
+   * Schedules a drain of the queues on the dispatcher thread, unless one is already scheduled or in
+   * progress, in which case the latter loops once more.
+   */
+  private void dispatch() {
+    if (wip.getAndIncrement() == 0) {
+      dispatcher.schedule(this::drain);
+    }
+  }
+
+  /** Starts as many queued statements as possible. */
+  private void drain() {
+    int missed = 1;
+    do {
+      List<QueuedStatement> started = new ArrayList<>();
+      List<StatementSubscriber> resumed = new ArrayList<>();
+      synchronized (this) {
+        HostQueue queue;
+        while (inFlight < maxInFlight && (queue = ready.poll()) != null) {
+          QueuedStatement statement = queue.statements.poll();
+          queued--;
+          if (!statement.owner.terminated) {
+            queue.inFlight++;
+            inFlight++;
+            statement.queue = queue;
+            started.add(statement);
+          }
+          queue.ready = false;
+          // re-added at the tail, so that hosts are served round-robin
+          markReady(queue);
+        }
+        Iterator<StatementSubscriber> it = waiting.iterator();
+        while (it.hasNext()) {
+          StatementSubscriber subscriber = it.next();
+          if (subscriber.terminated) {
+            it.remove();
+          } else if (hasRoom(subscriber.blockedOn)) {
+            it.remove();
+            subscriber.blockedOn = null;
+            resumed.add(subscriber);
+          }
+        }
+      }
+      for (QueuedStatement statement : started) {
+        statement.start();
+      }
+      for (StatementSubscriber subscriber : resumed) {
+        subscriber.requestNext();
+      }
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private static class HostQueue {
+
+    private final Deque<QueuedStatement> statements = new ArrayDeque<>();
+    private int inFlight;
+    private boolean ready;
+  }
+
+  private class QueuedStatement {
+
+    private final Statement statement;
+    private final StatementSubscriber owner;
+    private HostQueue queue;
+
+    private QueuedStatement(Statement statement, StatementSubscriber owner) {
+      this.statement = statement;
+      this.owner = owner;
+    }
+
+    private void start() {
+      Flux.from(writer.apply(statement))
+          .subscribe(
+              owner::onResult,
+              error -> {
+                onWriteCompleted(queue);
+                owner.onWriteError(error);
+                dispatch();
+              },
+              () -> {
+                onWriteCompleted(queue);
+                owner.onStatementDone();
+                dispatch();
+              });
+    }
+  }
+
+  private class StatementSubscriber extends BaseSubscriber<Statement> {
+
+    private final FluxSink<WriteResult> sink;
+    private final AtomicInteger pending = new AtomicInteger(1);
+    // statements pulled whose result has not been emitted yet
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicBoolean wantsNext = new AtomicBoolean();
+    private volatile boolean terminated;
+
+    // the full queue this subscriber is waiting on, if any; guarded by the scheduler's lock
+    private HostQueue blockedOn;
+
+    private StatementSubscriber(FluxSink<WriteResult> sink) {
+      this.sink = sink;
+    }
+
+    @Override
+    protected void hookOnSubscribe(Subscription subscription) {
+      requestNext();
+    }
+
+    @Override
+    protected void hookOnNext(Statement statement) {
+      pending.incrementAndGet();
+      outstanding.incrementAndGet();
+      boolean hasRoom = enqueue(hostKey(statement), new QueuedStatement(statement, this));
+      dispatch();
+      if (hasRoom) {
+        requestNext();
+      }
+    }
+
+    @Override
+    protected void hookOnComplete() {
+      onStatementDone();
+    }
+
+    @Override
+    protected void hookOnError(Throwable error) {
+      terminated = true;
+      sink.error(error);
+    }
+
+    /** Signals that the scheduler can accept the next statement. */
+    private void requestNext() {
+      wantsNext.set(true);
+      tryRequestNext();
+    }
+
+    /**
+     * Pulls the next statement if the scheduler can accept it and the downstream subscriber has
+     * requested its result.
+     */
+    private void tryRequestNext() {
+      if (!terminated
+          && outstanding.get() < sink.requestedFromDownstream()
+          && wantsNext.compareAndSet(true, false)) {
+        request(1);
+      }
+    }
+
+    private void onResult(WriteResult result) {
+      if (!terminated) {
+        sink.next(result);
+        outstanding.decrementAndGet();
+      }
+    }
+
+    private void onWriteError(Throwable error) {
+      terminate();
+      sink.error(error);
+    }
+
+    private void onStatementDone() {
+      if (pending.decrementAndGet() == 0 && !terminated) {
+        sink.complete();
+      }
+    }
+
+    private void terminate() {
+      terminated = true;
+      cancel();
+    }
+  }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * This software is subject to the below license agreement.
+ * DataStax may make changes to the agreement from time to time,
+ * and will post the amended terms at
+ * https://www.datastax.com/terms/datastax-dse-bulk-utility-license-terms.
+ */
+package com.datastax.dsbulk.executor.reactor.writer;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.Configuration;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.ProtocolOptions;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.utils.Bytes;
+import com.datastax.dsbulk.executor.api.internal.result.DefaultWriteResult;
+import com.datastax.dsbulk.executor.api.result.WriteResult;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.scheduler.Schedulers;
+
+class ReplicaAwareWriteSchedulerTest {
+
+  private final ByteBuffer key1 = Bytes.fromHexString("0x1234");
+  private final ByteBuffer key2 = Bytes.fromHexString("0x5678");
+
+  private final Host host1 = mock(Host.class);
+  private final Host host2 = mock(Host.class);
+
+  private final List<MonoProcessor<WriteResult>> slowWrites = new CopyOnWriteArrayList<>();
+
+  private Cluster cluster;
+  private Metadata metadata;
+
+  @BeforeEach
+  void setUp() {
+    cluster = mock(Cluster.class);
+    Configuration configuration = mock(Configuration.class);
+    ProtocolOptions protocolOptions = mock(ProtocolOptions.class);
+    metadata = mock(Metadata.class);
+    when(cluster.getConfiguration()).thenReturn(configuration);
+    when(cluster.getMetadata()).thenReturn(metadata);
+    when(configuration.getProtocolOptions()).thenReturn(protocolOptions);
+    when(protocolOptions.getProtocolVersion()).thenReturn(ProtocolVersion.V4);
+    when(configuration.getCodecRegistry()).thenReturn(CodecRegistry.DEFAULT_INSTANCE);
+    when(metadata.getReplicas("ks", key1))
+        .thenReturn(new LinkedHashSet<>(Arrays.asList(host1, host2)));
+    when(metadata.getReplicas("ks", key2))
+        .thenReturn(new LinkedHashSet<>(Arrays.asList(host2, host1)));
+  }
+
+  @Test
+  void should_not_stall_healthy_hosts_when_one_host_is_slow() {
+    ReplicaAwareWriteScheduler scheduler = newScheduler(-1, 1, 10);
+    Statement slow1 = newStatement(key1);
+    Statement slow2 = newStatement(key1);
+    Statement unknown = new SimpleStatement("unknown");
+    List<Statement> statements =
+        Flux.range(0, 5).map(i -> newStatement(key2)).collectList().block();
+    statements.add(0, slow1);
+    statements.add(1, slow2);
+    statements.add(unknown);
+    List<WriteResult> results = new ArrayList<>();
+    AtomicBoolean completed = new AtomicBoolean();
+    scheduler
+        .schedule(Flux.fromIterable(statements))
+        .doOnComplete(() -> completed.set(true))
+        .subscribe(results::add);
+    // all statements for host2 and for unknown replicas were executed
+    assertThat(results).hasSize(6);
+    assertThat(scheduler.getInFlightRequests(host1)).isEqualTo(1);
+    assertThat(scheduler.getQueuedStatements(host1)).isEqualTo(1);
+    assertThat(scheduler.getInFlightRequests(host2)).isZero();
+    assertThat(completed).isFalse();
+    slowWrites.get(0).onNext(new DefaultWriteResult(slow1, null));
+    assertThat(scheduler.getInFlightRequests(host1)).isEqualTo(1);
+    assertThat(scheduler.getQueuedStatements(host1)).isZero();
+    slowWrites.get(1).onNext(new DefaultWriteResult(slow2, null));
+    assertThat(results).hasSize(8);
+    assertThat(scheduler.getInFlightRequests(host1)).isZero();
+    assertThat(completed).isTrue();
+  }
+
+  @Test
+  void should_stop_pulling_statements_when_host_queue_is_full() {
+    // no hosts in metadata: the queue of host1 cannot borrow slots
+    ReplicaAwareWriteScheduler scheduler = newScheduler(-1, 1, 1);
+    Statement slow1 = newStatement(key1);
+    Statement slow2 = newStatement(key1);
+    Statement fast = newStatement(key2);
+    List<WriteResult> results = new ArrayList<>();
+    scheduler.schedule(Flux.just(slow1, slow2, fast)).subscribe(results::add);
+    // slow2 fills the queue of host1: fast is not pulled yet
+    assertThat(scheduler.getQueuedStatements(host1)).isEqualTo(1);
+    assertThat(results).isEmpty();
+    slowWrites.get(0).onNext(new DefaultWriteResult(slow1, null));
+    assertThat(results).hasSize(2);
+    assertThat(results.get(1).getStatement()).isSameAs(fast);
+  }
+
+  @Test
+  void should_borrow_queue_slots_from_other_hosts() {
+    when(metadata.getAllHosts()).thenReturn(new LinkedHashSet<>(Arrays.asList(host1, host2)));
+    // 3 slots in total: 1 per host, plus 1 for unknown replicas
+    ReplicaAwareWriteScheduler scheduler = newScheduler(-1, 1, 1);
+    Statement slow1 = newStatement(key1);
+    Statement fast1 = newStatement(key2);
+    Statement fast2 = newStatement(key2);
+    List<Statement> statements =
+        Arrays.asList(
+            slow1,
+            newStatement(key1),
+            newStatement(key1),
+            fast1,
+            newStatement(key1),
+            fast2,
+            newStatement(key2));
+    List<WriteResult> results = new ArrayList<>();
+    scheduler.schedule(Flux.fromIterable(statements)).subscribe(results::add);
+    // the full queue of host1 did not prevent fast1 from being pulled and executed,
+    // but fast2 is not pulled once all the slots are used
+    assertThat(results).extracting(WriteResult::getStatement).containsExactly(fast1);
+    assertThat(scheduler.getInFlightRequests(host1)).isEqualTo(1);
+    assertThat(scheduler.getQueuedStatements(host1)).isEqualTo(3);
+    slowWrites.get(0).onNext(new DefaultWriteResult(slow1, null));
+    assertThat(results).extracting(WriteResult::getStatement).contains(slow1, fast2);
+    assertThat(scheduler.getQueuedStatements(host1)).isEqualTo(2);
+  }
+
+  @Test
+  void should_cap_total_in_flight_requests() {
+    ReplicaAwareWriteScheduler scheduler = newScheduler(1, 10, 10);
+    Statement slow = newStatement(key1);
+    Statement fast = newStatement(key2);
+    List<WriteResult> results = new ArrayList<>();
+    scheduler.schedule(Flux.just(slow, fast)).subscribe(results::add);
+    // host2 has budget left, but the global budget is exhausted
+    assertThat(results).isEmpty();
+    assertThat(scheduler.getInFlightRequests(host1)).isEqualTo(1);
+    assertThat(scheduler.getQueuedStatements(host2)).isEqualTo(1);
+    slowWrites.get(0).onNext(new DefaultWriteResult(slow, null));
+    assertThat(results).extracting(WriteResult::getStatement).containsExactly(slow, fast);
+  }
+
+  @Test
+  void should_only_pull_statements_whose_results_were_requested() {
+    ReplicaAwareWriteScheduler scheduler = newScheduler(-1, 10, 10);
+    AtomicInteger pulled = new AtomicInteger();
+    List<WriteResult> results = new ArrayList<>();
+    BaseSubscriber<WriteResult> subscriber =
+        new BaseSubscriber<WriteResult>() {
+          @Override
+          protected void hookOnSubscribe(Subscription subscription) {
+            request(1);
+          }
+
+          @Override
+          protected void hookOnNext(WriteResult result) {
+            results.add(result);
+          }
+        };
+    scheduler
+        .schedule(
+            Flux.range(0, 10).map(i -> newStatement(key2)).doOnNext(s -> pulled.incrementAndGet()))
+        .subscribe(subscriber);
+    assertThat(pulled).hasValue(1);
+    assertThat(results).hasSize(1);
+    subscriber.request(3);
+    assertThat(pulled).hasValue(4);
+    assertThat(results).hasSize(4);
+  }
+
+  @Test
+  void should_not_start_writes_on_completing_thread() {
+    List<String> threads = new CopyOnWriteArrayList<>();
+    ReplicaAwareWriteScheduler scheduler =
+        new ReplicaAwareWriteScheduler(
+            cluster,
+            -1,
+            1,
+            10,
+            statement -> {
+              threads.add(Thread.currentThread().getName());
+              return write(statement);
+            });
+    try {
+      Statement slow1 = newStatement(key1);
+      Statement slow2 = newStatement(key1);
+      List<WriteResult> results = new CopyOnWriteArrayList<>();
+      scheduler.schedule(Flux.just(slow1, slow2)).subscribe(results::add);
+      await().atMost(10, SECONDS).until(() -> slowWrites.size() == 1);
+      // completing the first write on this thread starts the second one on the dispatcher thread
+      slowWrites.get(0).onNext(new DefaultWriteResult(slow1, null));
+      await().atMost(10, SECONDS).until(() -> slowWrites.size() == 2);
+      assertThat(threads).hasSize(2).allMatch(name -> name.startsWith("replica-aware-dispatcher"));
+    } finally {
+      scheduler.close();
+    }
+  }
+
+  @Test
+  void should_propagate_write_errors() {
+    ReplicaAwareWriteScheduler scheduler =
+        newScheduler(-1, 1, 1, statement -> Mono.error(new IllegalStateException("boom")));
+    List<Throwable> errors = new ArrayList<>();
+    scheduler
+        .schedule(Flux.just(newStatement(key1), newStatement(key2)))
+        .subscribe(result -> {}, errors::add);
+    assertThat(errors).hasSize(1);
+    assertThat(errors.get(0)).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+  }
+
+  private ReplicaAwareWriteScheduler newScheduler(
+      int maxInFlight, int maxInFlightPerHost, int maxQueuedPerHost) {
+    return newScheduler(maxInFlight, maxInFlightPerHost, maxQueuedPerHost, this::write);
+  }
+
+  private ReplicaAwareWriteScheduler newScheduler(
+      int maxInFlight,
+      int maxInFlightPerHost,
+      int maxQueuedPerHost,
+      Function<? super Statement, ? extends Publisher<WriteResult>> writer) {
+    // dispatch on the calling thread, to make tests deterministic
+    return new ReplicaAwareWriteScheduler(
+        cluster,
+        maxInFlight,
+        maxInFlightPerHost,
+        maxQueuedPerHost,
+        writer,
+        Schedulers.immediate(),
+        false);
+  }
+
+  private synchronized Mono<WriteResult> write(Statement statement) {
+    if (key1.equals(statement.getRoutingKey(ProtocolVersion.V4, CodecRegistry.DEFAULT_INSTANCE))) {
+      MonoProcessor<WriteResult> processor = MonoProcessor.create();
+      slowWrites.add(processor);
+      return processor;
+    }
+    return Mono.just(new DefaultWriteResult(statement, null));
+  }
+
+  private static Statement newStatement(ByteBuffer routingKey) {
+    return new SimpleStatement("irrelevant").setKeyspace("ks").setRoutingKey(routingKey);
+  }
+}